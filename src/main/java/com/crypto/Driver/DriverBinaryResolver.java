@@ -0,0 +1,303 @@
+package com.crypto.Driver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.crypto.constants.Constants;
+import com.crypto.report.ExecutionMetrics;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+/**
+ * Resolves driver binaries once per JVM. Resolved drivers are recorded in a
+ * manifest ({@code state/drivers/manifest.properties}) by browser major version
+ * with their SHA-256, so later runs reuse the driver matching the installed
+ * browser without asking WebDriverManager, and offline runs work from a
+ * pre-populated cache directory. The manifest is updated under a file lock,
+ * taken by one thread of the JVM at a time, which makes concurrent first use
+ * safe across threads and forked JVMs.
+ */
+public class DriverBinaryResolver {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DriverBinaryResolver.class);
+
+    private static final Path MANIFEST = Paths.get(Constants.DRIVER_CACHE_DIR, "manifest.properties");
+    private static final Path LOCK_FILE = Paths.get(Constants.DRIVER_CACHE_DIR, "manifest.lock");
+    private static final Map<String, CompletableFuture<String>> RESOLVED = new ConcurrentHashMap<>();
+    // FileChannel.lock() is held per JVM, threads of the same JVM must not overlap
+    private static final Map<Path, ReentrantLock> FILE_LOCKS = new ConcurrentHashMap<>();
+    private static final Pattern VERSION = Pattern.compile("(\\d+)\\.\\d+[\\d.]*");
+
+    private DriverBinaryResolver() {
+    }
+
+    /**
+     * Resolves the driver binary of the browser and exports its path through the
+     * matching {@code webdriver.*.driver} system property
+     *
+     * @param browserType chrome or firefox
+     * @return Path of the driver binary
+     */
+    public static String resolve(String browserType) {
+        String property = driverProperty(browserType);
+        if (property == null) {
+            return null;
+        }
+
+        long start = System.nanoTime();
+        try {
+            String path = awaitResolution(browserType);
+            System.setProperty(property, path);
+            return path;
+        } finally {
+            ExecutionMetrics.recordSince("driver.resolve", start);
+        }
+    }
+
+    /*
+     * The first caller resolves outside the map, the others wait for its
+     * result. A failed resolution is forgotten so a later call can retry.
+     */
+    private static String awaitResolution(String browserType) {
+        CompletableFuture<String> future = RESOLVED.get(browserType);
+        if (future == null) {
+            CompletableFuture<String> created = new CompletableFuture<>();
+            future = RESOLVED.putIfAbsent(browserType, created);
+            if (future == null) {
+                future = created;
+                try {
+                    created.complete(resolveOnce(browserType));
+                } catch (RuntimeException e) {
+                    RESOLVED.remove(browserType, created);
+                    created.completeExceptionally(e);
+                }
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private static String resolveOnce(String browserType) {
+        long start = System.nanoTime();
+        ReentrantLock jvmLock = FILE_LOCKS.computeIfAbsent(LOCK_FILE.toAbsolutePath().normalize(),
+                path -> new ReentrantLock());
+        jvmLock.lock();
+        try {
+            Files.createDirectories(MANIFEST.getParent());
+            try (FileChannel channel = FileChannel.open(LOCK_FILE, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE);
+                    FileLock lock = channel.lock()) {
+                Properties manifest = loadManifest();
+                String browserMajor = browserMajorVersion(browserType);
+                String cached = findCached(manifest, browserType, browserMajor);
+                if (cached != null) {
+                    ExecutionMetrics.increment("driver.resolve.cached");
+                    LOGGER.info("Using cached {} driver: {}", browserType, cached);
+                    return cached;
+                }
+
+                if (Constants.DRIVER_OFFLINE) {
+                    throw new IllegalStateException(String.format(
+                            "Offline mode: no verified %s driver for browser version %s in %s. "
+                                    + "Populate the cache with an online run first.",
+                            browserType, browserMajor, MANIFEST));
+                }
+                String downloaded = download(browserType, browserMajor, manifest);
+                ExecutionMetrics.increment("driver.resolve.downloaded");
+                return downloaded;
+            }
+        } catch (IOException e) {
+            String errorMsg = "Failed to resolve " + browserType + " driver";
+            LOGGER.error(errorMsg, e);
+            throw new UncheckedIOException(errorMsg, e);
+        } finally {
+            jvmLock.unlock();
+            ExecutionMetrics.recordSince("driver.resolve.first[" + browserType + "]", start);
+        }
+    }
+
+    /**
+     * @return Major version of the configured browser version, else of the
+     *         installed browser, or null if it cannot be detected
+     */
+    private static String browserMajorVersion(String browserType) {
+        if (Constants.DRIVER_BROWSER_VERSION != null) {
+            return majorVersion(Constants.DRIVER_BROWSER_VERSION);
+        }
+        WebDriverManager wdm = Constants.CONFIG_KEY_FIREFOX.equals(browserType) ? WebDriverManager.firefoxdriver()
+                : WebDriverManager.chromedriver();
+        Optional<Path> browserPath = wdm.getBrowserPath();
+        if (browserPath.isEmpty()) {
+            LOGGER.warn("No installed {} browser found", browserType);
+            return null;
+        }
+        try {
+            Process process = new ProcessBuilder(browserPath.get().toString(), "--version")
+                    .redirectErrorStream(true)
+                    .start();
+            String output;
+            try (InputStream in = process.getInputStream()) {
+                output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            process.waitFor(10, TimeUnit.SECONDS);
+            String major = majorVersion(output);
+            LOGGER.info("Detected {} browser version {} at {}", browserType, major, browserPath.get());
+            return major;
+        } catch (IOException e) {
+            LOGGER.warn("Unable to detect the {} browser version: {}", browserType, e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static String majorVersion(String version) {
+        Matcher matcher = VERSION.matcher(version == null ? "" : version);
+        if (matcher.find()) {
+            return matcher.group(1);
+        }
+        return version == null || version.isBlank() ? null : version.trim();
+    }
+
+    /*
+     * Returns the manifest entry for the browser major version if its binary
+     * still exists, matches its checksum and, when online, is younger than the
+     * max age. When the browser version cannot be detected, the most recently
+     * resolved driver is the best guess.
+     */
+    private static String findCached(Properties manifest, String browserType, String browserMajor)
+            throws IOException {
+        String browserVersion = browserMajor;
+        if (browserVersion == null) {
+            browserVersion = manifest.getProperty(browserType + ".latest");
+            if (browserVersion == null) {
+                return null;
+            }
+            LOGGER.warn("{} browser version unknown, trying the last resolved driver (browser {})", browserType,
+                    browserVersion);
+        }
+
+        String key = browserType + "." + browserVersion;
+        String path = manifest.getProperty(key + ".path");
+        String checksum = manifest.getProperty(key + ".sha256");
+        if (path == null || checksum == null || !Files.isRegularFile(Paths.get(path))) {
+            return null;
+        }
+        if (!checksum.equals(sha256(Paths.get(path)))) {
+            LOGGER.warn("Checksum mismatch for cached {} driver {}, ignoring it", browserType, path);
+            return null;
+        }
+
+        long resolvedAt = Long.parseLong(manifest.getProperty(key + ".resolvedAt", "0"));
+        long maxAge = TimeUnit.HOURS.toMillis(Constants.DRIVER_MAX_AGE_HOURS);
+        if (!Constants.DRIVER_OFFLINE && System.currentTimeMillis() - resolvedAt > maxAge) {
+            LOGGER.info("Cached {} driver is older than {} hours, checking for updates", browserType,
+                    Constants.DRIVER_MAX_AGE_HOURS);
+            return null;
+        }
+        return path;
+    }
+
+    private static String download(String browserType, String browserMajor, Properties manifest)
+            throws IOException {
+        WebDriverManager wdm = Constants.CONFIG_KEY_FIREFOX.equals(browserType) ? WebDriverManager.firefoxdriver()
+                : WebDriverManager.chromedriver();
+        wdm.cachePath(Constants.DRIVER_CACHE_DIR).avoidExport();
+        if (browserMajor != null) {
+            wdm.browserVersion(browserMajor);
+        }
+        wdm.setup();
+
+        String path = wdm.getDownloadedDriverPath();
+        String browserVersion = browserMajor != null ? browserMajor : majorVersion(wdm.getResolvedBrowserVersion());
+        if (browserVersion == null) {
+            browserVersion = "unknown";
+        }
+
+        String key = browserType + "." + browserVersion;
+        manifest.setProperty(key + ".path", path);
+        manifest.setProperty(key + ".sha256", sha256(Paths.get(path)));
+        manifest.setProperty(key + ".driverVersion", String.valueOf(wdm.getDownloadedDriverVersion()));
+        manifest.setProperty(key + ".resolvedAt", String.valueOf(System.currentTimeMillis()));
+        manifest.setProperty(browserType + ".latest", browserVersion);
+        storeManifest(manifest);
+
+        LOGGER.info("Resolved {} driver {} for browser {}: {}", browserType, wdm.getDownloadedDriverVersion(),
+                browserVersion, path);
+        return path;
+    }
+
+    private static Properties loadManifest() throws IOException {
+        Properties manifest = new Properties();
+        if (Files.exists(MANIFEST)) {
+            try (InputStream in = Files.newInputStream(MANIFEST)) {
+                manifest.load(in);
+            }
+        }
+        return manifest;
+    }
+
+    private static void storeManifest(Properties manifest) throws IOException {
+        Path tmp = Files.createTempFile(MANIFEST.getParent(), "manifest", ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            manifest.store(out, "Resolved driver binaries: <browser>.<browserMajorVersion>.{path,sha256,...}");
+        }
+        Files.move(tmp, MANIFEST, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String sha256(Path file) throws IOException {
+        try (DigestInputStream in = new DigestInputStream(Files.newInputStream(file),
+                MessageDigest.getInstance("SHA-256"))) {
+            byte[] buffer = new byte[8192];
+            while (in.read(buffer) != -1) {
+                // digest is updated while reading
+            }
+            return HexFormat.of().formatHex(in.getMessageDigest().digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String driverProperty(String browserType) {
+        switch (browserType) {
+            case Constants.CONFIG_KEY_CHROME:
+                return "webdriver.chrome.driver";
+            case Constants.CONFIG_KEY_FIREFOX:
+                return "webdriver.gecko.driver";
+            default:
+                // safaridriver ships with macOS
+                return null;
+        }
+    }
+}
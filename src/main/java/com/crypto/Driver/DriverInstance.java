@@ -2,66 +2,108 @@ package com.crypto.Driver;
 
 import java.time.Duration;
 
+import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
-import org.openqa.selenium.remote.DesiredCapabilities;
 import org.openqa.selenium.safari.SafariDriver;
 import org.openqa.selenium.safari.SafariOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.crypto.constants.Constants;
+import com.crypto.report.ExecutionMetrics;
+import com.crypto.utils.PageRegistry;
+import com.crypto.utils.devtools.DevToolsSessions;
+import com.crypto.utils.devtools.NetworkTracker;
+import com.crypto.utils.devtools.ScreencastRecorder;
+import com.crypto.utils.locators.FrameContext;
+import com.crypto.utils.locators.LocatorContext;
 
 import io.github.bonigarcia.wdm.WebDriverManager;
 
 public class DriverInstance {
 
-    private Logger LOGGER = LoggerFactory.getLogger(DriverInstance.class);
-    private static int threadCount = 0;
+    private static final Logger LOGGER = LoggerFactory.getLogger(DriverInstance.class);
 
+    /**
+     * Creates a WebDriver according to the configured driver type:
+     * web-driver-manager (WebDriverManager downloads the driver binary),
+     * driver-local (Selenium Manager resolves the binary) or remote-web-driver
+     * (session on a Selenium Grid / standalone endpoint, see
+     * {@link RemoteSessionScheduler}).
+     */
     public static WebDriver createDriver() {
-        WebDriver driver = null;
-
-        DesiredCapabilities capabilities = new DesiredCapabilities();
-
-        if (Constants.DRIVER_TYPE.equals(Constants.CONFIG_KEY_WEB_DRIVER_MANAGER)) {
-            driver = getWebDriverManager(Constants.BROWSER);
-        } else if (Constants.DRIVER_TYPE.equals(Constants.CONFIG_KEY_REMOTE_WEB_DRIVER)) {
-
-        } else if (Constants.DRIVER_TYPE.equals(Constants.CONFIG_KEY_DRIVER_LOCAL)) {
-
+        long start = System.nanoTime();
+        WebDriver driver;
+        String browserType = Constants.BROWSER == null ? Constants.CONFIG_KEY_CHROME : Constants.BROWSER;
+
+        if (Constants.CONFIG_KEY_REMOTE_WEB_DRIVER.equals(Constants.DRIVER_TYPE)) {
+            driver = RemoteSessionScheduler.getInstance().createSession(buildOptions(browserType));
+        } else {
+            if (Constants.CONFIG_KEY_WEB_DRIVER_MANAGER.equals(Constants.DRIVER_TYPE)) {
+                setupWebDriverManager(browserType);
+            } else if (!Constants.CONFIG_KEY_DRIVER_LOCAL.equals(Constants.DRIVER_TYPE)) {
+                LOGGER.warn("Unknown driver type '{}', using a local driver", Constants.DRIVER_TYPE);
+            }
+            driver = createLocalDriver(browserType);
         }
 
-        capabilities.setBrowserName(Constants.BROWSER);
-        capabilities.setPlatform(Constants.PLATFORM);
-        capabilities.setCapability("headless", Constants.HEADLESS);
-        capabilities.setCapability("windowMaximize", Constants.WINDOW_MAXIMIZE);
-        capabilities.setCapability("implicitWait", Constants.IMPLICIT_WAIT);
-        capabilities.setCapability("pageLoadTimeout", Constants.PAGE_LOAD_TIMEOUT);
-        capabilities.setCapability("scriptTimeout", Constants.SCRIPT_TIMEOUT);
-        capabilities.setCapability("incognito", Constants.INCOGNITO);
-
+        applyTimeouts(driver);
+        if (Constants.WINDOW_MAXIMIZE && Constants.CONFIG_KEY_SAFARI.equals(browserType)) {
+            driver.manage().window().maximize();
+        }
+        ExecutionMetrics.recordSince("driver.create[" + Constants.DRIVER_TYPE
+                + (Constants.DRIVER_RESOLVER_ENABLED ? "" : ",noResolver") + "]", start);
         return driver;
     }
 
-    private static WebDriver getWebDriverManager(String browserType) {
+    /**
+     * Quits a driver created by {@link #createDriver()}, dropping the state kept
+     * per driver and releasing its remote slot if it runs on a remote endpoint
+     *
+     * @param driver Driver to quit
+     */
+    public static void quit(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        LocatorContext.remove(driver);
+        FrameContext.remove(driver);
+        PageRegistry.remove(driver);
+        NetworkTracker.remove(driver);
+        ScreencastRecorder.remove(driver);
+        DevToolsSessions.close(driver);
+        try {
+            driver.quit();
+        } finally {
+            if (Constants.CONFIG_KEY_REMOTE_WEB_DRIVER.equals(Constants.DRIVER_TYPE)) {
+                RemoteSessionScheduler.getInstance().release(driver);
+            }
+        }
+    }
+
+    /**
+     * Builds the browser options from the [browser] configuration
+     *
+     * @param browserType chrome, firefox or safari
+     * @return Browser specific options
+     */
+    public static Capabilities buildOptions(String browserType) {
         switch (browserType) {
-            case Constants.CONFIG_KEY_CHROME:
-                return createChromeWebDriverManager();
             case Constants.CONFIG_KEY_FIREFOX:
-                return createFirefoxWebDriverManager();
+                return buildFirefoxOptions();
             case Constants.CONFIG_KEY_SAFARI:
-                return createSafariWebDriverManager();
+                return new SafariOptions();
+            case Constants.CONFIG_KEY_CHROME:
+            default:
+                return buildChromeOptions();
         }
-        return createChromeWebDriverManager();
     }
 
-    private static WebDriver createChromeWebDriverManager() {
-        WebDriver driver;
-        WebDriverManager.chromedriver().setup();
+    private static ChromeOptions buildChromeOptions() {
         ChromeOptions chromeOptions = new ChromeOptions();
         if (Constants.WINDOW_MAXIMIZE)
             chromeOptions.addArguments("--start-maximized");
@@ -69,14 +111,10 @@ public class DriverInstance {
             chromeOptions.addArguments("--incognito");
         if (Constants.HEADLESS)
             chromeOptions.addArguments("--headless=new");
-        driver = new ChromeDriver(chromeOptions);
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(Constants.IMPLICIT_WAIT));
-        return driver;
+        return chromeOptions;
     }
 
-    private static WebDriver createFirefoxWebDriverManager() {
-        WebDriver driver;
-        WebDriverManager.firefoxdriver().setup();
+    private static FirefoxOptions buildFirefoxOptions() {
         FirefoxOptions firefoxOptions = new FirefoxOptions();
         if (Constants.WINDOW_MAXIMIZE)
             firefoxOptions.addArguments("--start-maximized");
@@ -84,27 +122,45 @@ public class DriverInstance {
             firefoxOptions.addArguments("-private");
         if (Constants.HEADLESS)
             firefoxOptions.addArguments("-headless");
-        driver = new FirefoxDriver(firefoxOptions);
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(Constants.IMPLICIT_WAIT));
-        return driver;
+        return firefoxOptions;
     }
 
-    private static WebDriver createSafariWebDriverManager() {
-        WebDriver driver;
-        // WebDriverManager.chromedriver().setup();
-        SafariOptions safariOptions = new SafariOptions();
+    private static WebDriver createLocalDriver(String browserType) {
+        Capabilities options = buildOptions(browserType);
+        if (options instanceof FirefoxOptions) {
+            return new FirefoxDriver((FirefoxOptions) options);
+        } else if (options instanceof SafariOptions) {
+            return new SafariDriver((SafariOptions) options);
+        }
+        return new ChromeDriver((ChromeOptions) options);
+    }
 
-        driver = new SafariDriver(safariOptions);
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(Constants.IMPLICIT_WAIT));
+    private static void setupWebDriverManager(String browserType) {
+        if (Constants.DRIVER_RESOLVER_ENABLED) {
+            DriverBinaryResolver.resolve(browserType);
+            return;
+        }
+
+        long start = System.nanoTime();
+        switch (browserType) {
+            case Constants.CONFIG_KEY_FIREFOX:
+                WebDriverManager.firefoxdriver().setup();
+                break;
+            case Constants.CONFIG_KEY_SAFARI:
+                // safaridriver ships with macOS
+                break;
+            case Constants.CONFIG_KEY_CHROME:
+            default:
+                WebDriverManager.chromedriver().setup();
+                break;
+        }
+        ExecutionMetrics.recordSince("driver.resolve", start);
+    }
 
+    private static void applyTimeouts(WebDriver driver) {
         driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(Constants.IMPLICIT_WAIT));
         driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(Constants.PAGE_LOAD_TIMEOUT));
         driver.manage().timeouts().scriptTimeout(Duration.ofSeconds(Constants.SCRIPT_TIMEOUT));
-
-        if (Constants.WINDOW_MAXIMIZE) {
-            driver.manage().window().maximize();
-        }
-        return driver;
     }
 
 }
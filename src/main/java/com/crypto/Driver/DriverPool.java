@@ -0,0 +1,429 @@
+package com.crypto.Driver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.crypto.constants.Constants;
+import com.crypto.report.ExecutionMetrics;
+import com.crypto.utils.locators.FrameContext;
+import com.crypto.utils.locators.LocatorContext;
+
+/**
+ * Bounded, thread-safe pool of pre-launched WebDriver sessions.
+ * Sessions are leased to test threads and reset (instead of quit) when
+ * returned, and are recycled after a configurable number of leases or when
+ * the reset/health check fails. Idle sessions are probed before they are
+ * leased, so a browser that died while idle is replaced instead of handed out.
+ */
+public class DriverPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DriverPool.class);
+    private static volatile DriverPool instance;
+
+    private final int maxSize;
+    private final int maxLeases;
+    private final int leaseTimeoutSeconds;
+    private final int probeTimeoutMillis;
+
+    private final LinkedBlockingDeque<PooledSession> idle = new LinkedBlockingDeque<>();
+    private final Map<WebDriver, PooledSession> leased = new ConcurrentHashMap<>();
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    private final ExecutorService launcher;
+    private final ExecutorService prober;
+    private final AtomicInteger bootRemaining = new AtomicInteger();
+    private volatile long bootStart;
+    private volatile boolean closed;
+
+    private DriverPool(int maxSize, int maxLeases, int leaseTimeoutSeconds, int launchConcurrency,
+            int probeTimeoutMillis) {
+        this.maxSize = Math.max(1, maxSize);
+        this.maxLeases = Math.max(1, maxLeases);
+        this.leaseTimeoutSeconds = leaseTimeoutSeconds;
+        this.probeTimeoutMillis = probeTimeoutMillis;
+
+        // Launching many browsers at once thrashes the CPU and slows every launch down
+        int launchers = launchConcurrency > 0 ? launchConcurrency
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger launcherCount = new AtomicInteger();
+        this.launcher = Executors.newFixedThreadPool(Math.min(this.maxSize, launchers), runnable -> {
+            Thread thread = new Thread(runnable, "driver-pool-launcher-" + launcherCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Probes and quits of dead sessions, which can hang until the HTTP client times out
+        AtomicInteger proberCount = new AtomicInteger();
+        this.prober = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "driver-pool-prober-" + proberCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static DriverPool getInstance() {
+        if (instance == null) {
+            synchronized (DriverPool.class) {
+                if (instance == null) {
+                    instance = new DriverPool(Constants.POOL_SIZE, Constants.POOL_MAX_LEASES,
+                            Constants.POOL_LEASE_TIMEOUT, Constants.POOL_LAUNCH_CONCURRENCY,
+                            Constants.POOL_PROBE_TIMEOUT_MS);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Launches up to {@code count} browsers in the background, at most
+     * {@code [pool] launch_concurrency} at a time, so they are ready before the
+     * first tests ask for them. Sessions are handed to waiting test threads as
+     * soon as each one is ready. The total boot time is recorded as
+     * {@code pool.boot}.
+     *
+     * @param count Number of sessions to pre-launch
+     */
+    public void warmUp(int count) {
+        int target = 0;
+        while (target < Math.min(count, maxSize) && reserveSlot()) {
+            target++;
+        }
+        if (target == 0) {
+            return;
+        }
+
+        LOGGER.info("Pre-launching {} WebDriver session(s) in the background", target);
+        bootStart = System.nanoTime();
+        bootRemaining.set(target);
+        for (int i = 0; i < target; i++) {
+            launchAsync(true);
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Leases a session to the calling thread. Reuses an idle session that
+     * answers a probe when one is available, otherwise launches a new one if the
+     * pool is below capacity, or waits for a session to be returned.
+     *
+     * @return Leased WebDriver instance
+     */
+    public WebDriver lease() {
+        if (closed) {
+            throw new IllegalStateException("Driver pool is shut down");
+        }
+
+        long start = System.nanoTime();
+        PooledSession session = pollHealthy();
+        if (session != null) {
+            ExecutionMetrics.increment("pool.hit");
+        } else {
+            ExecutionMetrics.increment("pool.miss");
+            if (reserveSlot()) {
+                session = launch();
+                if (session == null) {
+                    throw new RuntimeException("Failed to launch WebDriver session for the pool");
+                }
+            } else {
+                session = awaitSession();
+            }
+        }
+
+        session.leases++;
+        leased.put(session.driver, session);
+        ExecutionMetrics.recordSince("pool.leaseWait", start);
+        LOGGER.info("Leased pooled WebDriver (lease {}/{}) to thread: {}", session.leases, maxLeases,
+                Thread.currentThread().getId());
+        return session.driver;
+    }
+
+    /*
+     * Waits for a session being launched or returned by another thread. If a
+     * launch fails meanwhile its slot is freed, and this thread launches a
+     * session itself instead of waiting for the whole lease timeout.
+     */
+    private PooledSession awaitSession() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(leaseTimeoutSeconds);
+        try {
+            while (System.nanoTime() < deadline) {
+                PooledSession session = idle.pollFirst(1, TimeUnit.SECONDS);
+                if (session != null) {
+                    if (isAlive(session)) {
+                        return session;
+                    }
+                    replaceDead(session);
+                    continue;
+                }
+                if (closed) {
+                    throw new IllegalStateException("Driver pool is shut down");
+                }
+                if (reserveSlot()) {
+                    session = launch();
+                    if (session != null) {
+                        return session;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a pooled WebDriver", e);
+        }
+        throw new RuntimeException(String.format(
+                "Timed out after %d seconds waiting for a pooled WebDriver", leaseTimeoutSeconds));
+    }
+
+    /*
+     * Takes idle sessions until one answers the probe, replacing the dead ones
+     */
+    private PooledSession pollHealthy() {
+        PooledSession session;
+        while ((session = idle.pollFirst()) != null) {
+            if (isAlive(session)) {
+                return session;
+            }
+            replaceDead(session);
+        }
+        return null;
+    }
+
+    /*
+     * Asks for the window handle, bounded by [pool] probe_timeout_ms. A browser
+     * that crashed or was closed while idle fails or does not answer in time.
+     */
+    private boolean isAlive(PooledSession session) {
+        long start = System.nanoTime();
+        Future<String> probe = prober.submit(session.driver::getWindowHandle);
+        try {
+            probe.get(probeTimeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (ExecutionException | TimeoutException e) {
+            probe.cancel(true);
+            LOGGER.warn("Idle pooled WebDriver did not answer its probe, replacing it: {}",
+                    e instanceof TimeoutException ? "no answer in " + probeTimeoutMillis + " ms"
+                            : e.getCause().getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            probe.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while probing a pooled WebDriver", e);
+        } finally {
+            ExecutionMetrics.recordSince("pool.probe", start);
+        }
+    }
+
+    private void replaceDead(PooledSession session) {
+        ExecutionMetrics.increment("pool.recycle.dead");
+        sessionCount.decrementAndGet();
+        try {
+            prober.submit(() -> quietQuit(session.driver));
+        } catch (RejectedExecutionException e) {
+            quietQuit(session.driver);
+        }
+        if (!closed && reserveSlot()) {
+            launchAsync(false);
+        }
+    }
+
+    /**
+     * Returns a session to the pool. The session is reset and made available to
+     * other threads, or recycled when it reached its lease limit or is unhealthy.
+     *
+     * @param driver WebDriver previously obtained from {@link #lease()}
+     */
+    public void release(WebDriver driver) {
+        PooledSession session = leased.remove(driver);
+        if (session == null) {
+            LOGGER.warn("WebDriver was not leased from the pool, quitting it");
+            quietQuit(driver);
+            return;
+        }
+
+        if (closed) {
+            discard(session);
+            return;
+        }
+
+        if (session.leases >= maxLeases) {
+            LOGGER.info("Recycling pooled WebDriver after {} leases", session.leases);
+            ExecutionMetrics.increment("pool.recycle.leaseLimit");
+            recycle(session);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            reset(driver);
+            ExecutionMetrics.recordSince("pool.reset", start);
+            idle.offerLast(session);
+        } catch (Exception e) {
+            LOGGER.warn("Pooled WebDriver failed health check, recycling it: {}", e.getMessage());
+            ExecutionMetrics.increment("pool.recycle.unhealthy");
+            recycle(session);
+        }
+    }
+
+    /**
+     * Quits every idle and leased session and stops launching new ones
+     */
+    public void shutdown() {
+        closed = true;
+        prober.shutdown();
+        launcher.shutdown();
+        try {
+            if (!launcher.awaitTermination(Constants.PAGE_LOAD_TIMEOUT, TimeUnit.SECONDS)) {
+                launcher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            launcher.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        List<PooledSession> sessions = new ArrayList<>();
+        idle.drainTo(sessions);
+        sessions.addAll(leased.values());
+        leased.clear();
+        sessions.forEach(this::discard);
+        LOGGER.info("Driver pool shut down, {} session(s) quit", sessions.size());
+    }
+
+    public boolean isPooled(WebDriver driver) {
+        return leased.containsKey(driver);
+    }
+
+    private boolean reserveSlot() {
+        while (true) {
+            int current = sessionCount.get();
+            if (current >= maxSize) {
+                return false;
+            }
+            if (sessionCount.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void launchAsync(boolean boot) {
+        launcher.submit(() -> {
+            try {
+                PooledSession session = launch();
+                if (session == null) {
+                    return;
+                }
+                if (closed) {
+                    discard(session);
+                } else {
+                    idle.offerLast(session);
+                }
+            } finally {
+                if (boot && bootRemaining.decrementAndGet() == 0) {
+                    long elapsed = ExecutionMetrics.recordSince("pool.boot", bootStart);
+                    LOGGER.info("Browser bootstrap finished in {} ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+                }
+            }
+        });
+    }
+
+    private PooledSession launch() {
+        long start = System.nanoTime();
+        try {
+            WebDriver driver = DriverInstance.createDriver();
+            if (driver == null) {
+                sessionCount.decrementAndGet();
+                LOGGER.error("DriverInstance returned null while launching pooled session");
+                return null;
+            }
+            long elapsed = ExecutionMetrics.recordSince("pool.launch", start);
+            LOGGER.info("Launched pooled WebDriver in {} ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+            return new PooledSession(driver);
+        } catch (Exception e) {
+            sessionCount.decrementAndGet();
+            LOGGER.error("Failed to launch pooled WebDriver: ", e);
+            return null;
+        }
+    }
+
+    private void recycle(PooledSession session) {
+        discard(session);
+        if (!closed && reserveSlot()) {
+            launchAsync(false);
+        }
+    }
+
+    private void discard(PooledSession session) {
+        sessionCount.decrementAndGet();
+        quietQuit(session.driver);
+    }
+
+    private void quietQuit(WebDriver driver) {
+        try {
+            DriverInstance.quit(driver);
+        } catch (Exception e) {
+            LOGGER.debug("Error quitting pooled WebDriver", e);
+        }
+    }
+
+    /**
+     * Restores a session to a clean state: single tab, top-level browsing
+     * context, no cookies or web storage, blank page.
+     */
+    private void reset(WebDriver driver) {
+        Set<String> handles = driver.getWindowHandles();
+        String keep = handles.iterator().next();
+        if (handles.size() > 1) {
+            for (String handle : handles) {
+                if (!handle.equals(keep)) {
+                    driver.switchTo().window(handle);
+                    driver.close();
+                }
+            }
+        }
+        driver.switchTo().window(keep);
+        driver.switchTo().defaultContent();
+
+        try {
+            ((JavascriptExecutor) driver)
+                    .executeScript("window.localStorage.clear(); window.sessionStorage.clear();");
+        } catch (WebDriverException e) {
+            LOGGER.debug("Web storage not accessible on current page: {}", e.getMessage());
+        }
+
+        // deleteAllCookies only covers the current domain, chromium can drop all of them
+        if (driver instanceof ChromiumDriver) {
+            ((ChromiumDriver) driver).executeCdpCommand("Network.clearBrowserCookies", Map.of());
+        } else {
+            driver.manage().deleteAllCookies();
+        }
+        driver.get("about:blank");
+        LocatorContext.invalidate(driver);
+        FrameContext.reset(driver);
+    }
+
+    private static final class PooledSession {
+        private final WebDriver driver;
+        private int leases;
+
+        private PooledSession(WebDriver driver) {
+            this.driver = driver;
+        }
+    }
+}
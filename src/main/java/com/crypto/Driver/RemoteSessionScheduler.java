@@ -0,0 +1,334 @@
+package com.crypto.Driver;
+
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.crypto.constants.Constants;
+import com.crypto.report.ExecutionMetrics;
+
+/**
+ * Creates RemoteWebDriver sessions on one or more Selenium Grid / standalone
+ * endpoints. Free slots are read from each endpoint's {@code /status}; when no
+ * slot is free, requests wait in FIFO order (instead of failing) until a slot
+ * frees up or the queue timeout expires. Among endpoints with a free slot the
+ * least utilised one is picked. Statuses are read without holding the
+ * scheduler lock, so a slow endpoint only delays the request at the head of
+ * the queue.
+ */
+public class RemoteSessionScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RemoteSessionScheduler.class);
+    private static volatile RemoteSessionScheduler instance;
+
+    private final List<Endpoint> endpoints;
+    private final HttpClient httpClient;
+    private final Json json = new Json();
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final Condition slotFreed = lock.newCondition();
+    private final Deque<Object> waiters = new ArrayDeque<>();
+    private final Map<WebDriver, Endpoint> sessions = new ConcurrentHashMap<>();
+
+    private RemoteSessionScheduler(List<URL> urls) {
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("No remote endpoints configured in [remote] endpoints");
+        }
+        List<Endpoint> list = new ArrayList<>();
+        for (URL url : urls) {
+            list.add(new Endpoint(url));
+        }
+        this.endpoints = Collections.unmodifiableList(list);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static RemoteSessionScheduler getInstance() {
+        RemoteSessionScheduler current = instance;
+        if (current == null) {
+            synchronized (RemoteSessionScheduler.class) {
+                current = instance;
+                if (current == null) {
+                    current = new RemoteSessionScheduler(Constants.REMOTE_ENDPOINTS);
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Waits for a free slot and creates a session on the least utilised endpoint
+     *
+     * @param capabilities Browser options of the session
+     * @return New RemoteWebDriver session
+     */
+    public WebDriver createSession(Capabilities capabilities) {
+        long queued = System.nanoTime();
+        Endpoint endpoint = reserve(capabilities.getBrowserName(),
+                TimeUnit.SECONDS.toNanos(Constants.REMOTE_QUEUE_TIMEOUT));
+        ExecutionMetrics.recordSince("remote.queue.wait[" + endpoint.name + "]", queued);
+
+        long start = System.nanoTime();
+        try {
+            RemoteWebDriver driver = new RemoteWebDriver(endpoint.url, capabilities);
+            sessions.put(driver, endpoint);
+            LOGGER.info("Remote session {} created on {}", driver.getSessionId(), endpoint.name);
+            return driver;
+        } catch (RuntimeException e) {
+            ExecutionMetrics.increment("remote.session.failed[" + endpoint.name + "]");
+            LOGGER.error("Failed to create remote session on {}", endpoint.name, e);
+            throw e;
+        } finally {
+            // Created or failed, the session is now either visible in /status or gone
+            settleClaim(endpoint);
+            ExecutionMetrics.recordSince("remote.session.create[" + endpoint.name + "]", start);
+        }
+    }
+
+    /**
+     * Frees the slot held by a driver created by this scheduler. The driver
+     * itself must be quit by the caller.
+     *
+     * @param driver Driver whose session is ending
+     * @return true if the driver was created by this scheduler
+     */
+    public boolean release(WebDriver driver) {
+        Endpoint endpoint = driver == null ? null : sessions.remove(driver);
+        if (endpoint == null) {
+            return false;
+        }
+        release(endpoint);
+        return true;
+    }
+
+    private void release(Endpoint endpoint) {
+        lock.lock();
+        try {
+            endpoint.invalidateStatus();
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void settleClaim(Endpoint endpoint) {
+        lock.lock();
+        try {
+            endpoint.claimed--;
+            endpoint.invalidateStatus();
+            slotFreed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Endpoint reserve(String browserName, long timeoutNanos) {
+        Object ticket = new Object();
+        long deadline = System.nanoTime() + timeoutNanos;
+        long pollNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(100, Constants.REMOTE_STATUS_INTERVAL));
+
+        lock.lock();
+        try {
+            waiters.addLast(ticket);
+            while (true) {
+                if (waiters.peekFirst() == ticket) {
+                    refreshStatuses(browserName);
+                    Endpoint endpoint = pickEndpoint();
+                    if (endpoint != null) {
+                        waiters.removeFirst();
+                        endpoint.claimed++;
+                        slotFreed.signalAll();
+                        return endpoint;
+                    }
+                }
+
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    waiters.remove(ticket);
+                    slotFreed.signalAll();
+                    ExecutionMetrics.increment("remote.queue.timeout");
+                    throw new SessionNotCreatedException(String.format(
+                            "No free %s slot on %d remote endpoint(s) within %d seconds", browserName,
+                            endpoints.size(), Constants.REMOTE_QUEUE_TIMEOUT));
+                }
+                if (waiters.peekFirst() == ticket) {
+                    LOGGER.debug("No free {} slot, {} request(s) queued", browserName, waiters.size());
+                }
+                // Re-poll the endpoints periodically: slots may also free up outside this JVM
+                slotFreed.awaitNanos(Math.min(remaining, pollNanos));
+            }
+        } catch (InterruptedException e) {
+            waiters.remove(ticket);
+            slotFreed.signalAll();
+            Thread.currentThread().interrupt();
+            throw new SessionNotCreatedException("Interrupted while waiting for a remote session slot");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Called with the lock held by the request at the head of the queue. Reads
+     * the stale statuses with the lock released and applies them under the
+     * lock, unless a session was created or released on the endpoint meanwhile:
+     * that status may not show it, so it is read again on the next pass.
+     */
+    private void refreshStatuses(String browserName) {
+        long now = System.currentTimeMillis();
+        List<Endpoint> stale = new ArrayList<>();
+        List<Long> versions = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            if (!browserName.equalsIgnoreCase(endpoint.statusBrowser)
+                    || now - endpoint.statusFetchedAt >= Constants.REMOTE_STATUS_INTERVAL) {
+                stale.add(endpoint);
+                versions.add(endpoint.version);
+            }
+        }
+        if (stale.isEmpty()) {
+            return;
+        }
+
+        List<int[]> statuses = new ArrayList<>();
+        lock.unlock();
+        try {
+            for (Endpoint endpoint : stale) {
+                statuses.add(fetchStatus(endpoint, browserName));
+            }
+        } finally {
+            lock.lock();
+        }
+
+        for (int i = 0; i < stale.size(); i++) {
+            Endpoint endpoint = stale.get(i);
+            if (endpoint.version != versions.get(i)) {
+                continue;
+            }
+            endpoint.totalSlots = statuses.get(i)[0];
+            endpoint.freeSlots = statuses.get(i)[1];
+            endpoint.statusBrowser = browserName;
+            endpoint.statusFetchedAt = now;
+            LOGGER.debug("{}: {} of {} {} slot(s) free, {} claimed", endpoint.name, endpoint.freeSlots,
+                    endpoint.totalSlots, browserName, endpoint.claimed);
+        }
+    }
+
+    /*
+     * Called with the lock held. Returns the least utilised endpoint with a free
+     * slot, or null. Endpoints whose status is out of date are skipped.
+     */
+    private Endpoint pickEndpoint() {
+        Endpoint best = null;
+        double bestUtilisation = Double.MAX_VALUE;
+        for (Endpoint endpoint : endpoints) {
+            int free = endpoint.freeSlots - endpoint.claimed;
+            if (endpoint.statusFetchedAt == 0 || free <= 0 || endpoint.totalSlots == 0) {
+                continue;
+            }
+            double utilisation = 1.0 - (double) free / endpoint.totalSlots;
+            if (utilisation < bestUtilisation) {
+                best = endpoint;
+                bestUtilisation = utilisation;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Reads the endpoint's {@code /status}, without the scheduler lock
+     *
+     * @return Total and free slots for the browser, both 0 if unreachable
+     */
+    @SuppressWarnings("unchecked")
+    private int[] fetchStatus(Endpoint endpoint, String browserName) {
+        long start = System.nanoTime();
+        int total = 0;
+        int free = 0;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(endpoint.statusUri)
+                    .timeout(Duration.ofSeconds(5))
+                    .GET()
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            Map<String, Object> status = json.toType(response.body(), Json.MAP_TYPE);
+            Map<String, Object> value = (Map<String, Object>) status.get("value");
+            List<Map<String, Object>> nodes = value == null ? null : (List<Map<String, Object>>) value.get("nodes");
+            if (nodes != null) {
+                for (Map<String, Object> node : nodes) {
+                    if (!"UP".equals(node.get("availability"))) {
+                        continue;
+                    }
+                    for (Map<String, Object> slot : (List<Map<String, Object>>) node.get("slots")) {
+                        Map<String, Object> stereotype = (Map<String, Object>) slot.get("stereotype");
+                        if (stereotype == null || !browserName.equalsIgnoreCase(
+                                String.valueOf(stereotype.get("browserName")))) {
+                            continue;
+                        }
+                        total++;
+                        if (slot.get("session") == null) {
+                            free++;
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            LOGGER.warn("Unable to read status of {}: {}", endpoint.name, e.getMessage());
+        } finally {
+            ExecutionMetrics.recordSince("remote.status[" + endpoint.name + "]", start);
+        }
+        return new int[] { total, free };
+    }
+
+    /**
+     * Endpoint state, guarded by the scheduler lock
+     */
+    private static final class Endpoint {
+        private final URL url;
+        private final URI statusUri;
+        private final String name;
+        private int totalSlots;
+        private int freeSlots;
+        // Reserved sessions still being created, which /status may not show yet
+        private int claimed;
+        private String statusBrowser;
+        private long statusFetchedAt;
+        // Bumped whenever a session is created or released on the endpoint
+        private long version;
+
+        private Endpoint(URL url) {
+            this.url = url;
+            String base = url.toString().replaceAll("/+$", "");
+            this.statusUri = URI.create(base + "/status");
+            this.name = url.getHost() + ":" + url.getPort();
+        }
+
+        private void invalidateStatus() {
+            statusFetchedAt = 0;
+            version++;
+        }
+    }
+}
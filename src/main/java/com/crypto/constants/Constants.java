@@ -1,7 +1,16 @@
 package com.crypto.constants;
 
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.openqa.selenium.Platform;
 
+import com.crypto.enums.ScreenshotFormat;
+import com.crypto.enums.WaitMode;
+
 public class Constants {
 
     /*
@@ -11,6 +20,12 @@ public class Constants {
     public static final String CONFIG_FILE_PATH = CURRENT_DIR + "/src/main/java/config/config.ini";
     public static final String EXTENT_REPORT_PATH = CURRENT_DIR + "/state/reports/executionReport";
     public static final String LOG_DIR = CURRENT_DIR + "/state/logs";
+    public static final String DRIVER_CACHE_DIR = CURRENT_DIR + "/state/drivers";
+    public static final String HAR_DIR = CURRENT_DIR + "/state/har";
+    public static final String PERF_DIR = CURRENT_DIR + "/state/perf";
+    public static final String TIMINGS_DIR = CURRENT_DIR + "/state/timings";
+    public static final String SHARDS_DIR = CURRENT_DIR + "/state/shards";
+    public static final String REPORT_JOURNAL_DIR = CURRENT_DIR + "/state/reports/journal";
 
     /*
      * Base URLs
@@ -62,6 +77,82 @@ public class Constants {
     public static final String CONFIG_KEY_PAGE_LOAD_TIMEOUT = "pageLoadTimeout";
     public static final String CONFIG_KEY_SCRIPT_TIMEOUT = "scriptTimeout";
     public static final String CONFIG_KEY_INCOGNITO = "incognito";
+    public static final String CONFIG_KEY_WAIT_MODE = "wait_mode";
+    public static final String CONFIG_KEY_LOCATOR_TIMEOUT = "locator_timeout";
+
+    public static final String CONFIG_KEY_SERVER = "server";
+    public static final String CONFIG_KEY_WATCH_CONFIG = "watch_config";
+
+    public static final String CONFIG_KEY_WAITS = "waits";
+    public static final String CONFIG_KEY_SETTLE_QUIET_MS = "settle_quiet_ms";
+    public static final String CONFIG_KEY_FIXED_SLEEP_BUDGET = "fixed_sleep_budget";
+
+    public static final String CONFIG_KEY_REMOTE_ENDPOINTS = "endpoints";
+    public static final String CONFIG_KEY_REMOTE_QUEUE_TIMEOUT = "queue_timeout";
+    public static final String CONFIG_KEY_REMOTE_STATUS_INTERVAL = "status_interval_ms";
+
+    public static final String CONFIG_KEY_DRIVERS = "drivers";
+    public static final String CONFIG_KEY_DRIVER_RESOLVER = "resolver";
+    public static final String CONFIG_KEY_DRIVER_OFFLINE = "offline";
+    public static final String CONFIG_KEY_DRIVER_MAX_AGE_HOURS = "max_age_hours";
+    public static final String CONFIG_KEY_DRIVER_BROWSER_VERSION = "browser_version";
+
+    public static final String CONFIG_KEY_NETWORK = "network";
+    public static final String CONFIG_KEY_NETWORK_TRACKING = "tracking";
+    public static final String CONFIG_KEY_NETWORK_HAR_ON_FAILURE = "har_on_failure";
+    public static final String CONFIG_KEY_NETWORK_MAX_ENTRIES = "max_entries";
+    public static final String CONFIG_KEY_NETWORK_STALE_REQUEST_SECONDS = "stale_request_seconds";
+
+    public static final String CONFIG_KEY_SCREENCAST = "screencast";
+    public static final String CONFIG_KEY_SCREENCAST_ENABLED = "enabled";
+    public static final String CONFIG_KEY_SCREENCAST_SECONDS = "seconds";
+    public static final String CONFIG_KEY_SCREENCAST_BUFFER_MB = "buffer_mb";
+    public static final String CONFIG_KEY_SCREENCAST_MAX_WIDTH = "max_width";
+    public static final String CONFIG_KEY_SCREENCAST_QUALITY = "quality";
+    public static final String CONFIG_KEY_SCREENCAST_MAX_FPS = "max_fps";
+
+    public static final String CONFIG_KEY_PERF = "perf";
+    public static final String CONFIG_KEY_PERF_ENABLED = "enabled";
+    public static final String CONFIG_KEY_PERF_BUDGET_ACTION = "budget_action";
+    public static final String CONFIG_KEY_PERF_BUDGET_PREFIX = "budget_";
+    public static final String CONFIG_KEY_PERF_FRAME_PROBE = "frame_probe";
+    public static final String CONFIG_KEY_PERF_FRAME_TAIL_MS = "frame_tail_ms";
+
+    public static final String CONFIG_KEY_SCHEDULE = "schedule";
+    public static final String CONFIG_KEY_SCHEDULE_ENABLED = "enabled";
+    public static final String CONFIG_KEY_SCHEDULE_DEFAULT_DURATION = "default_duration_ms";
+
+    public static final String CONFIG_KEY_SHARD = "shard";
+    public static final String CONFIG_KEY_SHARD_INDEX = "index";
+    public static final String CONFIG_KEY_SHARD_COUNT = "count";
+    public static final String CONFIG_KEY_SHARD_TIMINGS = "timings";
+
+    public static final String CONFIG_KEY_REPORT = "report";
+    public static final String CONFIG_KEY_REPORT_FLUSH_INTERVAL = "flush_interval";
+    public static final String CONFIG_KEY_REPORT_EMBED_SCREENSHOTS = "embed_screenshots";
+
+    public static final String CONFIG_KEY_SCREENSHOTS = "screenshots";
+    public static final String CONFIG_KEY_SCREENSHOT_THREADS = "pipeline_threads";
+    public static final String CONFIG_KEY_SCREENSHOT_QUEUE_SIZE = "pipeline_queue_size";
+    public static final String CONFIG_KEY_SCREENSHOT_FLUSH_TIMEOUT = "flush_timeout";
+    public static final String CONFIG_KEY_SCREENSHOT_NEAR_DUPLICATE_DISTANCE = "near_duplicate_distance";
+    public static final String CONFIG_KEY_SCREENSHOT_FORMAT = "format";
+    public static final String CONFIG_KEY_SCREENSHOT_QUALITY = "quality";
+    public static final String CONFIG_KEY_SCREENSHOT_MAX_WIDTH = "max_width";
+    public static final String CONFIG_KEY_SCREENSHOT_THUMBNAIL_WIDTH = "thumbnail_width";
+    public static final String CONFIG_KEY_SCREENSHOT_RETENTION_MAX_MB = "retention_max_mb";
+    public static final String CONFIG_KEY_SCREENSHOT_RETENTION_MAX_FILES = "retention_max_files";
+    public static final String CONFIG_KEY_SCREENSHOT_RETENTION_DAYS = "retention_days";
+    public static final String CONFIG_KEY_SCREENSHOT_FAILURE_RETENTION_DAYS = "failure_retention_days";
+    public static final String CONFIG_KEY_SCREENSHOT_COMPACTION_INTERVAL = "compaction_interval";
+
+    public static final String CONFIG_KEY_POOL = "pool";
+    public static final String CONFIG_KEY_POOL_ENABLED = "enabled";
+    public static final String CONFIG_KEY_POOL_SIZE = "size";
+    public static final String CONFIG_KEY_POOL_MAX_LEASES = "max_leases";
+    public static final String CONFIG_KEY_POOL_LEASE_TIMEOUT = "lease_timeout";
+    public static final String CONFIG_KEY_POOL_LAUNCH_CONCURRENCY = "launch_concurrency";
+    public static final String CONFIG_KEY_POOL_PROBE_TIMEOUT_MS = "probe_timeout_ms";
 
     /*
      * Runtime Configurations
@@ -80,6 +171,68 @@ public class Constants {
     public static int PAGE_LOAD_TIMEOUT;
     public static int SCRIPT_TIMEOUT;
     public static boolean INCOGNITO;
+    public static WaitMode WAIT_MODE;
+    public static int LOCATOR_TIMEOUT;
+    public static int SETTLE_QUIET_MILLIS;
+    public static int FIXED_SLEEP_BUDGET;
+
+    public static List<URL> REMOTE_ENDPOINTS = new ArrayList<>();
+    public static int REMOTE_QUEUE_TIMEOUT;
+    public static int REMOTE_STATUS_INTERVAL;
+
+    public static boolean DRIVER_RESOLVER_ENABLED;
+    public static boolean DRIVER_OFFLINE;
+    public static int DRIVER_MAX_AGE_HOURS;
+    public static String DRIVER_BROWSER_VERSION;
+
+    public static boolean NETWORK_TRACKING;
+    public static boolean NETWORK_HAR_ON_FAILURE;
+    public static int NETWORK_MAX_ENTRIES = 2000;
+    public static int NETWORK_STALE_REQUEST_SECONDS = 30;
+
+    public static boolean SCREENCAST_ENABLED;
+    public static int SCREENCAST_SECONDS;
+    public static int SCREENCAST_BUFFER_MB;
+    public static int SCREENCAST_MAX_WIDTH;
+    public static int SCREENCAST_QUALITY;
+    public static int SCREENCAST_MAX_FPS;
+
+    public static boolean PERF_ENABLED;
+    public static boolean PERF_FAIL_ON_BUDGET;
+    public static Map<String, Double> PERF_BUDGETS = new HashMap<>();
+    public static boolean PERF_FRAME_PROBE;
+    public static int PERF_FRAME_TAIL_MILLIS;
+
+    public static boolean SCHEDULE_ENABLED = true;
+    public static long SCHEDULE_DEFAULT_DURATION = 30000;
+
+    public static int SHARD_INDEX;
+    public static int SHARD_COUNT = 1;
+    public static String SHARD_TIMINGS;
+
+    public static int REPORT_FLUSH_INTERVAL;
+    public static boolean REPORT_EMBED_SCREENSHOTS;
+
+    public static int SCREENSHOT_THREADS;
+    public static int SCREENSHOT_QUEUE_SIZE;
+    public static int SCREENSHOT_FLUSH_TIMEOUT;
+    public static int SCREENSHOT_NEAR_DUPLICATE_DISTANCE;
+    public static ScreenshotFormat SCREENSHOT_FORMAT;
+    public static int SCREENSHOT_QUALITY;
+    public static int SCREENSHOT_MAX_WIDTH;
+    public static int SCREENSHOT_THUMBNAIL_WIDTH;
+    public static int SCREENSHOT_RETENTION_MAX_MB;
+    public static int SCREENSHOT_RETENTION_MAX_FILES;
+    public static int SCREENSHOT_RETENTION_DAYS;
+    public static int SCREENSHOT_FAILURE_RETENTION_DAYS;
+    public static int SCREENSHOT_COMPACTION_INTERVAL;
+
+    public static boolean POOL_ENABLED;
+    public static int POOL_SIZE;
+    public static int POOL_MAX_LEASES;
+    public static int POOL_LEASE_TIMEOUT;
+    public static int POOL_LAUNCH_CONCURRENCY;
+    public static int POOL_PROBE_TIMEOUT_MS;
 
     /*
      * Test Groups
@@ -1,9 +1,20 @@
 package com.crypto.constants;
 
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.openqa.selenium.Platform;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.crypto.enums.ScreenshotFormat;
+import com.crypto.enums.WaitMode;
+
 import config.ConfigReader;
 
 public class ConstantsInitializer {
@@ -88,6 +99,155 @@ public class ConstantsInitializer {
                     Constants.CONFIG_KEY_BROWSER, Constants.CONFIG_KEY_INCOGNITO);
             Constants.INCOGNITO = parseBoolean(incognitoStr, false);
 
+            String waitModeStr = ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_BROWSER, Constants.CONFIG_KEY_WAIT_MODE);
+            Constants.WAIT_MODE = parseWaitMode(waitModeStr);
+
+            String locatorTimeoutStr = ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_BROWSER, Constants.CONFIG_KEY_LOCATOR_TIMEOUT);
+            Constants.LOCATOR_TIMEOUT = parseInt(locatorTimeoutStr, 20);
+
+            // Settle waits and fixed sleep budget
+            Constants.SETTLE_QUIET_MILLIS = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_WAITS, Constants.CONFIG_KEY_SETTLE_QUIET_MS), 500);
+            Constants.FIXED_SLEEP_BUDGET = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_WAITS, Constants.CONFIG_KEY_FIXED_SLEEP_BUDGET), 5);
+
+            // Remote endpoints, falling back to the selenium-remote url
+            String endpointsStr = ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_REMOTE, Constants.CONFIG_KEY_REMOTE_ENDPOINTS);
+            if (endpointsStr == null) {
+                endpointsStr = ConfigReader.getPropertyValues(
+                        Constants.CONFIG_KEY_SELENIUM_REMOTE, Constants.CONFIG_KEY_URL);
+            }
+            Constants.REMOTE_ENDPOINTS = parseUrls(endpointsStr);
+            Constants.REMOTE_QUEUE_TIMEOUT = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_REMOTE, Constants.CONFIG_KEY_REMOTE_QUEUE_TIMEOUT), 300);
+            Constants.REMOTE_STATUS_INTERVAL = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_REMOTE, Constants.CONFIG_KEY_REMOTE_STATUS_INTERVAL), 2000);
+
+            // Driver binary resolution
+            Constants.DRIVER_RESOLVER_ENABLED = parseBoolean(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_DRIVERS, Constants.CONFIG_KEY_DRIVER_RESOLVER), true);
+            Constants.DRIVER_OFFLINE = parseBoolean(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_DRIVERS, Constants.CONFIG_KEY_DRIVER_OFFLINE), false);
+            Constants.DRIVER_MAX_AGE_HOURS = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_DRIVERS, Constants.CONFIG_KEY_DRIVER_MAX_AGE_HOURS), 24);
+            String browserVersionStr = ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_DRIVERS, Constants.CONFIG_KEY_DRIVER_BROWSER_VERSION);
+            Constants.DRIVER_BROWSER_VERSION = browserVersionStr == null || browserVersionStr.trim().isEmpty()
+                    ? null
+                    : browserVersionStr.trim();
+
+            // CDP network tracking
+            Constants.NETWORK_TRACKING = parseBoolean(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_NETWORK, Constants.CONFIG_KEY_NETWORK_TRACKING), false);
+            Constants.NETWORK_HAR_ON_FAILURE = parseBoolean(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_NETWORK, Constants.CONFIG_KEY_NETWORK_HAR_ON_FAILURE), true);
+            Constants.NETWORK_MAX_ENTRIES = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_NETWORK, Constants.CONFIG_KEY_NETWORK_MAX_ENTRIES), 2000);
+            Constants.NETWORK_STALE_REQUEST_SECONDS = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_NETWORK, Constants.CONFIG_KEY_NETWORK_STALE_REQUEST_SECONDS), 30);
+
+            // Screencast ring buffer dumped on failure
+            Constants.SCREENCAST_ENABLED = parseBoolean(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SCREENCAST, Constants.CONFIG_KEY_SCREENCAST_ENABLED), false);
+            Constants.SCREENCAST_SECONDS = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SCREENCAST, Constants.CONFIG_KEY_SCREENCAST_SECONDS), 10);
+            Constants.SCREENCAST_BUFFER_MB = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SCREENCAST, Constants.CONFIG_KEY_SCREENCAST_BUFFER_MB), 8);
+            Constants.SCREENCAST_MAX_WIDTH = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SCREENCAST, Constants.CONFIG_KEY_SCREENCAST_MAX_WIDTH), 800);
+            Constants.SCREENCAST_QUALITY = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SCREENCAST, Constants.CONFIG_KEY_SCREENCAST_QUALITY), 40);
+            Constants.SCREENCAST_MAX_FPS = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SCREENCAST, Constants.CONFIG_KEY_SCREENCAST_MAX_FPS), 5);
+
+            // Web performance metrics and budgets
+            Constants.PERF_ENABLED = parseBoolean(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_PERF, Constants.CONFIG_KEY_PERF_ENABLED), false);
+            Constants.PERF_FAIL_ON_BUDGET = "fail".equalsIgnoreCase(String.valueOf(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_PERF, Constants.CONFIG_KEY_PERF_BUDGET_ACTION)).trim());
+            Constants.PERF_BUDGETS = parseBudgets(ConfigReader.getSnapshot() == null ? Map.of()
+                    : ConfigReader.getSnapshot().getSection(Constants.CONFIG_KEY_PERF));
+            Constants.PERF_FRAME_PROBE = parseBoolean(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_PERF, Constants.CONFIG_KEY_PERF_FRAME_PROBE), false);
+            Constants.PERF_FRAME_TAIL_MILLIS = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_PERF, Constants.CONFIG_KEY_PERF_FRAME_TAIL_MS), 500);
+
+            // Duration-aware test ordering
+            Constants.SCHEDULE_ENABLED = parseBoolean(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SCHEDULE, Constants.CONFIG_KEY_SCHEDULE_ENABLED), true);
+            Constants.SCHEDULE_DEFAULT_DURATION = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SCHEDULE, Constants.CONFIG_KEY_SCHEDULE_DEFAULT_DURATION), 30000);
+
+            // Sharding across machines, overridable with -Dshard.index / -Dshard.count / -Dshard.timings
+            Constants.SHARD_COUNT = Math.max(1, parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SHARD, Constants.CONFIG_KEY_SHARD_COUNT), 1));
+            Constants.SHARD_INDEX = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SHARD, Constants.CONFIG_KEY_SHARD_INDEX), 0);
+            if (Constants.SHARD_INDEX < 0 || Constants.SHARD_INDEX >= Constants.SHARD_COUNT) {
+                throw new IllegalArgumentException(String.format("Shard index %d is outside 0..%d",
+                        Constants.SHARD_INDEX, Constants.SHARD_COUNT - 1));
+            }
+            String shardTimings = ConfigReader.getPropertyValues(Constants.CONFIG_KEY_SHARD,
+                    Constants.CONFIG_KEY_SHARD_TIMINGS);
+            Constants.SHARD_TIMINGS = shardTimings == null || shardTimings.isBlank() ? null : shardTimings.trim();
+
+            // Report journal and background flush
+            Constants.REPORT_FLUSH_INTERVAL = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_REPORT, Constants.CONFIG_KEY_REPORT_FLUSH_INTERVAL), 30);
+            Constants.REPORT_EMBED_SCREENSHOTS = parseBoolean(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_REPORT, Constants.CONFIG_KEY_REPORT_EMBED_SCREENSHOTS), false);
+
+            // Screenshot pipeline configuration
+            Constants.SCREENSHOT_THREADS = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SCREENSHOTS, Constants.CONFIG_KEY_SCREENSHOT_THREADS), 2);
+            Constants.SCREENSHOT_QUEUE_SIZE = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SCREENSHOTS, Constants.CONFIG_KEY_SCREENSHOT_QUEUE_SIZE), 8);
+            Constants.SCREENSHOT_FLUSH_TIMEOUT = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SCREENSHOTS, Constants.CONFIG_KEY_SCREENSHOT_FLUSH_TIMEOUT), 60);
+            Constants.SCREENSHOT_NEAR_DUPLICATE_DISTANCE = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SCREENSHOTS, Constants.CONFIG_KEY_SCREENSHOT_NEAR_DUPLICATE_DISTANCE), 0);
+            Constants.SCREENSHOT_FORMAT = parseScreenshotFormat(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SCREENSHOTS, Constants.CONFIG_KEY_SCREENSHOT_FORMAT));
+            Constants.SCREENSHOT_QUALITY = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SCREENSHOTS, Constants.CONFIG_KEY_SCREENSHOT_QUALITY), 80);
+            Constants.SCREENSHOT_MAX_WIDTH = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SCREENSHOTS, Constants.CONFIG_KEY_SCREENSHOT_MAX_WIDTH), 0);
+            Constants.SCREENSHOT_THUMBNAIL_WIDTH = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SCREENSHOTS, Constants.CONFIG_KEY_SCREENSHOT_THUMBNAIL_WIDTH), 0);
+            Constants.SCREENSHOT_RETENTION_MAX_MB = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SCREENSHOTS, Constants.CONFIG_KEY_SCREENSHOT_RETENTION_MAX_MB), 1024);
+            Constants.SCREENSHOT_RETENTION_MAX_FILES = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SCREENSHOTS, Constants.CONFIG_KEY_SCREENSHOT_RETENTION_MAX_FILES), 50000);
+            Constants.SCREENSHOT_RETENTION_DAYS = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SCREENSHOTS, Constants.CONFIG_KEY_SCREENSHOT_RETENTION_DAYS), 14);
+            Constants.SCREENSHOT_FAILURE_RETENTION_DAYS = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SCREENSHOTS, Constants.CONFIG_KEY_SCREENSHOT_FAILURE_RETENTION_DAYS), 60);
+            Constants.SCREENSHOT_COMPACTION_INTERVAL = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SCREENSHOTS, Constants.CONFIG_KEY_SCREENSHOT_COMPACTION_INTERVAL), 300);
+
+            // Driver pool configuration
+            Constants.POOL_ENABLED = parseBoolean(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_POOL, Constants.CONFIG_KEY_POOL_ENABLED), false);
+            Constants.POOL_SIZE = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_POOL, Constants.CONFIG_KEY_POOL_SIZE), 0);
+            Constants.POOL_MAX_LEASES = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_POOL, Constants.CONFIG_KEY_POOL_MAX_LEASES), 20);
+            Constants.POOL_LEASE_TIMEOUT = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_POOL, Constants.CONFIG_KEY_POOL_LEASE_TIMEOUT), 120);
+            Constants.POOL_LAUNCH_CONCURRENCY = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_POOL, Constants.CONFIG_KEY_POOL_LAUNCH_CONCURRENCY), 0);
+            Constants.POOL_PROBE_TIMEOUT_MS = parseInt(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_POOL, Constants.CONFIG_KEY_POOL_PROBE_TIMEOUT_MS), 2000);
+
+            // Hot reload of config.ini for lookups made after startup
+            if (parseBoolean(ConfigReader.getPropertyValues(
+                    Constants.CONFIG_KEY_SERVER, Constants.CONFIG_KEY_WATCH_CONFIG), false)) {
+                ConfigReader.startWatching();
+            }
+
             initialized = true;
             LOGGER.info("Constants initialized successfully:");
             LOGGER.info("  DRIVER_TYPE: {}", Constants.DRIVER_TYPE);
@@ -101,7 +261,14 @@ public class ConstantsInitializer {
             LOGGER.info("  PAGE_LOAD_TIMEOUT: {}", Constants.PAGE_LOAD_TIMEOUT);
             LOGGER.info("  SCRIPT_TIMEOUT: {}", Constants.SCRIPT_TIMEOUT);
             LOGGER.info("  INCOGNITO: {}", Constants.INCOGNITO);
+            LOGGER.info("  WAIT_MODE: {}", Constants.WAIT_MODE);
             LOGGER.info("  BASE_URL: {}", Constants.BASE_URL);
+            LOGGER.info("  REMOTE_ENDPOINTS: {}", Constants.REMOTE_ENDPOINTS);
+            if (Constants.SHARD_COUNT > 1) {
+                LOGGER.info("  SHARD: {} of {}", Constants.SHARD_INDEX, Constants.SHARD_COUNT);
+            }
+            LOGGER.info("  POOL_ENABLED: {} (size {}, max leases {})", Constants.POOL_ENABLED,
+                    Constants.POOL_SIZE, Constants.POOL_MAX_LEASES);
 
         } catch (Exception e) {
             LOGGER.error("Failed to initialize Constants: ", e);
@@ -155,6 +322,67 @@ public class ConstantsInitializer {
         return Platform.MAC; // default
     }
 
+    private static WaitMode parseWaitMode(String value) {
+        if (value == null) {
+            return WaitMode.POLLING;
+        }
+        try {
+            return WaitMode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Unknown wait mode '{}', using default: {}", value, WaitMode.POLLING);
+            return WaitMode.POLLING;
+        }
+    }
+
+    private static ScreenshotFormat parseScreenshotFormat(String value) {
+        if (value == null) {
+            return ScreenshotFormat.PNG;
+        }
+        String format = value.trim().toUpperCase();
+        try {
+            return ScreenshotFormat.valueOf("JPG".equals(format) ? "JPEG" : format);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Unknown screenshot format '{}', using default: {}", value, ScreenshotFormat.PNG);
+            return ScreenshotFormat.PNG;
+        }
+    }
+
+    private static List<URL> parseUrls(String value) {
+        List<URL> urls = new ArrayList<>();
+        if (value == null) {
+            return urls;
+        }
+        for (String part : value.split(",")) {
+            String url = part.trim();
+            if (url.isEmpty()) {
+                continue;
+            }
+            try {
+                urls.add(URI.create(url).toURL());
+            } catch (IllegalArgumentException | MalformedURLException e) {
+                LOGGER.warn("Ignoring invalid remote endpoint '{}'", url);
+            }
+        }
+        return urls;
+    }
+
+    private static Map<String, Double> parseBudgets(Map<String, String> section) {
+        Map<String, Double> budgets = new HashMap<>();
+        section.forEach((key, value) -> {
+            if (!key.startsWith(Constants.CONFIG_KEY_PERF_BUDGET_PREFIX)
+                    || key.equals(Constants.CONFIG_KEY_PERF_BUDGET_ACTION) || value.trim().isEmpty()) {
+                return;
+            }
+            try {
+                budgets.put(key.substring(Constants.CONFIG_KEY_PERF_BUDGET_PREFIX.length()),
+                        Double.parseDouble(value.trim()));
+            } catch (NumberFormatException e) {
+                LOGGER.warn("Ignoring invalid performance budget {} = '{}'", key, value);
+            }
+        });
+        return budgets;
+    }
+
     private static boolean parseBoolean(String value, boolean defaultValue) {
         if (value == null) {
             return defaultValue;
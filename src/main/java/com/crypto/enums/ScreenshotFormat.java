@@ -0,0 +1,17 @@
+package com.crypto.enums;
+
+public enum ScreenshotFormat {
+    PNG("png"),
+    JPEG("jpg"),
+    WEBP("webp");
+
+    private final String extension;
+
+    ScreenshotFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,6 @@
+package com.crypto.enums;
+
+public enum WaitMode {
+    POLLING,
+    EVENT
+}
@@ -0,0 +1,140 @@
+package com.crypto.report;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.aventstack.extentreports.ExtentReports;
+
+/**
+ * Suite-wide counters and timers for framework internals (driver pool, waits,
+ * screenshots...). All methods are thread-safe and allocation-free once a
+ * metric name has been registered.
+ */
+public class ExecutionMetrics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecutionMetrics.class);
+
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, Timer> TIMERS = new ConcurrentHashMap<>();
+
+    private ExecutionMetrics() {
+    }
+
+    /**
+     * Increments the named counter by one
+     *
+     * @param name Metric name
+     */
+    public static void increment(String name) {
+        add(name, 1);
+    }
+
+    /**
+     * Adds a value to the named counter
+     *
+     * @param name  Metric name
+     * @param delta Value to add
+     */
+    public static void add(String name, long delta) {
+        COUNTERS.computeIfAbsent(name, k -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * Records a single duration sample for the named timer
+     *
+     * @param name  Metric name
+     * @param nanos Duration in nanoseconds
+     */
+    public static void recordNanos(String name, long nanos) {
+        TIMERS.computeIfAbsent(name, k -> new Timer()).record(nanos);
+    }
+
+    /**
+     * Records the time elapsed since the given {@link System#nanoTime()} value
+     *
+     * @param name       Metric name
+     * @param startNanos Start timestamp from {@link System#nanoTime()}
+     * @return Elapsed time in nanoseconds
+     */
+    public static long recordSince(String name, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        recordNanos(name, elapsed);
+        return elapsed;
+    }
+
+    public static long getCount(String name) {
+        LongAdder counter = COUNTERS.get(name);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    public static long getTimerCount(String name) {
+        Timer timer = TIMERS.get(name);
+        return timer == null ? 0 : timer.count.sum();
+    }
+
+    public static double getAverageMillis(String name) {
+        Timer timer = TIMERS.get(name);
+        return timer == null ? 0 : timer.averageMillis();
+    }
+
+    /**
+     * Returns a sorted, human readable view of every counter and timer
+     *
+     * @return Metric name to formatted value
+     */
+    public static Map<String, String> snapshot() {
+        Map<String, String> snapshot = new TreeMap<>();
+        COUNTERS.forEach((name, counter) -> snapshot.put(name, String.valueOf(counter.sum())));
+        TIMERS.forEach((name, timer) -> snapshot.put(name, timer.toString()));
+        return snapshot;
+    }
+
+    /**
+     * Publishes all metrics as system info on the Extent report and logs them
+     *
+     * @param extent Extent report to publish to, may be null
+     */
+    public static void publish(ExtentReports extent) {
+        Map<String, String> snapshot = snapshot();
+        snapshot.forEach((name, value) -> {
+            LOGGER.info("Metric {}: {}", name, value);
+            if (extent != null) {
+                ReportJournal.setSystemInfo(extent, name, value);
+            }
+        });
+    }
+
+    public static void reset() {
+        COUNTERS.clear();
+        TIMERS.clear();
+    }
+
+    private static final class Timer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        private double averageMillis() {
+            long samples = count.sum();
+            return samples == 0 ? 0 : totalNanos.sum() / (samples * 1_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d, avg=%.1f ms, max=%.1f ms, total=%.1f ms",
+                    count.sum(), averageMillis(), maxNanos.get() / 1_000_000.0, totalNanos.sum() / 1_000_000.0);
+        }
+    }
+}
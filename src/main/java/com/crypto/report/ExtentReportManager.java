@@ -8,6 +8,7 @@ import org.slf4j.LoggerFactory;
 
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.JsonFormatter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
 import com.crypto.constants.Constants;
 
@@ -15,48 +16,78 @@ public class ExtentReportManager {
 
         private static final Logger LOGGER = LoggerFactory.getLogger(ExtentReportManager.class);
 
+        /**
+         * Creates the live report and opens its journal. The report is rendered
+         * from the journal by {@link ReportJournal#renderReport()}; only when
+         * the journal cannot be opened are the reporters attached to the live
+         * report itself.
+         */
         public static ExtentReports setupExtentReport() {
 
                 SimpleDateFormat format = new SimpleDateFormat("dd-MM-yyyy");
                 Date date = new Date();
                 String actualDate = format.format(date);
 
-                ExtentSparkReporter extentSparkReporter = new ExtentSparkReporter(
-                                Constants.EXTENT_REPORT_PATH + "ExtentReport_" + actualDate + ".html");
+                String shardSuffix = Constants.SHARD_COUNT > 1 ? "_shard" + Constants.SHARD_INDEX : "";
+                String reportFile = Constants.EXTENT_REPORT_PATH + "ExtentReport_" + actualDate + shardSuffix + ".html";
+                String reportName = "Web Automation " + Constants.ENVIRONMENT.toUpperCase() + " "
+                                + Constants.BROWSER.toUpperCase();
+                // Raw report data of the shard, merged by ShardResultMerger
+                String archive = Constants.SHARD_COUNT > 1 ? getShardExtentArchive(Constants.SHARD_INDEX) : null;
 
                 ExtentReports extent = new ExtentReports();
-
                 LOGGER.info("Extent Report Object is created.");
-                extent.attachReporter(extentSparkReporter);
-                LOGGER.info("Extent Spark Reporter is attached to Extent Report.");
 
-                extent.setSystemInfo(Constants.CURRENT_DIR, System.getProperty("user.name"));
+                if (!ReportJournal.open(extent, reportFile, reportName, archive)) {
+                        ExtentSparkReporter extentSparkReporter = createSparkReporter(reportFile);
+                        extentSparkReporter.config().setReportName(reportName);
+                        extent.attachReporter(extentSparkReporter);
+                        if (archive != null) {
+                                extent.attachReporter(new JsonFormatter(archive));
+                        }
+                        LOGGER.info("Extent Spark Reporter is attached to Extent Report.");
+                }
+
+                if (Constants.SHARD_COUNT > 1) {
+                        ReportJournal.setSystemInfo(extent, "Shard", Constants.SHARD_INDEX + " of " + Constants.SHARD_COUNT);
+                }
+
+                ReportJournal.setSystemInfo(extent, Constants.CURRENT_DIR, System.getProperty("user.name"));
                 LOGGER.info("System info added to Extent Report.");
 
-                extent.setSystemInfo(Constants.CONFIG_KEY_HOST, Constants.HOST);
+                ReportJournal.setSystemInfo(extent, Constants.CONFIG_KEY_HOST, Constants.HOST);
                 LOGGER.info("[{0}] Host name is set to ExtentReport.", Constants.HOST);
 
-                extent.setSystemInfo(Constants.CONFIG_KEY_ENVIRONMENT, Constants.ENVIRONMENT);
+                ReportJournal.setSystemInfo(extent, Constants.CONFIG_KEY_ENVIRONMENT, Constants.ENVIRONMENT);
                 LOGGER.info("Environment name [{0}] is set to ExtentReport.", Constants.ENVIRONMENT);
 
-                extent.setSystemInfo(Constants.CONFIG_KEY_PLATFORM, Constants.PLATFORM.toString());
+                ReportJournal.setSystemInfo(extent, Constants.CONFIG_KEY_PLATFORM, Constants.PLATFORM.toString());
                 LOGGER.info("Platform name [{0}] is set to ExtentReport.", Constants.PLATFORM);
 
-                extent.setSystemInfo(Constants.CONFIG_KEY_BROWSER, Constants.BROWSER);
+                ReportJournal.setSystemInfo(extent, Constants.CONFIG_KEY_BROWSER, Constants.BROWSER);
                 LOGGER.info("Browser name [{0}] is set to ExtentReport.", Constants.BROWSER);
 
+                return extent;
+        }
+
+        /**
+         * @param reportFile Path of the HTML report
+         * @return Spark reporter with the report's title, theme and styles
+         */
+        public static ExtentSparkReporter createSparkReporter(String reportFile) {
+                ExtentSparkReporter extentSparkReporter = new ExtentSparkReporter(reportFile);
                 extentSparkReporter.config().setDocumentTitle("Crypto Assignment Web Automation Test Report");
                 extentSparkReporter.config().setTheme(Theme.DARK);
-                extentSparkReporter.config()
-                                .setReportName("Web Automation " + Constants.ENVIRONMENT.toUpperCase() + " "
-                                                + Constants.BROWSER.toUpperCase());
 
                 extentSparkReporter.config().setCss(
                                 ".header { background-color:rgb(49, 49, 49) !important; }" +
                                                 ".nav-tabs .nav-item .nav-link.active { background-color: #FF5722 !important; color: #FFFFFF !important; }"
                                                 +
                                                 ".tab-content { background-color: #2C2C2C !important; color: #FFFFFF !important; }");
+                return extentSparkReporter;
+        }
 
-                return extent;
+        public static String getShardExtentArchive(int shardIndex) {
+                return Constants.SHARDS_DIR + "/shard-" + shardIndex + ".extent.json";
         }
 }
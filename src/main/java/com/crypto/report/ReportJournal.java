@@ -0,0 +1,487 @@
+package com.crypto.report;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.MediaEntityBuilder;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.Markup;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.JsonFormatter;
+import com.crypto.constants.Constants;
+
+/**
+ * Crash-safe report journal. Every report entry is appended as one JSON line
+ * to {@code state/reports/journal/journal_<run>.jsonl}, flushed to the OS
+ * before the call returns, so a JVM crash loses at most the entry being
+ * written. The live Extent model only holds the tests still running: a test
+ * is removed from it when it ends, so the heap of the test run does not grow
+ * with the suite. The Spark HTML is rendered from the journal, never from the
+ * live model, in a separate JVM: every {@code [report] flush_interval} seconds
+ * in the background and once at the end of the suite. {@link #main} renders a
+ * report from a journal after a crash or for a run that never flushed.
+ */
+public class ReportJournal {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReportJournal.class);
+    private static final Map<ExtentTest, Long> TEST_IDS = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final AtomicLong NEXT_ID = new AtomicLong();
+    private static final AtomicLong EVENTS = new AtomicLong();
+    private static final Json JSON = new Json();
+    private static final long SYSTEM_EVENT = 0;
+    private static final String RENDER_LOGBACK = "logback-render.xml";
+
+    private static Writer writer;
+    private static Path journalFile;
+    private static String reportFile;
+    private static ExtentReports liveExtent;
+    private static ScheduledExecutorService flusher;
+    private static volatile long eventsRendered = -1;
+
+    private ReportJournal() {
+    }
+
+    /**
+     * Opens a new journal for this run and starts the periodic report render
+     *
+     * @param extent     Live report, whose ended tests are removed from it
+     * @param report     Path of the Spark report rendered from the journal
+     * @param reportName Name shown in the report
+     * @param archive    Path of the Extent JSON archive to write with the
+     *                   report, or null
+     * @return false if the journal could not be opened, in which case the
+     *         caller must attach its reporters to the live report
+     */
+    public static synchronized boolean open(ExtentReports extent, String report, String reportName,
+            String archive) {
+        if (writer != null) {
+            return true;
+        }
+        liveExtent = extent;
+        reportFile = report;
+        String run = new SimpleDateFormat("yyyyMMdd_HHmmss_SSS").format(new Date());
+        String shard = Constants.SHARD_COUNT > 1 ? "_shard" + Constants.SHARD_INDEX : "";
+        journalFile = Paths.get(Constants.REPORT_JOURNAL_DIR, "journal_" + run + shard + ".jsonl");
+        try {
+            Files.createDirectories(journalFile.getParent());
+            writer = Files.newBufferedWriter(journalFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+            LOGGER.info("Report journal: {}", journalFile);
+        } catch (IOException e) {
+            LOGGER.error("Could not open report journal {}, keeping the whole report in memory: ", journalFile, e);
+            writer = null;
+            return false;
+        }
+        Map<String, Object> event = event("report", SYSTEM_EVENT);
+        event.put("name", reportName);
+        event.put("archive", archive);
+        append(event);
+
+        if (Constants.REPORT_FLUSH_INTERVAL > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "report-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(ReportJournal::renderInBackground, Constants.REPORT_FLUSH_INTERVAL,
+                    Constants.REPORT_FLUSH_INTERVAL, TimeUnit.SECONDS);
+        }
+        return true;
+    }
+
+    /**
+     * Stops the background render and closes the journal, before the final
+     * render
+     */
+    public static synchronized void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                // Let a render in progress finish before the final one
+                flusher.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flusher = null;
+        }
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                LOGGER.warn("Could not close report journal: {}", e.getMessage());
+            }
+            writer = null;
+        }
+    }
+
+    public static Path getJournalFile() {
+        return journalFile;
+    }
+
+    /**
+     * Sets a system info entry of the report
+     */
+    public static void setSystemInfo(ExtentReports extent, String name, String value) {
+        extent.setSystemInfo(name, value);
+        Map<String, Object> event = event("system", SYSTEM_EVENT);
+        event.put("name", name);
+        event.put("value", value);
+        append(event);
+    }
+
+    public static void startTest(ExtentTest test, String name, String... categories) {
+        long id = NEXT_ID.incrementAndGet();
+        TEST_IDS.put(test, id);
+        Map<String, Object> event = event("start", id);
+        event.put("name", name);
+        event.put("categories", categories == null ? List.of() : List.of(categories));
+        append(event);
+    }
+
+    public static void assignCategory(ExtentTest test, String... categories) {
+        test.assignCategory(categories);
+        Map<String, Object> event = event("category", idOf(test));
+        event.put("categories", List.of(categories));
+        append(event);
+    }
+
+    public static void log(ExtentTest test, Status status, String details) {
+        test.log(status, details);
+        Map<String, Object> event = event("log", idOf(test));
+        event.put("status", status.name());
+        event.put("details", details);
+        append(event);
+    }
+
+    public static void log(ExtentTest test, Status status, Throwable throwable) {
+        test.log(status, throwable);
+        Map<String, Object> event = event("throwable", idOf(test));
+        event.put("status", status.name());
+        event.put("details", stackTrace(throwable));
+        append(event);
+    }
+
+    public static void log(ExtentTest test, Status status, Markup markup) {
+        test.log(status, markup);
+        Map<String, Object> event = event("markup", idOf(test));
+        event.put("status", status.name());
+        event.put("details", markup.getMarkup());
+        append(event);
+    }
+
+    /**
+     * Attaches a screenshot by reference to its file, so the report keeps the
+     * path instead of the image in memory
+     *
+     * @param screenshotPath Path of the saved screenshot
+     */
+    public static void logScreenshot(ExtentTest test, Status status, String details, String screenshotPath) {
+        String reference = getReportRelativePath(screenshotPath);
+        test.log(status, details, MediaEntityBuilder.createScreenCaptureFromPath(reference).build());
+        Map<String, Object> event = event("screenshot", idOf(test));
+        event.put("status", status.name());
+        event.put("details", details);
+        event.put("path", reference);
+        append(event);
+    }
+
+    /**
+     * Attaches a screenshot embedded as Base64, for
+     * {@code [report] embed_screenshots = true}; the image is journaled too
+     */
+    public static void logEmbeddedScreenshot(ExtentTest test, Status status, String details, String base64) {
+        test.log(status, details, MediaEntityBuilder.createScreenCaptureFromBase64String(base64).build());
+        Map<String, Object> event = event("embedded", idOf(test));
+        event.put("status", status.name());
+        event.put("details", details);
+        event.put("base64", base64);
+        append(event);
+    }
+
+    /**
+     * Records the final status of a test and removes it from the live report;
+     * entries logged afterwards (e.g. by background screenshots) are still
+     * journaled under the test
+     */
+    public static void endTest(ExtentTest test, Status status) {
+        Map<String, Object> event = event("end", idOf(test));
+        event.put("status", status.name());
+        append(event);
+        ExtentReports extent = liveExtent;
+        if (extent != null && isJournaling()) {
+            extent.removeTest(test);
+        }
+    }
+
+    /**
+     * Renders the final report: from the journal in a separate JVM, or in this
+     * JVM if that fails; from the live report when there is no journal
+     */
+    public static void renderReport() {
+        close();
+        if (journalFile == null || !Files.isRegularFile(journalFile)) {
+            if (liveExtent != null) {
+                liveExtent.flush();
+            }
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            if (!renderInSeparateJvm()) {
+                LOGGER.warn("Report renderer process failed, rendering {} in this JVM", journalFile);
+                render(journalFile, reportFile);
+            }
+        } catch (IOException e) {
+            LOGGER.error("Could not render report from journal {}: ", journalFile, e);
+        } finally {
+            ExecutionMetrics.recordSince("report.flush", start);
+        }
+    }
+
+    /**
+     * @return Path of the screenshot relative to the report directory, as the
+     *         Spark report resolves media paths relative to its HTML file
+     */
+    public static String getReportRelativePath(String path) {
+        try {
+            Path reportDir = Paths.get(Constants.EXTENT_REPORT_PATH).toAbsolutePath().getParent();
+            return reportDir.relativize(Paths.get(path).toAbsolutePath()).toString().replace('\\', '/');
+        } catch (IllegalArgumentException e) {
+            return path;
+        }
+    }
+
+    /**
+     * Renders a Spark report from a journal
+     *
+     * <p>
+     * Usage: {@code ReportJournal <journal.jsonl> [report.html]}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: ReportJournal <journal.jsonl> [report.html]");
+            System.exit(2);
+        }
+        Path journal = Paths.get(args[0]);
+        String report = args.length > 1 ? args[1]
+                : Paths.get(Constants.EXTENT_REPORT_PATH).getParent()
+                        .resolve(journal.getFileName().toString().replace(".jsonl", ".html")).toString();
+        render(journal, report);
+    }
+
+    /**
+     * Replays a journal into a new Extent report. The HTML is written to a
+     * temporary file and moved over the report, so readers never see a
+     * half-written one.
+     *
+     * @return Number of tests rendered
+     */
+    public static int render(Path journal, String reportFile) throws IOException {
+        long start = System.nanoTime();
+        Path report = Paths.get(reportFile).toAbsolutePath();
+        Files.createDirectories(report.getParent());
+        Path temp = report.resolveSibling("." + report.getFileName() + ".rendering.html");
+        ExtentReports extent = new ExtentReports();
+        ExtentSparkReporter spark = ExtentReportManager.createSparkReporter(temp.toString());
+        extent.attachReporter(spark);
+        Map<Long, ExtentTest> tests = new HashMap<>();
+        int skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(journal, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Map<String, Object> event;
+                try {
+                    event = JSON.toType(line, Json.MAP_TYPE);
+                } catch (RuntimeException e) {
+                    // A crash can leave the last line incomplete
+                    skipped++;
+                    continue;
+                }
+                replay(extent, spark, tests, event);
+            }
+        }
+        extent.flush();
+        Files.move(temp, report, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        LOGGER.info("Rendered {} test(s) from {} to {} in {} ms ({} unreadable line(s))", tests.size(), journal,
+                reportFile, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), skipped);
+        return tests.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void replay(ExtentReports extent, ExtentSparkReporter spark, Map<Long, ExtentTest> tests,
+            Map<String, Object> event) {
+        long id = ((Number) event.get("test")).longValue();
+        String type = String.valueOf(event.get("type"));
+        if ("report".equals(type)) {
+            spark.config().setReportName(String.valueOf(event.get("name")));
+            if (event.get("archive") != null) {
+                extent.attachReporter(new JsonFormatter(String.valueOf(event.get("archive"))));
+            }
+            return;
+        }
+        if ("system".equals(type)) {
+            extent.setSystemInfo(String.valueOf(event.get("name")), String.valueOf(event.get("value")));
+            return;
+        }
+        if ("start".equals(type)) {
+            ExtentTest test = extent.createTest(String.valueOf(event.get("name")));
+            List<String> categories = (List<String>) event.get("categories");
+            if (categories != null && !categories.isEmpty()) {
+                test.assignCategory(categories.toArray(new String[0]));
+            }
+            tests.put(id, test);
+            return;
+        }
+        ExtentTest test = tests.get(id);
+        if (test == null || "end".equals(type)) {
+            return;
+        }
+        if ("category".equals(type)) {
+            test.assignCategory(((List<String>) event.get("categories")).toArray(new String[0]));
+            return;
+        }
+        Status status = Status.valueOf(String.valueOf(event.get("status")));
+        String details = String.valueOf(event.get("details"));
+        switch (type) {
+            case "throwable":
+                test.log(status, MarkupHelper.createCodeBlock(details));
+                break;
+            case "markup":
+                test.log(status, (Markup) () -> details);
+                break;
+            case "screenshot":
+                test.log(status, details,
+                        MediaEntityBuilder.createScreenCaptureFromPath(String.valueOf(event.get("path"))).build());
+                break;
+            case "embedded":
+                test.log(status, details,
+                        MediaEntityBuilder.createScreenCaptureFromBase64String(String.valueOf(event.get("base64")))
+                                .build());
+                break;
+            default:
+                test.log(status, details);
+                break;
+        }
+    }
+
+    private static boolean isJournaling() {
+        synchronized (ReportJournal.class) {
+            return writer != null;
+        }
+    }
+
+    /*
+     * Runs on the report-flusher thread; renders only when entries were
+     * journaled since the last render
+     */
+    private static void renderInBackground() {
+        long events = EVENTS.get();
+        if (events == eventsRendered) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            if (renderInSeparateJvm()) {
+                eventsRendered = events;
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Background report render failed: {}", e.getMessage());
+        } finally {
+            ExecutionMetrics.recordSince("report.flush", start);
+        }
+    }
+
+    /**
+     * Runs {@link #main} on the journal in a new JVM with this JVM's class
+     * path, so the whole report model never lives in the heap of the test run
+     *
+     * @return Whether the renderer exited successfully
+     */
+    private static boolean renderInSeparateJvm() throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-Dlogback.configurationFile=" + RENDER_LOGBACK, "-cp",
+                System.getProperty("java.class.path"), ReportJournal.class.getName(), journalFile.toString(),
+                reportFile).inheritIO().start();
+        try {
+            return process.waitFor() == 0;
+        } catch (InterruptedException e) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static long idOf(ExtentTest test) {
+        Long id = TEST_IDS.get(test);
+        if (id == null) {
+            // Tests created outside the listener are journaled on first use
+            startTest(test, "unnamed test");
+            id = TEST_IDS.get(test);
+        }
+        return id;
+    }
+
+    private static Map<String, Object> event(String type, long testId) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("time", System.currentTimeMillis());
+        event.put("type", type);
+        event.put("test", testId);
+        return event;
+    }
+
+    private static void append(Map<String, Object> event) {
+        StringBuilder line = new StringBuilder();
+        try (JsonOutput output = JSON.newOutput(line)) {
+            output.setPrettyPrint(false).write(event);
+        }
+        line.append('\n');
+        synchronized (ReportJournal.class) {
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.append(line);
+                writer.flush();
+            } catch (IOException e) {
+                LOGGER.warn("Could not append to report journal: {}", e.getMessage());
+            }
+        }
+        EVENTS.incrementAndGet();
+        ExecutionMetrics.increment("report.journal.events");
+    }
+
+    private static String stackTrace(Throwable throwable) {
+        StringWriter trace = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(trace));
+        return trace.toString();
+    }
+}
@@ -0,0 +1,295 @@
+package com.crypto.report;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.crypto.constants.Constants;
+
+/**
+ * Combines the results of shards run on separate machines or processes. Reads
+ * every {@code shard-<index>.json} from the shard directory, rebuilds a
+ * single Extent report from the shards' JSON archives (or from the results
+ * when an archive is missing), and writes {@code merged-results.json} with
+ * totals and the predicted versus actual time of each shard.
+ *
+ * <p>
+ * Usage: {@code ShardResultMerger [shardDir] [reportFile]}. The exit code is 1
+ * when a shard is missing, any test failed, or the shards' partition plans
+ * disagree or show a method or data row that was dropped or run twice.
+ */
+public class ShardResultMerger {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardResultMerger.class);
+
+    private ShardResultMerger() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path shardDir = Paths.get(args.length > 0 ? args[0] : Constants.SHARDS_DIR);
+        String reportFile = args.length > 1 ? args[1] : Constants.EXTENT_REPORT_PATH + "MergedReport.html";
+        System.exit(merge(shardDir, reportFile) ? 0 : 1);
+    }
+
+    /**
+     * @param shardDir   Directory holding the shard result files
+     * @param reportFile Path of the merged Extent report
+     * @return true if all shards are present, no test failed and the shards
+     *         ran every method and data row exactly once
+     */
+    @SuppressWarnings("unchecked")
+    public static boolean merge(Path shardDir, String reportFile) throws IOException {
+        List<Map<String, Object>> shards = readShards(shardDir);
+        if (shards.isEmpty()) {
+            LOGGER.error("No shard results found in {}", shardDir);
+            return false;
+        }
+
+        ExtentReports extent = new ExtentReports();
+        extent.attachReporter(new ExtentSparkReporter(reportFile));
+
+        int expected = ((Number) shards.get(0).get("count")).intValue();
+        Map<String, Integer> totals = new LinkedHashMap<>();
+        List<Map<String, Object>> shardSummaries = new ArrayList<>();
+        for (Map<String, Object> shard : shards) {
+            int index = ((Number) shard.get("index")).intValue();
+            List<Map<String, Object>> results = (List<Map<String, Object>>) shard.get("results");
+            results.forEach(result -> totals.merge(String.valueOf(result.get("status")), 1, Integer::sum));
+
+            File archive = new File(String.valueOf(shard.get("extentArchive")));
+            if (archive.isFile()) {
+                extent.createDomainFromJsonArchive(archive);
+            } else {
+                LOGGER.warn("No Extent archive for shard {}, rebuilding its tests from the results", index);
+                addResults(extent, index, results);
+            }
+
+            long actual = ((Number) shard.get("endMillis")).longValue() - ((Number) shard.get("startMillis")).longValue();
+            long predicted = ((Map<String, Object>) shard.get("predictedMillis")).values().stream()
+                    .mapToLong(value -> ((Number) value).longValue()).sum();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("index", index);
+            summary.put("tests", results.size());
+            summary.put("predictedMillis", predicted);
+            summary.put("actualMillis", actual);
+            shardSummaries.add(summary);
+            extent.setSystemInfo("Shard " + index, String.format("%d test(s), predicted %.1f s, actual %.1f s",
+                    results.size(), predicted / 1000.0, actual / 1000.0));
+        }
+        totals.forEach((status, count) -> extent.setSystemInfo("Total " + status, String.valueOf(count)));
+        List<String> problems = verifyPlan(shards);
+        problems.forEach(problem -> LOGGER.error("Shard plan: {}", problem));
+        if (!problems.isEmpty()) {
+            extent.setSystemInfo("Shard plan problems", String.valueOf(problems.size()));
+        }
+        extent.flush();
+
+        Map<String, Object> merged = new LinkedHashMap<>();
+        merged.put("shards", shardSummaries);
+        merged.put("expectedShards", expected);
+        merged.put("totals", totals);
+        merged.put("planProblems", problems);
+        merged.put("report", reportFile);
+        try (Writer writer = Files.newBufferedWriter(shardDir.resolve("merged-results.json"), StandardCharsets.UTF_8)) {
+            writer.write(new Json().toJson(merged));
+        }
+
+        boolean complete = shards.size() == expected;
+        int failed = totals.getOrDefault("FAIL", 0);
+        LOGGER.info("Merged {} of {} shard(s) into {}: {}", shards.size(), expected, reportFile, totals);
+        if (!complete) {
+            LOGGER.error("Only {} of {} shard result(s) found in {}", shards.size(), expected, shardDir);
+        }
+        return complete && failed == 0 && problems.isEmpty();
+    }
+
+    /**
+     * Checks that every shard split the suite the same way and ran exactly its
+     * part: each method on the shard it was assigned to and on no other, and
+     * each data-provider row on exactly one shard.
+     *
+     * @param shards Parsed shard result files
+     * @return Problems found, empty when the shards cover the suite exactly once
+     */
+    @SuppressWarnings("unchecked")
+    static List<String> verifyPlan(List<Map<String, Object>> shards) {
+        List<String> problems = new ArrayList<>();
+        Map<String, Object> reference = null;
+        int referenceIndex = 0;
+        for (Map<String, Object> shard : shards) {
+            int index = ((Number) shard.get("index")).intValue();
+            Map<String, Object> plan = (Map<String, Object>) shard.get("plan");
+            if (plan == null) {
+                problems.add("Shard " + index + " recorded no plan");
+            } else if (reference == null) {
+                reference = plan;
+                referenceIndex = index;
+            } else {
+                for (String test : union(reference.keySet(), plan.keySet())) {
+                    Map<String, Object> expected = (Map<String, Object>) reference.get(test);
+                    Map<String, Object> actual = (Map<String, Object>) plan.get(test);
+                    if (expected == null || actual == null
+                            || !Objects.equals(expected.get("input"), actual.get("input"))
+                            || !Objects.equals(expected.get("methods"), actual.get("methods"))) {
+                        problems.add(String.format("Shard %d split test '%s' differently from shard %d", index,
+                                test, referenceIndex));
+                    }
+                }
+            }
+        }
+        if (reference == null) {
+            return problems;
+        }
+
+        // Methods run on each shard, by test
+        Map<String, Map<String, Map<Integer, Integer>>> runs = new TreeMap<>();
+        for (Map<String, Object> shard : shards) {
+            int index = ((Number) shard.get("index")).intValue();
+            for (Map<String, Object> result : (List<Map<String, Object>>) shard.get("results")) {
+                runs.computeIfAbsent(String.valueOf(result.get("test")), k -> new TreeMap<>())
+                        .computeIfAbsent(result.get("class") + "#" + result.get("method"), k -> new TreeMap<>())
+                        .merge(index, 1, Integer::sum);
+            }
+        }
+
+        for (Map.Entry<String, Object> testEntry : new TreeMap<>(reference).entrySet()) {
+            String test = testEntry.getKey();
+            Map<String, Map<Integer, Integer>> testRuns = runs.getOrDefault(test, Map.of());
+            Map<String, Object> methods = (Map<String, Object>) ((Map<String, Object>) testEntry.getValue())
+                    .get("methods");
+            for (Map.Entry<String, Object> method : new TreeMap<>(methods).entrySet()) {
+                int assigned = ((Number) method.getValue()).intValue();
+                Map<Integer, Integer> ranOn = testRuns.getOrDefault(method.getKey(), Map.of());
+                if (!ranOn.containsKey(assigned)) {
+                    problems.add(String.format("%s of test '%s' was assigned to shard %d but did not run there",
+                            method.getKey(), test, assigned));
+                }
+                ranOn.keySet().stream().filter(shardIndex -> shardIndex != assigned)
+                        .forEach(shardIndex -> problems.add(String.format(
+                                "%s of test '%s' was assigned to shard %d but also ran on shard %d",
+                                method.getKey(), test, assigned, shardIndex)));
+            }
+            verifyRows(problems, shards, test, testRuns);
+        }
+        return problems;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void verifyRows(List<String> problems, List<Map<String, Object>> shards, String test,
+            Map<String, Map<Integer, Integer>> testRuns) {
+        Map<String, Map<Integer, Integer>> rowShards = new TreeMap<>();
+        Map<String, Integer> totals = new TreeMap<>();
+        for (Map<String, Object> shard : shards) {
+            int index = ((Number) shard.get("index")).intValue();
+            Map<String, Object> plan = (Map<String, Object>) shard.get("plan");
+            Map<String, Object> testPlan = plan == null ? null : (Map<String, Object>) plan.get(test);
+            Map<String, Object> rows = testPlan == null ? null : (Map<String, Object>) testPlan.get("rows");
+            if (rows == null) {
+                continue;
+            }
+            for (Map.Entry<String, Object> entry : rows.entrySet()) {
+                String method = entry.getKey();
+                Map<String, Object> row = (Map<String, Object>) entry.getValue();
+                int total = ((Number) row.get("total")).intValue();
+                Integer previous = totals.putIfAbsent(method, total);
+                if (previous != null && previous != total) {
+                    problems.add(String.format("%s of test '%s' had %d data row(s) on one shard and %d on shard %d",
+                            method, test, previous, total, index));
+                }
+                List<Number> kept = (List<Number>) row.get("kept");
+                for (Number rowIndex : kept) {
+                    Integer other = rowShards.computeIfAbsent(method, k -> new TreeMap<>())
+                            .putIfAbsent(rowIndex.intValue(), index);
+                    if (other != null) {
+                        problems.add(String.format("Row %d of %s of test '%s' ran on shards %d and %d", rowIndex,
+                                method, test, other, index));
+                    }
+                }
+                int ran = testRuns.getOrDefault(method, Map.of()).getOrDefault(index, 0);
+                if (ran < kept.size()) {
+                    problems.add(String.format("%s of test '%s' kept %d row(s) on shard %d but only %d ran", method,
+                            test, kept.size(), index, ran));
+                }
+            }
+        }
+        totals.forEach((method, total) -> {
+            Map<Integer, Integer> covered = rowShards.getOrDefault(method, Map.of());
+            for (int row = 0; row < total; row++) {
+                if (!covered.containsKey(row)) {
+                    problems.add(String.format("Row %d of %s of test '%s' ran on no shard", row, method, test));
+                }
+            }
+        });
+    }
+
+    private static Set<String> union(Set<String> first, Set<String> second) {
+        Set<String> union = new TreeSet<>(first);
+        union.addAll(second);
+        return union;
+    }
+
+    private static List<Map<String, Object>> readShards(Path shardDir) throws IOException {
+        List<Map<String, Object>> shards = new ArrayList<>();
+        if (!Files.isDirectory(shardDir)) {
+            return shards;
+        }
+        Json json = new Json();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(shardDir, "shard-[0-9]*.json")) {
+            for (Path file : files) {
+                if (file.getFileName().toString().endsWith(".extent.json")) {
+                    continue;
+                }
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    shards.add(json.toType(reader, Json.MAP_TYPE));
+                }
+            }
+        }
+        shards.sort(Comparator.comparingInt(shard -> ((Number) shard.get("index")).intValue()));
+        return shards;
+    }
+
+    private static void addResults(ExtentReports extent, int shardIndex, List<Map<String, Object>> results) {
+        for (Map<String, Object> result : results) {
+            String name = result.get("class") + "." + result.get("method");
+            ExtentTest test = extent.createTest(name, String.valueOf(result.get("parameters")));
+            test.assignCategory("shard-" + shardIndex);
+            long millis = ((Number) result.get("endMillis")).longValue()
+                    - ((Number) result.get("startMillis")).longValue();
+            String message = String.format("%s in %d ms on shard %d", name, millis, shardIndex);
+            switch (String.valueOf(result.get("status"))) {
+                case "PASS":
+                    test.log(Status.PASS, message);
+                    break;
+                case "FAIL":
+                    test.log(Status.FAIL, message + ": " + result.get("error"));
+                    break;
+                default:
+                    test.log(Status.SKIP, message);
+                    break;
+            }
+        }
+    }
+}
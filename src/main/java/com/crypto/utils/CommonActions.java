@@ -1,15 +1,28 @@
 package com.crypto.utils;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.Dimension;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchFrameException;
 import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
@@ -21,17 +34,162 @@ import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.crypto.Driver.DriverInstance;
 import com.crypto.constants.Constants;
+import com.crypto.enums.WaitMode;
+import com.crypto.report.ExecutionMetrics;
+import com.crypto.utils.EventDrivenWait.Condition;
+import com.crypto.utils.devtools.NetworkTracker;
+import com.crypto.utils.locators.FrameContext;
+import com.crypto.utils.locators.LocatorContext;
+import com.crypto.utils.locators.PageFrame;
 import com.crypto.utils.wrappers.ScreenshotUtils;
 
 public class CommonActions {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CommonActions.class);
+
+    /*
+     * Counts in-flight fetch/XHR requests of the current window so settle waits
+     * can tell when the page has gone quiet. Installed once per document.
+     */
+    private static final String NETWORK_HOOK_SCRIPT = ""
+            + "var w = window;"
+            + "if (w.__settle) return;"
+            + "var st = w.__settle = { pending: 0, lastActivity: performance.now() };"
+            + "function begin() { st.pending++; st.lastActivity = performance.now(); }"
+            + "function end() { st.pending = Math.max(0, st.pending - 1); st.lastActivity = performance.now(); }"
+            + "if (w.fetch) {"
+            + "  var originalFetch = w.fetch;"
+            + "  w.fetch = function () {"
+            + "    begin();"
+            + "    return originalFetch.apply(this, arguments).then("
+            + "      function (r) { end(); return r; }, function (e) { end(); throw e; });"
+            + "  };"
+            + "}"
+            + "if (w.XMLHttpRequest) {"
+            + "  var originalSend = w.XMLHttpRequest.prototype.send;"
+            + "  w.XMLHttpRequest.prototype.send = function () {"
+            + "    begin();"
+            + "    this.addEventListener('loadend', end, { once: true });"
+            + "    return originalSend.apply(this, arguments);"
+            + "  };"
+            + "}";
+
+    /*
+     * Resolves once there are no in-flight requests, no running finite
+     * animations and no DOM mutations for the quiet period, or when max elapses.
+     */
+    private static final String SETTLE_SCRIPT = ""
+            + "var quiet = arguments[0], max = arguments[1], done = arguments[arguments.length - 1];"
+            + "var st = window.__settle || { pending: 0, lastActivity: 0 };"
+            + "var start = performance.now(), lastMutation = start;"
+            + "var mo = new MutationObserver(function () { lastMutation = performance.now(); });"
+            + "mo.observe(document, { subtree: true, childList: true, attributes: true, characterData: true });"
+            + "function runningAnimations() {"
+            + "  if (!document.getAnimations) return 0;"
+            + "  return document.getAnimations().filter(function (a) {"
+            + "    var timing = a.effect && a.effect.getTiming ? a.effect.getTiming() : null;"
+            + "    return a.playState === 'running' && (!timing || timing.iterations !== Infinity);"
+            + "  }).length;"
+            + "}"
+            + "function tick() {"
+            + "  var now = performance.now();"
+            + "  var idle = st.pending === 0 && now - Math.max(lastMutation, st.lastActivity) >= quiet"
+            + "      && runningAnimations() === 0;"
+            + "  if (idle || now - start >= max) {"
+            + "    mo.disconnect();"
+            + "    done({ settled: idle, elapsed: Math.round(now - start), pending: st.pending });"
+            + "    return;"
+            + "  }"
+            + "  setTimeout(tick, 50);"
+            + "}"
+            + "setTimeout(tick, 50);";
+
+    /*
+     * Resolves each target (an element, or a locator strategy and value) and
+     * reads its state. Visibility follows WebDriver's isDisplayed closely enough
+     * for toolbar checks: rendered, not hidden by CSS or opacity, non-empty box.
+     */
+    static final String ELEMENT_STATES_SCRIPT = ""
+            + "var targets = arguments[0], states = [];"
+            + "function byText(value, partial) {"
+            + "  return Array.prototype.find.call(document.querySelectorAll('a'), function (a) {"
+            + "    var t = (a.innerText || '').trim(); return partial ? t.indexOf(value) >= 0 : t === value;"
+            + "  }) || null;"
+            + "}"
+            + "function find(t) {"
+            + "  if (t.element) { return t.element; }"
+            + "  switch (t.using) {"
+            + "    case 'xpath': return document.evaluate(t.value, document, null,"
+            + "        XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "    case 'css selector': return document.querySelector(t.value);"
+            + "    case 'id': return document.getElementById(t.value);"
+            + "    case 'name': return document.getElementsByName(t.value)[0] || null;"
+            + "    case 'class name': return document.getElementsByClassName(t.value)[0] || null;"
+            + "    case 'tag name': return document.getElementsByTagName(t.value)[0] || null;"
+            + "    case 'link text': return byText(t.value, false);"
+            + "    case 'partial link text': return byText(t.value, true);"
+            + "  }"
+            + "  return null;"
+            + "}"
+            + "function displayed(e, style, rect) {"
+            + "  if (typeof e.checkVisibility === 'function'"
+            + "      && !e.checkVisibility({ checkOpacity: true, checkVisibilityCSS: true })) { return false; }"
+            + "  if (style.display === 'none' || style.visibility === 'hidden' || style.visibility === 'collapse'"
+            + "      || style.opacity === '0') { return false; }"
+            + "  return rect.width > 0 && rect.height > 0;"
+            + "}"
+            + "for (var i = 0; i < targets.length; i++) {"
+            + "  var e = null;"
+            + "  try { e = find(targets[i]); } catch (err) { e = null; }"
+            + "  if (!e || e.nodeType !== 1) {"
+            + "    states.push({ present: false, displayed: false, enabled: false, inViewport: false, text: '' });"
+            + "    continue;"
+            + "  }"
+            + "  var style = getComputedStyle(e), rect = e.getBoundingClientRect();"
+            + "  states.push({"
+            + "    present: true,"
+            + "    displayed: displayed(e, style, rect),"
+            + "    enabled: !e.disabled && !(e.closest && e.closest('fieldset[disabled]')),"
+            + "    inViewport: rect.bottom > 0 && rect.right > 0"
+            + "        && rect.top < window.innerHeight && rect.left < window.innerWidth,"
+            + "    text: (e.innerText || e.textContent || '').trim()"
+            + "  });"
+            + "}"
+            + "return states;";
+
+    /*
+     * Reads headers and a range of body rows of a table. Columns listed in the
+     * composite map are built by joining the text of the given child selectors.
+     */
+    private static final String TABLE_SCRIPT = ""
+            + "var table = arguments[0], composite = arguments[1] || {}, from = arguments[2], max = arguments[3];"
+            + "function text(e) { return e ? (e.innerText || e.textContent || '').trim() : ''; }"
+            + "var headers = Array.prototype.map.call(table.querySelectorAll('thead tr th'), text);"
+            + "var body = table.tBodies.length ? table.tBodies[0].rows : table.rows;"
+            + "var total = body.length;"
+            + "var end = max < 0 ? total : Math.min(total, from + max);"
+            + "var rows = [];"
+            + "for (var i = from; i < end; i++) {"
+            + "  var cells = body[i].cells, row = [];"
+            + "  var count = headers.length ? Math.min(headers.length, cells.length) : cells.length;"
+            + "  for (var c = 0; c < count; c++) {"
+            + "    var selectors = composite[String(c)];"
+            + "    row.push(selectors"
+            + "        ? selectors.map(function (s) { return text(cells[c].querySelector(s)); }).join(' ')"
+            + "        : text(cells[c]));"
+            + "  }"
+            + "  rows.push(row);"
+            + "}"
+            + "return { headers: headers, rows: rows, totalRows: total };";
     private WebDriver driver;
     private WebDriverWait wait;
     private FluentWait<WebDriver> fluentWait;
     private JavascriptExecutor jsExecutor;
     private Actions actions;
+    private final EventDrivenWait eventDrivenWait;
+    private final WaitMode waitMode;
 
     public CommonActions(WebDriver driver) {
         this.driver = driver;
@@ -41,11 +199,39 @@ public class CommonActions {
                 .pollingEvery(Duration.ofSeconds(1))
                 .ignoring(NoSuchElementException.class);
         this.actions = new Actions(driver);
+        this.eventDrivenWait = new EventDrivenWait(driver);
+        this.waitMode = Constants.WAIT_MODE != null ? Constants.WAIT_MODE : WaitMode.POLLING;
+    }
+
+    /**
+     * Runs an in-page event driven wait when the event wait mode is enabled and
+     * falls back to the given polling wait otherwise. Latency is recorded per
+     * mode as the wait.event and wait.polling metrics.
+     */
+    private boolean waitFor(WebElement element, Condition condition, Duration timeout, Supplier<Boolean> pollingWait) {
+        long start = System.nanoTime();
+        if (waitMode == WaitMode.EVENT) {
+            Boolean result = eventDrivenWait.until(element, condition, timeout);
+            if (result != null) {
+                ExecutionMetrics.recordSince("wait.event", start);
+                if (!result) {
+                    throw new TimeoutException(String.format("Condition %s not met within %d ms", condition,
+                            timeout.toMillis()));
+                }
+                return true;
+            }
+            ExecutionMetrics.increment("wait.event.fallback");
+        }
+        try {
+            return pollingWait.get();
+        } finally {
+            ExecutionMetrics.recordSince("wait.polling", start);
+        }
     }
 
     public void openUrl(String url) {
         try {
-            LOGGER.info("Opening URL: {}", url);
+            LOGGER.debug("Opening URL: {}", url);
 
             if (driver == null) {
                 throw new IllegalStateException("WebDriver is null. Cannot open URL.");
@@ -56,9 +242,13 @@ public class CommonActions {
             }
 
             driver.get(url);
+            LocatorContext.invalidate(driver);
+            FrameContext.reset(driver);
 
             // Wait for page to load
             waitForPageLoad(Constants.PAGE_LOAD_TIMEOUT);
+            installNetworkHooks();
+            WebVitalsCollector.capture(driver, "navigation " + url);
 
             LOGGER.info("URL opened successfully: {}", url);
         } catch (TimeoutException e) {
@@ -98,18 +288,53 @@ public class CommonActions {
                 .substring(0, Math.min(50, url.length()));
     }
 
+    /**
+     * Attaches a screenshot of just the element to the report
+     *
+     * @param element     Element to capture
+     * @param elementName Name of the element for logging and the file name
+     */
+    public void captureElementScreenshot(WebElement element, String elementName) {
+        try {
+            ScreenshotUtils.captureElementScreenshot(element, elementName, "Screenshot of " + elementName);
+        } catch (Exception e) {
+            LOGGER.warn("Failed to capture screenshot of {}: {}", elementName, e.getMessage());
+        }
+    }
+
+    /**
+     * Attaches a screenshot of the viewport clipped to the element's region,
+     * for elements whose own screenshot the driver renders poorly, such as
+     * cross-origin iframes
+     *
+     * @param element     Element to capture, in the current frame
+     * @param elementName Name of the element for logging and the file name
+     */
+    public void captureRegionScreenshot(WebElement element, String elementName) {
+        try {
+            @SuppressWarnings("unchecked")
+            List<Number> rect = (List<Number>) ((JavascriptExecutor) driver).executeScript(
+                    "const r = arguments[0].getBoundingClientRect(); return [r.left, r.top, r.width, r.height];",
+                    element);
+            // Selenium's Rectangle takes the height before the width
+            Rectangle region = new Rectangle(rect.get(0).intValue(), rect.get(1).intValue(), rect.get(3).intValue(),
+                    rect.get(2).intValue());
+            ScreenshotUtils.captureRegionScreenshot(driver, region, elementName, "Screenshot of " + elementName);
+        } catch (Exception e) {
+            LOGGER.warn("Failed to capture screenshot of {}: {}", elementName, e.getMessage());
+        }
+    }
+
     /**
      * Captures a screenshot when an error occurs
      */
     private void captureErrorScreenshot(String actionName) {
         try {
             if (driver != null) {
-                ScreenshotUtils.takeScreenshot(driver, "ERROR_" + actionName);
-                LOGGER.info("Error screenshot captured for: {}", actionName);
-
-                ScreenshotUtils.captureAndAttachScreenshot(
-                        driver,
+                // Single capture, saved and attached by the screenshot pipeline
+                ScreenshotUtils.captureAndAttachScreenshot(driver, "ERROR_" + actionName,
                         "Error screenshot captured during: " + actionName);
+                LOGGER.info("Error screenshot captured for: {}", actionName);
             }
         } catch (Exception e) {
             LOGGER.warn("Failed to capture error screenshot: {}", e.getMessage());
@@ -125,12 +350,12 @@ public class CommonActions {
     @SuppressWarnings("null")
     public boolean waitForPageLoad(int timeoutSeconds) {
         try {
-            wait.until(webDriver -> {
-                String state = ((org.openqa.selenium.JavascriptExecutor) webDriver)
-                        .executeScript("return document.readyState").toString();
-                return state.equals("complete");
-            });
-            return true;
+            return waitFor(null, Condition.PAGE_READY, Duration.ofSeconds(timeoutSeconds),
+                    () -> wait.until(webDriver -> {
+                        String state = ((org.openqa.selenium.JavascriptExecutor) webDriver)
+                                .executeScript("return document.readyState").toString();
+                        return state.equals("complete");
+                    }));
         } catch (TimeoutException e) {
             LOGGER.warn("Page did not load within {} seconds", timeoutSeconds);
             return false;
@@ -140,6 +365,122 @@ public class CommonActions {
         }
     }
 
+    /**
+     * Waits until the page is settled: no in-flight fetch/XHR requests, no
+     * running finite animations and no DOM mutations for {@code quietMillis}.
+     *
+     * @param quietMillis Required quiet period in milliseconds
+     * @param maxMillis   Upper bound for the wait in milliseconds
+     * @return Time spent waiting in milliseconds
+     */
+    public long waitForSettle(long quietMillis, long maxMillis) {
+        long start = System.nanoTime();
+        long boundedMax = Math.min(maxMillis, Math.max(0, Constants.SCRIPT_TIMEOUT * 1000L - 500));
+        try {
+            Object result = ((JavascriptExecutor) driver).executeAsyncScript(SETTLE_SCRIPT, quietMillis, boundedMax);
+            if (result instanceof Map && !Boolean.TRUE.equals(((Map<?, ?>) result).get("settled"))) {
+                LOGGER.warn("Page did not settle within {} ms: {}", boundedMax, result);
+            }
+        } catch (WebDriverException e) {
+            LOGGER.warn("Settle detection unavailable, falling back to fixed wait: {}", e.getMessage());
+            try {
+                Thread.sleep(maxMillis);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return Duration.ofNanos(System.nanoTime() - start).toMillis();
+    }
+
+    /**
+     * Waits until no request of the current frame, and the frames inside it, has
+     * been in flight for {@code quietMillis}. At the top-level document that is
+     * the whole page. Uses DevTools network events when tracking is enabled for
+     * the driver, otherwise the in-page fetch/XHR counter of the current
+     * document.
+     *
+     * @param quietMillis Required quiet period in milliseconds
+     * @param maxMillis   Upper bound for the wait in milliseconds
+     * @return true if the network went idle within maxMillis
+     */
+    public boolean waitForNetworkIdle(long quietMillis, long maxMillis) {
+        Optional<NetworkTracker> tracker = NetworkTracker.of(driver);
+        if (tracker.isPresent()) {
+            return tracker.get().waitForNetworkIdle(currentFrameId(tracker.get()), quietMillis, maxMillis);
+        }
+        return waitForSettle(quietMillis, maxMillis) < maxMillis;
+    }
+
+    /*
+     * DevTools id of the frame the driver is in, null at the top-level document
+     * or when the frame cannot be told apart
+     */
+    private String currentFrameId(NetworkTracker tracker) {
+        return tracker.findFrameId(FrameContext.getNameAttribute(driver)).orElse(null);
+    }
+
+    /**
+     * Replacement for a fixed sleep: waits for the page to settle, bounded by the
+     * duration of the sleep it replaces, and records the time saved.
+     *
+     * @param legacySeconds Duration of the fixed sleep being replaced
+     */
+    public void settle(long legacySeconds) {
+        long legacyMillis = legacySeconds * 1000;
+        long start = System.nanoTime();
+        // DevTools also sees iframe traffic the in-page hooks miss
+        NetworkTracker.of(driver).ifPresent(tracker -> tracker.waitForNetworkIdle(currentFrameId(tracker),
+                Constants.SETTLE_QUIET_MILLIS, legacyMillis));
+        long networkMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        long elapsed = networkMillis
+                + waitForSettle(Constants.SETTLE_QUIET_MILLIS, Math.max(0, legacyMillis - networkMillis));
+        LOGGER.info("Page settled in {} ms (replaces fixed wait of {} ms)", elapsed, legacyMillis);
+        SettleTracker.recordSettle(legacyMillis, elapsed);
+    }
+
+    /**
+     * Installs the in-flight request counter used by settle waits in the current
+     * document, so requests started before the next settle wait are seen
+     */
+    public void installNetworkHooks() {
+        try {
+            ((JavascriptExecutor) driver).executeScript(NETWORK_HOOK_SCRIPT);
+        } catch (WebDriverException e) {
+            LOGGER.debug("Could not install network hooks: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Collects Navigation Timing, LCP, CLS and TBT of the current document
+     *
+     * @param label Name of the page in the report
+     */
+    public void captureWebVitals(String label) {
+        WebVitalsCollector.capture(driver, label);
+    }
+
+    /**
+     * Runs an in-page transition and collects the metrics it produced
+     *
+     * @param label      Name of the transition in the report
+     * @param transition Action that triggers the transition and waits for it
+     */
+    public void measureTransition(String label, Runnable transition) {
+        double since = WebVitalsCollector.mark(driver);
+        transition.run();
+        WebVitalsCollector.captureSince(driver, label, since);
+    }
+
+    /**
+     * Runs an interaction while sampling frame times in the current document
+     *
+     * @param label       Name of the interaction in the report
+     * @param interaction Action to measure
+     */
+    public void measureRendering(String label, Runnable interaction) {
+        FrameRateProbe.measure(driver, label, interaction);
+    }
+
     /**
      * Provides user-friendly error messages for connection errors
      */
@@ -196,64 +537,72 @@ public class CommonActions {
     }
 
     public void closeTab() {
-        LOGGER.info("Closing tab");
+        LOGGER.debug("Closing tab");
         driver.close();
+        LocatorContext.invalidate(driver);
+        FrameContext.reset(driver);
         LOGGER.info("Tab closed successfully");
     }
 
     public void closeBrowser() {
-        LOGGER.info("Closing browser");
-        driver.quit();
+        LOGGER.debug("Closing browser");
+        DriverInstance.quit(driver);
         LOGGER.info("Browser closed successfully");
     }
 
     public String getCurrentUrl() {
-        LOGGER.info("Getting current URL");
+        LOGGER.debug("Getting current URL");
         String currentUrl = driver.getCurrentUrl();
         LOGGER.info("Current URL: {}", currentUrl);
         return currentUrl;
     }
 
     public String getPageTitle() {
-        LOGGER.info("Getting page title");
+        LOGGER.debug("Getting page title");
         String pageTitle = driver.getTitle();
         LOGGER.info("Page title: {}", pageTitle);
         return pageTitle;
     }
 
     public String getPageSource() {
-        LOGGER.info("Getting page source");
+        LOGGER.debug("Getting page source");
         String pageSource = driver.getPageSource();
-        LOGGER.info("Page source: {}", pageSource);
+        LOGGER.debug("Page source: {}", pageSource);
         return pageSource;
     }
 
     public void refreshPage() {
-        LOGGER.info("Refreshing page");
+        LOGGER.debug("Refreshing page");
         driver.navigate().refresh();
+        LocatorContext.invalidate(driver);
+        FrameContext.reset(driver);
         LOGGER.info("Page refreshed successfully");
     }
 
     public void navigateBack() {
-        LOGGER.info("Navigating back");
+        LOGGER.debug("Navigating back");
         driver.navigate().back();
+        LocatorContext.invalidate(driver);
+        FrameContext.reset(driver);
         LOGGER.info("Navigated back successfully");
     }
 
     public void navigateForward() {
-        LOGGER.info("Navigating forward");
+        LOGGER.debug("Navigating forward");
         driver.navigate().forward();
+        LocatorContext.invalidate(driver);
+        FrameContext.reset(driver);
         LOGGER.info("Navigated forward successfully");
     }
 
     public void maximizeWindow() {
-        LOGGER.info("Maximizing window");
+        LOGGER.debug("Maximizing window");
         driver.manage().window().maximize();
         LOGGER.info("Window maximized successfully");
     }
 
     public void minimizeWindow() {
-        LOGGER.info("Minimizing window");
+        LOGGER.debug("Minimizing window");
         driver.manage().window().minimize();
         LOGGER.info("Window minimized successfully");
     }
@@ -271,7 +620,7 @@ public class CommonActions {
     }
 
     public Map<String, Object> getWindowPosition() {
-        LOGGER.info("Getting window position");
+        LOGGER.debug("Getting window position");
         Map<String, Object> windowPosition = new HashMap<>();
         windowPosition.put("x", driver.manage().window().getPosition().getX());
         windowPosition.put("y", driver.manage().window().getPosition().getY());
@@ -280,7 +629,7 @@ public class CommonActions {
     }
 
     public Map<String, Object> getWindowSize() {
-        LOGGER.info("Getting window size");
+        LOGGER.debug("Getting window size");
         Map<String, Object> windowSize = new HashMap<>();
         windowSize.put("width", driver.manage().window().getSize().getWidth());
         windowSize.put("height", driver.manage().window().getSize().getHeight());
@@ -289,39 +638,40 @@ public class CommonActions {
     }
 
     public WebElement findElement(String xpath, String elementName) {
-        LOGGER.info("Finding element by xpath: {}", xpath);
+        LOGGER.debug("Finding element by xpath: {}", xpath);
         WebElement element = driver.findElement(By.xpath(xpath));
-        LOGGER.info("Element {} found: {}", elementName, element);
+        LOGGER.debug("Element {} found: {}", elementName, element);
         return element;
     }
 
     public WebElement findElement(By locator, String elementName) {
-        LOGGER.info("Finding element");
+        LOGGER.debug("Finding element");
         WebElement element = driver.findElement(locator);
-        LOGGER.info("Element {} found: {}", elementName, element);
+        LOGGER.debug("Element {} found: {}", elementName, element);
         return element;
     }
 
     public List<WebElement> findElements(String xpath, String elementName) {
-        LOGGER.info("Finding elements by xpath: {}", xpath);
+        LOGGER.debug("Finding elements by xpath: {}", xpath);
         List<WebElement> elements = driver.findElements(By.xpath(xpath));
-        LOGGER.info("Elements {} found: {}", elementName, elements);
+        LOGGER.info("Elements {} found: {}", elementName, elements.size());
         return elements;
     }
 
     public List<WebElement> findElements(By locator, String elementName) {
-        LOGGER.info("Finding elements");
+        LOGGER.debug("Finding elements");
         List<WebElement> elements = driver.findElements(locator);
-        LOGGER.info("Elements {} found: {}", elementName, elements);
+        LOGGER.info("Elements {} found: {}", elementName, elements.size());
         return elements;
     }
 
     @SuppressWarnings("null")
     public boolean isElementDisplayed(WebElement element, String elementName) {
-        LOGGER.info("Checking if element is visible with wait");
+        LOGGER.debug("Checking if element is visible with wait");
         boolean isVisible;
         try {
-            isVisible = wait.until(ExpectedConditions.visibilityOf(element)).isDisplayed();
+            isVisible = waitFor(element, Condition.VISIBLE, Duration.ofSeconds(Constants.EXPLICIT_WAIT),
+                    () -> wait.until(ExpectedConditions.visibilityOf(element)).isDisplayed());
         } catch (TimeoutException e) {
             LOGGER.warn("Element is not visible: {}", e.getMessage());
             return false;
@@ -331,7 +681,7 @@ public class CommonActions {
     }
 
     public boolean isElementDisplayed(By locator, String elementName) {
-        LOGGER.info("Checking if element is visible with wait");
+        LOGGER.debug("Checking if element is visible with wait");
         boolean isVisible;
         try {
             isVisible = wait.until(ExpectedConditions.visibilityOfElementLocated(locator)).isDisplayed();
@@ -344,7 +694,7 @@ public class CommonActions {
     }
 
     public boolean isElementDisplayedWithFluentWait(WebElement element, String elementName) {
-        LOGGER.info("Checking if element is visible with fluent wait");
+        LOGGER.debug("Checking if element is visible with fluent wait");
         boolean isVisible;
         try {
             isVisible = fluentWait.until(ExpectedConditions.visibilityOf(element)).isDisplayed();
@@ -357,7 +707,7 @@ public class CommonActions {
     }
 
     public boolean isElementDisplayedWithFluentWait(By locator, String elementName) {
-        LOGGER.info("Checking if element is visible with fluent wait");
+        LOGGER.debug("Checking if element is visible with fluent wait");
         boolean isVisible;
         try {
             isVisible = fluentWait.until(ExpectedConditions.visibilityOfElementLocated(locator)).isDisplayed();
@@ -370,7 +720,7 @@ public class CommonActions {
     }
 
     public boolean areElementsDisplayed(WebElement element, String elementName) {
-        LOGGER.info("Checking if elements are visible");
+        LOGGER.debug("Checking if elements are visible");
         boolean areVisible;
         try {
             areVisible = wait.until(ExpectedConditions.visibilityOfAllElements(element)).size() > 0;
@@ -383,10 +733,11 @@ public class CommonActions {
     }
 
     public boolean isElementClickable(WebElement element, String elementName) {
-        LOGGER.info("Checking if element is clickable");
+        LOGGER.debug("Checking if element is clickable");
         boolean isClickable;
         try {
-            isClickable = wait.until(ExpectedConditions.elementToBeClickable(element)).isDisplayed();
+            isClickable = waitFor(element, Condition.CLICKABLE, Duration.ofSeconds(Constants.EXPLICIT_WAIT),
+                    () -> wait.until(ExpectedConditions.elementToBeClickable(element)).isDisplayed());
         } catch (TimeoutException e) {
             LOGGER.warn("Element {} is not clickable: {}", elementName, e.getMessage());
             return false;
@@ -396,7 +747,7 @@ public class CommonActions {
     }
 
     public boolean isElementClickable(By locator, String elementName) {
-        LOGGER.info("Checking if element is clickable");
+        LOGGER.debug("Checking if element is clickable");
         boolean isClickable;
         try {
             isClickable = wait.until(ExpectedConditions.elementToBeClickable(locator)).isDisplayed();
@@ -409,7 +760,7 @@ public class CommonActions {
     }
 
     public boolean isElementClickableWithWait(WebElement element, String elementName) {
-        LOGGER.info("Checking if element is clickable with wait");
+        LOGGER.debug("Checking if element is clickable with wait");
         boolean isClickable;
         try {
             isClickable = wait.until(ExpectedConditions.elementToBeClickable(element)).isDisplayed();
@@ -422,7 +773,7 @@ public class CommonActions {
     }
 
     public boolean isElementClickableWithWait(By locator, String elementName) {
-        LOGGER.info("Checking if element is clickable with wait");
+        LOGGER.debug("Checking if element is clickable with wait");
         boolean isClickable;
         try {
             isClickable = wait.until(ExpectedConditions.elementToBeClickable(locator)).isDisplayed();
@@ -435,7 +786,7 @@ public class CommonActions {
     }
 
     public boolean isElementClickableWithFluentWait(By locator, String elementName) {
-        LOGGER.info("Checking if element is clickable with wait");
+        LOGGER.debug("Checking if element is clickable with wait");
         boolean isClickable;
         try {
             isClickable = wait.until(ExpectedConditions.elementToBeClickable(locator)).isDisplayed();
@@ -448,7 +799,7 @@ public class CommonActions {
     }
 
     public boolean isElementClickableWithFluentWait(WebElement element, String elementName) {
-        LOGGER.info("Checking if element is clickable with fluent wait");
+        LOGGER.debug("Checking if element is clickable with fluent wait");
         boolean isClickable;
         try {
             isClickable = fluentWait.until(ExpectedConditions.elementToBeClickable(element)).isDisplayed();
@@ -461,19 +812,19 @@ public class CommonActions {
     }
 
     public void clickElement(WebElement element, String elementName) {
-        LOGGER.info("Clicking element");
+        LOGGER.debug("Clicking element");
         element.click();
         LOGGER.info("Element {} clicked successfully", elementName);
     }
 
     public void clickElement(By locator, String elementName) {
-        LOGGER.info("Clicking element");
+        LOGGER.debug("Clicking element");
         driver.findElement(locator).click();
         LOGGER.info("Element {} clicked successfully", elementName);
     }
 
     public void clickElementWithWait(WebElement element, String elementName) {
-        LOGGER.info("Clicking element with wait");
+        LOGGER.debug("Clicking element with wait");
         try {
             wait.until(ExpectedConditions.elementToBeClickable(element)).click();
         } catch (TimeoutException e) {
@@ -484,7 +835,7 @@ public class CommonActions {
     }
 
     public void clickElementWithFluentWait(WebElement element, String elementName) {
-        LOGGER.info("Clicking element with fluent wait");
+        LOGGER.debug("Clicking element with fluent wait");
         try {
             fluentWait.until(ExpectedConditions.elementToBeClickable(element)).click();
         } catch (TimeoutException e) {
@@ -495,7 +846,7 @@ public class CommonActions {
     }
 
     public void clickElementWithWait(By locator, String elementName) {
-        LOGGER.info("Clicking element with wait");
+        LOGGER.debug("Clicking element with wait");
         try {
             wait.until(ExpectedConditions.elementToBeClickable(locator)).click();
         } catch (TimeoutException e) {
@@ -506,7 +857,7 @@ public class CommonActions {
     }
 
     public void clickElementWithFluentWait(By locator, String elementName) {
-        LOGGER.info("Clicking element with fluent wait");
+        LOGGER.debug("Clicking element with fluent wait");
         try {
             fluentWait.until(ExpectedConditions.elementToBeClickable(locator)).click();
         } catch (TimeoutException e) {
@@ -518,14 +869,14 @@ public class CommonActions {
 
     public void clickElementWithJavaScriptExecutor(WebElement element, String elementName) {
         jsExecutor = (JavascriptExecutor) driver;
-        LOGGER.info("Clicking element with JavaScript executor");
+        LOGGER.debug("Clicking element with JavaScript executor");
         jsExecutor.executeScript("arguments[0].click();", element);
         LOGGER.info("Element {} clicked successfully with JavaScript executor", elementName);
     }
 
     public void clickElementWithJavaScriptExecutor(By locator, String elementName) {
         jsExecutor = (JavascriptExecutor) driver;
-        LOGGER.info("Clicking element with JavaScript executor");
+        LOGGER.debug("Clicking element with JavaScript executor");
         jsExecutor.executeScript("arguments[0].click();", locator);
         LOGGER.info("Element {} clicked successfully with JavaScript executor", elementName);
     }
@@ -541,31 +892,31 @@ public class CommonActions {
     }
 
     public void clearText(WebElement element, String elementName) {
-        LOGGER.info("Clearing text from element");
+        LOGGER.debug("Clearing text from element");
         element.clear();
         LOGGER.info("Text cleared successfully from element {}", elementName);
     }
 
     public void clearText(By locator, String elementName) {
-        LOGGER.info("Clearing text from element");
+        LOGGER.debug("Clearing text from element");
         driver.findElement(locator).clear();
         LOGGER.info("Text cleared successfully from element {}", elementName);
     }
 
     public void sendKeys(WebElement element, String keys, String elementName) {
-        LOGGER.info("Sending keys to element");
+        LOGGER.debug("Sending keys to element");
         element.sendKeys(keys);
         LOGGER.info("Keys sent successfully to element {}", elementName);
     }
 
     public void sendKeys(By locator, String keys, String elementName) {
-        LOGGER.info("Sending keys to element");
+        LOGGER.debug("Sending keys to element");
         driver.findElement(locator).sendKeys(keys);
         LOGGER.info("Keys sent successfully to element {}", elementName);
     }
 
     public void sendKeysWithWait(WebElement element, String keys, String elementName) {
-        LOGGER.info("Sending keys to element with wait");
+        LOGGER.debug("Sending keys to element with wait");
         try {
             wait.until(ExpectedConditions.elementToBeClickable(element)).sendKeys(keys);
         } catch (TimeoutException e) {
@@ -576,7 +927,7 @@ public class CommonActions {
     }
 
     public void sendKeysWithFluentWait(WebElement element, String keys, String elementName) {
-        LOGGER.info("Sending keys to element with fluent wait");
+        LOGGER.debug("Sending keys to element with fluent wait");
         try {
             fluentWait.until(ExpectedConditions.elementToBeClickable(element)).sendKeys(keys);
         } catch (TimeoutException e) {
@@ -587,7 +938,7 @@ public class CommonActions {
     }
 
     public void sendKeysAsChar(WebElement element, String string, String elementName) {
-        LOGGER.info("Sending keys as char to element");
+        LOGGER.debug("Sending keys as char to element");
         for (char c : string.toCharArray()) {
             element.sendKeys(String.valueOf(c));
         }
@@ -595,7 +946,7 @@ public class CommonActions {
     }
 
     public void sendKeysAsChar(By locator, String string, String elementName) {
-        LOGGER.info("Sending keys as char to element");
+        LOGGER.debug("Sending keys as char to element");
         for (char c : string.toCharArray()) {
             driver.findElement(locator).sendKeys(String.valueOf(c));
         }
@@ -603,7 +954,7 @@ public class CommonActions {
     }
 
     public void sendKeysAsCharWithSleep(WebElement element, String string, String elementName) {
-        LOGGER.info("Sending keys as char to element with sleep");
+        LOGGER.debug("Sending keys as char to element with sleep");
         for (char c : string.toCharArray()) {
             element.sendKeys(String.valueOf(c));
             try {
@@ -617,34 +968,34 @@ public class CommonActions {
 
     public void sendKeysWithJavaScriptExecutor(WebElement element, String string, String elementName) {
         jsExecutor = (JavascriptExecutor) driver;
-        LOGGER.info("Sending keys to element with JavaScript executor");
+        LOGGER.debug("Sending keys to element with JavaScript executor");
         jsExecutor.executeScript("arguments[0].value = arguments[1];", element, string);
         LOGGER.info("Keys sent successfully to element {}", elementName);
     }
 
     public void sendKeysWithJavaScriptExecutor(By locator, String string, String elementName) {
         jsExecutor = (JavascriptExecutor) driver;
-        LOGGER.info("Sending keys to element with JavaScript executor");
+        LOGGER.debug("Sending keys to element with JavaScript executor");
         jsExecutor.executeScript("arguments[0].value = arguments[1];", locator, string);
         LOGGER.info("Keys sent successfully to element {}", elementName);
     }
 
     public String getText(WebElement element, String elementName) {
-        LOGGER.info("Getting text from element");
+        LOGGER.debug("Getting text from element");
         String text = element.getText();
         LOGGER.info("Text from element {} is: {}", elementName, text);
         return text;
     }
 
     public String getName(WebElement element, String elementName) {
-        LOGGER.info("Getting name from element");
+        LOGGER.debug("Getting name from element");
         String name = element.getAttribute("name");
         LOGGER.info("Name from element {} is: {}", elementName, name);
         return name;
     }
 
     public String getAttribute(WebElement element, String attributeName, String elementName) {
-        LOGGER.info("Getting attribute from element");
+        LOGGER.debug("Getting attribute from element");
         String attribute = element.getAttribute(attributeName);
         LOGGER.info("Attribute {} from element {} is: {}", attributeName, elementName, attribute);
         return attribute;
@@ -670,9 +1021,10 @@ public class CommonActions {
     }
 
     public boolean isElementInvisible(WebElement element, String elementName) {
-        LOGGER.info("Checking if element is invisible");
+        LOGGER.debug("Checking if element is invisible");
         try {
-            boolean isInvisible = wait.until(ExpectedConditions.invisibilityOf(element));
+            boolean isInvisible = waitFor(element, Condition.INVISIBLE, Duration.ofSeconds(Constants.EXPLICIT_WAIT),
+                    () -> wait.until(ExpectedConditions.invisibilityOf(element)));
             LOGGER.info("Element {} is invisible: {}", elementName, isInvisible);
             return isInvisible;
         } catch (TimeoutException e) {
@@ -683,7 +1035,7 @@ public class CommonActions {
     }
 
     public void scrollDown(int pixels) {
-        LOGGER.info("Scrolling down by {} pixels", pixels);
+        LOGGER.debug("Scrolling down by {} pixels", pixels);
         try {
             ((JavascriptExecutor) driver).executeScript("window.scrollBy(0, " + pixels + ");");
             LOGGER.info("Scrolled down successfully by {} pixels", pixels);
@@ -695,7 +1047,7 @@ public class CommonActions {
     }
 
     public boolean isContainerScrollable(WebElement containerElement) {
-        LOGGER.info("Checking if container is scrollable");
+        LOGGER.debug("Checking if container is scrollable");
         try {
             if (containerElement == null) {
                 throw new IllegalArgumentException("Container element cannot be null.");
@@ -719,7 +1071,7 @@ public class CommonActions {
     }
 
     public void scrollDownInContainer(WebElement containerElement, int pixels) {
-        LOGGER.info("Scrolling down in container by {} pixels", pixels);
+        LOGGER.debug("Scrolling down in container by {} pixels", pixels);
         try {
             ((JavascriptExecutor) driver).executeScript("arguments[0].scrollTop = arguments[0].scrollHeight",
                     containerElement);
@@ -731,28 +1083,291 @@ public class CommonActions {
         }
     }
 
+    /**
+     * Extracts all headers and body rows of a table in a single script call
+     *
+     * @param tableElement     The table element
+     * @param compositeColumns Column index to child CSS selectors whose texts are
+     *                         joined with a space to build that column's value
+     * @return Extracted table data
+     */
+    public TableData extractTable(WebElement tableElement, Map<Integer, List<String>> compositeColumns) {
+        return extractTable(tableElement, compositeColumns, 0, -1);
+    }
+
+    /**
+     * Extracts headers and a range of body rows of a table in a single script call
+     *
+     * @param tableElement     The table element
+     * @param compositeColumns Column index to child CSS selectors whose texts are
+     *                         joined with a space to build that column's value
+     * @param fromRow          Index of the first body row to extract
+     * @param maxRows          Maximum number of rows to extract, negative for all
+     * @return Extracted table data
+     */
+    @SuppressWarnings("unchecked")
+    public TableData extractTable(WebElement tableElement, Map<Integer, List<String>> compositeColumns, int fromRow,
+            int maxRows) {
+        long start = System.nanoTime();
+        Map<String, List<String>> composite = new HashMap<>();
+        if (compositeColumns != null) {
+            compositeColumns.forEach((column, selectors) -> composite.put(String.valueOf(column), selectors));
+        }
+        try {
+            Map<String, Object> result = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(
+                    TABLE_SCRIPT, tableElement, composite, fromRow, maxRows);
+            List<String> headers = new ArrayList<>((List<String>) result.get("headers"));
+            List<List<String>> rows = new ArrayList<>();
+            for (Object row : (List<Object>) result.get("rows")) {
+                rows.add(new ArrayList<>((List<String>) row));
+            }
+            int totalRows = ((Number) result.get("totalRows")).intValue();
+            LOGGER.info("Extracted {} of {} table rows in a single call", rows.size(), totalRows);
+            return new TableData(headers, rows, totalRows);
+        } catch (WebDriverException e) {
+            String errorMsg = "Error extracting table data";
+            LOGGER.error(errorMsg, e);
+            throw new RuntimeException(errorMsg, e);
+        } finally {
+            ExecutionMetrics.recordSince("table.extract", start);
+        }
+    }
+
+    /**
+     * Streams the rows of a scrollable (possibly virtualised) list, scrolling the
+     * container one page at a time as the stream is consumed
+     *
+     * @param containerElement Scrollable container of the list
+     * @param rowSelector      CSS selector of the rows, relative to the container
+     * @param compositeColumns Column index to child CSS selectors whose texts are
+     *                         joined with a space to build that column's value
+     * @return Lazily populated stream of row cell texts
+     */
+    public Stream<List<String>> streamRows(WebElement containerElement, String rowSelector,
+            Map<Integer, List<String>> compositeColumns) {
+        LOGGER.debug("Streaming rows from scrollable container");
+        ScrollingRowIterator iterator = new ScrollingRowIterator(driver, containerElement, rowSelector,
+                compositeColumns);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Reads the state of several elements in a single script call, instead of
+     * a wait and round trips per element
+     *
+     * @param targets Element name to a {@link By} locator or a {@link WebElement}.
+     *                Locators that match nothing are reported as not present;
+     *                elements are passed as they are and must be resolvable
+     * @return Element name to its state, in the order of the targets
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, ElementState> queryElementStates(Map<String, ?> targets) {
+        long start = System.nanoTime();
+        List<Object> arguments = new ArrayList<>(targets.size());
+        targets.forEach((name, target) -> arguments.add(toScriptTarget(name, target)));
+        try {
+            List<Object> result = (List<Object>) ((JavascriptExecutor) driver).executeScript(ELEMENT_STATES_SCRIPT,
+                    arguments);
+            Map<String, ElementState> states = new LinkedHashMap<>();
+            int index = 0;
+            for (String name : targets.keySet()) {
+                Map<String, Object> state = (Map<String, Object>) result.get(index++);
+                states.put(name, new ElementState(Boolean.TRUE.equals(state.get("present")),
+                        Boolean.TRUE.equals(state.get("displayed")), Boolean.TRUE.equals(state.get("enabled")),
+                        Boolean.TRUE.equals(state.get("inViewport")), String.valueOf(state.get("text"))));
+            }
+            LOGGER.debug("Queried the state of {} elements in a single call", states.size());
+            return states;
+        } catch (WebDriverException e) {
+            // Rethrown as is, so waits can ignore transient script errors
+            LOGGER.error("Error querying element states", e);
+            throw e;
+        } finally {
+            ExecutionMetrics.recordSince("elements.batchQuery", start);
+            ExecutionMetrics.add("elements.batchQuery.elements", targets.size());
+        }
+    }
+
+    /**
+     * Queries the state of several elements until all of them match, one script
+     * call per poll
+     *
+     * @param targets   Element name to a {@link By} locator or a {@link WebElement}
+     * @param condition Condition every element has to match
+     * @return The last states read; on timeout, the elements that do not match
+     *         are logged and returned as they are
+     * @throws TimeoutException If no query succeeded within the timeout
+     */
+    public Map<String, ElementState> waitForElementStates(Map<String, ?> targets,
+            Predicate<ElementState> condition) {
+        AtomicReference<Map<String, ElementState>> last = new AtomicReference<>();
+        try {
+            new FluentWait<WebDriver>(driver)
+                    .withTimeout(Duration.ofSeconds(Constants.EXPLICIT_WAIT))
+                    .pollingEvery(Duration.ofMillis(250))
+                    .ignoring(WebDriverException.class)
+                    .until(d -> {
+                        last.set(queryElementStates(targets));
+                        return last.get().values().stream().allMatch(condition);
+                    });
+            LOGGER.info("All {} elements match", targets.size());
+        } catch (TimeoutException e) {
+            if (last.get() == null) {
+                throw e;
+            }
+            last.get().forEach((name, state) -> {
+                if (!condition.test(state)) {
+                    LOGGER.warn("Element {} does not match: {}", name, state);
+                }
+            });
+        }
+        return last.get();
+    }
+
+    private static Map<String, Object> toScriptTarget(String name, Object target) {
+        if (target instanceof WebElement) {
+            return Map.of("element", target);
+        }
+        if (target instanceof By.Remotable) {
+            By.Remotable.Parameters parameters = ((By.Remotable) target).getRemoteParameters();
+            return Map.of("using", parameters.using(), "value", String.valueOf(parameters.value()));
+        }
+        throw new IllegalArgumentException("Unsupported target for " + name + ": " + target);
+    }
+
+    /**
+     * Switches to a child frame of the current one, unless the driver is
+     * already in that iframe element
+     */
     public void switchToFrame(WebElement frameElement, String frameName) {
-        LOGGER.info("Switching to frame");
+        if (FrameContext.isInFrame(driver, frameElement)) {
+            FrameContext.skipped();
+            LOGGER.debug("Already in frame {}, not switching", frameName);
+            return;
+        }
+        LOGGER.debug("Switching to frame");
+        long start = System.nanoTime();
         driver.switchTo().frame(frameElement);
+        FrameContext.entered(driver, frameName, frameElement, System.nanoTime() - start);
+        LocatorContext.invalidate(driver);
+        installNetworkHooks();
         LOGGER.info("Switched to frame {} successfully", frameName);
     }
 
+    /**
+     * Switches to the frame a page lives in, from wherever the driver is. Frames
+     * already on the current path are not switched again, and iframe elements
+     * are reused until the next navigation.
+     *
+     * @param frame Frame to switch to, {@link PageFrame#TOP} for the top-level
+     *              document
+     */
+    public void switchToFrame(PageFrame frame) {
+        switchToFrame(frame, true);
+    }
+
+    /**
+     * Makes sure the driver is in the frame a page lives in before a lookup or
+     * script of that page. Unlike {@link #switchToFrame(PageFrame)} this is not
+     * a switch the test asked for, so finding the driver already there does not
+     * count as a skipped switch.
+     *
+     * @param frame Frame the page lives in
+     */
+    public void enterPageFrame(PageFrame frame) {
+        switchToFrame(frame, false);
+    }
+
+    private void switchToFrame(PageFrame frame, boolean requested) {
+        if (FrameContext.isAt(driver, frame.getPath())) {
+            if (requested) {
+                FrameContext.skipped();
+            }
+            return;
+        }
+        if (frame.isTop()) {
+            exitToDefaultContent();
+            return;
+        }
+
+        List<String> current = FrameContext.getPath(driver);
+        List<String> target = frame.getPath();
+        if (current.size() >= target.size() || !target.subList(0, current.size()).equals(current)) {
+            exitToDefaultContent();
+            current = List.of();
+        }
+        List<PageFrame> chain = new ArrayList<>();
+        for (PageFrame f = frame; f != null && !f.isTop(); f = f.getParent()) {
+            chain.add(0, f);
+        }
+        for (PageFrame f : chain.subList(current.size(), chain.size())) {
+            enterFrame(f);
+        }
+    }
+
+    private void enterFrame(PageFrame frame) {
+        LOGGER.debug("Switching to frame {}", frame);
+        long start = System.nanoTime();
+        WebElement frameElement = FrameContext.getFrameElement(driver, frame.getPath());
+        if (frameElement != null) {
+            try {
+                driver.switchTo().frame(frameElement);
+                ExecutionMetrics.increment("frame.element.cache.hit");
+            } catch (StaleElementReferenceException | NoSuchFrameException e) {
+                frameElement = null;
+            }
+        }
+        if (frameElement == null) {
+            ExecutionMetrics.increment("frame.element.cache.miss");
+            frameElement = wait.until(ExpectedConditions.presenceOfElementLocated(frame.getLocator()));
+            if (NetworkTracker.of(driver).isPresent()) {
+                FrameContext.setNameAttribute(driver, frame.getPath(), frameElement.getDomAttribute("name"));
+            }
+            driver.switchTo().frame(frameElement);
+        }
+        FrameContext.entered(driver, frame.getName(), frameElement, System.nanoTime() - start);
+        LocatorContext.invalidate(driver);
+        installNetworkHooks();
+        LOGGER.info("Switched to frame {} successfully", frame.getName());
+    }
+
     public void switchToDefaultContent() {
-        LOGGER.info("Switching to default content");
+        if (FrameContext.isTopLevel(driver)) {
+            FrameContext.skipped();
+            LOGGER.debug("Already in default content, not switching");
+            return;
+        }
+        exitToDefaultContent();
+    }
+
+    private void exitToDefaultContent() {
+        LOGGER.debug("Switching to default content");
+        long start = System.nanoTime();
         driver.switchTo().defaultContent();
+        FrameContext.exitedToTop(driver, System.nanoTime() - start);
+        LocatorContext.invalidate(driver);
         LOGGER.info("Switched to default content successfully");
     }
 
     public void switchToParentFrame(String frameName) {
-        LOGGER.info("Switching to parent frame");
+        if (FrameContext.isTopLevel(driver)) {
+            FrameContext.skipped();
+            LOGGER.debug("Already in default content, not switching to parent of {}", frameName);
+            return;
+        }
+        LOGGER.debug("Switching to parent frame");
+        long start = System.nanoTime();
         driver.switchTo().parentFrame();
+        FrameContext.exitedToParent(driver, System.nanoTime() - start);
+        LocatorContext.invalidate(driver);
         LOGGER.info("Switched to parent frame of {} successfully", frameName);
     }
 
     public WebElement findRelativeElement(WebElement parentElement, String relativeXpath, String elementName) {
-        LOGGER.info("Finding relative element");
+        LOGGER.debug("Finding relative element");
         WebElement element = parentElement.findElement(By.xpath(relativeXpath));
-        LOGGER.info("Relative element {} found: {}", elementName, element);
+        LOGGER.debug("Relative element {} found: {}", elementName, element);
         return element;
     }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.crypto.utils;
+
+/**
+ * State of an element as read by a batched state query
+ */
+public final class ElementState {
+
+    private final boolean present;
+    private final boolean displayed;
+    private final boolean enabled;
+    private final boolean inViewport;
+    private final String text;
+
+    public ElementState(boolean present, boolean displayed, boolean enabled, boolean inViewport, String text) {
+        this.present = present;
+        this.displayed = displayed;
+        this.enabled = enabled;
+        this.inViewport = inViewport;
+        this.text = text;
+    }
+
+    /**
+     * @return Whether the locator matched an element
+     */
+    public boolean isPresent() {
+        return present;
+    }
+
+    public boolean isDisplayed() {
+        return displayed;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return Whether any part of the element is inside the viewport
+     */
+    public boolean isInViewport() {
+        return inViewport;
+    }
+
+    /**
+     * @return Visible text of the element, empty when not present
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return Whether the element is displayed and enabled, as
+     *         {@code ExpectedConditions.elementToBeClickable} checks
+     */
+    public boolean isClickable() {
+        return displayed && enabled;
+    }
+
+    @Override
+    public String toString() {
+        return "ElementState[present=" + present + ", displayed=" + displayed + ", enabled=" + enabled
+                + ", inViewport=" + inViewport + ", text=" + text + "]";
+    }
+}
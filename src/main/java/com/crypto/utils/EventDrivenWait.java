@@ -0,0 +1,142 @@
+package com.crypto.utils;
+
+import java.time.Duration;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.crypto.constants.Constants;
+
+/**
+ * Waits for DOM conditions from inside the page. A MutationObserver and an
+ * IntersectionObserver are installed through executeAsyncScript and the
+ * script resolves as soon as the condition holds, so there is a single
+ * WebDriver round-trip per wait and no polling interval.
+ */
+public class EventDrivenWait {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventDrivenWait.class);
+
+    public enum Condition {
+        VISIBLE("visible"),
+        CLICKABLE("clickable"),
+        INVISIBLE("invisible"),
+        PAGE_READY("ready");
+
+        private final String scriptName;
+
+        Condition(String scriptName) {
+            this.scriptName = scriptName;
+        }
+    }
+
+    private static final String WAIT_SCRIPT = ""
+            + "var el = arguments[0], cond = arguments[1], timeout = arguments[2];"
+            + "var done = arguments[arguments.length - 1];"
+            + "function visible(e) {"
+            + "  if (!e || !e.isConnected) return false;"
+            + "  var s = window.getComputedStyle(e);"
+            + "  if (s.display === 'none' || s.visibility === 'hidden' || parseFloat(s.opacity) === 0) return false;"
+            + "  var r = e.getBoundingClientRect();"
+            + "  return r.width > 0 && r.height > 0;"
+            + "}"
+            + "function check() {"
+            + "  switch (cond) {"
+            + "    case 'visible': return visible(el);"
+            + "    case 'clickable': return visible(el) && !el.disabled;"
+            + "    case 'invisible': return !visible(el);"
+            + "    case 'ready': return document.readyState === 'complete';"
+            + "  }"
+            + "  return false;"
+            + "}"
+            + "if (check()) { done(true); return; }"
+            + "var finished = false, mo, io, timer;"
+            + "function finish(result) {"
+            + "  if (finished) return;"
+            + "  finished = true;"
+            + "  clearTimeout(timer);"
+            + "  if (mo) mo.disconnect();"
+            + "  if (io) io.disconnect();"
+            + "  document.removeEventListener('readystatechange', onChange);"
+            + "  window.removeEventListener('transitionend', onChange, true);"
+            + "  window.removeEventListener('animationend', onChange, true);"
+            + "  done(result);"
+            + "}"
+            + "function onChange() { if (check()) finish(true); }"
+            + "mo = new MutationObserver(onChange);"
+            + "mo.observe(document, { subtree: true, childList: true, attributes: true });"
+            + "if (el && window.IntersectionObserver) { io = new IntersectionObserver(onChange); io.observe(el); }"
+            + "document.addEventListener('readystatechange', onChange);"
+            + "window.addEventListener('transitionend', onChange, true);"
+            + "window.addEventListener('animationend', onChange, true);"
+            + "timer = setTimeout(function () { finish(check()); }, timeout);";
+
+    private final WebDriver driver;
+    private volatile boolean supported;
+
+    public EventDrivenWait(WebDriver driver) {
+        this.driver = driver;
+        this.supported = driver instanceof JavascriptExecutor;
+    }
+
+    /**
+     * Waits until the condition holds for the element
+     *
+     * @param element   Element to observe, may be null for page level conditions
+     * @param condition Condition to wait for
+     * @param timeout   Upper bound for the wait, may exceed the script timeout
+     * @return true/false when the in-page wait completed, or null when async
+     *         scripts are unavailable and the caller should fall back to polling
+     */
+    public Boolean until(WebElement element, Condition condition, Duration timeout) {
+        if (!supported) {
+            return null;
+        }
+
+        // Each script stays below the driver script timeout so the page resolves
+        // it itself, longer waits run as consecutive chunks
+        long chunkMillis = Math.max(Constants.SCRIPT_TIMEOUT * 1000L - 500, Constants.SCRIPT_TIMEOUT * 500L);
+        if (chunkMillis <= 0) {
+            return null;
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (true) {
+            long remainingMillis = Math.max(0, Duration.ofNanos(deadline - System.nanoTime()).toMillis());
+            Boolean result = runScript(element, condition, Math.min(remainingMillis, chunkMillis));
+            if (!Boolean.FALSE.equals(result) || remainingMillis <= chunkMillis) {
+                return result;
+            }
+        }
+    }
+
+    private Boolean runScript(WebElement element, Condition condition, long timeoutMillis) {
+        try {
+            Object result = ((JavascriptExecutor) driver).executeAsyncScript(WAIT_SCRIPT, element,
+                    condition.scriptName, timeoutMillis);
+            return Boolean.TRUE.equals(result);
+        } catch (StaleElementReferenceException | NoSuchElementException e) {
+            return condition == Condition.INVISIBLE ? Boolean.TRUE : null;
+        } catch (ScriptTimeoutException e) {
+            return Boolean.FALSE;
+        } catch (UnsupportedCommandException e) {
+            LOGGER.warn("Async scripts are not supported by this driver, falling back to polling waits");
+            supported = false;
+            return null;
+        } catch (WebDriverException e) {
+            LOGGER.debug("Event driven wait failed, falling back to polling: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public boolean isSupported() {
+        return supported;
+    }
+}
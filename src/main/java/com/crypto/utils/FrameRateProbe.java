@@ -0,0 +1,140 @@
+package com.crypto.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.crypto.constants.Constants;
+import com.crypto.utils.WebVitalsCollector.PageMetrics;
+
+/**
+ * Measures rendering smoothness of an interaction with a requestAnimationFrame
+ * sampler injected into the current document (switch into the chart iframe
+ * first). Frame times are sampled while the interaction runs plus a short
+ * tail for the resulting render, then summarised as FPS, p95/p99 frame time
+ * and dropped frames, and recorded with the test's performance metrics.
+ */
+public class FrameRateProbe {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FrameRateProbe.class);
+
+    public static final String[] COLUMNS = { "fps", "frameP95", "frameP99", "maxFrame", "droppedFrames", "frames",
+            "sampledMs" };
+
+    private static final String START_SCRIPT = ""
+            + "if (window.__frameProbe) window.__frameProbe.running = false;"
+            + "var p = window.__frameProbe = { deltas: [], running: true, last: 0 };"
+            + "function tick(t) {"
+            + "  if (!p.running) return;"
+            + "  if (p.last && p.deltas.length < 20000) p.deltas.push(t - p.last);"
+            + "  p.last = t;"
+            + "  requestAnimationFrame(tick);"
+            + "}"
+            + "requestAnimationFrame(tick);";
+
+    private static final String STOP_SCRIPT = ""
+            + "var tail = arguments[0], done = arguments[arguments.length - 1], p = window.__frameProbe;"
+            + "if (!p) { done(null); return; }"
+            + "setTimeout(function () {"
+            + "  p.running = false;"
+            + "  delete window.__frameProbe;"
+            + "  done({ url: location.href, deltas: p.deltas });"
+            + "}, tail);";
+
+    private FrameRateProbe() {
+    }
+
+    /**
+     * Samples frame times while the interaction runs
+     *
+     * @param driver      WebDriver instance, switched to the document that renders
+     * @param label       Name of the interaction in the report
+     * @param interaction Action to measure
+     * @return Frame metrics, or empty when probing is disabled or the document
+     *         changed during the interaction
+     */
+    public static Optional<PageMetrics> measure(WebDriver driver, String label, Runnable interaction) {
+        if (!Constants.PERF_ENABLED || !Constants.PERF_FRAME_PROBE || !(driver instanceof JavascriptExecutor)) {
+            interaction.run();
+            return Optional.empty();
+        }
+        JavascriptExecutor executor = (JavascriptExecutor) driver;
+        boolean started = false;
+        try {
+            executor.executeScript(START_SCRIPT);
+            started = true;
+        } catch (WebDriverException e) {
+            LOGGER.debug("Could not start frame probe for {}: {}", label, e.getMessage());
+        }
+
+        interaction.run();
+        if (!started) {
+            return Optional.empty();
+        }
+
+        Object result;
+        try {
+            result = executor.executeAsyncScript(STOP_SCRIPT, Constants.PERF_FRAME_TAIL_MILLIS);
+        } catch (WebDriverException e) {
+            LOGGER.debug("Could not read frame probe for {}: {}", label, e.getMessage());
+            return Optional.empty();
+        }
+        if (!(result instanceof Map)) {
+            LOGGER.debug("Frame probe for {} was lost, the document changed during the interaction", label);
+            return Optional.empty();
+        }
+
+        Map<?, ?> samples = (Map<?, ?>) result;
+        List<Double> frameTimes = new ArrayList<>();
+        for (Object delta : (List<?>) samples.get("deltas")) {
+            frameTimes.add(((Number) delta).doubleValue());
+        }
+        if (frameTimes.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(WebVitalsCollector.add(label, String.valueOf(samples.get("url")), summarize(frameTimes)));
+    }
+
+    /**
+     * Frame statistics. The nominal frame interval is the 10th percentile frame
+     * time, so the refresh rate of the display is not assumed to be 60 Hz; a
+     * frame that took n intervals counts as n - 1 dropped frames.
+     */
+    private static Map<String, Double> summarize(List<Double> frameTimes) {
+        List<Double> sorted = new ArrayList<>(frameTimes);
+        Collections.sort(sorted);
+        double total = 0;
+        for (double frameTime : frameTimes) {
+            total += frameTime;
+        }
+        double interval = Math.max(1000.0 / 240, percentile(sorted, 10));
+        long dropped = 0;
+        for (double frameTime : frameTimes) {
+            dropped += Math.max(0, Math.round(frameTime / interval) - 1);
+        }
+
+        Map<String, Double> values = new LinkedHashMap<>();
+        values.put("fps", total > 0 ? frameTimes.size() * 1000 / total : 0);
+        values.put("frameP95", percentile(sorted, 95));
+        values.put("frameP99", percentile(sorted, 99));
+        values.put("maxFrame", sorted.get(sorted.size() - 1));
+        values.put("droppedFrames", (double) dropped);
+        values.put("frames", (double) frameTimes.size());
+        values.put("sampledMs", total);
+        return values;
+    }
+
+    private static double percentile(List<Double> sorted, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, rank - 1)));
+    }
+}
@@ -0,0 +1,55 @@
+package com.crypto.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.SessionId;
+import org.slf4j.MDC;
+
+/**
+ * Per-thread logging context. The test id and WebDriver session id are put in
+ * the SLF4J MDC so log lines of parallel tests can be told apart (see the
+ * {@code %X{testId}} and {@code %X{sessionId}} patterns in the logback files).
+ */
+public class LogContext {
+
+    public static final String TEST_ID = "testId";
+    public static final String SESSION_ID = "sessionId";
+
+    private LogContext() {
+    }
+
+    /**
+     * Binds the current thread's log lines to a test and its driver session
+     *
+     * @param testId Test identifier, typically class and method name
+     * @param driver WebDriver of the test, may be null
+     */
+    public static void startTest(String testId, WebDriver driver) {
+        MDC.put(TEST_ID, testId);
+        setSession(driver);
+    }
+
+    /**
+     * Records the session id of the driver, read locally from the driver object
+     *
+     * @param driver WebDriver of the current thread, may be null
+     */
+    public static void setSession(WebDriver driver) {
+        if (driver instanceof RemoteWebDriver) {
+            SessionId sessionId = ((RemoteWebDriver) driver).getSessionId();
+            if (sessionId != null) {
+                MDC.put(SESSION_ID, sessionId.toString());
+                return;
+            }
+        }
+        MDC.remove(SESSION_ID);
+    }
+
+    public static void endTest() {
+        MDC.remove(TEST_ID);
+    }
+
+    public static void clear() {
+        MDC.clear();
+    }
+}
@@ -0,0 +1,65 @@
+package com.crypto.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Lock-free registry of page objects, created lazily once per driver. The
+ * driver instance itself is the key (identity based, as WebDriver does not
+ * override equals), so no session id round-trip is needed per lookup. Entries
+ * must be removed with {@link #remove(WebDriver)} when the driver is quit.
+ */
+public class PageRegistry {
+
+    private static final Map<WebDriver, Map<Class<?>, Object>> PAGES = new ConcurrentHashMap<>();
+
+    private PageRegistry() {
+    }
+
+    /**
+     * Returns the page object of the given type bound to the driver, creating it
+     * on first use
+     *
+     * @param driver  WebDriver the page is bound to
+     * @param type    Page object class
+     * @param factory Creates the page object for the driver
+     * @return Page object, the same one for every lookup with the driver
+     */
+    public static <T> T get(WebDriver driver, Class<T> type, Function<WebDriver, ? extends T> factory) {
+        Map<Class<?>, Object> pages = PAGES.get(driver);
+        if (pages == null) {
+            pages = PAGES.computeIfAbsent(driver, d -> new ConcurrentHashMap<>());
+        }
+
+        Object page = pages.get(type);
+        if (page == null) {
+            // Built outside the map: a page whose constructor looks up another page
+            // would otherwise update the map from inside computeIfAbsent. Two
+            // threads sharing a driver may both build it; the first one stored wins.
+            Object created = factory.apply(driver);
+            page = pages.putIfAbsent(type, created);
+            if (page == null) {
+                page = created;
+            }
+        }
+        return type.cast(page);
+    }
+
+    /**
+     * Drops every page object bound to the driver
+     *
+     * @param driver WebDriver being quit
+     */
+    public static void remove(WebDriver driver) {
+        if (driver != null) {
+            PAGES.remove(driver);
+        }
+    }
+
+    public static int size() {
+        return PAGES.size();
+    }
+}
@@ -0,0 +1,176 @@
+package com.crypto.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.crypto.report.ExecutionMetrics;
+
+/**
+ * Streams the rows of a scrollable, possibly virtualised, list. The container
+ * is scrolled one viewport at a time and the rendered rows are read with a
+ * single script per page, so no WebElement proxies are created per row.
+ * Rows are de-duplicated by key for the whole iteration, however many pages a
+ * row stays rendered for. Memory stays bounded by the page: rows with a
+ * numeric index attribute need only the highest index returned so far, other
+ * rows keep a 64-bit hash of their key, never the rows already returned.
+ */
+public class ScrollingRowIterator implements Iterator<List<String>> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScrollingRowIterator.class);
+
+    /*
+     * Scrolls the container by one viewport (except for the first page), waits
+     * for the list to re-render and returns the rendered rows. Row keys come
+     * from the usual virtual list index attributes (index is set for numeric
+     * ones), or the row text otherwise.
+     */
+    private static final String PAGE_SCRIPT = ""
+            + "var container = arguments[0], rowSelector = arguments[1], composite = arguments[2] || {};"
+            + "var first = arguments[3], done = arguments[arguments.length - 1];"
+            + "function text(e) { return e ? (e.innerText || e.textContent || '').trim() : ''; }"
+            + "function read() {"
+            + "  if (read.called) return;"
+            + "  read.called = true;"
+            + "  var rows = [];"
+            + "  container.querySelectorAll(rowSelector).forEach(function (row) {"
+            + "    var cells = row.cells || row.children, values = [];"
+            + "    for (var c = 0; c < cells.length; c++) {"
+            + "      var selectors = composite[String(c)];"
+            + "      values.push(selectors"
+            + "          ? selectors.map(function (s) { return text(cells[c].querySelector(s)); }).join(' ')"
+            + "          : text(cells[c]));"
+            + "    }"
+            + "    var index = row.getAttribute('aria-rowindex') || row.getAttribute('data-index');"
+            + "    var key = index || row.getAttribute('data-key') || values.join('\\u0001');"
+            + "    rows.push({ key: key, index: /^\\d{1,15}$/.test(index || '') ? Number(index) : null,"
+            + "        cells: values });"
+            + "  });"
+            + "  var canScroll = container.scrollTop + container.clientHeight < container.scrollHeight - 1;"
+            + "  done({ rows: rows, canScroll: canScroll, scrollTop: container.scrollTop });"
+            + "}"
+            + "if (first) { read(); return; }"
+            + "container.scrollTop = container.scrollTop + container.clientHeight;"
+            + "requestAnimationFrame(function () { requestAnimationFrame(read); });"
+            + "setTimeout(read, 150);";
+
+    private final JavascriptExecutor jsExecutor;
+    private final WebElement container;
+    private final String rowSelector;
+    private final Map<String, List<String>> compositeColumns = new HashMap<>();
+
+    private final Deque<List<String>> buffer = new ArrayDeque<>();
+    private final Set<Long> seenKeyHashes = new HashSet<>();
+    private long highestIndex = -1;
+    private double scrollTop = -1;
+    private boolean firstPage = true;
+    private boolean canScroll = true;
+
+    /**
+     * @param driver           WebDriver instance
+     * @param container        Scrollable container of the list
+     * @param rowSelector      CSS selector of the rows, relative to the container
+     * @param compositeColumns Column index to child CSS selectors whose texts are
+     *                         joined with a space to build that column's value
+     */
+    public ScrollingRowIterator(WebDriver driver, WebElement container, String rowSelector,
+            Map<Integer, List<String>> compositeColumns) {
+        this.jsExecutor = (JavascriptExecutor) driver;
+        this.container = container;
+        this.rowSelector = rowSelector;
+        if (compositeColumns != null) {
+            compositeColumns.forEach((column, selectors) -> this.compositeColumns.put(String.valueOf(column),
+                    selectors));
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (buffer.isEmpty() && (firstPage || canScroll)) {
+            fetchPage();
+        }
+        return !buffer.isEmpty();
+    }
+
+    @Override
+    public List<String> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more rows in the scrollable list");
+        }
+        return buffer.pollFirst();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void fetchPage() {
+        long start = System.nanoTime();
+        Map<String, Object> page;
+        try {
+            page = (Map<String, Object>) jsExecutor.executeAsyncScript(PAGE_SCRIPT, container, rowSelector,
+                    compositeColumns, firstPage);
+        } catch (WebDriverException e) {
+            String errorMsg = "Error reading rows from scrollable list";
+            LOGGER.error(errorMsg, e);
+            throw new RuntimeException(errorMsg, e);
+        } finally {
+            ExecutionMetrics.recordSince("table.stream.page", start);
+        }
+        Object reportedScrollTop = page.get("scrollTop");
+        double pageScrollTop = reportedScrollTop instanceof Number ? ((Number) reportedScrollTop).doubleValue() : -1;
+        canScroll = Boolean.TRUE.equals(page.get("canScroll"));
+        if (!firstPage && canScroll && pageScrollTop == scrollTop) {
+            // A collapsed container (clientHeight 0) or one that ignores scrolling
+            LOGGER.warn("Scrollable list did not scroll past {} px, stopping", scrollTop);
+            canScroll = false;
+        }
+        firstPage = false;
+        scrollTop = pageScrollTop;
+
+        int added = 0;
+        long pageHighestIndex = highestIndex;
+        for (Object item : (List<Object>) page.get("rows")) {
+            Map<String, Object> row = (Map<String, Object>) item;
+            boolean isNew;
+            if (row.get("index") instanceof Number) {
+                // Pages only move down the list, so earlier pages returned every lower index
+                long index = ((Number) row.get("index")).longValue();
+                isNew = index > highestIndex;
+                pageHighestIndex = Math.max(pageHighestIndex, index);
+            } else {
+                isNew = seenKeyHashes.add(hash64(String.valueOf(row.get("key"))));
+            }
+            if (isNew) {
+                buffer.addLast(new ArrayList<>((List<String>) row.get("cells")));
+                added++;
+            }
+        }
+        highestIndex = pageHighestIndex;
+        LOGGER.debug("Read {} new row(s) from scrollable list, more pages: {}", added, canScroll);
+    }
+
+    /*
+     * 64-bit FNV-1a over the key's UTF-16 code units
+     */
+    static long hash64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            hash = (hash ^ (c & 0xff)) * 0x100000001b3L;
+            hash = (hash ^ (c >>> 8)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,120 @@
+package com.crypto.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.crypto.constants.Constants;
+import com.crypto.report.ExecutionMetrics;
+
+/**
+ * Per-test accounting of fixed sleeps and settle waits. Fixed sleeps are
+ * recorded with their call site so the remaining ones can be found and
+ * budgeted; settle waits record how much time they saved compared to the
+ * fixed sleep they replaced.
+ */
+public class SettleTracker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SettleTracker.class);
+    private static final ThreadLocal<Stats> STATS = ThreadLocal.withInitial(Stats::new);
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private SettleTracker() {
+    }
+
+    /**
+     * Legacy fixed sleep, instrumented with its call site
+     *
+     * @param seconds Number of seconds to sleep
+     */
+    public static void sleep(long seconds) {
+        String callSite = findCallSite();
+        long millis = TimeUnit.SECONDS.toMillis(seconds);
+        LOGGER.info("Fixed sleep of {} seconds at {}", seconds, callSite);
+
+        Stats stats = STATS.get();
+        stats.fixedSleepMillis += millis;
+        stats.fixedSleepsBySite.merge(callSite, millis, Long::sum);
+        ExecutionMetrics.add("sleep.fixed.ms[" + callSite + "]", millis);
+
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted during fixed sleep at {}", callSite);
+        }
+    }
+
+    /**
+     * Records a settle wait that replaced a fixed sleep
+     *
+     * @param legacyMillis Duration of the fixed sleep it replaced
+     * @param actualMillis Time the settle wait actually took
+     */
+    public static void recordSettle(long legacyMillis, long actualMillis) {
+        long saved = Math.max(0, legacyMillis - actualMillis);
+        Stats stats = STATS.get();
+        stats.settleCount++;
+        stats.settleMillis += actualMillis;
+        stats.savedMillis += saved;
+        ExecutionMetrics.recordNanos("settle", TimeUnit.MILLISECONDS.toNanos(actualMillis));
+        ExecutionMetrics.add("settle.saved.ms", saved);
+    }
+
+    public static void reset() {
+        STATS.remove();
+    }
+
+    public static long getFixedSleepMillis() {
+        return STATS.get().fixedSleepMillis;
+    }
+
+    public static long getSavedMillis() {
+        return STATS.get().savedMillis;
+    }
+
+    /**
+     * @return true if the fixed sleeps of the current test exceed the configured
+     *         budget ({@code [waits] fixed_sleep_budget}, 0 disables the budget)
+     */
+    public static boolean isOverBudget() {
+        return Constants.FIXED_SLEEP_BUDGET > 0
+                && STATS.get().fixedSleepMillis > TimeUnit.SECONDS.toMillis(Constants.FIXED_SLEEP_BUDGET);
+    }
+
+    /**
+     * @return Summary of the current test's waits, or null if nothing was recorded
+     */
+    public static String summarize() {
+        Stats stats = STATS.get();
+        if (stats.settleCount == 0 && stats.fixedSleepMillis == 0) {
+            return null;
+        }
+        StringBuilder summary = new StringBuilder(String.format(
+                "Waits: %d settle wait(s) took %d ms and saved %d ms versus fixed sleeps; fixed sleeps: %d ms",
+                stats.settleCount, stats.settleMillis, stats.savedMillis, stats.fixedSleepMillis));
+        stats.fixedSleepsBySite.forEach((site, millis) -> summary.append(String.format(" [%s: %d ms]", site, millis)));
+        return summary.toString();
+    }
+
+    private static String findCallSite() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> !frame.getClassName().equals(SettleTracker.class.getName())
+                        && !frame.getMethodName().equals("sleep"))
+                .findFirst()
+                .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1)
+                        + "." + frame.getMethodName() + ":" + frame.getLineNumber())
+                .orElse("unknown"));
+    }
+
+    private static final class Stats {
+        private long fixedSleepMillis;
+        private long settleMillis;
+        private long savedMillis;
+        private int settleCount;
+        private final Map<String, Long> fixedSleepsBySite = new LinkedHashMap<>();
+    }
+}
@@ -12,10 +12,8 @@ public class StringActions {
 
     public String convertMultipleLineIntoSingleLine(String string) {
         String result;
-        LOGGER.info("Converting multiple line into single line");
-        result = string.replaceAll("\\n", " ");
-        LOGGER.info("Multiple line string {} converted into single line", string);
-        LOGGER.info("Single line string is {}", result);
+        result = string.replace('\n', ' ');
+        LOGGER.debug("Multiple line string {} converted into single line: {}", string, result);
         return result;
     }
 
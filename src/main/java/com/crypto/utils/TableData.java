@@ -0,0 +1,42 @@
+package com.crypto.utils;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Snapshot of an HTML table extracted in a single script call
+ */
+public final class TableData {
+
+    private final List<String> headers;
+    private final List<List<String>> rows;
+    private final int totalRows;
+
+    public TableData(List<String> headers, List<List<String>> rows, int totalRows) {
+        this.headers = Collections.unmodifiableList(headers);
+        this.rows = Collections.unmodifiableList(rows);
+        this.totalRows = totalRows;
+    }
+
+    public List<String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return Extracted rows, limited to the requested row range
+     */
+    public List<List<String>> getRows() {
+        return rows;
+    }
+
+    /**
+     * @return Number of body rows in the table, regardless of the requested range
+     */
+    public int getTotalRows() {
+        return totalRows;
+    }
+
+    public boolean isEmpty() {
+        return rows.isEmpty();
+    }
+}
@@ -0,0 +1,346 @@
+package com.crypto.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import com.crypto.constants.Constants;
+import com.crypto.report.ExecutionMetrics;
+
+/**
+ * Collects web performance metrics of the current document with a single
+ * async script: Navigation and Resource Timing, first contentful paint, and
+ * buffered PerformanceObserver entries for LCP, CLS (largest session window)
+ * and long tasks (TBT). Captures are kept per test, checked against the
+ * {@code [perf]} budgets and appended to {@code state/perf/web-vitals.jsonl}.
+ */
+public class WebVitalsCollector {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WebVitalsCollector.class);
+    private static final ThreadLocal<List<PageMetrics>> CAPTURES = ThreadLocal.withInitial(ArrayList::new);
+    private static final Json JSON = new Json();
+    private static final Object FILE_LOCK = new Object();
+    private static final Set<String> UNITLESS = Set.of("cls", "longTasks", "requests", "fps", "frames",
+            "droppedFrames");
+
+    public static final String[] VITALS_COLUMNS = { "ttfb", "fcp", "lcp", "load", "cls", "tbt", "longTasks",
+            "requests", "resourceKb", "duration" };
+
+    /*
+     * Buffered observers replay the entries recorded so far; they are read
+     * after a short delay and disconnected. For a transition only entries
+     * after its start time are counted.
+     */
+    private static final String COLLECT_SCRIPT = ""
+            + "var since = arguments[0], transition = arguments[1], done = arguments[arguments.length - 1];"
+            + "var lcp = 0, shifts = [], longTasks = [], observers = [];"
+            + "function observe(type, handler) {"
+            + "  try {"
+            + "    var po = new PerformanceObserver(function (list) { list.getEntries().forEach(handler); });"
+            + "    po.observe({ type: type, buffered: true });"
+            + "    observers.push({ po: po, handler: handler });"
+            + "  } catch (e) {}"
+            + "}"
+            + "observe('largest-contentful-paint', function (e) {"
+            + "  if (e.startTime >= since) lcp = Math.max(lcp, e.renderTime || e.loadTime || e.startTime);"
+            + "});"
+            + "observe('layout-shift', function (e) { if (!e.hadRecentInput && e.startTime >= since) shifts.push(e); });"
+            + "observe('longtask', function (e) { if (e.startTime >= since) longTasks.push(e); });"
+            + "setTimeout(function () {"
+            + "  observers.forEach(function (o) { o.po.takeRecords().forEach(o.handler); o.po.disconnect(); });"
+            + "  var m = {}, nav = performance.getEntriesByType('navigation')[0];"
+            + "  var fcp = performance.getEntriesByName('first-contentful-paint')[0];"
+            + "  if (!transition && nav) {"
+            + "    m.ttfb = nav.responseStart; m.domContentLoaded = nav.domContentLoadedEventEnd;"
+            + "    m.load = nav.loadEventEnd; m.documentKb = (nav.transferSize || 0) / 1024;"
+            + "  }"
+            + "  if (!transition && fcp) m.fcp = fcp.startTime;"
+            + "  if (lcp) m.lcp = lcp - since;"
+            + "  var cls = 0, win = 0, first = 0, last = 0;"
+            + "  shifts.sort(function (a, b) { return a.startTime - b.startTime; }).forEach(function (s) {"
+            + "    if (win && s.startTime - last < 1000 && s.startTime - first < 5000) { win += s.value; }"
+            + "    else { win = s.value; first = s.startTime; }"
+            + "    last = s.startTime; cls = Math.max(cls, win);"
+            + "  });"
+            + "  m.cls = cls;"
+            + "  var from = transition ? since : (fcp ? fcp.startTime : 0), tbt = 0;"
+            + "  longTasks.forEach(function (t) { if (t.startTime >= from) tbt += Math.max(0, t.duration - 50); });"
+            + "  m.longTasks = longTasks.length; m.tbt = tbt;"
+            + "  var bytes = 0, slowest = 0, resources = performance.getEntriesByType('resource')"
+            + "      .filter(function (r) { return r.startTime >= since; });"
+            + "  resources.forEach(function (r) { bytes += r.transferSize || 0; slowest = Math.max(slowest, r.duration); });"
+            + "  m.requests = resources.length; m.resourceKb = bytes / 1024; m.slowestResource = slowest;"
+            + "  if (transition) m.duration = performance.now() - since;"
+            + "  done({ url: location.href, metrics: m });"
+            + "}, 50);";
+
+    private WebVitalsCollector() {
+    }
+
+    /**
+     * @return performance.now() of the current document, the start of a
+     *         transition passed to {@link #captureSince}, or -1 if unavailable
+     */
+    public static double mark(WebDriver driver) {
+        if (!Constants.PERF_ENABLED || !(driver instanceof JavascriptExecutor)) {
+            return -1;
+        }
+        try {
+            Object now = ((JavascriptExecutor) driver).executeScript("return performance.now();");
+            return now instanceof Number ? ((Number) now).doubleValue() : -1;
+        } catch (WebDriverException e) {
+            LOGGER.debug("Could not mark transition start: {}", e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Captures the metrics of the current document since its navigation
+     *
+     * @param driver WebDriver instance, switched to the document to measure
+     * @param label  Name of the navigation in the report
+     * @return Captured metrics, or empty when collection is disabled or failed
+     */
+    public static Optional<PageMetrics> capture(WebDriver driver, String label) {
+        return collect(driver, label, 0, false);
+    }
+
+    /**
+     * Captures the metrics of an in-page transition started at {@code since}
+     *
+     * @param since Value returned by {@link #mark(WebDriver)}
+     */
+    public static Optional<PageMetrics> captureSince(WebDriver driver, String label, double since) {
+        if (since < 0) {
+            return Optional.empty();
+        }
+        return collect(driver, label, since, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Optional<PageMetrics> collect(WebDriver driver, String label, double since,
+            boolean transition) {
+        if (!Constants.PERF_ENABLED || !(driver instanceof JavascriptExecutor)) {
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        Map<String, Object> result;
+        try {
+            result = (Map<String, Object>) ((JavascriptExecutor) driver).executeAsyncScript(COLLECT_SCRIPT, since,
+                    transition);
+        } catch (WebDriverException e) {
+            LOGGER.warn("Could not collect web performance metrics for {}: {}", label, e.getMessage());
+            return Optional.empty();
+        } finally {
+            ExecutionMetrics.recordSince("perf.collect", start);
+        }
+
+        Map<String, Double> values = new LinkedHashMap<>();
+        ((Map<String, Object>) result.get("metrics")).forEach((name, value) -> {
+            if (value instanceof Number) {
+                values.put(name, ((Number) value).doubleValue());
+            }
+        });
+        return Optional.of(add(label, String.valueOf(result.get("url")), values));
+    }
+
+    /**
+     * Adds metrics measured elsewhere (e.g. by {@link FrameRateProbe}) to the
+     * current test, checking budgets and appending them to the metrics file
+     *
+     * @return The recorded metrics
+     */
+    public static PageMetrics add(String label, String url, Map<String, Double> values) {
+        PageMetrics metrics = new PageMetrics(label, url, values);
+        CAPTURES.get().add(metrics);
+        record(metrics);
+        write(metrics);
+
+        if (metrics.getViolations().isEmpty()) {
+            LOGGER.debug("Performance metrics of {}: {}", label, values);
+        } else {
+            LOGGER.warn("Performance metrics of {} exceed budget: {}", label, metrics.getViolations());
+        }
+        return metrics;
+    }
+
+    /**
+     * @return Metrics captured by the current test, in capture order
+     */
+    public static List<PageMetrics> getCaptures() {
+        return Collections.unmodifiableList(CAPTURES.get());
+    }
+
+    /**
+     * @return Budget violations of all captures of the current test
+     */
+    public static List<String> getViolations() {
+        List<String> violations = new ArrayList<>();
+        for (PageMetrics metrics : CAPTURES.get()) {
+            metrics.getViolations().forEach(violation -> violations.add(metrics.getLabel() + ": " + violation));
+        }
+        return violations;
+    }
+
+    public static void reset() {
+        CAPTURES.remove();
+    }
+
+    /**
+     * @param columns Metrics to show, captures without any of them are skipped
+     * @return Rows of the current test's captures for a report table, header
+     *         first, or null if nothing was captured
+     */
+    public static String[][] toTable(String... columns) {
+        List<PageMetrics> captures = new ArrayList<>();
+        for (PageMetrics metrics : CAPTURES.get()) {
+            if (Arrays.stream(columns).anyMatch(metrics.getValues()::containsKey)) {
+                captures.add(metrics);
+            }
+        }
+        if (captures.isEmpty()) {
+            return null;
+        }
+        String[][] table = new String[captures.size() + 1][columns.length + 1];
+        table[0][0] = "page";
+        System.arraycopy(columns, 0, table[0], 1, columns.length);
+        for (int row = 0; row < captures.size(); row++) {
+            PageMetrics metrics = captures.get(row);
+            table[row + 1][0] = metrics.getLabel();
+            for (int column = 0; column < columns.length; column++) {
+                Double value = metrics.getValues().get(columns[column]);
+                String cell = value == null ? "-"
+                        : "cls".equals(columns[column]) ? String.format("%.3f", value)
+                                : String.valueOf(Math.round(value));
+                table[row + 1][column + 1] = metrics.getBudgetViolation(columns[column]) != null ? cell + " !" : cell;
+            }
+        }
+        return table;
+    }
+
+    private static void record(PageMetrics metrics) {
+        metrics.getValues().forEach((name, value) -> {
+            if (!UNITLESS.contains(name) && !name.endsWith("Kb")) {
+                ExecutionMetrics.recordNanos("perf." + name, TimeUnit.MICROSECONDS.toNanos(Math.round(value * 1000)));
+            }
+        });
+        if (!metrics.getViolations().isEmpty()) {
+            ExecutionMetrics.increment("perf.budget.exceeded");
+        }
+    }
+
+    private static void write(PageMetrics metrics) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("timestamp", metrics.getTimestamp());
+        line.put("test", MDC.get(LogContext.TEST_ID));
+        line.put("label", metrics.getLabel());
+        line.put("url", metrics.getUrl());
+        line.put("browser", Constants.BROWSER);
+        line.put("metrics", metrics.getValues());
+        line.put("violations", metrics.getViolations());
+        StringBuilder json = new StringBuilder();
+        try (JsonOutput output = JSON.newOutput(json)) {
+            output.setPrettyPrint(false).write(line);
+        }
+        json.append(System.lineSeparator());
+
+        Path file = Paths.get(Constants.PERF_DIR, "web-vitals.jsonl");
+        synchronized (FILE_LOCK) {
+            try {
+                Files.createDirectories(file.getParent());
+                try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                        StandardOpenOption.APPEND)) {
+                    writer.append(json);
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Could not write web vitals to {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Metrics of one navigation or transition; times are in milliseconds
+     */
+    public static class PageMetrics {
+
+        private final String label;
+        private final String url;
+        private final long timestamp = System.currentTimeMillis();
+        private final Map<String, Double> values;
+        private final List<String> violations = new ArrayList<>();
+
+        PageMetrics(String label, String url, Map<String, Double> values) {
+            this.label = label;
+            this.url = url;
+            this.values = Collections.unmodifiableMap(values);
+            values.forEach((name, value) -> {
+                String violation = getBudgetViolation(name);
+                if (violation != null) {
+                    violations.add(violation);
+                }
+            });
+        }
+
+        /**
+         * @return Description of the budget missed by the metric, or null. Budgets
+         *         are upper bounds, {@code min_<metric>} budgets lower bounds
+         */
+        public String getBudgetViolation(String name) {
+            Double value = values.get(name);
+            if (value == null) {
+                return null;
+            }
+            Double budget = Constants.PERF_BUDGETS.get(name);
+            if (budget != null && value > budget) {
+                return String.format("%s %.3f > budget %.3f", name, value, budget);
+            }
+            Double minimum = Constants.PERF_BUDGETS.get("min_" + name);
+            if (minimum != null && value < minimum) {
+                return String.format("%s %.3f < budget %.3f", name, value, minimum);
+            }
+            return null;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public Map<String, Double> getValues() {
+            return values;
+        }
+
+        public List<String> getViolations() {
+            return Collections.unmodifiableList(violations);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.crypto.utils.devtools;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One shared DevTools session per driver. Callers send raw CDP commands
+ * ({@code new Command<>("Domain.method", params)}) and listen to raw events,
+ * so nothing here depends on the version-specific devtools modules.
+ */
+public class DevToolsSessions {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DevToolsSessions.class);
+    private static final Map<WebDriver, Optional<DevTools>> SESSIONS = new ConcurrentHashMap<>();
+
+    private DevToolsSessions() {
+    }
+
+    /**
+     * @param driver WebDriver instance
+     * @return Connected DevTools session, or empty if the browser has no CDP
+     *         support (Firefox, Safari) or the connection failed
+     */
+    public static Optional<DevTools> get(WebDriver driver) {
+        if (driver == null) {
+            return Optional.empty();
+        }
+        return SESSIONS.computeIfAbsent(driver, DevToolsSessions::connect);
+    }
+
+    public static boolean isSupported(WebDriver driver) {
+        return get(driver).isPresent();
+    }
+
+    /**
+     * Closes the DevTools connection of the driver, to be called before it is quit
+     *
+     * @param driver WebDriver being quit
+     */
+    public static void close(WebDriver driver) {
+        Optional<DevTools> devTools = driver == null ? null : SESSIONS.remove(driver);
+        if (devTools != null && devTools.isPresent()) {
+            try {
+                devTools.get().close();
+            } catch (Exception e) {
+                LOGGER.debug("Error closing DevTools session: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static Optional<DevTools> connect(WebDriver driver) {
+        WebDriver target = driver;
+        // Remote sessions only expose DevTools once augmented
+        if (!(target instanceof HasDevTools) && target instanceof RemoteWebDriver) {
+            target = new Augmenter().augment(target);
+        }
+        if (!(target instanceof HasDevTools)) {
+            return Optional.empty();
+        }
+
+        try {
+            Optional<DevTools> devTools = ((HasDevTools) target).maybeGetDevTools();
+            devTools.ifPresent(DevTools::createSessionIfThereIsNotOne);
+            return devTools;
+        } catch (WebDriverException e) {
+            LOGGER.warn("DevTools not available for this session: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,600 @@
+package com.crypto.utils.devtools;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.zip.GZIPOutputStream;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonInput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.crypto.constants.Constants;
+import com.crypto.report.ExecutionMetrics;
+
+/**
+ * Tracks the network activity of a browser through raw Chrome DevTools
+ * Network events: requests in flight per frame and per-request timing.
+ * Long-lived streams (WebSocket, EventSource) are not counted as in flight
+ * and their messages are only counted for the HAR and metrics, otherwise a
+ * page with a live datafeed would never be idle. Requests of a document that
+ * was navigated away from or detached, and requests that never finish, stop
+ * counting as in flight.
+ */
+public class NetworkTracker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NetworkTracker.class);
+    private static final Map<WebDriver, NetworkTracker> TRACKERS = new ConcurrentHashMap<>();
+    private static final String MAIN_FRAME = "main";
+
+    private final Map<String, RequestRecord> inFlight = new LinkedHashMap<>();
+    private final Map<String, Integer> inFlightByFrame = new LinkedHashMap<>();
+    private final Map<String, Long> lastActivityByFrame = new HashMap<>();
+    private final Map<String, RequestRecord> streams = new HashMap<>();
+    private final Map<String, FrameInfo> frames = new HashMap<>();
+    private final Deque<RequestRecord> completed = new ArrayDeque<>();
+    private final Json json = new Json();
+    private long lastActivityNanos = System.nanoTime();
+    private long resetNanos = lastActivityNanos;
+
+    NetworkTracker() {
+    }
+
+    /**
+     * Starts tracking the driver's network traffic, once per driver
+     *
+     * @param driver WebDriver instance
+     * @return Tracker of the driver, or empty when the browser has no CDP support
+     */
+    public static Optional<NetworkTracker> start(WebDriver driver) {
+        NetworkTracker existing = driver == null ? null : TRACKERS.get(driver);
+        if (existing != null) {
+            return Optional.of(existing);
+        }
+        Optional<DevTools> devTools = DevToolsSessions.get(driver);
+        if (devTools.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(TRACKERS.computeIfAbsent(driver, d -> {
+            NetworkTracker tracker = new NetworkTracker();
+            tracker.listen(devTools.get());
+            return tracker;
+        }));
+    }
+
+    /**
+     * @return Tracker of the driver if tracking was started
+     */
+    public static Optional<NetworkTracker> of(WebDriver driver) {
+        return driver == null ? Optional.empty() : Optional.ofNullable(TRACKERS.get(driver));
+    }
+
+    public static void remove(WebDriver driver) {
+        if (driver != null) {
+            TRACKERS.remove(driver);
+        }
+    }
+
+    private void listen(DevTools devTools) {
+        devTools.send(new Command<>("Network.enable", Map.of()));
+        devTools.send(new Command<>("Page.enable", Map.of()));
+        devTools.addListener(event("Network.requestWillBeSent"), this::onRequest);
+        devTools.addListener(event("Network.responseReceived"), this::onResponse);
+        devTools.addListener(event("Network.loadingFinished"), params -> onFinished(params, null));
+        devTools.addListener(event("Network.loadingFailed"),
+                params -> onFinished(params, String.valueOf(params.get("errorText"))));
+        devTools.addListener(event("Network.webSocketFrameReceived"), this::onStreamActivity);
+        devTools.addListener(event("Network.webSocketFrameSent"), this::onStreamActivity);
+        devTools.addListener(event("Network.webSocketClosed"), this::onStreamClosed);
+        devTools.addListener(event("Page.frameNavigated"), this::onFrameNavigated);
+        devTools.addListener(event("Page.frameDetached"), this::onFrameDetached);
+        LOGGER.info("Network tracking enabled");
+    }
+
+    private static Event<Map<String, Object>> event(String name) {
+        return new Event<>(name, (JsonInput input) -> input.read(Json.MAP_TYPE));
+    }
+
+    /**
+     * Waits until no request of any frame has been in flight for
+     * {@code quietMillis}
+     *
+     * @param quietMillis Required quiet period in milliseconds
+     * @param maxMillis   Upper bound for the wait in milliseconds
+     * @return true if the network went idle, false if maxMillis elapsed first
+     */
+    public boolean waitForNetworkIdle(long quietMillis, long maxMillis) {
+        return waitForNetworkIdle(null, quietMillis, maxMillis);
+    }
+
+    /**
+     * Waits until no request of a frame or the frames inside it has been in
+     * flight for {@code quietMillis}. Traffic of other frames, such as a live
+     * feed of the top-level page while waiting on an iframe, does not count.
+     * Requests without a finish event for {@code [network]
+     * stale_request_seconds} stop counting as in flight.
+     *
+     * @param frameId     DevTools id of the frame, see {@link #findFrameId}, or
+     *                    null for every frame
+     * @param quietMillis Required quiet period in milliseconds
+     * @param maxMillis   Upper bound for the wait in milliseconds
+     * @return true if the network went idle, false if maxMillis elapsed first
+     */
+    public boolean waitForNetworkIdle(String frameId, long quietMillis, long maxMillis) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxMillis);
+        long quietNanos = TimeUnit.MILLISECONDS.toNanos(quietMillis);
+        try {
+            synchronized (this) {
+                while (true) {
+                    long now = System.nanoTime();
+                    dropStaleLocked(now);
+                    int busy = inFlightCountLocked(frameId);
+                    long quietFor = now - lastActivityLocked(frameId);
+                    if (busy == 0 && quietFor >= quietNanos) {
+                        return true;
+                    }
+                    if (now >= deadline) {
+                        LOGGER.warn("Network of {} not idle after {} ms, {} request(s) in flight: {}",
+                                frameId == null ? "the page" : "frame " + frameId, maxMillis, busy,
+                                describeInFlight(frameId));
+                        return false;
+                    }
+                    long waitNanos = busy == 0 ? quietNanos - quietFor : quietNanos;
+                    TimeUnit.NANOSECONDS.timedWait(this, Math.max(1, Math.min(waitNanos, deadline - now)));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            ExecutionMetrics.recordSince("network.idle.wait", start);
+        }
+    }
+
+    /**
+     * @param nameOrUrl Name attribute of the iframe, or part of the frame's URL
+     * @return DevTools id of the first frame seen navigating that matches
+     */
+    public synchronized Optional<String> findFrameId(String nameOrUrl) {
+        if (nameOrUrl == null || nameOrUrl.isEmpty()) {
+            return Optional.empty();
+        }
+        return frames.entrySet().stream()
+                .filter(e -> nameOrUrl.equals(e.getValue().name) || e.getValue().url.contains(nameOrUrl))
+                .map(Map.Entry::getKey).findFirst();
+    }
+
+    public synchronized int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * @return Requests in flight in the frame and the frames inside it
+     */
+    public synchronized int getInFlightCount(String frameId) {
+        return inFlightCountLocked(frameId);
+    }
+
+    /**
+     * @return Completed requests since the last {@link #reset()}, oldest first
+     */
+    public synchronized List<RequestRecord> getRequests() {
+        return Collections.unmodifiableList(new ArrayList<>(completed));
+    }
+
+    /**
+     * Forgets completed and in-flight requests, typically at the start of a
+     * test. Requests still running finish unseen, and do not keep the next
+     * test's idle waits busy.
+     */
+    public synchronized void reset() {
+        completed.clear();
+        inFlight.clear();
+        inFlightByFrame.clear();
+        lastActivityByFrame.clear();
+        touchLocked(null);
+        resetNanos = lastActivityNanos;
+    }
+
+    /**
+     * Writes the completed and in-flight requests as a gzipped HAR file
+     *
+     * @param name Base file name, typically the test name
+     * @return Path of the written file
+     * @throws IOException If the file cannot be written
+     */
+    public Path writeHar(String name) throws IOException {
+        List<RequestRecord> requests;
+        synchronized (this) {
+            requests = new ArrayList<>(completed);
+            requests.addAll(inFlight.values());
+            requests.addAll(streams.values());
+        }
+
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (RequestRecord request : requests) {
+            entries.add(request.toHarEntry());
+        }
+        Map<String, Object> log = new LinkedHashMap<>();
+        log.put("version", "1.2");
+        log.put("creator", Map.of("name", "web-automation", "version", "1.0"));
+        log.put("entries", entries);
+
+        Path dir = Paths.get(Constants.HAR_DIR);
+        Files.createDirectories(dir);
+        Path file = dir.resolve(name.replaceAll("[^a-zA-Z0-9._-]", "_") + "_" + System.currentTimeMillis()
+                + ".har.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file));
+                Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            writer.write(json.toJson(Map.of("log", log)));
+        }
+        LOGGER.info("HAR with {} request(s) written to {}", entries.size(), file);
+        return file;
+    }
+
+    synchronized void onRequest(Map<String, Object> params) {
+        String type = String.valueOf(params.get("type"));
+        String frameId = params.get("frameId") == null ? MAIN_FRAME : String.valueOf(params.get("frameId"));
+        String requestId = String.valueOf(params.get("requestId"));
+        Map<?, ?> request = params.get("request") instanceof Map ? (Map<?, ?>) params.get("request") : Map.of();
+        RequestRecord record = new RequestRecord(String.valueOf(request.get("url")),
+                String.valueOf(request.get("method")), type, frameId, String.valueOf(params.get("loaderId")),
+                number(params.get("timestamp")), number(params.get("wallTime")));
+        if ("WebSocket".equals(type) || "EventSource".equals(type)) {
+            streams.put(requestId, record);
+            touchLocked(frameId);
+            return;
+        }
+
+        RequestRecord previous = inFlight.get(requestId);
+        if (previous != null) {
+            // Redirect: the same request id continues with a new URL
+            finishLocked(requestId, previous, null, number(params.get("timestamp")));
+        }
+        inFlight.put(requestId, record);
+        inFlightByFrame.merge(record.frameId, 1, Integer::sum);
+        touchLocked(frameId);
+    }
+
+    synchronized void onResponse(Map<String, Object> params) {
+        RequestRecord record = inFlight.get(String.valueOf(params.get("requestId")));
+        if (record == null) {
+            return;
+        }
+        Map<?, ?> response = (Map<?, ?>) params.get("response");
+        record.status = (int) number(response.get("status"));
+        record.mimeType = String.valueOf(response.get("mimeType"));
+        record.responseTime = number(params.get("timestamp"));
+        touchLocked(record.frameId);
+    }
+
+    synchronized void onFinished(Map<String, Object> params, String error) {
+        String requestId = String.valueOf(params.get("requestId"));
+        RequestRecord record = inFlight.get(requestId);
+        if (record == null) {
+            closeStreamLocked(requestId, error, number(params.get("timestamp")));
+            return;
+        }
+        record.encodedSize = (long) number(params.get("encodedDataLength"));
+        finishLocked(requestId, record, error, number(params.get("timestamp")));
+        touchLocked(record.frameId);
+    }
+
+    /*
+     * Counted for the HAR and metrics only: a live feed sends messages all the
+     * time, so they must not restart the quiet period of idle waits
+     */
+    synchronized void onStreamActivity(Map<String, Object> params) {
+        RequestRecord record = streams.get(String.valueOf(params.get("requestId")));
+        if (record != null) {
+            record.streamMessages++;
+            ExecutionMetrics.increment("network.stream.messages");
+        }
+    }
+
+    synchronized void onStreamClosed(Map<String, Object> params) {
+        closeStreamLocked(String.valueOf(params.get("requestId")), null, number(params.get("timestamp")));
+    }
+
+    private void closeStreamLocked(String requestId, String error, double endTime) {
+        RequestRecord record = streams.remove(requestId);
+        if (record != null) {
+            record.endTime = endTime;
+            record.error = error;
+            addCompletedLocked(record);
+        }
+    }
+
+    /**
+     * A frame committed a new document: requests of its previous document will
+     * not finish on their own
+     */
+    synchronized void onFrameNavigated(Map<String, Object> params) {
+        Map<?, ?> frame = (Map<?, ?>) params.get("frame");
+        String frameId = String.valueOf(frame.get("id"));
+        String loaderId = String.valueOf(frame.get("loaderId"));
+        frames.put(frameId, new FrameInfo(frame.get("parentId") == null ? null : String.valueOf(frame.get("parentId")),
+                frame.get("name") == null ? "" : String.valueOf(frame.get("name")),
+                frame.get("url") == null ? "" : String.valueOf(frame.get("url"))));
+        dropLocked(record -> record.frameId.equals(frameId) && !record.loaderId.equals(loaderId),
+                "superseded by navigation");
+        touchLocked(frameId);
+    }
+
+    synchronized void onFrameDetached(Map<String, Object> params) {
+        String frameId = String.valueOf(params.get("frameId"));
+        dropLocked(record -> record.frameId.equals(frameId), "frame detached");
+        streams.entrySet().removeIf(entry -> {
+            if (!entry.getValue().frameId.equals(frameId)) {
+                return false;
+            }
+            entry.getValue().error = "frame detached";
+            addCompletedLocked(entry.getValue());
+            return true;
+        });
+        frames.remove(frameId);
+        lastActivityByFrame.remove(frameId);
+        touchLocked(null);
+    }
+
+    private void finishLocked(String requestId, RequestRecord record, String error, double endTime) {
+        removeInFlightLocked(requestId, record);
+        record.endTime = endTime;
+        record.error = error;
+        addCompletedLocked(record);
+        ExecutionMetrics.recordNanos("network.request", TimeUnit.MICROSECONDS.toNanos(
+                (long) (record.getDurationMillis() * 1000)));
+        if (error != null) {
+            ExecutionMetrics.increment("network.request.failed");
+        }
+    }
+
+    /*
+     * Stops counting requests as in flight without a finish event. They go to
+     * the HAR with the reason as error and no end time.
+     */
+    private void dropLocked(Predicate<RequestRecord> filter, String reason) {
+        Iterator<Map.Entry<String, RequestRecord>> it = inFlight.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, RequestRecord> entry = it.next();
+            RequestRecord record = entry.getValue();
+            if (filter.test(record)) {
+                it.remove();
+                inFlightByFrame.computeIfPresent(record.frameId, (frame, count) -> count > 1 ? count - 1 : null);
+                record.error = reason;
+                addCompletedLocked(record);
+                ExecutionMetrics.increment("network.request.dropped");
+                LOGGER.debug("Request {} {} no longer in flight: {}", record.method, record.url, reason);
+            }
+        }
+    }
+
+    private void dropStaleLocked(long now) {
+        if (Constants.NETWORK_STALE_REQUEST_SECONDS <= 0 || inFlight.isEmpty()) {
+            return;
+        }
+        long staleBefore = now - TimeUnit.SECONDS.toNanos(Constants.NETWORK_STALE_REQUEST_SECONDS);
+        dropLocked(record -> record.trackedNanos - staleBefore < 0,
+                "not finished after " + Constants.NETWORK_STALE_REQUEST_SECONDS + " s");
+    }
+
+    private void removeInFlightLocked(String requestId, RequestRecord record) {
+        inFlight.remove(requestId);
+        inFlightByFrame.computeIfPresent(record.frameId, (frame, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private void addCompletedLocked(RequestRecord record) {
+        completed.addLast(record);
+        while (completed.size() > Constants.NETWORK_MAX_ENTRIES) {
+            completed.removeFirst();
+        }
+    }
+
+    private int inFlightCountLocked(String frameId) {
+        if (frameId == null) {
+            return inFlight.size();
+        }
+        int count = 0;
+        for (Map.Entry<String, Integer> entry : inFlightByFrame.entrySet()) {
+            if (isWithinLocked(entry.getKey(), frameId)) {
+                count += entry.getValue();
+            }
+        }
+        return count;
+    }
+
+    private long lastActivityLocked(String frameId) {
+        if (frameId == null) {
+            return lastActivityNanos;
+        }
+        // A frame without traffic has been quiet since the last reset
+        long last = resetNanos;
+        for (Map.Entry<String, Long> entry : lastActivityByFrame.entrySet()) {
+            if (isWithinLocked(entry.getKey(), frameId) && entry.getValue() - last > 0) {
+                last = entry.getValue();
+            }
+        }
+        return last;
+    }
+
+    /*
+     * Whether a frame is the given one or nested inside it
+     */
+    private boolean isWithinLocked(String frameId, String ancestorId) {
+        for (String id = frameId; id != null; id = frames.containsKey(id) ? frames.get(id).parentId : null) {
+            if (id.equals(ancestorId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void touchLocked(String frameId) {
+        lastActivityNanos = System.nanoTime();
+        if (frameId != null) {
+            lastActivityByFrame.put(frameId, lastActivityNanos);
+        }
+        notifyAll();
+    }
+
+    private String describeInFlight(String frameId) {
+        StringBuilder description = new StringBuilder();
+        inFlight.values().stream().filter(r -> frameId == null || isWithinLocked(r.frameId, frameId)).limit(5)
+                .forEach(r -> description.append(r.method).append(' ').append(r.url).append("; "));
+        return description.toString();
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    private static final class FrameInfo {
+        private final String parentId;
+        private final String name;
+        private final String url;
+
+        private FrameInfo(String parentId, String name, String url) {
+            this.parentId = parentId;
+            this.name = name;
+            this.url = url;
+        }
+    }
+
+    /**
+     * Timing of a single request. CDP timestamps are monotonic seconds, the
+     * wall time is only used as the HAR start date.
+     */
+    public static final class RequestRecord {
+        private final String url;
+        private final String method;
+        private final String type;
+        private final String frameId;
+        private final String loaderId;
+        private final long trackedNanos = System.nanoTime();
+        private final double startTime;
+        private final double wallTime;
+        private double responseTime;
+        private double endTime;
+        private int status;
+        private String mimeType = "";
+        private long encodedSize;
+        private String error;
+        private long streamMessages;
+
+        private RequestRecord(String url, String method, String type, String frameId, String loaderId,
+                double startTime, double wallTime) {
+            this.url = url;
+            this.method = method;
+            this.type = type;
+            this.frameId = frameId;
+            this.loaderId = loaderId;
+            this.startTime = startTime;
+            this.wallTime = wallTime;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getFrameId() {
+            return frameId;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        /**
+         * @return Messages sent and received, for WebSocket and EventSource
+         *         streams
+         */
+        public long getStreamMessages() {
+            return streamMessages;
+        }
+
+        public double getDurationMillis() {
+            return endTime > 0 ? (endTime - startTime) * 1000 : -1;
+        }
+
+        public double getTimeToFirstByteMillis() {
+            return responseTime > 0 ? (responseTime - startTime) * 1000 : -1;
+        }
+
+        private Map<String, Object> toHarEntry() {
+            double total = Math.max(0, getDurationMillis());
+            double wait = Math.max(0, getTimeToFirstByteMillis());
+
+            Map<String, Object> request = new LinkedHashMap<>();
+            request.put("method", method);
+            request.put("url", url);
+            request.put("httpVersion", "");
+            request.put("cookies", List.of());
+            request.put("headers", List.of());
+            request.put("queryString", List.of());
+            request.put("headersSize", -1);
+            request.put("bodySize", -1);
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("status", status);
+            response.put("statusText", error == null ? "" : error);
+            response.put("httpVersion", "");
+            response.put("cookies", List.of());
+            response.put("headers", List.of());
+            response.put("content", Map.of("size", encodedSize, "mimeType", mimeType));
+            response.put("redirectURL", "");
+            response.put("headersSize", -1);
+            response.put("bodySize", encodedSize);
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("startedDateTime", Instant.ofEpochMilli((long) (wallTime * 1000)).toString());
+            entry.put("time", total);
+            entry.put("request", request);
+            entry.put("response", response);
+            entry.put("cache", Map.of());
+            entry.put("timings", Map.of("send", 0, "wait", wait, "receive", Math.max(0, total - wait)));
+            entry.put("_resourceType", type);
+            entry.put("_frameId", frameId);
+            if (streamMessages > 0) {
+                entry.put("_streamMessages", streamMessages);
+            }
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.crypto.utils.devtools;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonInput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.crypto.constants.Constants;
+import com.crypto.report.ExecutionMetrics;
+import com.crypto.report.ReportJournal;
+
+/**
+ * Keeps the last {@code [screencast] seconds} of a Chromium session in memory
+ * through the DevTools screencast. JPEG frames are copied into a fixed-size
+ * direct buffer used as a ring, so the heap does not grow with the recording
+ * and older frames are overwritten once the buffer is full. The buffer is
+ * cleared when a test starts and written as an animated GIF when it fails.
+ */
+public class ScreencastRecorder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScreencastRecorder.class);
+    private static final Map<WebDriver, ScreencastRecorder> RECORDERS = new ConcurrentHashMap<>();
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final ByteBuffer ring;
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private final ExecutorService acknowledger;
+    private int writePosition;
+    private long lastFrameMillis;
+
+    private static final class Frame {
+        private final int offset;
+        private final int length;
+        private final long timeMillis;
+
+        private Frame(int offset, int length, long timeMillis) {
+            this.offset = offset;
+            this.length = length;
+            this.timeMillis = timeMillis;
+        }
+    }
+
+    ScreencastRecorder(int capacity) {
+        ring = ByteBuffer.allocateDirect(capacity);
+        acknowledger = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "screencast-ack");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts recording the driver's screen, once per driver
+     *
+     * @param driver WebDriver instance
+     * @return Recorder of the driver, or empty when the browser has no CDP
+     *         support
+     */
+    public static Optional<ScreencastRecorder> start(WebDriver driver) {
+        ScreencastRecorder existing = driver == null ? null : RECORDERS.get(driver);
+        if (existing != null) {
+            return Optional.of(existing);
+        }
+        Optional<DevTools> devTools = DevToolsSessions.get(driver);
+        if (devTools.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(RECORDERS.computeIfAbsent(driver, d -> {
+            ScreencastRecorder recorder = new ScreencastRecorder(
+                    Math.max(1, Constants.SCREENCAST_BUFFER_MB) * 1024 * 1024);
+            recorder.listen(devTools.get());
+            ExecutionMetrics.increment("screencast.sessions");
+            return recorder;
+        }));
+    }
+
+    /**
+     * @return Recorder of the driver if recording was started
+     */
+    public static Optional<ScreencastRecorder> of(WebDriver driver) {
+        return driver == null ? Optional.empty() : Optional.ofNullable(RECORDERS.get(driver));
+    }
+
+    /**
+     * Stops recording, to be called before the driver's DevTools session is
+     * closed
+     *
+     * @param driver WebDriver being quit
+     */
+    public static void remove(WebDriver driver) {
+        ScreencastRecorder recorder = driver == null ? null : RECORDERS.remove(driver);
+        if (recorder != null) {
+            recorder.acknowledger.shutdownNow();
+            recorder.clear();
+        }
+    }
+
+    private void listen(DevTools devTools) {
+        Event<Map<String, Object>> frameEvent = new Event<>("Page.screencastFrame",
+                (JsonInput input) -> input.read(Json.MAP_TYPE));
+        devTools.addListener(frameEvent, params -> onFrame(devTools, params));
+        devTools.send(new Command<>("Page.startScreencast", Map.of(
+                "format", "jpeg",
+                "quality", Constants.SCREENCAST_QUALITY,
+                "maxWidth", Constants.SCREENCAST_MAX_WIDTH,
+                "maxHeight", Constants.SCREENCAST_MAX_WIDTH,
+                "everyNthFrame", 1)));
+        LOGGER.info("Screencast recording enabled: last {} s in a {} MB buffer", Constants.SCREENCAST_SECONDS,
+                ring.capacity() / 1024 / 1024);
+    }
+
+    private void onFrame(DevTools devTools, Map<String, Object> params) {
+        // Chrome stops sending frames until each one is acknowledged; acknowledging
+        // from the event thread would block it on the response
+        Object sessionId = params.get("sessionId");
+        acknowledger.execute(() -> {
+            try {
+                devTools.send(new Command<>("Page.screencastFrameAck", Map.of("sessionId", sessionId)));
+            } catch (RuntimeException e) {
+                LOGGER.debug("Could not acknowledge screencast frame: {}", e.getMessage());
+            }
+        });
+
+        long now = System.currentTimeMillis();
+        if (now - lastFrameMillis < 1000L / Math.max(1, Constants.SCREENCAST_MAX_FPS)) {
+            ExecutionMetrics.increment("screencast.skippedFrames");
+            return;
+        }
+        long start = System.nanoTime();
+        long cpuStart = THREADS.getCurrentThreadCpuTime();
+        byte[] jpeg = Base64.getDecoder().decode(String.valueOf(params.get("data")));
+        append(jpeg, now);
+        ExecutionMetrics.recordSince("screencast.frame", start);
+        if (cpuStart >= 0) {
+            ExecutionMetrics.recordNanos("screencast.frameCpu", THREADS.getCurrentThreadCpuTime() - cpuStart);
+        }
+        ExecutionMetrics.increment("screencast.frames");
+        ExecutionMetrics.add("screencast.bytes", jpeg.length);
+    }
+
+    synchronized void append(byte[] jpeg, long timeMillis) {
+        int capacity = ring.capacity();
+        if (jpeg.length > capacity) {
+            ExecutionMetrics.increment("screencast.droppedFrames");
+            return;
+        }
+        lastFrameMillis = timeMillis;
+        long window = TimeUnit.SECONDS.toMillis(Constants.SCREENCAST_SECONDS);
+        while (!frames.isEmpty() && frames.peekFirst().timeMillis < timeMillis - window) {
+            frames.removeFirst();
+        }
+        if (writePosition + jpeg.length > capacity) {
+            // Frames between the write position and the end are now the oldest ones
+            while (!frames.isEmpty() && frames.peekFirst().offset >= writePosition) {
+                frames.removeFirst();
+            }
+            writePosition = 0;
+        }
+        int end = writePosition + jpeg.length;
+        while (!frames.isEmpty() && frames.peekFirst().offset < end
+                && frames.peekFirst().offset + frames.peekFirst().length > writePosition) {
+            frames.removeFirst();
+        }
+        ring.put(writePosition, jpeg);
+        frames.addLast(new Frame(writePosition, jpeg.length, timeMillis));
+        writePosition = end;
+    }
+
+    /**
+     * Drops the buffered frames, when a test starts or passes
+     */
+    public synchronized void clear() {
+        frames.clear();
+        writePosition = 0;
+    }
+
+    public synchronized int getFrameCount() {
+        return frames.size();
+    }
+
+    /**
+     * @return Copies of the buffered frames, oldest first
+     */
+    synchronized List<byte[]> getFrames() {
+        List<byte[]> copies = new ArrayList<>(frames.size());
+        for (Frame frame : frames) {
+            byte[] jpeg = new byte[frame.length];
+            ring.get(frame.offset, jpeg);
+            copies.add(jpeg);
+        }
+        return copies;
+    }
+
+    /**
+     * Encodes the buffered frames as an animated GIF and clears the buffer
+     *
+     * @return The GIF, or empty if no frame was buffered
+     */
+    public Optional<byte[]> dumpGif() throws IOException {
+        List<byte[]> jpegs;
+        List<Long> times = new ArrayList<>();
+        synchronized (this) {
+            jpegs = getFrames();
+            frames.forEach(frame -> times.add(frame.timeMillis));
+            clear();
+        }
+        if (jpegs.isEmpty()) {
+            return Optional.empty();
+        }
+
+        long start = System.nanoTime();
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            writer.prepareWriteSequence(null);
+            for (int i = 0; i < jpegs.size(); i++) {
+                BufferedImage image = ImageIO.read(new ByteArrayInputStream(jpegs.get(i)));
+                if (image == null) {
+                    continue;
+                }
+                long delay = i + 1 < times.size() ? times.get(i + 1) - times.get(i) : 1000;
+                writer.writeToSequence(new IIOImage(image, null, frameMetadata(writer, image, delay, i == 0)), null);
+            }
+            writer.endWriteSequence();
+        } finally {
+            writer.dispose();
+            ExecutionMetrics.recordSince("screencast.encode", start);
+        }
+        LOGGER.info("Screencast of {} frame(s) over {} ms encoded as a {} KB GIF", jpegs.size(),
+                times.get(times.size() - 1) - times.get(0), out.size() / 1024);
+        return Optional.of(out.toByteArray());
+    }
+
+    /**
+     * Frame delay in hundredths of a second, and looping on the first frame
+     */
+    private static IIOMetadata frameMetadata(ImageWriter writer, BufferedImage image, long delayMillis,
+            boolean first) throws IOException {
+        IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), null);
+        String format = metadata.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+
+        IIOMetadataNode control = child(root, "GraphicControlExtension");
+        control.setAttribute("disposalMethod", "none");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute("delayTime", String.valueOf(Math.max(2, Math.min(500, delayMillis / 10))));
+        control.setAttribute("transparentColorIndex", "0");
+
+        if (first) {
+            IIOMetadataNode application = new IIOMetadataNode("ApplicationExtension");
+            application.setAttribute("applicationID", "NETSCAPE");
+            application.setAttribute("authenticationCode", "2.0");
+            application.setUserObject(new byte[] { 1, 0, 0 });
+            child(root, "ApplicationExtensions").appendChild(application);
+        }
+        metadata.setFromTree(format, root);
+        return metadata;
+    }
+
+    private static IIOMetadataNode child(IIOMetadataNode root, String name) {
+        for (int i = 0; i < root.getLength(); i++) {
+            if (root.item(i).getNodeName().equalsIgnoreCase(name)) {
+                return (IIOMetadataNode) root.item(i);
+            }
+        }
+        IIOMetadataNode node = new IIOMetadataNode(name);
+        root.appendChild(node);
+        return node;
+    }
+
+    /**
+     * Adds the recording overhead to the report's system info: buffer memory
+     * per session and the time spent per frame on the DevTools thread
+     *
+     * @param extent Report to publish to
+     */
+    public static void publish(ExtentReports extent) {
+        long sessions = ExecutionMetrics.getCount("screencast.sessions");
+        if (sessions == 0) {
+            return;
+        }
+        String summary = String.format("%d session(s) with a %d MB off-heap buffer each, %d frame(s) kept"
+                + " (%d skipped), %.2f ms wall / %.2f ms CPU per frame, %.1f MB received",
+                sessions, Math.max(1, Constants.SCREENCAST_BUFFER_MB), ExecutionMetrics.getCount("screencast.frames"),
+                ExecutionMetrics.getCount("screencast.skippedFrames"),
+                ExecutionMetrics.getAverageMillis("screencast.frame"),
+                ExecutionMetrics.getAverageMillis("screencast.frameCpu"),
+                ExecutionMetrics.getCount("screencast.bytes") / 1024.0 / 1024.0);
+        LOGGER.info("Screencast: {}", summary);
+        if (extent != null) {
+            ReportJournal.setSystemInfo(extent, "Screencast", summary);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.crypto.utils.locators;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import org.openqa.selenium.NoSuchFrameException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.AjaxElementLocator;
+
+import com.crypto.report.ExecutionMetrics;
+
+/**
+ * AjaxElementLocator that keeps the resolved element until the driver's
+ * browsing context changes (see {@link LocatorContext}) or the element goes
+ * stale. Lists are not cached as their content changes without navigation.
+ * Elements of a page that lives in a frame switch into that frame before each
+ * lookup, which is a no-op when the driver is already there. If the tracked
+ * frame turns out to be gone, they start again from the top-level document
+ * once.
+ */
+public class CachingElementLocator extends AjaxElementLocator {
+
+    private final WebDriver driver;
+    private final Runnable frameSwitch;
+    private volatile WebElement cachedElement;
+    private volatile long cachedGeneration;
+
+    public CachingElementLocator(WebDriver driver, Field field, int timeOutInSeconds) {
+        this(driver, field, timeOutInSeconds, null);
+    }
+
+    /**
+     * @param frameSwitch Switches into the frame of the page, or null when the
+     *                    page does not declare a frame
+     */
+    public CachingElementLocator(WebDriver driver, Field field, int timeOutInSeconds, Runnable frameSwitch) {
+        super(driver, field, timeOutInSeconds);
+        this.driver = driver;
+        this.frameSwitch = frameSwitch;
+    }
+
+    @Override
+    public WebElement findElement() {
+        if (frameSwitch == null) {
+            return findCachedElement();
+        }
+        try {
+            frameSwitch.run();
+            return findCachedElement();
+        } catch (NoSuchFrameException | StaleElementReferenceException e) {
+            resetFrame();
+            frameSwitch.run();
+            return findCachedElement();
+        }
+    }
+
+    @Override
+    public List<WebElement> findElements() {
+        if (frameSwitch == null) {
+            return super.findElements();
+        }
+        try {
+            frameSwitch.run();
+            return super.findElements();
+        } catch (NoSuchFrameException | StaleElementReferenceException e) {
+            resetFrame();
+            frameSwitch.run();
+            return super.findElements();
+        }
+    }
+
+    private WebElement findCachedElement() {
+        long generation = LocatorContext.generation(driver);
+        WebElement element = cachedElement;
+        if (element != null && cachedGeneration == generation) {
+            ExecutionMetrics.increment("locator.cache.hit");
+            return element;
+        }
+
+        ExecutionMetrics.increment("locator.cache.miss");
+        element = super.findElement();
+        cachedGeneration = generation;
+        cachedElement = element;
+        return element;
+    }
+
+    /*
+     * The frame the driver was tracked in went away under it, e.g. the iframe
+     * reloaded. Back to the top-level document so the frame switch starts over.
+     */
+    private void resetFrame() {
+        ExecutionMetrics.increment("frame.reset");
+        cachedElement = null;
+        driver.switchTo().defaultContent();
+        FrameContext.reset(driver);
+        LocatorContext.invalidate(driver);
+    }
+
+    /**
+     * Drops the cached element so the next lookup re-resolves it
+     */
+    public void invalidate() {
+        cachedElement = null;
+    }
+}
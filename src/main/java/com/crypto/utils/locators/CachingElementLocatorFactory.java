@@ -0,0 +1,33 @@
+package com.crypto.utils.locators;
+
+import java.lang.reflect.Field;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+public class CachingElementLocatorFactory implements ElementLocatorFactory {
+
+    private final WebDriver driver;
+    private final int timeOutInSeconds;
+    private final Runnable frameSwitch;
+
+    public CachingElementLocatorFactory(WebDriver driver, int timeOutInSeconds) {
+        this(driver, timeOutInSeconds, null);
+    }
+
+    /**
+     * @param frameSwitch Switches into the frame of the page before each lookup,
+     *                    or null
+     */
+    public CachingElementLocatorFactory(WebDriver driver, int timeOutInSeconds, Runnable frameSwitch) {
+        this.driver = driver;
+        this.timeOutInSeconds = timeOutInSeconds;
+        this.frameSwitch = frameSwitch;
+    }
+
+    @Override
+    public ElementLocator createLocator(Field field) {
+        return new CachingElementLocator(driver, field, timeOutInSeconds, frameSwitch);
+    }
+}
@@ -0,0 +1,72 @@
+package com.crypto.utils.locators;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+import com.crypto.report.ExecutionMetrics;
+
+/**
+ * Field decorator whose element proxies re-resolve a cached element once
+ * when a call fails with {@link StaleElementReferenceException}.
+ */
+public class CachingFieldDecorator extends DefaultFieldDecorator {
+
+    public CachingFieldDecorator(ElementLocatorFactory factory) {
+        super(factory);
+    }
+
+    @Override
+    protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+        InvocationHandler handler = new StaleAwareElementHandler(locator);
+        return (WebElement) Proxy.newProxyInstance(loader,
+                new Class[] { WebElement.class, WrapsElement.class, Locatable.class }, handler);
+    }
+
+    private static final class StaleAwareElementHandler implements InvocationHandler {
+
+        private final ElementLocator locator;
+
+        private StaleAwareElementHandler(ElementLocator locator) {
+            this.locator = locator;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("toString".equals(method.getName())) {
+                return "Proxy element for: " + locator.toString();
+            }
+
+            WebElement element = locator.findElement();
+            if ("getWrappedElement".equals(method.getName())) {
+                return element;
+            }
+
+            try {
+                return method.invoke(element, args);
+            } catch (InvocationTargetException e) {
+                if (!(e.getCause() instanceof StaleElementReferenceException)
+                        || !(locator instanceof CachingElementLocator)) {
+                    throw e.getCause();
+                }
+            }
+
+            ExecutionMetrics.increment("locator.cache.stale");
+            ((CachingElementLocator) locator).invalidate();
+            try {
+                return method.invoke(locator.findElement(), args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.crypto.utils.locators;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import com.crypto.report.ExecutionMetrics;
+
+/**
+ * Tracks the frame path each WebDriver is switched into, so switches to the
+ * frame the driver is already in can be skipped, and keeps the resolved iframe
+ * elements until the next navigation. Only switches made through
+ * {@code CommonActions} are tracked; navigation resets the driver to the
+ * top-level document. Switch counts and the time saved by skipped switches are
+ * accounted per test.
+ */
+public class FrameContext {
+
+    private static final Map<WebDriver, State> STATES = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Stats> STATS = ThreadLocal.withInitial(Stats::new);
+
+    private FrameContext() {
+    }
+
+    /**
+     * @return Frame names from the top-level document to the current frame
+     */
+    public static List<String> getPath(WebDriver driver) {
+        State state = STATES.get(driver);
+        return state == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(state.path));
+    }
+
+    public static boolean isAt(WebDriver driver, List<String> path) {
+        State state = STATES.get(driver);
+        return state == null ? path.isEmpty() : state.path.equals(path);
+    }
+
+    public static boolean isTopLevel(WebDriver driver) {
+        State state = STATES.get(driver);
+        return state == null || state.path.isEmpty();
+    }
+
+    /**
+     * @return Whether the innermost frame the driver is in was entered through
+     *         this iframe element. A different iframe of the same name does not
+     *         count.
+     */
+    public static boolean isInFrame(WebDriver driver, WebElement frameElement) {
+        State state = STATES.get(driver);
+        return state != null && !state.path.isEmpty() && state.frames.get(state.path) == frameElement;
+    }
+
+    /**
+     * @return The iframe element resolved for the frame path since the last
+     *         navigation, or null
+     */
+    public static WebElement getFrameElement(WebDriver driver, List<String> path) {
+        State state = STATES.get(driver);
+        return state == null ? null : state.frames.get(path);
+    }
+
+    /**
+     * Keeps the name attribute of the iframe element of a frame path, which
+     * identifies the frame in DevTools events
+     */
+    public static void setNameAttribute(WebDriver driver, List<String> path, String nameAttribute) {
+        State state = STATES.computeIfAbsent(driver, d -> new State());
+        state.nameAttributes.put(new ArrayList<>(path), nameAttribute);
+    }
+
+    /**
+     * @return Name attribute of the iframe the driver is in, or null at the
+     *         top-level document or when it is unknown
+     */
+    public static String getNameAttribute(WebDriver driver) {
+        State state = STATES.get(driver);
+        return state == null || state.path.isEmpty() ? null : state.nameAttributes.get(state.path);
+    }
+
+    /**
+     * Records a switch into a child frame of the current one
+     *
+     * @param frameElement Iframe element to keep for later switches, or null
+     * @param nanos        Time the switch took
+     */
+    public static void entered(WebDriver driver, String frameName, WebElement frameElement, long nanos) {
+        State state = STATES.computeIfAbsent(driver, d -> new State());
+        state.path.add(frameName);
+        if (frameElement != null) {
+            state.frames.put(new ArrayList<>(state.path), frameElement);
+        }
+        recordSwitch(nanos);
+    }
+
+    public static void exitedToParent(WebDriver driver, long nanos) {
+        State state = STATES.get(driver);
+        if (state != null && !state.path.isEmpty()) {
+            state.path.remove(state.path.size() - 1);
+        }
+        recordSwitch(nanos);
+    }
+
+    public static void exitedToTop(WebDriver driver, long nanos) {
+        State state = STATES.get(driver);
+        if (state != null) {
+            state.path.clear();
+        }
+        recordSwitch(nanos);
+    }
+
+    /**
+     * Records a switch the test asked for that was skipped as the driver was
+     * already there. Page lookups finding the driver in their frame are not
+     * skips. The time saved is estimated as the average time of the switches
+     * performed.
+     */
+    public static void skipped() {
+        long savedNanos = (long) (ExecutionMetrics.getAverageMillis("frame.switch") * 1_000_000);
+        Stats stats = STATS.get();
+        stats.skipped++;
+        stats.savedNanos += savedNanos;
+        ExecutionMetrics.increment("frame.switch.skipped");
+        ExecutionMetrics.add("frame.switch.saved.ms", TimeUnit.NANOSECONDS.toMillis(savedNanos));
+    }
+
+    /**
+     * Back to the top-level document and forgets the iframe elements, to be
+     * called after navigation or a window change
+     *
+     * @param driver WebDriver whose top-level document changed
+     */
+    public static void reset(WebDriver driver) {
+        if (driver != null) {
+            State state = STATES.get(driver);
+            if (state != null) {
+                state.path.clear();
+                state.frames.clear();
+                state.nameAttributes.clear();
+            }
+        }
+    }
+
+    /**
+     * Forgets the driver, to be called when its session is quit
+     *
+     * @param driver WebDriver being quit
+     */
+    public static void remove(WebDriver driver) {
+        if (driver != null) {
+            STATES.remove(driver);
+        }
+    }
+
+    public static void resetStats() {
+        STATS.remove();
+    }
+
+    /**
+     * @return Summary of the current test's frame switches, or null if there
+     *         were none
+     */
+    public static String summarize() {
+        Stats stats = STATS.get();
+        if (stats.switches == 0 && stats.skipped == 0) {
+            return null;
+        }
+        return String.format("Frame switches: %d performed in %d ms, %d skipped saving about %d ms", stats.switches,
+                TimeUnit.NANOSECONDS.toMillis(stats.switchNanos), stats.skipped,
+                TimeUnit.NANOSECONDS.toMillis(stats.savedNanos));
+    }
+
+    private static void recordSwitch(long nanos) {
+        Stats stats = STATS.get();
+        stats.switches++;
+        stats.switchNanos += nanos;
+        ExecutionMetrics.recordNanos("frame.switch", nanos);
+    }
+
+    /*
+     * A driver is used by one thread at a time, like the driver itself
+     */
+    private static final class State {
+        private final List<String> path = new ArrayList<>();
+        private final Map<List<String>, WebElement> frames = new HashMap<>();
+        private final Map<List<String>, String> nameAttributes = new HashMap<>();
+    }
+
+    private static final class Stats {
+        private int switches;
+        private int skipped;
+        private long switchNanos;
+        private long savedNanos;
+    }
+}
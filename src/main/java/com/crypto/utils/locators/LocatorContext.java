@@ -0,0 +1,46 @@
+package com.crypto.utils.locators;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Tracks a browsing context generation per WebDriver. Navigation and frame
+ * switches bump the generation, which invalidates every element cached by
+ * {@link CachingElementLocator} for that driver.
+ */
+public class LocatorContext {
+
+    private static final Map<WebDriver, AtomicLong> GENERATIONS = new ConcurrentHashMap<>();
+
+    private LocatorContext() {
+    }
+
+    public static long generation(WebDriver driver) {
+        return GENERATIONS.computeIfAbsent(driver, d -> new AtomicLong()).get();
+    }
+
+    /**
+     * Invalidates all cached elements of the driver
+     *
+     * @param driver WebDriver whose browsing context changed
+     */
+    public static void invalidate(WebDriver driver) {
+        if (driver != null) {
+            GENERATIONS.computeIfAbsent(driver, d -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    /**
+     * Forgets the driver, to be called when its session is quit
+     *
+     * @param driver WebDriver being quit
+     */
+    public static void remove(WebDriver driver) {
+        if (driver != null) {
+            GENERATIONS.remove(driver);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.crypto.utils.locators;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.openqa.selenium.By;
+
+/**
+ * Frame a page object lives in, declared by the page so its elements switch
+ * into the frame lazily. Nested frames name their parent frame.
+ */
+public final class PageFrame {
+
+    /**
+     * The top-level document
+     */
+    public static final PageFrame TOP = new PageFrame(null, null, null);
+
+    private final String name;
+    private final By locator;
+    private final PageFrame parent;
+    private final List<String> path;
+
+    /**
+     * @param name    Name of the frame in logs and the frame path
+     * @param locator Locator of the iframe element in the top-level document
+     */
+    public PageFrame(String name, By locator) {
+        this(name, locator, TOP);
+    }
+
+    /**
+     * @param name    Name of the frame in logs and the frame path
+     * @param locator Locator of the iframe element inside the parent frame
+     * @param parent  Frame containing the iframe element
+     */
+    public PageFrame(String name, By locator, PageFrame parent) {
+        this.name = name;
+        this.locator = locator;
+        this.parent = parent;
+        List<String> names = new ArrayList<>();
+        if (parent != null) {
+            names.addAll(parent.getPath());
+        }
+        if (name != null) {
+            names.add(name);
+        }
+        this.path = Collections.unmodifiableList(names);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public By getLocator() {
+        return locator;
+    }
+
+    public PageFrame getParent() {
+        return parent;
+    }
+
+    /**
+     * @return Frame names from the top-level document down to this frame,
+     *         empty for {@link #TOP}
+     */
+    public List<String> getPath() {
+        return path;
+    }
+
+    public boolean isTop() {
+        return path.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return isTop() ? "top" : String.join(" > ", path);
+    }
+}
@@ -0,0 +1,200 @@
+package com.crypto.utils.wrappers;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.openqa.selenium.Rectangle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.crypto.constants.Constants;
+import com.crypto.enums.ScreenshotFormat;
+import com.crypto.report.ExecutionMetrics;
+
+/**
+ * Re-encodes captured PNG screenshots as configured in {@code [screenshots]}:
+ * format and quality, clipping to a region, scaling down to
+ * {@code max_width} and an optional thumbnail. Runs on the screenshot pipeline
+ * threads, never on the test thread. A plain PNG without scaling or clipping
+ * is passed through without decoding.
+ */
+public class ScreenshotEncoder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScreenshotEncoder.class);
+
+    private static volatile ScreenshotFormat effectiveFormat;
+
+    private ScreenshotEncoder() {
+    }
+
+    /**
+     * An encoded screenshot
+     */
+    public static final class Encoded {
+        private final byte[] image;
+        private final byte[] thumbnail;
+        private final ScreenshotFormat format;
+
+        private Encoded(byte[] image, byte[] thumbnail, ScreenshotFormat format) {
+            this.image = image;
+            this.thumbnail = thumbnail;
+            this.format = format;
+        }
+
+        public byte[] getImage() {
+            return image;
+        }
+
+        /**
+         * @return Thumbnail in the same format, or null when thumbnails are off
+         *         or the image is already small
+         */
+        public byte[] getThumbnail() {
+            return thumbnail;
+        }
+
+        public ScreenshotFormat getFormat() {
+            return format;
+        }
+    }
+
+    /**
+     * @see #encode(byte[], Rectangle)
+     */
+    public static Encoded encode(byte[] png) {
+        return encode(png, null);
+    }
+
+    /**
+     * Encodes a screenshot with the configured settings
+     *
+     * @param png  Screenshot as captured from the driver
+     * @param clip Region to keep in image pixels, or null for the whole image
+     * @return The encoded screenshot, or the original PNG if it could not be
+     *         decoded
+     */
+    public static Encoded encode(byte[] png, Rectangle clip) {
+        ScreenshotFormat format = getEffectiveFormat();
+        ExecutionMetrics.add("screenshot.capturedBytes", png.length);
+        if (clip == null && format == ScreenshotFormat.PNG && Constants.SCREENSHOT_MAX_WIDTH <= 0
+                && Constants.SCREENSHOT_THUMBNAIL_WIDTH <= 0) {
+            ExecutionMetrics.add("screenshot.encodedBytes[png]", png.length);
+            return new Encoded(png, null, format);
+        }
+
+        long start = System.nanoTime();
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            if (image == null) {
+                throw new IOException("unreadable PNG");
+            }
+            if (clip != null) {
+                image = clip(image, clip);
+            }
+            if (Constants.SCREENSHOT_MAX_WIDTH > 0 && image.getWidth() > Constants.SCREENSHOT_MAX_WIDTH) {
+                image = scale(image, Constants.SCREENSHOT_MAX_WIDTH);
+            }
+            byte[] encoded = write(image, format);
+            byte[] thumbnail = null;
+            if (Constants.SCREENSHOT_THUMBNAIL_WIDTH > 0 && image.getWidth() > Constants.SCREENSHOT_THUMBNAIL_WIDTH) {
+                thumbnail = write(scale(image, Constants.SCREENSHOT_THUMBNAIL_WIDTH), format);
+            }
+            ExecutionMetrics.add("screenshot.encodedBytes[" + format.getExtension() + "]", encoded.length);
+            return new Encoded(encoded, thumbnail, format);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not encode screenshot as {}, keeping the PNG: {}", format, e.getMessage());
+            return new Encoded(png, null, ScreenshotFormat.PNG);
+        } finally {
+            ExecutionMetrics.recordSince("screenshot.encode[" + format.getExtension() + "]", start);
+        }
+    }
+
+    /**
+     * @return The configured format, or JPEG when WebP is configured but no
+     *         ImageIO WebP writer is installed
+     */
+    public static ScreenshotFormat getEffectiveFormat() {
+        ScreenshotFormat format = effectiveFormat;
+        if (format == null) {
+            format = Constants.SCREENSHOT_FORMAT == null ? ScreenshotFormat.PNG : Constants.SCREENSHOT_FORMAT;
+            if (format == ScreenshotFormat.WEBP && !ImageIO.getImageWritersByFormatName("webp").hasNext()) {
+                LOGGER.warn("No ImageIO WebP writer on the classpath, screenshots are encoded as JPEG");
+                format = ScreenshotFormat.JPEG;
+            }
+            effectiveFormat = format;
+        }
+        return format;
+    }
+
+    private static BufferedImage clip(BufferedImage image, Rectangle clip) {
+        java.awt.Rectangle bounds = new java.awt.Rectangle(clip.getX(), clip.getY(), clip.getWidth(),
+                clip.getHeight()).intersection(new java.awt.Rectangle(image.getWidth(), image.getHeight()));
+        if (bounds.isEmpty()) {
+            LOGGER.warn("Clip {} is outside the {}x{} screenshot, keeping the whole image", clip, image.getWidth(),
+                    image.getHeight());
+            return image;
+        }
+        return image.getSubimage(bounds.x, bounds.y, bounds.width, bounds.height);
+    }
+
+    private static BufferedImage scale(BufferedImage image, int width) {
+        int height = Math.max(1, (int) Math.round((double) image.getHeight() * width / image.getWidth()));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        graphics.drawImage(image, 0, 0, width, height, null);
+        graphics.dispose();
+        return scaled;
+    }
+
+    private static byte[] write(BufferedImage image, ScreenshotFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (format == ScreenshotFormat.PNG) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        }
+
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format == ScreenshotFormat.WEBP
+                ? "webp"
+                : "jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("no ImageIO writer for " + format);
+        }
+        ImageWriter writer = writers.next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        if (param.canWriteCompressed()) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            if (param.getCompressionType() == null && param.getCompressionTypes() != null) {
+                param.setCompressionType(param.getCompressionTypes()[0]);
+            }
+            param.setCompressionQuality(Math.max(1, Math.min(100, Constants.SCREENSHOT_QUALITY)) / 100f);
+        }
+        // Screenshots are opaque, JPEG cannot store an alpha channel
+        BufferedImage opaque = image;
+        if (image.getColorModel().hasAlpha()) {
+            opaque = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = opaque.createGraphics();
+            graphics.drawImage(image, 0, 0, null);
+            graphics.dispose();
+        }
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(opaque, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,207 @@
+package com.crypto.utils.wrappers;
+
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.crypto.constants.Constants;
+import com.crypto.report.ExecutionMetrics;
+import com.crypto.report.ReportJournal;
+import com.crypto.utils.LogContext;
+
+/**
+ * Capture-once screenshot pipeline. The test thread only grabs the PNG bytes
+ * from the driver; encoding (see {@link ScreenshotEncoder}), storing the file
+ * (see {@link ScreenshotStore}) and attaching it to the Extent test (by path,
+ * or Base64 encoded with {@code embed_screenshots}) run on a small bounded
+ * executor. When the queue is full the submitting thread processes the
+ * screenshot itself, which throttles tests instead of buffering screenshots
+ * without limit.
+ */
+public class ScreenshotPipeline {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScreenshotPipeline.class);
+
+    private static final Set<CompletableFuture<String>> PENDING = ConcurrentHashMap.newKeySet();
+    private static volatile ThreadPoolExecutor executor;
+
+    private ScreenshotPipeline() {
+    }
+
+    /**
+     * Captures a screenshot on the calling thread and processes it in the
+     * background
+     *
+     * @param driver   WebDriver instance
+     * @param fileName Name of the screenshot file (without extension)
+     * @param test     Extent test to attach to, or null to only save the file
+     * @param status   Status of the report entry
+     * @param message  Message to display with the screenshot
+     * @return Future completed with the saved file path (null if saving failed),
+     *         or null if the screenshot could not be captured
+     */
+    public static CompletableFuture<String> submit(WebDriver driver, String fileName, ExtentTest test, Status status,
+            String message) {
+        if (driver == null) {
+            LOGGER.error("Cannot take screenshot: WebDriver is null");
+            return null;
+        }
+        return submit((TakesScreenshot) driver, fileName, test, status, message, null);
+    }
+
+    /**
+     * Captures a screenshot of a driver or a single element on the calling
+     * thread and encodes, saves and attaches it in the background
+     *
+     * @param source   WebDriver or WebElement to capture
+     * @param fileName Name of the screenshot file (without extension)
+     * @param test     Extent test to attach to, or null to only save the file
+     * @param status   Status of the report entry
+     * @param message  Message to display with the screenshot
+     * @param clip     Region of the capture to keep in image pixels, or null
+     * @return Future completed with the saved file path (null if saving failed),
+     *         or null if the screenshot could not be captured
+     */
+    public static CompletableFuture<String> submit(TakesScreenshot source, String fileName, ExtentTest test,
+            Status status, String message, Rectangle clip) {
+        if (source == null) {
+            LOGGER.error("Cannot take screenshot: nothing to capture");
+            return null;
+        }
+
+        long start = System.nanoTime();
+        try {
+            byte[] png;
+            try {
+                png = source.getScreenshotAs(OutputType.BYTES);
+            } catch (Exception e) {
+                LOGGER.error("Error taking screenshot: {}", e.getMessage(), e);
+                return null;
+            } finally {
+                ExecutionMetrics.recordSince("screenshot.capture", start);
+            }
+
+            String testId = MDC.get(LogContext.TEST_ID);
+            CompletableFuture<String> future = CompletableFuture.supplyAsync(
+                    () -> process(png, clip, fileName, testId, test, status, message), getExecutor());
+            PENDING.add(future);
+            future.whenComplete((path, error) -> PENDING.remove(future));
+            return future;
+        } finally {
+            ExecutionMetrics.recordSince("screenshot.testThread", start);
+        }
+    }
+
+    /**
+     * Waits for all submitted screenshots to be written and attached, to be
+     * called before the Extent report is flushed
+     *
+     * @param timeoutSeconds Maximum time to wait
+     */
+    public static void flush(long timeoutSeconds) {
+        if (PENDING.isEmpty()) {
+            return;
+        }
+        int pending = PENDING.size();
+        LOGGER.info("Waiting for {} pending screenshot(s)", pending);
+        try {
+            CompletableFuture.allOf(PENDING.toArray(new CompletableFuture[0])).get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while flushing screenshots");
+        } catch (TimeoutException e) {
+            LOGGER.warn("{} screenshot(s) still pending after {} seconds", PENDING.size(), timeoutSeconds);
+        } catch (ExecutionException e) {
+            LOGGER.warn("Screenshot processing failed: {}", e.getMessage());
+        }
+    }
+
+    public static int getPendingCount() {
+        return PENDING.size();
+    }
+
+    private static String process(byte[] png, Rectangle clip, String fileName, String testId, ExtentTest test,
+            Status status, String message) {
+        long start = System.nanoTime();
+        try {
+            ScreenshotEncoder.Encoded encoded = ScreenshotEncoder.encode(png, clip);
+            String screenshotPath = ScreenshotUtils.saveScreenshot(encoded.getImage(), fileName, testId,
+                    encoded.getFormat());
+            if (test != null) {
+                if (screenshotPath != null && !Constants.REPORT_EMBED_SCREENSHOTS) {
+                    String thumbnailPath = encoded.getThumbnail() == null ? null
+                            : ScreenshotUtils.saveThumbnail(encoded.getThumbnail(), fileName, testId,
+                                    encoded.getFormat());
+                    if (thumbnailPath != null) {
+                        ReportJournal.logScreenshot(test, status, message + " (<a href='"
+                                + ReportJournal.getReportRelativePath(screenshotPath)
+                                + "' target='_blank'>full size</a>)", thumbnailPath);
+                    } else {
+                        ReportJournal.logScreenshot(test, status, message, screenshotPath);
+                    }
+                } else {
+                    String base64Screenshot = Base64.getEncoder().encodeToString(encoded.getImage());
+                    ReportJournal.logEmbeddedScreenshot(test, status, message, base64Screenshot);
+                    if (screenshotPath != null) {
+                        ReportJournal.log(test, Status.INFO, "Screenshot saved at: " + screenshotPath);
+                    }
+                }
+                LOGGER.info("Screenshot attached to report: {}", message);
+            }
+            return screenshotPath;
+        } catch (Exception e) {
+            LOGGER.error("Failed to process screenshot {}: {}", fileName, e.getMessage(), e);
+            return null;
+        } finally {
+            ExecutionMetrics.recordSince("screenshot.background", start);
+        }
+    }
+
+    private static ThreadPoolExecutor getExecutor() {
+        ThreadPoolExecutor current = executor;
+        if (current == null) {
+            synchronized (ScreenshotPipeline.class) {
+                current = executor;
+                if (current == null) {
+                    int threads = Math.max(1, Constants.SCREENSHOT_THREADS);
+                    int queueSize = Math.max(1, Constants.SCREENSHOT_QUEUE_SIZE);
+                    current = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                            new ArrayBlockingQueue<>(queueSize), new PipelineThreadFactory(),
+                            new ThreadPoolExecutor.CallerRunsPolicy());
+                    current.allowCoreThreadTimeOut(true);
+                    executor = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static final class PipelineThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "screenshot-pipeline-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
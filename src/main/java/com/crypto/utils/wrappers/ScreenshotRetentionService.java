@@ -0,0 +1,415 @@
+package com.crypto.utils.wrappers;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.crypto.constants.Constants;
+import com.crypto.report.ExecutionMetrics;
+
+/**
+ * Keeps the screenshot store within the {@code [screenshots]} retention
+ * budget. Files are tracked in memory from the store's {@code index.jsonl}
+ * (plus the legacy files at the top of the directory), so compaction never
+ * rescans the store. A background thread compacts every
+ * {@code compaction_interval} seconds: files unused for {@code retention_days}
+ * ({@code failure_retention_days} for failure screenshots) are deleted, then
+ * the least recently referenced files until the total size and file count are
+ * within budget, informational screenshots before failure screenshots.
+ * Screenshots referenced by the current run are never deleted.
+ */
+public class ScreenshotRetentionService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScreenshotRetentionService.class);
+
+    private static final int DELETE_BATCH = 500;
+    private static final long RUN_START = System.currentTimeMillis();
+
+    private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+    private static final AtomicLong TOTAL_BYTES = new AtomicLong();
+    private static volatile boolean loaded;
+    private static ScheduledExecutorService compactor;
+
+    private ScreenshotRetentionService() {
+    }
+
+    static final class Entry {
+        private final String path;
+        private final long bytes;
+        private volatile long lastReferenced;
+        private volatile boolean failure;
+
+        Entry(String path, long bytes, long lastReferenced, boolean failure) {
+            this.path = path;
+            this.bytes = bytes;
+            this.lastReferenced = lastReferenced;
+            this.failure = failure;
+        }
+
+        private boolean isUsedByThisRun() {
+            return lastReferenced >= RUN_START;
+        }
+
+        /**
+         * @return Whether the file has not been used for the retention days of
+         *         its kind
+         */
+        boolean isExpired(long now) {
+            int days = failure ? Constants.SCREENSHOT_FAILURE_RETENTION_DAYS : Constants.SCREENSHOT_RETENTION_DAYS;
+            return days > 0 && lastReferenced < now - TimeUnit.DAYS.toMillis(days);
+        }
+
+        String getPath() {
+            return path;
+        }
+    }
+
+    /**
+     * Starts background compaction, with a first pass right away
+     */
+    public static synchronized void start() {
+        if (compactor != null) {
+            return;
+        }
+        compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "screenshot-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (Constants.SCREENSHOT_COMPACTION_INTERVAL > 0) {
+            compactor.scheduleWithFixedDelay(ScreenshotRetentionService::compactQuietly, 0,
+                    Constants.SCREENSHOT_COMPACTION_INTERVAL, TimeUnit.SECONDS);
+        } else {
+            compactor.execute(ScreenshotRetentionService::compactQuietly);
+        }
+    }
+
+    /**
+     * Stops background compaction, letting a pass in progress finish
+     */
+    public static synchronized void stop() {
+        if (compactor == null) {
+            return;
+        }
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        compactor = null;
+    }
+
+    /**
+     * Records a reference to a stored file, called by {@link ScreenshotStore}
+     *
+     * @param path  Path of the file relative to the store root
+     * @param bytes Size of the file
+     * @param name  Name of the capture
+     */
+    static void touch(String path, long bytes, String name) {
+        ensureLoaded();
+        long now = System.currentTimeMillis();
+        boolean failure = isFailure(name);
+        ENTRIES.compute(path, (key, entry) -> {
+            if (entry == null) {
+                TOTAL_BYTES.addAndGet(bytes);
+                return new Entry(path, bytes, now, failure);
+            }
+            entry.lastReferenced = Math.max(entry.lastReferenced, now);
+            entry.failure |= failure;
+            return entry;
+        });
+    }
+
+    /**
+     * @return Total size of the tracked screenshots in bytes
+     */
+    public static long getTotalBytes() {
+        ensureLoaded();
+        return TOTAL_BYTES.get();
+    }
+
+    public static int getFileCount() {
+        ensureLoaded();
+        return ENTRIES.size();
+    }
+
+    /**
+     * Runs one compaction pass
+     *
+     * @return Number of files deleted
+     */
+    public static int compact() {
+        ensureLoaded();
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        List<Entry> expired = new ArrayList<>();
+        List<Entry> candidates = new ArrayList<>();
+        for (Entry entry : ENTRIES.values()) {
+            if (entry.isUsedByThisRun()) {
+                continue;
+            }
+            if (entry.isExpired(now)) {
+                expired.add(entry);
+            } else {
+                candidates.add(entry);
+            }
+        }
+        int deleted = delete(expired);
+
+        long maxBytes = Constants.SCREENSHOT_RETENTION_MAX_MB * 1024L * 1024L;
+        int maxFiles = Constants.SCREENSHOT_RETENTION_MAX_FILES;
+        if ((maxBytes > 0 && TOTAL_BYTES.get() > maxBytes) || (maxFiles > 0 && ENTRIES.size() > maxFiles)) {
+            deleted += delete(selectForEviction(candidates, TOTAL_BYTES.get(), ENTRIES.size(), maxBytes, maxFiles));
+            if ((maxBytes > 0 && TOTAL_BYTES.get() > maxBytes) || (maxFiles > 0 && ENTRIES.size() > maxFiles)) {
+                LOGGER.warn("Screenshots of the current run alone exceed the retention budget: {} MB in {} file(s)",
+                        TOTAL_BYTES.get() / 1024 / 1024, ENTRIES.size());
+            }
+        }
+
+        if (deleted > 0) {
+            rewriteIndex();
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(ExecutionMetrics.recordSince("screenshot.retention.compact",
+                start));
+        LOGGER.info("Screenshot retention: deleted {} file(s) in {} ms, {} file(s) / {} MB kept", deleted, millis,
+                ENTRIES.size(), TOTAL_BYTES.get() / 1024 / 1024);
+        return deleted;
+    }
+
+    /**
+     * Picks the files to delete to get within the budget: informational
+     * screenshots first, each group least recently referenced first
+     *
+     * @param candidates Files that may be deleted, sorted in place
+     * @param bytes      Total size of all tracked files
+     * @param files      Number of all tracked files
+     * @param maxBytes   Size budget, 0 for none
+     * @param maxFiles   File count budget, 0 for none
+     * @return Files to delete, in eviction order
+     */
+    static List<Entry> selectForEviction(List<Entry> candidates, long bytes, int files, long maxBytes,
+            int maxFiles) {
+        candidates.sort(Comparator.<Entry, Boolean>comparing(entry -> entry.failure)
+                .thenComparingLong(entry -> entry.lastReferenced));
+        List<Entry> evict = new ArrayList<>();
+        for (Entry entry : candidates) {
+            if ((maxBytes <= 0 || bytes <= maxBytes) && (maxFiles <= 0 || files <= maxFiles)) {
+                break;
+            }
+            evict.add(entry);
+            bytes -= entry.bytes;
+            files--;
+        }
+        return evict;
+    }
+
+    /**
+     * Deletes screenshots not referenced for the given number of days,
+     * regardless of whether they are failure screenshots
+     *
+     * @param daysOld Age in days
+     * @return Number of files deleted
+     */
+    public static int deleteOlderThan(int daysOld) {
+        ensureLoaded();
+        long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(daysOld);
+        List<Entry> expired = new ArrayList<>();
+        for (Entry entry : ENTRIES.values()) {
+            if (!entry.isUsedByThisRun() && entry.lastReferenced < cutoff) {
+                expired.add(entry);
+            }
+        }
+        int deleted = delete(expired);
+        if (deleted > 0) {
+            rewriteIndex();
+        }
+        return deleted;
+    }
+
+    private static void compactQuietly() {
+        try {
+            compact();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Screenshot compaction failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Deletes in batches under the store's write lock, so a screenshot being
+     * stored again in the meantime is kept
+     */
+    private static int delete(List<Entry> entries) {
+        int deleted = 0;
+        Path root = ScreenshotStore.getRoot();
+        for (int from = 0; from < entries.size(); from += DELETE_BATCH) {
+            ScreenshotStore.LOCK.writeLock().lock();
+            try {
+                for (Entry entry : entries.subList(from, Math.min(entries.size(), from + DELETE_BATCH))) {
+                    if (entry.isUsedByThisRun() || ENTRIES.get(entry.path) != entry) {
+                        continue;
+                    }
+                    Path file = root.resolve(entry.path);
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        LOGGER.warn("Could not delete screenshot {}: {}", file, e.getMessage());
+                        continue;
+                    }
+                    ENTRIES.remove(entry.path);
+                    TOTAL_BYTES.addAndGet(-entry.bytes);
+                    deleteEmptyDirectories(root, file.getParent());
+                    ExecutionMetrics.increment("screenshot.retention.evicted");
+                    ExecutionMetrics.add("screenshot.retention.evictedBytes", entry.bytes);
+                    deleted++;
+                }
+            } finally {
+                ScreenshotStore.LOCK.writeLock().unlock();
+            }
+        }
+        return deleted;
+    }
+
+    private static void deleteEmptyDirectories(Path root, Path directory) {
+        while (directory != null && !directory.equals(root) && directory.startsWith(root)) {
+            try {
+                Files.delete(directory);
+            } catch (DirectoryNotEmptyException | NoSuchFileException e) {
+                return;
+            } catch (IOException e) {
+                LOGGER.debug("Could not delete directory {}: {}", directory, e.getMessage());
+                return;
+            }
+            directory = directory.getParent();
+        }
+    }
+
+    private static void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (ENTRIES) {
+            if (!loaded) {
+                load();
+                loaded = true;
+            }
+        }
+    }
+
+    private static void load() {
+        long start = System.nanoTime();
+        Path root = ScreenshotStore.getRoot();
+        Path index = root.resolve(ScreenshotStore.INDEX_FILE);
+        Json json = new Json();
+        if (Files.isRegularFile(index)) {
+            try (BufferedReader reader = Files.newBufferedReader(index, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String path;
+                    long time;
+                    long bytes;
+                    boolean failure;
+                    try {
+                        Map<String, Object> reference = json.toType(line, Json.MAP_TYPE);
+                        path = String.valueOf(reference.get("path"));
+                        time = ((Number) reference.get("time")).longValue();
+                        bytes = ((Number) reference.get("bytes")).longValue();
+                        failure = isFailure(String.valueOf(reference.get("name")));
+                    } catch (RuntimeException e) {
+                        // A crash can leave the last line incomplete
+                        continue;
+                    }
+                    ENTRIES.merge(path, new Entry(path, bytes, time, failure), (known, added) -> {
+                        known.lastReferenced = Math.max(known.lastReferenced, added.lastReferenced);
+                        known.failure |= added.failure;
+                        return known;
+                    });
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Could not read screenshot index {}: {}", index, e.getMessage());
+            }
+        }
+
+        // Screenshots saved before the store existed lie flat in the root
+        if (Files.isDirectory(root)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(root, "*.{png,jpg,webp}")) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    ENTRIES.computeIfAbsent(name, key -> {
+                        try {
+                            return new Entry(name, Files.size(file), Files.getLastModifiedTime(file).toMillis(),
+                                    isFailure(name));
+                        } catch (IOException e) {
+                            return null;
+                        }
+                    });
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Could not list legacy screenshots in {}: {}", root, e.getMessage());
+            }
+        }
+        ENTRIES.values().forEach(entry -> TOTAL_BYTES.addAndGet(entry.bytes));
+        LOGGER.info("Screenshot retention index loaded: {} file(s), {} MB in {} ms", ENTRIES.size(),
+                TOTAL_BYTES.get() / 1024 / 1024, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Drops the index lines of deleted files
+     */
+    private static void rewriteIndex() {
+        Path index = ScreenshotStore.getRoot().resolve(ScreenshotStore.INDEX_FILE);
+        Json json = new Json();
+        synchronized (ScreenshotStore.class) {
+            if (!Files.isRegularFile(index)) {
+                return;
+            }
+            try {
+                Path temp = Files.createTempFile(index.getParent(), "index", ".tmp");
+                try (BufferedReader reader = Files.newBufferedReader(index, StandardCharsets.UTF_8);
+                        BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        try {
+                            Map<String, Object> reference = json.toType(line, Json.MAP_TYPE);
+                            if (!ENTRIES.containsKey(String.valueOf(reference.get("path")))) {
+                                continue;
+                            }
+                        } catch (RuntimeException e) {
+                            continue;
+                        }
+                        writer.write(line);
+                        writer.newLine();
+                    }
+                }
+                Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                LOGGER.warn("Could not compact screenshot index {}: {}", index, e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isFailure(String name) {
+        return name != null && name.startsWith("FAILURE_");
+    }
+}
@@ -0,0 +1,430 @@
+package com.crypto.utils.wrappers;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.imageio.ImageIO;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.crypto.constants.Constants;
+import com.crypto.report.ExecutionMetrics;
+import com.crypto.report.ReportJournal;
+
+/**
+ * Content-addressed screenshot store. Each image is stored once under the
+ * SHA-256 of its bytes as {@code screenshots/ab/cd/<hash>.png}, written to a
+ * temporary file and moved into place so parallel writers of the same image
+ * never see a partial file. Every capture is recorded as a reference (test,
+ * name, hash) in {@code screenshots/index.jsonl}. With
+ * {@code near_duplicate_distance} above zero, a capture whose difference hash
+ * is that close to an earlier capture of the same test reuses the earlier
+ * image instead of storing a new one. References and near-duplicate
+ * candidates are kept per test from {@link #begin(String)} to
+ * {@link #release(String)}.
+ */
+public class ScreenshotStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScreenshotStore.class);
+
+    static final String INDEX_FILE = "index.jsonl";
+    /** Held to store, held exclusively by retention to delete */
+    static final ReentrantReadWriteLock LOCK = new ReentrantReadWriteLock();
+    private static final Object MOVE_LOCK = new Object();
+    private static final int RECENT_PER_TEST = 32;
+    private static final Json JSON = new Json();
+
+    private static final Map<String, List<Reference>> REFERENCES = new ConcurrentHashMap<>();
+    private static final Map<String, Deque<Reference>> RECENT = new ConcurrentHashMap<>();
+
+    private ScreenshotStore() {
+    }
+
+    /**
+     * A capture recorded in the store
+     */
+    public static final class Reference {
+        private final String testId;
+        private final String name;
+        private final String hash;
+        private final String path;
+        private final long bytes;
+        private final long dHash;
+        private final String duplicate;
+
+        private Reference(String testId, String name, String hash, String path, long bytes, long dHash,
+                String duplicate) {
+            this.testId = testId;
+            this.name = name;
+            this.hash = hash;
+            this.path = path;
+            this.bytes = bytes;
+            this.dHash = dHash;
+            this.duplicate = duplicate;
+        }
+
+        public String getTestId() {
+            return testId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * @return "exact" or "near" when the image was already stored, null
+         *         when this capture stored a new image
+         */
+        public String getDuplicate() {
+            return duplicate;
+        }
+    }
+
+    /**
+     * Stores an image and records a reference to it
+     *
+     * @param image  Encoded image bytes
+     * @param name   Name of the capture, kept in the index
+     * @param testId Test the capture belongs to, or null
+     * @return The reference, whose path points at the stored image
+     * @throws IOException If the image could not be written
+     */
+    public static Reference put(byte[] image, String name, String testId) throws IOException {
+        return put(image, name, testId, "png");
+    }
+
+    /**
+     * Stores an image with the given file extension and records a reference
+     * to it
+     *
+     * @see #put(byte[], String, String)
+     */
+    public static Reference put(byte[] image, String name, String testId, String extension) throws IOException {
+        return put(image, name, testId, extension, true);
+    }
+
+    /**
+     * Stores an image, optionally without near-duplicate matching
+     *
+     * @param nearDuplicates false to only share exact duplicates, for images
+     *                       derived from another capture such as thumbnails,
+     *                       whose difference hash equals the full image's
+     * @see #put(byte[], String, String)
+     */
+    public static Reference put(byte[] image, String name, String testId, String extension, boolean nearDuplicates)
+            throws IOException {
+        long start = System.nanoTime();
+        String owner = testId == null ? "" : testId;
+        long dHash = nearDuplicates && Constants.SCREENSHOT_NEAR_DUPLICATE_DISTANCE > 0 ? differenceHash(image) : 0;
+
+        LOCK.readLock().lock();
+        try {
+            return store(image, name, testId, extension, owner, dHash, start);
+        } finally {
+            LOCK.readLock().unlock();
+        }
+    }
+
+    private static Reference store(byte[] image, String name, String testId, String extension, String owner,
+            long dHash, long start) throws IOException {
+        Reference near = dHash != 0 ? findNearDuplicate(owner, dHash) : null;
+        Reference reference;
+        if (near != null) {
+            reference = new Reference(testId, name, near.hash, near.path, near.bytes, dHash, "near");
+            ExecutionMetrics.increment("screenshot.store.nearDuplicates");
+            ExecutionMetrics.add("screenshot.store.bytesSaved", image.length);
+        } else {
+            String hash = sha256(image);
+            Path file = objectPath(hash, extension);
+            boolean stored = write(file, image);
+            reference = new Reference(testId, name, hash, file.toString(), image.length, dHash,
+                    stored ? null : "exact");
+            if (stored) {
+                ExecutionMetrics.increment("screenshot.store.unique");
+                ExecutionMetrics.add("screenshot.store.bytesStored", image.length);
+                ExecutionMetrics.recordSince("screenshot.store.write", start);
+            } else {
+                ExecutionMetrics.increment("screenshot.store.exactDuplicates");
+                ExecutionMetrics.add("screenshot.store.bytesSaved", image.length);
+            }
+        }
+
+        ScreenshotRetentionService.touch(relativize(reference.path), reference.bytes, name);
+        ExecutionMetrics.increment("screenshot.store.references");
+        // Only running tests keep references; captures outside a test, or that
+        // finish after their test was released, are in the index alone
+        List<Reference> references = REFERENCES.get(owner);
+        if (references != null) {
+            references.add(reference);
+        }
+        Deque<Reference> recent = dHash != 0 ? RECENT.get(owner) : null;
+        if (recent != null) {
+            synchronized (recent) {
+                recent.addFirst(reference);
+                if (recent.size() > RECENT_PER_TEST) {
+                    recent.removeLast();
+                }
+            }
+        }
+        appendToIndex(reference);
+        LOGGER.info("Screenshot {} stored as {}{}", name, reference.path,
+                reference.duplicate == null ? "" : " (" + reference.duplicate + " duplicate)");
+        return reference;
+    }
+
+    /**
+     * @param testId Test id as set in the log context
+     * @return Screenshots recorded for the running test, in capture order
+     */
+    public static List<Reference> getReferences(String testId) {
+        List<Reference> references = REFERENCES.get(testId == null ? "" : testId);
+        if (references == null) {
+            return Collections.emptyList();
+        }
+        synchronized (references) {
+            return new ArrayList<>(references);
+        }
+    }
+
+    /**
+     * Starts keeping the references and near-duplicate candidates of a test
+     *
+     * @param testId Test id as set in the log context
+     */
+    public static void begin(String testId) {
+        if (testId != null) {
+            REFERENCES.put(testId, Collections.synchronizedList(new ArrayList<>()));
+            RECENT.put(testId, new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * Forgets the references and near-duplicate candidates of a finished test
+     *
+     * @param testId Test id as set in the log context
+     */
+    public static void release(String testId) {
+        if (testId != null) {
+            REFERENCES.remove(testId);
+            RECENT.remove(testId);
+        }
+    }
+
+    /**
+     * @return Root directory of the store
+     */
+    public static Path getRoot() {
+        return Paths.get(ScreenshotUtils.getScreenshotsDirectory());
+    }
+
+    /**
+     * @return Size in bytes of all images in the store, including earlier runs
+     */
+    public static long getDiskUsage() {
+        return ScreenshotRetentionService.getTotalBytes();
+    }
+
+    /**
+     * @return Path of a stored file relative to the store root, as in the index
+     */
+    static String relativize(String path) {
+        return getRoot().relativize(Paths.get(path)).toString().replace('\\', '/');
+    }
+
+    /**
+     * Adds the store's disk usage, deduplication savings and write throughput
+     * to the report's system info
+     *
+     * @param extent Report to publish to
+     */
+    public static void publish(ExtentReports extent) {
+        long references = ExecutionMetrics.getCount("screenshot.store.references");
+        if (references == 0) {
+            return;
+        }
+        long stored = ExecutionMetrics.getCount("screenshot.store.bytesStored");
+        long saved = ExecutionMetrics.getCount("screenshot.store.bytesSaved");
+        double writeMillis = ExecutionMetrics.getAverageMillis("screenshot.store.write")
+                * ExecutionMetrics.getTimerCount("screenshot.store.write");
+        double throughput = writeMillis > 0 ? stored / 1024.0 / 1024.0 / (writeMillis / 1000.0) : 0;
+        long diskUsage = getDiskUsage();
+        String summary = String.format(
+                "%d capture(s), %d new image(s), %.1f MB written, %.1f MB deduplicated, %.1f MB/s, %.1f MB on disk",
+                references, ExecutionMetrics.getCount("screenshot.store.unique"), stored / 1024.0 / 1024.0,
+                saved / 1024.0 / 1024.0, throughput, diskUsage / 1024.0 / 1024.0);
+        LOGGER.info("Screenshot store: {}", summary);
+        if (extent != null) {
+            ReportJournal.setSystemInfo(extent, "Screenshot store", summary);
+        }
+    }
+
+    /**
+     * Writes the image unless the store already holds it. Exactly one of several
+     * threads storing the same new image gets true.
+     *
+     * @return true if the image was written, false if it already existed
+     */
+    static boolean write(Path file, byte[] image) throws IOException {
+        if (Files.exists(file)) {
+            return false;
+        }
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), ".store", ".tmp");
+        try {
+            Files.write(temp, image);
+            // A rename replaces an existing target on POSIX, a link never does
+            try {
+                Files.createLink(file, temp);
+            } catch (FileAlreadyExistsException e) {
+                // Another thread stored the same image first
+                return false;
+            } catch (UnsupportedOperationException e) {
+                return moveUnlessExists(temp, file);
+            }
+            return true;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /*
+     * For file systems without hard links
+     */
+    private static boolean moveUnlessExists(Path temp, Path file) throws IOException {
+        synchronized (MOVE_LOCK) {
+            if (Files.exists(file)) {
+                return false;
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        }
+    }
+
+    private static Path objectPath(String hash, String extension) {
+        return getRoot().resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4))
+                .resolve(hash + "." + extension);
+    }
+
+    private static Reference findNearDuplicate(String owner, long dHash) {
+        Deque<Reference> recent = RECENT.get(owner);
+        if (recent == null) {
+            return null;
+        }
+        synchronized (recent) {
+            for (Reference candidate : recent) {
+                if (Long.bitCount(candidate.dHash ^ dHash) <= Constants.SCREENSHOT_NEAR_DUPLICATE_DISTANCE) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 64 bit difference hash: the image scaled to 9x8 grey pixels, one bit per
+     * pair of horizontal neighbours that gets brighter. A flat image hashes to
+     * 0 and is never matched as a near duplicate.
+     *
+     * @return The hash, or 0 if the image could not be decoded
+     */
+    static long differenceHash(byte[] image) {
+        long start = System.nanoTime();
+        try {
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(image));
+            if (decoded == null) {
+                return 0;
+            }
+            BufferedImage small = new BufferedImage(9, 8, BufferedImage.TYPE_BYTE_GRAY);
+            Graphics2D graphics = small.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(decoded, 0, 0, 9, 8, null);
+            graphics.dispose();
+
+            long hash = 0;
+            for (int y = 0; y < 8; y++) {
+                for (int x = 0; x < 8; x++) {
+                    int left = small.getRaster().getSample(x, y, 0);
+                    int right = small.getRaster().getSample(x + 1, y, 0);
+                    hash = (hash << 1) | (right > left ? 1 : 0);
+                }
+            }
+            return hash;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug("Could not hash screenshot: {}", e.getMessage());
+            return 0;
+        } finally {
+            ExecutionMetrics.recordSince("screenshot.store.dHash", start);
+        }
+    }
+
+    private static String sha256(byte[] image) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(image));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void appendToIndex(Reference reference) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("time", System.currentTimeMillis());
+        line.put("test", reference.testId);
+        line.put("name", reference.name);
+        line.put("hash", reference.hash);
+        line.put("path", relativize(reference.path));
+        line.put("bytes", reference.bytes);
+        line.put("duplicate", reference.duplicate);
+        StringBuilder json = new StringBuilder();
+        try (JsonOutput output = JSON.newOutput(json)) {
+            output.setPrettyPrint(false).write(line);
+        }
+        json.append('\n');
+        synchronized (ScreenshotStore.class) {
+            try (Writer writer = Files.newBufferedWriter(getRoot().resolve(INDEX_FILE), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.append(json);
+            } catch (IOException e) {
+                LOGGER.warn("Could not append to screenshot index: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -1,22 +1,21 @@
 package com.crypto.utils.wrappers;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.util.concurrent.CompletableFuture;
 
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Rectangle;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.aventstack.extentreports.ExtentTest;
-import com.aventstack.extentreports.MediaEntityBuilder;
+import com.aventstack.extentreports.Status;
 import com.crypto.constants.Constants;
+import com.crypto.enums.ScreenshotFormat;
 import com.crypto.utils.ContextManager;
 
 /**
@@ -28,40 +27,49 @@ public class ScreenshotUtils {
     private static final String SCREENSHOTS_DIR = Constants.CURRENT_DIR + "/screenshots/";
 
     /**
-     * Takes a screenshot and saves it to the screenshots directory
+     * Takes a screenshot and saves it to the screenshot store. Only the
+     * capture runs on the calling thread, see {@link ScreenshotPipeline}.
      * 
      * @param driver   WebDriver instance
      * @param fileName Name of the screenshot file (without extension)
+     * @return Future completed with the path of the saved screenshot (null if
+     *         saving failed), or null if the screenshot could not be captured
+     */
+    public static CompletableFuture<String> takeScreenshot(WebDriver driver, String fileName) {
+        return ScreenshotPipeline.submit(driver, fileName, null, Status.INFO, null);
+    }
+
+    /**
+     * Saves an encoded screenshot to the screenshot store. Identical
+     * screenshots share one file, see {@link ScreenshotStore}.
+     * 
+     * @param image    Encoded screenshot bytes
+     * @param fileName Name of the screenshot (without extension)
+     * @param testId   Test the screenshot belongs to, or null
+     * @param format   Format the bytes are encoded in
      * @return Path to the saved screenshot file, or null if failed
      */
-    public static String takeScreenshot(WebDriver driver, String fileName) {
-        if (driver == null) {
-            LOGGER.error("Cannot take screenshot: WebDriver is null");
+    public static String saveScreenshot(byte[] image, String fileName, String testId, ScreenshotFormat format) {
+        try {
+            return ScreenshotStore.put(image, sanitizeFileName(fileName), testId, format.getExtension()).getPath();
+        } catch (IOException e) {
+            LOGGER.error("Failed to save screenshot: {}", e.getMessage(), e);
             return null;
         }
+    }
 
+    /**
+     * Saves the thumbnail of a screenshot. Thumbnails only share exact
+     * duplicates, as their difference hash equals the full image's.
+     * 
+     * @see #saveScreenshot(byte[], String, String, ScreenshotFormat)
+     */
+    public static String saveThumbnail(byte[] thumbnail, String fileName, String testId, ScreenshotFormat format) {
         try {
-            // Ensure screenshots directory exists
-            createScreenshotsDirectory();
-
-            // Generate unique filename with timestamp
-            String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss_SSS").format(new Date());
-            String screenshotFileName = sanitizeFileName(fileName) + "_" + timestamp + ".png";
-            String screenshotPath = SCREENSHOTS_DIR + screenshotFileName;
-
-            // Take screenshot
-            File srcFile = ((TakesScreenshot) driver).getScreenshotAs(OutputType.FILE);
-            Path destPath = Paths.get(screenshotPath);
-            Files.copy(srcFile.toPath(), destPath);
-
-            LOGGER.info("Screenshot saved: {}", screenshotPath);
-            return screenshotPath;
-
+            return ScreenshotStore.put(thumbnail, sanitizeFileName(fileName) + "_thumbnail", testId,
+                    format.getExtension(), false).getPath();
         } catch (IOException e) {
-            LOGGER.error("Failed to save screenshot: {}", e.getMessage(), e);
-            return null;
-        } catch (Exception e) {
-            LOGGER.error("Error taking screenshot: {}", e.getMessage(), e);
+            LOGGER.error("Failed to save thumbnail: {}", e.getMessage(), e);
             return null;
         }
     }
@@ -90,35 +98,90 @@ public class ScreenshotUtils {
      * Takes a screenshot using the current thread's WebDriver from ContextManager
      * 
      * @param fileName Name of the screenshot file (without extension)
-     * @return Path to the saved screenshot file, or null if failed
+     * @return Future completed with the path of the saved screenshot, or null
+     *         if the screenshot could not be captured
      */
-    public static String takeScreenshot(String fileName) {
+    public static CompletableFuture<String> takeScreenshot(String fileName) {
         WebDriver driver = ContextManager.getDriver();
         return takeScreenshot(driver, fileName);
     }
 
     /**
-     * Takes a screenshot and attaches it to the Extent Report
+     * Takes a screenshot and attaches it to the Extent Report. Only the capture
+     * runs on the calling thread, see {@link ScreenshotPipeline}.
      * 
      * @param driver  WebDriver instance
      * @param message Message to display with the screenshot
      */
     public static void captureAndAttachScreenshot(WebDriver driver, String message) {
+        captureAndAttachScreenshot(driver, "screenshot", message);
+    }
+
+    /**
+     * Takes a screenshot, saves it and attaches it to the Extent Report
+     * 
+     * @param driver   WebDriver instance
+     * @param fileName Name of the screenshot file (without extension)
+     * @param message  Message to display with the screenshot
+     */
+    public static void captureAndAttachScreenshot(WebDriver driver, String fileName, String message) {
         ExtentTest test = ContextManager.getExtentTest();
         if (test == null) {
             LOGGER.warn("Cannot attach screenshot: ExtentTest is null");
             return;
         }
+        ScreenshotPipeline.submit(driver, fileName, test, Status.INFO, message);
+    }
 
+    /**
+     * Takes a screenshot of a single element, e.g. the chart iframe or a table,
+     * and attaches it to the Extent Report
+     * 
+     * @param element  Element to capture
+     * @param fileName Name of the screenshot file (without extension)
+     * @param message  Message to display with the screenshot
+     */
+    public static void captureElementScreenshot(WebElement element, String fileName, String message) {
+        ExtentTest test = ContextManager.getExtentTest();
+        if (test == null) {
+            LOGGER.warn("Cannot attach element screenshot: ExtentTest is null");
+            return;
+        }
+        ScreenshotPipeline.submit(element, fileName, test, Status.INFO, message, null);
+    }
+
+    /**
+     * Takes a screenshot of a region of the viewport and attaches it to the
+     * Extent Report
+     * 
+     * @param driver   WebDriver instance
+     * @param region   Region of the viewport in CSS pixels, such as an
+     *                 element's bounding client rect
+     * @param fileName Name of the screenshot file (without extension)
+     * @param message  Message to display with the screenshot
+     */
+    public static void captureRegionScreenshot(WebDriver driver, Rectangle region, String fileName,
+            String message) {
+        ExtentTest test = ContextManager.getExtentTest();
+        if (test == null || driver == null) {
+            LOGGER.warn("Cannot attach region screenshot: ExtentTest or WebDriver is null");
+            return;
+        }
+        // The screenshot has device pixels, the region CSS pixels
+        double ratio = 1;
         try {
-            String base64Screenshot = takeScreenshotAsBase64(driver);
-            if (base64Screenshot != null) {
-                test.info(message, MediaEntityBuilder.createScreenCaptureFromBase64String(base64Screenshot).build());
-                LOGGER.info("Screenshot attached to report: {}", message);
+            Object devicePixelRatio = ((JavascriptExecutor) driver).executeScript("return window.devicePixelRatio;");
+            if (devicePixelRatio instanceof Number) {
+                ratio = ((Number) devicePixelRatio).doubleValue();
             }
         } catch (Exception e) {
-            LOGGER.error("Failed to attach screenshot to report: {}", e.getMessage(), e);
+            LOGGER.debug("Could not read devicePixelRatio, assuming 1: {}", e.getMessage());
         }
+        // Selenium's Rectangle takes the height before the width
+        Rectangle clip = new Rectangle((int) Math.round(region.getX() * ratio),
+                (int) Math.round(region.getY() * ratio), (int) Math.round(region.getHeight() * ratio),
+                (int) Math.round(region.getWidth() * ratio));
+        ScreenshotPipeline.submit((TakesScreenshot) driver, fileName, test, Status.INFO, message, clip);
     }
 
     /**
@@ -137,25 +200,11 @@ public class ScreenshotUtils {
         }
 
         try {
-            // Save screenshot to file
-            String screenshotPath = takeScreenshot(driver, "FAILURE_" + testName);
-
-            // Get Base64 for embedding in report
-            String base64Screenshot = takeScreenshotAsBase64(driver);
-
-            if (base64Screenshot != null) {
-                // Attach screenshot with failure message
-                test.fail("Failure Screenshot",
-                        MediaEntityBuilder.createScreenCaptureFromBase64String(base64Screenshot).build());
-                LOGGER.info("Failure screenshot attached to report for test: {}", testName);
-
-                if (screenshotPath != null) {
-                    test.info("Screenshot saved at: " + screenshotPath);
-                }
-            } else {
+            // Captured once here, saved and attached in the background
+            if (ScreenshotPipeline.submit(driver, "FAILURE_" + testName, test, Status.FAIL,
+                    "Failure Screenshot") == null) {
                 LOGGER.warn("Could not capture failure screenshot for test: {}", testName);
             }
-
         } catch (Exception e) {
             LOGGER.error("Failed to capture failure screenshot for test {}: {}", testName, e.getMessage(), e);
         }
@@ -172,21 +221,6 @@ public class ScreenshotUtils {
         captureFailureScreenshot(driver, testName, throwable);
     }
 
-    /**
-     * Creates the screenshots directory if it doesn't exist
-     */
-    private static void createScreenshotsDirectory() {
-        try {
-            Path screenshotsPath = Paths.get(SCREENSHOTS_DIR);
-            if (!Files.exists(screenshotsPath)) {
-                Files.createDirectories(screenshotsPath);
-                LOGGER.info("Created screenshots directory: {}", SCREENSHOTS_DIR);
-            }
-        } catch (IOException e) {
-            LOGGER.error("Failed to create screenshots directory: {}", e.getMessage(), e);
-        }
-    }
-
     /**
      * Sanitizes a filename by removing/replacing invalid characters
      * 
@@ -211,37 +245,14 @@ public class ScreenshotUtils {
     }
 
     /**
-     * Cleans up old screenshots (older than specified days)
+     * Deletes screenshots not used for the specified number of days. The
+     * retention service also does this in the background, see
+     * {@link ScreenshotRetentionService}.
      * 
      * @param daysOld Number of days after which screenshots should be deleted
      */
     public static void cleanupOldScreenshots(int daysOld) {
-        try {
-            Path screenshotsPath = Paths.get(SCREENSHOTS_DIR);
-            if (!Files.exists(screenshotsPath)) {
-                return;
-            }
-
-            long cutoffTime = System.currentTimeMillis() - (daysOld * 24L * 60L * 60L * 1000L);
-
-            Files.list(screenshotsPath)
-                    .filter(Files::isRegularFile)
-                    .filter(path -> path.toString().endsWith(".png"))
-                    .forEach(path -> {
-                        try {
-                            if (Files.getLastModifiedTime(path).toMillis() < cutoffTime) {
-                                Files.delete(path);
-                                LOGGER.debug("Deleted old screenshot: {}", path);
-                            }
-                        } catch (IOException e) {
-                            LOGGER.warn("Failed to delete old screenshot {}: {}", path, e.getMessage());
-                        }
-                    });
-
-            LOGGER.info("Cleaned up screenshots older than {} days", daysOld);
-
-        } catch (IOException e) {
-            LOGGER.error("Error during screenshot cleanup: {}", e.getMessage(), e);
-        }
+        int deleted = ScreenshotRetentionService.deleteOlderThan(daysOld);
+        LOGGER.info("Cleaned up {} screenshot(s) older than {} days", deleted, daysOld);
     }
 }
@@ -1,10 +1,14 @@
 package config;
 
-import java.io.File;
-import java.text.MessageFormat;
-import java.util.Properties;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 
-import org.ini4j.Ini;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -14,34 +18,106 @@ public class ConfigReader {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ConfigReader.class);
 
-    private static final Properties PROPS = new Properties();
-
-    private static Ini ini;
+    private static volatile ConfigSnapshot snapshot;
+    private static Thread watcher;
 
     private ConfigReader() {
     }
 
     public static String getPropertyValues(String tagName, String key) {
-        String value = null;
-        try {
-            ini = new Ini(new File(Constants.CONFIG_FILE_PATH));
-            value = ini.get(tagName, key);
-            LOGGER.info(MessageFormat.format(
-                    "Fetched Config value for tagName [{0}] and key [{1}] is [{2}]",
-                    tagName, key, value));
-
-            if (value == null) {
-                LOGGER.warn(MessageFormat.format(
-                        "No value found for tagName [{0}] and key [{1}] in config file.",
-                        tagName, key));
+        ConfigSnapshot current = getSnapshot();
+        String value = current == null ? null : current.get(tagName, key);
+
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Fetched Config value for tagName [{}] and key [{}] is [{}]", tagName, key, value);
+        }
+        if (value == null) {
+            LOGGER.warn("No value found for tagName [{}] and key [{}] in config file.", tagName, key);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the current configuration snapshot, parsing config.ini on first use
+     *
+     * @return Current snapshot, or null if the config file could not be read
+     */
+    public static ConfigSnapshot getSnapshot() {
+        ConfigSnapshot current = snapshot;
+        if (current == null) {
+            synchronized (ConfigReader.class) {
+                current = snapshot;
+                if (current == null) {
+                    current = load();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Re-reads config.ini and atomically replaces the current snapshot. The
+     * previous snapshot is kept if the file cannot be parsed.
+     */
+    public static void reload() {
+        ConfigSnapshot reloaded = load();
+        if (reloaded != null) {
+            snapshot = reloaded;
+            LOGGER.info("Config snapshot reloaded from {}", Constants.CONFIG_FILE_PATH);
+        }
+    }
+
+    /**
+     * Starts a daemon thread that reloads the snapshot whenever config.ini changes
+     */
+    public static synchronized void startWatching() {
+        if (watcher != null) {
+            return;
+        }
+        Path configPath = Paths.get(Constants.CONFIG_FILE_PATH);
+        watcher = new Thread(() -> watch(configPath), "config-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+        LOGGER.info("Watching {} for changes", configPath);
+    }
+
+    public static synchronized void stopWatching() {
+        if (watcher != null) {
+            watcher.interrupt();
+            watcher = null;
+        }
+    }
+
+    private static void watch(Path configPath) {
+        try (WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            configPath.getParent().register(watchService, StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_CREATE);
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (configPath.getFileName().equals(event.context())) {
+                        reload();
+                    }
+                }
+                if (!key.reset()) {
+                    LOGGER.warn("Config directory is no longer accessible, stopping watcher");
+                    return;
+                }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            LOGGER.error("Failed to watch config file: ", e);
+        }
+    }
 
-        } catch (NullPointerException ne) {
-            LOGGER.error("NullPointerException occurred while reading config file: ", ne);
+    private static ConfigSnapshot load() {
+        try {
+            return ConfigSnapshot.load(Paths.get(Constants.CONFIG_FILE_PATH));
         } catch (Exception e) {
             LOGGER.error("Exception occurred while reading config file: ", e);
-
+            return null;
         }
-        return value;
     }
 }
@@ -0,0 +1,115 @@
+package config;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+import org.ini4j.Ini;
+import org.ini4j.Profile.Section;
+
+/**
+ * Immutable view of config.ini, parsed once. System properties named
+ * {@code section.key} and environment variables named {@code SECTION_KEY}
+ * override values from the file, or add keys the file does not have, for
+ * sections the file declares.
+ */
+public final class ConfigSnapshot {
+
+    private final Map<String, Map<String, String>> sections;
+    private final long lastModified;
+
+    private ConfigSnapshot(Map<String, Map<String, String>> sections, long lastModified) {
+        this.sections = sections;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Reads and parses the given INI file in a single pass
+     *
+     * @param path Path of the INI file
+     * @return Parsed snapshot including overrides
+     * @throws IOException If the file cannot be read
+     */
+    public static ConfigSnapshot load(Path path) throws IOException {
+        return load(path, System.getenv(), System.getProperties());
+    }
+
+    static ConfigSnapshot load(Path path, Map<String, String> env, Properties properties) throws IOException {
+        byte[] content = Files.readAllBytes(path);
+        Ini ini = new Ini(new ByteArrayInputStream(content));
+
+        Map<String, Map<String, String>> sections = new HashMap<>();
+        for (Section section : ini.values()) {
+            sections.put(section.getName(), new HashMap<>(section));
+        }
+        // Environment first so system properties win, as for keys from the file
+        for (Map.Entry<String, String> entry : env.entrySet()) {
+            overrideFromEnv(sections, entry.getKey(), entry.getValue());
+        }
+        for (String name : properties.stringPropertyNames()) {
+            int dot = name.indexOf('.');
+            Map<String, String> values = dot > 0 ? sections.get(name.substring(0, dot)) : null;
+            if (values != null) {
+                values.put(name.substring(dot + 1), properties.getProperty(name));
+            }
+        }
+
+        sections.replaceAll((name, values) -> Collections.unmodifiableMap(values));
+        return new ConfigSnapshot(Collections.unmodifiableMap(sections),
+                Files.getLastModifiedTime(path).toMillis());
+    }
+
+    /*
+     * SECTION_KEY goes to the longest section whose name prefixes it. Keys in
+     * config.ini are lower case, so are keys only set in the environment.
+     */
+    private static void overrideFromEnv(Map<String, Map<String, String>> sections, String variable, String value) {
+        String section = null;
+        for (String name : sections.keySet()) {
+            String prefix = name.toUpperCase(Locale.ROOT).replace('-', '_') + "_";
+            if (variable.startsWith(prefix) && variable.length() > prefix.length()
+                    && (section == null || name.length() > section.length())) {
+                section = name;
+            }
+        }
+        if (section == null) {
+            return;
+        }
+        String envKey = variable.substring(section.length() + 1);
+        Map<String, String> values = sections.get(section);
+        for (String key : values.keySet()) {
+            if (key.toUpperCase(Locale.ROOT).replace('-', '_').equals(envKey)) {
+                values.put(key, value);
+                return;
+            }
+        }
+        values.put(envKey.toLowerCase(Locale.ROOT), value);
+    }
+
+    /**
+     * @return Value for the key, or null if the section or key is missing
+     */
+    public String get(String section, String key) {
+        Map<String, String> values = sections.get(section);
+        return values == null ? null : values.get(key);
+    }
+
+    public String get(String section, String key, String defaultValue) {
+        String value = get(section, key);
+        return value == null ? defaultValue : value;
+    }
+
+    public Map<String, String> getSection(String section) {
+        return sections.getOrDefault(section, Collections.emptyMap());
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+}
@@ -8,8 +8,13 @@ import org.testng.ITestResult;
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
+import com.crypto.report.ExecutionMetrics;
 import com.crypto.report.ExtentReportManager;
+import com.crypto.report.ReportJournal;
 import com.crypto.utils.ContextManager;
+import com.crypto.utils.devtools.ScreencastRecorder;
+import com.crypto.utils.wrappers.ScreenshotRetentionService;
+import com.crypto.utils.wrappers.ScreenshotStore;
 
 public class BaseSetup {
 
@@ -25,6 +30,7 @@ public class BaseSetup {
 
     public void loadExtentFile() {
         extent = ExtentReportManager.setupExtentReport();
+        ScreenshotRetentionService.start();
     }
 
     public void configExtentTest(String className) {
@@ -34,7 +40,7 @@ public class BaseSetup {
 
     public static void assignCategoryToTest(String categoryName) {
         ExtentTest loggerReport = ContextManager.getExtentTest();
-        loggerReport.assignCategory(categoryName);
+        ReportJournal.assignCategory(loggerReport, categoryName);
     }
 
     public void flushExtentReport(ITestContext context) {
@@ -65,12 +71,17 @@ public class BaseSetup {
         }
 
         if (extent != null) {
-            extent.setSystemInfo("Pass Percentage", String.valueOf(passPercentage));
-            extent.setSystemInfo("Total Tests", String.valueOf(totalCount));
-            extent.setSystemInfo("Passed Tests", String.valueOf(passedCount));
-            extent.setSystemInfo("Failed Tests", String.valueOf(failedCount));
-            extent.setSystemInfo("Skipped Tests", String.valueOf(skippedCount));
-            extent.flush();
+            ReportJournal.setSystemInfo(extent, "Pass Percentage", String.valueOf(passPercentage));
+            ReportJournal.setSystemInfo(extent, "Total Tests", String.valueOf(totalCount));
+            ReportJournal.setSystemInfo(extent, "Passed Tests", String.valueOf(passedCount));
+            ReportJournal.setSystemInfo(extent, "Failed Tests", String.valueOf(failedCount));
+            ReportJournal.setSystemInfo(extent, "Skipped Tests", String.valueOf(skippedCount));
+            DurationAwareInterceptor.publish(extent);
+            ScreenshotStore.publish(extent);
+            ScreencastRecorder.publish(extent);
+            ExecutionMetrics.publish(extent);
+            ScreenshotRetentionService.stop();
+            ReportJournal.renderReport();
             System.out.println("Post-flush");
             System.out.println("PassPercentage: " + passPercentage);
         } else {
@@ -81,17 +92,19 @@ public class BaseSetup {
 
     public void testResultCapture(ITestResult result) {
         if (result.getStatus() == ITestResult.SUCCESS) {
-            ContextManager.getExtentTest().log(Status.PASS, result.getMethod().getMethodName() + " Passed");
+            ReportJournal.log(ContextManager.getExtentTest(), Status.PASS,
+                    result.getMethod().getMethodName() + " Passed");
         } else if (result.getStatus() == ITestResult.FAILURE) {
             try {
                 if (result.getThrowable() != null) {
-                    ContextManager.getExtentTest().log(Status.FAIL, result.getThrowable());
+                    ReportJournal.log(ContextManager.getExtentTest(), Status.FAIL, result.getThrowable());
                 }
             } catch (Exception e) {
                 e.printStackTrace();
             }
         } else if (result.getStatus() == ITestResult.SKIP) {
-            ContextManager.getExtentTest().log(Status.SKIP, result.getMethod().getMethodName() + " Skipped");
+            ReportJournal.log(ContextManager.getExtentTest(), Status.SKIP,
+                    result.getMethod().getMethodName() + " Skipped");
         }
     }
 }
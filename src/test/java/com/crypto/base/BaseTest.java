@@ -1,12 +1,9 @@
 package com.crypto.base;
 
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.remote.RemoteWebDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.ITestContext;
@@ -15,28 +12,30 @@ import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.BeforeSuite;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
 
 import com.crypto.Driver.DriverInstance;
+import com.crypto.Driver.DriverPool;
+import com.crypto.constants.Constants;
 import com.crypto.constants.ConstantsInitializer;
+import com.crypto.report.ReportJournal;
 import com.crypto.utils.ContextManager;
+import com.crypto.utils.LogContext;
+import com.crypto.utils.PageRegistry;
+import com.crypto.utils.SettleTracker;
+import com.crypto.utils.devtools.NetworkTracker;
+import com.crypto.utils.devtools.ScreencastRecorder;
+import com.crypto.utils.wrappers.ScreenshotPipeline;
 
 public class BaseTest extends BaseSetup {
 
-    public static volatile ThreadLocal<BaseTest> instance = new ThreadLocal<>();
-    public static volatile Set<String> sessionIds = new HashSet<>();
     private static ITestContext testContext;
+    private static volatile long suiteStartNanos;
 
     public static Logger LOGGER = LoggerFactory.getLogger(BaseTest.class);
     protected WebDriver driver;
 
-    public static void setInstance(BaseTest baseTest) {
-        instance.set(baseTest);
-    }
-
-    private static BaseTest getThreadInstance() {
-        return instance.get();
-    }
-
     public static BaseTest getInstance() {
         WebDriver driver = getBaseDriver();
         if (driver == null) {
@@ -44,27 +43,7 @@ public class BaseTest extends BaseSetup {
             return null;
         }
 
-        if (driver instanceof RemoteWebDriver) {
-            String sessionId = ((RemoteWebDriver) driver).getSessionId().toString();
-            if (getThreadInstance() == null || !sessionIds.contains(sessionId)) {
-                synchronized (BaseTest.class) {
-                    if (getThreadInstance() == null) {
-                        setInstance(new BaseTest());
-                    }
-                }
-                sessionIds.add(sessionId);
-            }
-        } else {
-            if (getThreadInstance() == null) {
-                synchronized (BaseTest.class) {
-                    if (getThreadInstance() == null) {
-                        setInstance(new BaseTest());
-                    }
-                }
-            }
-        }
-
-        return getThreadInstance();
+        return PageRegistry.get(driver, BaseTest.class, d -> new BaseTest());
     }
 
     public static WebDriver getBaseDriver() {
@@ -83,13 +62,27 @@ public class BaseTest extends BaseSetup {
         return testContext;
     }
 
+    public static long getSuiteStartNanos() {
+        return suiteStartNanos;
+    }
+
     @BeforeSuite(alwaysRun = true)
-    public void setUpSuite() {
+    public void setUpSuite(ITestContext context) {
+        suiteStartNanos = System.nanoTime();
         try {
             ConstantsInitializer.initialize();
             getEnvSetup();
             loadExtentFile();
 
+            if (Constants.POOL_ENABLED) {
+                int browsers = getExpectedBrowserCount(context);
+                if (Constants.POOL_SIZE <= 0) {
+                    Constants.POOL_SIZE = browsers;
+                }
+                // Browsers boot concurrently while the remaining suite setup runs
+                DriverPool.getInstance().warmUp(browsers);
+            }
+
             // Verify extent is initialized
             if (extent == null) {
                 LOGGER.error("Failed to initialize Extent report!");
@@ -122,6 +115,8 @@ public class BaseTest extends BaseSetup {
 
     @AfterSuite(alwaysRun = true)
     public void tearDownSuite() {
+        // Pending screenshots must be attached before the report is written
+        ScreenshotPipeline.flush(Constants.SCREENSHOT_FLUSH_TIMEOUT);
         try {
             if (testContext != null) {
                 int totalTests = testContext.getPassedTests().size() +
@@ -133,7 +128,7 @@ public class BaseTest extends BaseSetup {
                 LOGGER.warn("TestContext is null, flushing extent report without context");
                 if (extent != null) {
                     LOGGER.info("Flushing Extent Report directly (no context)");
-                    extent.flush();
+                    ReportJournal.renderReport();
                 } else {
                     LOGGER.error("Extent report is null, cannot flush!");
                 }
@@ -143,13 +138,40 @@ public class BaseTest extends BaseSetup {
             // Try to flush anyway
             if (extent != null) {
                 try {
-                    extent.flush();
+                    ReportJournal.renderReport();
                 } catch (Exception ex) {
                     LOGGER.error("Failed to flush extent report even after error: ", ex);
                 }
             }
         }
         driverQuit();
+        if (Constants.POOL_ENABLED) {
+            DriverPool.getInstance().shutdown();
+        }
+    }
+
+    /**
+     * Number of browsers the suite will use at the same time, from the TestNG
+     * parallel mode and thread-count of its tests
+     */
+    private int getExpectedBrowserCount(ITestContext context) {
+        int browsers = 1;
+        if (context == null) {
+            return browsers;
+        }
+        for (XmlTest xmlTest : context.getSuite().getXmlSuite().getTests()) {
+            XmlSuite.ParallelMode parallel = xmlTest.getParallel();
+            if (parallel == null || !parallel.isParallel()) {
+                continue;
+            }
+            int threads = xmlTest.getThreadCount();
+            if (parallel == XmlSuite.ParallelMode.CLASSES || parallel == XmlSuite.ParallelMode.INSTANCES) {
+                threads = Math.min(threads, Math.max(1, xmlTest.getXmlClasses().size()));
+            }
+            browsers = Math.max(browsers, threads);
+        }
+        LOGGER.info("Expecting {} concurrent browser(s) from the TestNG configuration", browsers);
+        return browsers;
     }
 
     private void initializeDriver() {
@@ -161,10 +183,17 @@ public class BaseTest extends BaseSetup {
 
         try {
             LOGGER.info("Initializing WebDriver for thread: {}", Thread.currentThread().getId());
-            driver = DriverInstance.createDriver();
+            driver = Constants.POOL_ENABLED ? DriverPool.getInstance().lease() : DriverInstance.createDriver();
 
             if (driver != null) {
                 setDriver(driver);
+                LogContext.setSession(driver);
+                if (Constants.NETWORK_TRACKING) {
+                    NetworkTracker.start(driver);
+                }
+                if (Constants.SCREENCAST_ENABLED) {
+                    ScreencastRecorder.start(driver);
+                }
                 LOGGER.info("WebDriver initialized successfully for thread: {}", Thread.currentThread().getId());
             } else {
                 LOGGER.error("Failed to create WebDriver instance for thread: {}", Thread.currentThread().getId());
@@ -190,46 +219,29 @@ public class BaseTest extends BaseSetup {
             return;
         }
 
-        String sessionId = null;
         try {
-            // attempt to capture session id (if available) so we can remove it from
-            // sessionIds
-            try {
-                if (drv instanceof RemoteWebDriver) {
-                    Object sid = ((RemoteWebDriver) drv).getSessionId();
-                    sessionId = sid != null ? sid.toString() : null;
-                }
-            } catch (Exception e) {
-                LOGGER.debug("Unable to read session id before quit", e);
+            if (Constants.POOL_ENABLED) {
+                DriverPool.getInstance().release(drv);
+                LOGGER.info("WebDriver instance returned to the pool.");
+            } else {
+                DriverInstance.quit(drv);
+                LOGGER.info("WebDriver instance quit successfully.");
             }
 
-            drv.quit();
-            LOGGER.info("WebDriver instance quit successfully.");
-
         } catch (Exception e) {
             LOGGER.error("Error occurred while quitting WebDriver: ", e);
         } finally {
             try {
                 // clear thread-local driver reference
                 setDriver(null);
+                LogContext.setSession(null);
             } catch (Exception ex) {
                 LOGGER.debug("Error clearing driver from context manager", ex);
             }
-
-            // remove stored session id if present
-            if (sessionId != null) {
-                sessionIds.remove(sessionId);
-            }
         }
     }
 
     public static void sleep(long seconds) {
-        try {
-            for (int i = 0; i < seconds; i++) {
-                Thread.sleep(1000);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        SettleTracker.sleep(seconds);
     }
 }
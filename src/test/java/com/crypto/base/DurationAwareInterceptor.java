@@ -0,0 +1,320 @@
+package com.crypto.base;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.crypto.constants.Constants;
+import com.crypto.report.ExecutionMetrics;
+import com.crypto.report.ReportJournal;
+
+/**
+ * Orders test classes longest-processing-time first from the durations of
+ * previous runs, so the slowest classes start early and the short ones fill
+ * the threads at the end. With {@code parallel="classes"} TestNG hands the
+ * classes to free threads in this order, which is LPT list scheduling.
+ * Methods inside a class keep TestNG's priority order, and classes with
+ * group dependencies keep their original relative order after the others.
+ * Tests without history are estimated from the median of the known ones.
+ */
+public class DurationAwareInterceptor implements IMethodInterceptor, IInvokedMethodListener, ISuiteListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DurationAwareInterceptor.class);
+    private static final Path DURATIONS_FILE = Paths.get(Constants.TIMINGS_DIR, "durations.properties");
+    private static final String CLASS_PREFIX = "class.";
+    private static final String METHOD_PREFIX = "method.";
+    // Weight of the latest run in the stored duration
+    private static final double SMOOTHING = 0.5;
+
+    private static final Map<String, Long> HISTORY = new ConcurrentHashMap<>();
+    private static final Map<String, Long> METHOD_DURATIONS = new ConcurrentHashMap<>();
+    private static final Map<String, long[]> CLASS_SPANS = new ConcurrentHashMap<>();
+    private static final Map<String, Long> PREDICTED_MAKESPAN = new ConcurrentHashMap<>();
+    private static final Map<String, List<String>> TEST_CLASSES = new ConcurrentHashMap<>();
+    private static volatile boolean historyLoaded;
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!Constants.SCHEDULE_ENABLED || methods.isEmpty()) {
+            return methods;
+        }
+        loadHistory();
+
+        Map<String, List<IMethodInstance>> byClass = new LinkedHashMap<>();
+        for (IMethodInstance method : methods) {
+            byClass.computeIfAbsent(method.getMethod().getRealClass().getName(), k -> new ArrayList<>()).add(method);
+        }
+        long fallback = getFallbackMillis();
+        Map<String, Long> estimates = new LinkedHashMap<>();
+        byClass.forEach((className, classMethods) -> estimates.put(className,
+                estimateClass(className, classMethods, fallback)));
+
+        List<String> scheduled = new ArrayList<>();
+        List<String> dependent = new ArrayList<>();
+        for (Map.Entry<String, List<IMethodInstance>> entry : byClass.entrySet()) {
+            (hasGroupDependencies(entry.getValue()) ? dependent : scheduled).add(entry.getKey());
+        }
+        scheduled.sort((a, b) -> Long.compare(estimates.get(b), estimates.get(a)));
+        scheduled.addAll(dependent);
+
+        List<IMethodInstance> ordered = new ArrayList<>(methods.size());
+        for (String className : scheduled) {
+            ordered.addAll(byClass.get(className));
+        }
+
+        int threads = getThreadCount(context.getCurrentXmlTest());
+        List<Long> durations = new ArrayList<>();
+        scheduled.forEach(className -> durations.add(estimates.get(className)));
+        long makespan = predictMakespan(durations, threads);
+        PREDICTED_MAKESPAN.put(context.getName(), makespan);
+        TEST_CLASSES.put(context.getName(), scheduled);
+        LOGGER.info("Scheduled {} class(es) of test '{}' longest first on {} thread(s), predicted makespan {} ms: {}",
+                scheduled.size(), context.getName(), threads, makespan, estimates);
+        return ordered;
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        if (result.getTestClass() == null || result.getEndMillis() <= 0) {
+            return;
+        }
+        String className = result.getTestClass().getRealClass().getName();
+        long[] span = CLASS_SPANS.computeIfAbsent(className, k -> new long[] { Long.MAX_VALUE, 0 });
+        synchronized (span) {
+            span[0] = Math.min(span[0], result.getStartMillis());
+            span[1] = Math.max(span[1], result.getEndMillis());
+        }
+        if (method.isTestMethod()) {
+            // Data-driven methods add up all their invocations
+            METHOD_DURATIONS.merge(methodKey(result.getMethod()), result.getEndMillis() - result.getStartMillis(),
+                    Long::sum);
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (Constants.SCHEDULE_ENABLED && !CLASS_SPANS.isEmpty()) {
+            saveHistory();
+        }
+    }
+
+    /**
+     * Adds predicted versus actual makespan of each TestNG test to the report
+     *
+     * @param extent Report to publish to
+     */
+    public static void publish(ExtentReports extent) {
+        PREDICTED_MAKESPAN.forEach((testName, predicted) -> {
+            long actual = getActualMakespan(TEST_CLASSES.getOrDefault(testName, Collections.emptyList()));
+            ExecutionMetrics.recordNanos("schedule.makespan.predicted[" + testName + "]",
+                    TimeUnit.MILLISECONDS.toNanos(predicted));
+            ExecutionMetrics.recordNanos("schedule.makespan.actual[" + testName + "]",
+                    TimeUnit.MILLISECONDS.toNanos(actual));
+            LOGGER.info("Makespan of test '{}': predicted {} ms, actual {} ms", testName, predicted, actual);
+            if (extent != null) {
+                ReportJournal.setSystemInfo(extent, "Makespan " + testName, String.format("predicted %.1f s, actual %.1f s",
+                        predicted / 1000.0, actual / 1000.0));
+            }
+        });
+    }
+
+    /**
+     * @return Historical duration of the method over all its invocations, or
+     *         the fallback estimate for a method without history
+     */
+    public static long estimateMillis(ITestNGMethod method) {
+        loadHistory();
+        Long known = HISTORY.get(METHOD_PREFIX + methodKey(method));
+        return known != null ? known : getFallbackMillis();
+    }
+
+    /**
+     * Simulates list scheduling of the ordered durations on the threads
+     */
+    private static long predictMakespan(List<Long> orderedDurations, int threads) {
+        PriorityQueue<Long> loads = new PriorityQueue<>();
+        for (int i = 0; i < Math.max(1, threads); i++) {
+            loads.add(0L);
+        }
+        long makespan = 0;
+        for (long duration : orderedDurations) {
+            long finish = loads.poll() + duration;
+            loads.add(finish);
+            makespan = Math.max(makespan, finish);
+        }
+        return makespan;
+    }
+
+    private static long estimateClass(String className, List<IMethodInstance> classMethods, long fallback) {
+        Long known = HISTORY.get(CLASS_PREFIX + className);
+        if (known != null) {
+            return known;
+        }
+        long total = 0;
+        for (IMethodInstance method : classMethods) {
+            total += HISTORY.getOrDefault(METHOD_PREFIX + methodKey(method.getMethod()), fallback);
+        }
+        return total;
+    }
+
+    /**
+     * Median of the known method durations, or the configured default without history
+     */
+    private static long getFallbackMillis() {
+        List<Long> known = new ArrayList<>();
+        HISTORY.forEach((key, millis) -> {
+            if (key.startsWith(METHOD_PREFIX)) {
+                known.add(millis);
+            }
+        });
+        if (known.isEmpty()) {
+            return Constants.SCHEDULE_DEFAULT_DURATION;
+        }
+        Collections.sort(known);
+        return known.get(known.size() / 2);
+    }
+
+    private static boolean hasGroupDependencies(List<IMethodInstance> classMethods) {
+        return classMethods.stream().anyMatch(method -> method.getMethod().getGroupsDependedUpon().length > 0);
+    }
+
+    private static int getThreadCount(XmlTest xmlTest) {
+        if (xmlTest == null) {
+            return 1;
+        }
+        XmlSuite.ParallelMode parallel = xmlTest.getParallel();
+        return parallel != null && parallel.isParallel() ? Math.max(1, xmlTest.getThreadCount()) : 1;
+    }
+
+    private static long getActualMakespan(List<String> classNames) {
+        long start = Long.MAX_VALUE;
+        long end = 0;
+        for (String className : classNames) {
+            long[] span = CLASS_SPANS.get(className);
+            if (span != null) {
+                synchronized (span) {
+                    start = Math.min(start, span[0]);
+                    end = Math.max(end, span[1]);
+                }
+            }
+        }
+        return end > start ? end - start : 0;
+    }
+
+    private static String methodKey(ITestNGMethod method) {
+        return method.getRealClass().getName() + "#" + method.getMethodName();
+    }
+
+    private static synchronized void loadHistory() {
+        if (historyLoaded) {
+            return;
+        }
+        historyLoaded = true;
+        if (!Files.exists(DURATIONS_FILE)) {
+            LOGGER.info("No test duration history at {}, using default estimates", DURATIONS_FILE);
+            return;
+        }
+        try {
+            readHistory().forEach(HISTORY::put);
+        } catch (IOException e) {
+            LOGGER.warn("Could not read test duration history {}: {}", DURATIONS_FILE, e.getMessage());
+        }
+    }
+
+    private static Map<String, Long> readHistory() throws IOException {
+        Map<String, Long> history = new LinkedHashMap<>();
+        if (!Files.exists(DURATIONS_FILE)) {
+            return history;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(DURATIONS_FILE)) {
+            properties.load(in);
+        }
+        for (String key : properties.stringPropertyNames()) {
+            try {
+                history.put(key, Long.parseLong(properties.getProperty(key).trim()));
+            } catch (NumberFormatException e) {
+                LOGGER.debug("Ignoring invalid duration entry {}", key);
+            }
+        }
+        return history;
+    }
+
+    /**
+     * Merges the durations of this run into the history file. Shards running
+     * as separate processes share the file, so it is re-read under a file lock
+     * and only the entries measured by this run are updated.
+     */
+    private static synchronized void saveHistory() {
+        Map<String, Long> latest = new LinkedHashMap<>();
+        // A shard only runs part of each class, so its class spans are not representative
+        if (Constants.SHARD_COUNT <= 1) {
+            CLASS_SPANS.forEach((className, span) -> {
+                synchronized (span) {
+                    if (span[1] > span[0]) {
+                        latest.put(CLASS_PREFIX + className, span[1] - span[0]);
+                    }
+                }
+            });
+        }
+        METHOD_DURATIONS.forEach((key, millis) -> latest.put(METHOD_PREFIX + key, millis));
+
+        Path lockFile = DURATIONS_FILE.resolveSibling("durations.lock");
+        try {
+            Files.createDirectories(DURATIONS_FILE.getParent());
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE);
+                    FileLock lock = channel.lock()) {
+                Map<String, Long> history = readHistory();
+                latest.forEach((key, millis) -> {
+                    Long previous = history.get(key);
+                    history.put(key,
+                            previous == null ? millis : Math.round(SMOOTHING * millis + (1 - SMOOTHING) * previous));
+                });
+
+                Properties properties = new Properties();
+                history.forEach((key, millis) -> properties.setProperty(key, String.valueOf(millis)));
+                Path temp = Files.createTempFile(DURATIONS_FILE.getParent(), "durations", ".tmp");
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    properties.store(out, "Test durations in milliseconds, smoothed over runs");
+                }
+                Files.move(temp, DURATIONS_FILE, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            }
+            LOGGER.info("Saved durations of {} class(es) and method(s) to {}", latest.size(), DURATIONS_FILE);
+        } catch (IOException e) {
+            LOGGER.warn("Could not save test durations to {}: {}", DURATIONS_FILE, e.getMessage());
+        }
+    }
+}
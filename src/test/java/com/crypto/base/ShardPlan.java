@@ -0,0 +1,162 @@
+package com.crypto.base;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+/**
+ * Deterministic split of test units into shards. The split depends only on
+ * the unit names, the shard count and a frozen timing snapshot, never on
+ * files a running shard rewrites, so shards on different machines compute
+ * the same one. With a snapshot, units are assigned longest first to the
+ * least loaded shard (ties go to the lower shard index and the unit name);
+ * without one, each unit goes to the shard given by a stable hash of its name.
+ */
+final class ShardPlan {
+
+    static final String HASH_INPUT = "hash";
+    private static final String METHOD_PREFIX = "method.";
+
+    private final Map<String, Long> durations;
+    private final long fallbackMillis;
+    private final String input;
+
+    private ShardPlan(Map<String, Long> durations, long fallbackMillis, String input) {
+        this.durations = durations;
+        this.fallbackMillis = fallbackMillis;
+        this.input = input;
+    }
+
+    /**
+     * @return A plan splitting units by stable hash
+     */
+    static ShardPlan hashed() {
+        return new ShardPlan(Collections.emptyMap(), 0, HASH_INPUT);
+    }
+
+    /**
+     * @param durations      Method key ({@code Class#method}) to duration in ms
+     * @param defaultMillis  Estimate for methods without a duration when the
+     *                       snapshot has none at all
+     * @param input          Identifies the snapshot, recorded with the plan
+     * @return A plan splitting units longest first from the durations
+     */
+    static ShardPlan fromDurations(Map<String, Long> durations, long defaultMillis, String input) {
+        List<Long> known = new ArrayList<>(durations.values());
+        Collections.sort(known);
+        long fallback = known.isEmpty() ? defaultMillis : known.get(known.size() / 2);
+        return new ShardPlan(new LinkedHashMap<>(durations), fallback, input);
+    }
+
+    /**
+     * Reads a timing snapshot in the format of
+     * {@code state/timings/durations.properties}
+     *
+     * @param snapshot      Snapshot file, the same for every shard
+     * @param defaultMillis Estimate for methods without a duration
+     * @return A plan from the snapshot, identified by its SHA-256
+     */
+    static ShardPlan load(Path snapshot, long defaultMillis) throws IOException {
+        byte[] content = Files.readAllBytes(snapshot);
+        Properties properties = new Properties();
+        try (InputStream in = new java.io.ByteArrayInputStream(content)) {
+            properties.load(in);
+        }
+        Map<String, Long> durations = new LinkedHashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(METHOD_PREFIX)) {
+                try {
+                    durations.put(key.substring(METHOD_PREFIX.length()),
+                            Long.parseLong(properties.getProperty(key).trim()));
+                } catch (NumberFormatException e) {
+                    // Not a duration
+                }
+            }
+        }
+        try {
+            String digest = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+            return fromDurations(durations, defaultMillis, "timings:" + digest.substring(0, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * @return {@value #HASH_INPUT}, or the id of the timing snapshot
+     */
+    String getInput() {
+        return input;
+    }
+
+    boolean isHashed() {
+        return HASH_INPUT.equals(input);
+    }
+
+    /**
+     * @return Duration of the method in the snapshot, or the median of the
+     *         snapshot; 0 when splitting by hash
+     */
+    long estimateMillis(String methodKey) {
+        return durations.getOrDefault(methodKey, fallbackMillis);
+    }
+
+    long estimateMillis(List<String> methodKeys) {
+        long total = 0;
+        for (String methodKey : methodKeys) {
+            total += estimateMillis(methodKey);
+        }
+        return total;
+    }
+
+    /**
+     * @param units      Unit name (a method, or a class whose methods depend on
+     *                   each other) to its method keys
+     * @param shardCount Number of shards
+     * @return Unit name to shard index
+     */
+    Map<String, Integer> assign(Map<String, List<String>> units, int shardCount) {
+        Map<String, Integer> assignment = new LinkedHashMap<>();
+        if (isHashed()) {
+            for (String unit : units.keySet()) {
+                assignment.put(unit, hashShard(unit, shardCount));
+            }
+            return assignment;
+        }
+
+        Map<String, Long> costs = new LinkedHashMap<>();
+        units.forEach((unit, methodKeys) -> costs.put(unit, estimateMillis(methodKeys)));
+        List<String> ordered = new ArrayList<>(costs.keySet());
+        ordered.sort(Comparator.<String>comparingLong(costs::get).reversed().thenComparing(Comparator.naturalOrder()));
+        long[] loads = new long[shardCount];
+        for (String unit : ordered) {
+            int shard = 0;
+            for (int i = 1; i < loads.length; i++) {
+                if (loads[i] < loads[shard]) {
+                    shard = i;
+                }
+            }
+            loads[shard] += costs.get(unit);
+            assignment.put(unit, shard);
+        }
+        return assignment;
+    }
+
+    static int hashShard(String unit, int shardCount) {
+        CRC32 crc = new CRC32();
+        crc.update(unit.getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % shardCount);
+    }
+}
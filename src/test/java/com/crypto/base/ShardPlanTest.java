@@ -0,0 +1,122 @@
+package com.crypto.base;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.testng.annotations.Test;
+
+public class ShardPlanTest {
+
+    private static Map<String, List<String>> units(String... methodKeys) {
+        Map<String, List<String>> units = new LinkedHashMap<>();
+        for (String methodKey : methodKeys) {
+            units.put(methodKey, List.of(methodKey));
+        }
+        return units;
+    }
+
+    @Test
+    public void hashSplitIsIndependentOfUnitOrder() {
+        Map<String, List<String>> units = units("A#a", "A#b", "B#a", "B#b", "C#a", "C#b", "D#a");
+        Map<String, Integer> assignment = ShardPlan.hashed().assign(units, 3);
+
+        List<String> reversed = new ArrayList<>(units.keySet());
+        Collections.reverse(reversed);
+        Map<String, Integer> reversedAssignment = ShardPlan.hashed()
+                .assign(units(reversed.toArray(new String[0])), 3);
+
+        assertEquals(reversedAssignment, assignment);
+        assertEquals(assignment.keySet(), units.keySet());
+        assignment.values().forEach(shard -> assertTrue(shard >= 0 && shard < 3));
+    }
+
+    @Test
+    public void hashShardIsStable() {
+        // CRC32 of the name, so the split is the same on every JVM and machine
+        assertEquals(ShardPlan.hashShard("com.crypto.test.HomeScreenTest#testChangeExchange", 1), 0);
+        assertEquals(ShardPlan.hashShard("a", 7), (int) (0xE8B7BE43L % 7));
+    }
+
+    @Test
+    public void snapshotSplitBalancesLongestFirst() {
+        Map<String, Long> durations = Map.of("A#a", 900L, "A#b", 500L, "B#a", 400L, "B#b", 100L);
+        ShardPlan plan = ShardPlan.fromDurations(durations, 30000, "timings:test");
+        Map<String, Integer> assignment = plan.assign(units("B#b", "A#b", "B#a", "A#a"), 2);
+
+        assertEquals(assignment.get("A#a").intValue(), 0);
+        assertEquals(assignment.get("A#b").intValue(), 1);
+        assertEquals(assignment.get("B#a").intValue(), 1);
+        assertEquals(assignment.get("B#b").intValue(), 0);
+    }
+
+    @Test
+    public void unknownMethodsCostTheSnapshotMedian() {
+        ShardPlan plan = ShardPlan.fromDurations(Map.of("A#a", 100L, "A#b", 300L, "A#c", 200L), 30000, "t");
+        assertEquals(plan.estimateMillis("Z#z"), 200);
+        assertEquals(plan.estimateMillis(List.of("A#a", "Z#z")), 300);
+        assertEquals(ShardPlan.fromDurations(Map.of(), 30000, "t").estimateMillis("Z#z"), 30000);
+    }
+
+    @Test
+    public void classUnitsStayTogether() {
+        Map<String, List<String>> units = new LinkedHashMap<>();
+        units.put("A", List.of("A#a", "A#b", "A#c"));
+        units.put("B#a", List.of("B#a"));
+        Map<String, Integer> assignment = ShardPlan.fromDurations(Map.of(), 1000, "t").assign(units, 2);
+
+        assertEquals(assignment.size(), 2);
+        assertNotEquals(assignment.get("A"), assignment.get("B#a"));
+    }
+
+    @Test
+    public void everyUnitIsAssignedToExactlyOneShard() {
+        String[] keys = new String[50];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "C" + (i % 7) + "#m" + i;
+        }
+        for (ShardPlan plan : List.of(ShardPlan.hashed(), ShardPlan.fromDurations(Map.of("C1#m1", 5000L), 10, "t"))) {
+            Set<String> seen = new HashSet<>();
+            for (int shard = 0; shard < 4; shard++) {
+                for (Map.Entry<String, Integer> entry : plan.assign(units(keys), 4).entrySet()) {
+                    if (entry.getValue() == shard) {
+                        assertTrue(seen.add(entry.getKey()), entry.getKey() + " assigned twice");
+                    }
+                }
+            }
+            assertEquals(seen.size(), keys.length);
+        }
+    }
+
+    @Test
+    public void loadIdentifiesTheSnapshotByContent() throws Exception {
+        Path first = Files.createTempFile("durations", ".properties");
+        Path second = Files.createTempFile("durations", ".properties");
+        try {
+            Files.write(first, "method.A#a=1200\nmethod.A#b=300\nclass.A=1500\n".getBytes(StandardCharsets.ISO_8859_1));
+            Files.write(second, "method.A#a=1200\nmethod.A#b=301\n".getBytes(StandardCharsets.ISO_8859_1));
+
+            ShardPlan plan = ShardPlan.load(first, 30000);
+            assertTrue(plan.getInput().startsWith("timings:"));
+            assertEquals(plan.getInput(), ShardPlan.load(first, 30000).getInput());
+            assertNotEquals(ShardPlan.load(second, 30000).getInput(), plan.getInput());
+            assertEquals(plan.estimateMillis("A#a"), 1200);
+            // class.* entries are not method durations
+            assertEquals(plan.estimateMillis("A"), 1200);
+        } finally {
+            Files.deleteIfExists(first);
+            Files.deleteIfExists(second);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.crypto.base;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.IDataProviderInterceptor;
+import org.testng.IDataProviderMethod;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ISuiteResult;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import com.crypto.constants.Constants;
+import com.crypto.report.ExecutionMetrics;
+import com.crypto.report.ExtentReportManager;
+
+/**
+ * Runs one shard of the suite when {@code [shard] count} is above one. Every
+ * shard computes the same partition from a frozen input (see
+ * {@link ShardPlan}): the {@code [shard] timings} snapshot when configured,
+ * otherwise a stable hash of the method names. Classes with method
+ * dependencies stay together, and data-driven methods run on every shard with
+ * their rows dealt out round robin. The shard's results and the partition it
+ * used are written to {@code state/shards/shard-<index>.json} for
+ * {@code ShardResultMerger}.
+ * Register it before {@link DurationAwareInterceptor} so ordering only sees
+ * the shard's own methods.
+ */
+public class ShardingInterceptor implements IMethodInterceptor, IDataProviderInterceptor, ISuiteListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardingInterceptor.class);
+
+    private final Map<String, Long> predictedMillis = new ConcurrentHashMap<>();
+    private final Map<String, TestPlan> plans = new ConcurrentHashMap<>();
+    private ShardPlan plan;
+    private volatile long startMillis;
+
+    @Override
+    public void onStart(ISuite suite) {
+        startMillis = System.currentTimeMillis();
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (Constants.SHARD_COUNT <= 1 || methods.isEmpty()) {
+            return methods;
+        }
+
+        // Units of work: single methods, or whole classes when their methods depend on each other
+        Map<String, List<String>> units = new LinkedHashMap<>();
+        for (IMethodInstance method : methods) {
+            ITestNGMethod testMethod = method.getMethod();
+            if (testMethod.isDataDriven()) {
+                continue;
+            }
+            String unit = hasDependencies(methods, testMethod.getRealClass())
+                    ? testMethod.getRealClass().getName()
+                    : methodKey(testMethod);
+            units.computeIfAbsent(unit, k -> new ArrayList<>()).add(methodKey(testMethod));
+        }
+        ShardPlan plan = getPlan();
+        Map<String, Integer> assignment = plan.assign(units, Constants.SHARD_COUNT);
+
+        Map<String, Integer> methodShards = new TreeMap<>();
+        assignment.forEach((unit, shard) -> units.get(unit).forEach(key -> methodShards.put(key, shard)));
+        List<IMethodInstance> kept = new ArrayList<>();
+        long predicted = 0;
+        for (IMethodInstance method : methods) {
+            ITestNGMethod testMethod = method.getMethod();
+            Integer shard = methodShards.get(methodKey(testMethod));
+            if (testMethod.isDataDriven()) {
+                kept.add(method);
+                predicted += DurationAwareInterceptor.estimateMillis(testMethod) / Constants.SHARD_COUNT;
+            } else if (shard == Constants.SHARD_INDEX) {
+                kept.add(method);
+                predicted += DurationAwareInterceptor.estimateMillis(testMethod);
+            }
+        }
+        TestPlan testPlan = plans.computeIfAbsent(context.getName(), k -> new TestPlan());
+        testPlan.input = plan.getInput();
+        testPlan.methods = methodShards;
+        predictedMillis.put(context.getName(), predicted);
+        LOGGER.info("Shard {} of {} runs {} of {} method(s) of test '{}' split by {}, predicted {} ms",
+                Constants.SHARD_INDEX, Constants.SHARD_COUNT, kept.size(), methods.size(), context.getName(),
+                plan.getInput(), predicted);
+        return kept;
+    }
+
+    @Override
+    public Iterator<Object[]> intercept(Iterator<Object[]> original, IDataProviderMethod dataProviderMethod,
+            ITestNGMethod method, ITestContext context) {
+        if (Constants.SHARD_COUNT <= 1) {
+            return original;
+        }
+        // Start each method at a different shard so single-row providers do not all land on shard 0
+        String methodKey = methodKey(method);
+        int offset = ShardPlan.hashShard(methodKey, Constants.SHARD_COUNT);
+        RowPlan rows = new RowPlan();
+        plans.computeIfAbsent(context.getName(), k -> new TestPlan()).rows.put(methodKey, rows);
+        return new Iterator<>() {
+            private int index;
+            private Object[] next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && original.hasNext()) {
+                    Object[] row = original.next();
+                    if ((index + offset) % Constants.SHARD_COUNT == Constants.SHARD_INDEX) {
+                        rows.kept.add(index);
+                        next = row;
+                    }
+                    rows.total = ++index;
+                }
+                return next != null;
+            }
+
+            @Override
+            public Object[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Object[] row = next;
+                next = null;
+                return row;
+            }
+        };
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (Constants.SHARD_COUNT <= 1) {
+            return;
+        }
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (ISuiteResult suiteResult : suite.getResults().values()) {
+            ITestContext context = suiteResult.getTestContext();
+            addResults(results, context, context.getPassedTests().getAllResults(), "PASS");
+            addResults(results, context, context.getFailedTests().getAllResults(), "FAIL");
+            addResults(results, context, context.getSkippedTests().getAllResults(), "SKIP");
+        }
+        results.sort(Comparator.comparingLong(result -> (Long) result.get("startMillis")));
+
+        Map<String, Object> shard = new LinkedHashMap<>();
+        shard.put("index", Constants.SHARD_INDEX);
+        shard.put("count", Constants.SHARD_COUNT);
+        shard.put("suite", suite.getName());
+        shard.put("startMillis", startMillis);
+        shard.put("endMillis", System.currentTimeMillis());
+        shard.put("predictedMillis", predictedMillis);
+        Map<String, Object> plan = new TreeMap<>();
+        plans.forEach((test, testPlan) -> plan.put(test, testPlan.toMap()));
+        shard.put("plan", plan);
+        shard.put("extentArchive", ExtentReportManager.getShardExtentArchive(Constants.SHARD_INDEX));
+        shard.put("results", results);
+        shard.put("metrics", ExecutionMetrics.snapshot());
+
+        Path file = Paths.get(Constants.SHARDS_DIR, "shard-" + Constants.SHARD_INDEX + ".json");
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), "shard", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write(new Json().toJson(shard));
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.info("Shard {} results ({} test result(s)) written to {}", Constants.SHARD_INDEX, results.size(),
+                    file);
+        } catch (IOException e) {
+            LOGGER.error("Could not write shard results to {}: ", file, e);
+        }
+    }
+
+    /**
+     * @return The split from {@code [shard] timings}, or by hash when no
+     *         snapshot is configured; never from the local durations, which
+     *         differ between machines and change while shards run
+     */
+    private synchronized ShardPlan getPlan() {
+        if (plan == null) {
+            if (Constants.SHARD_TIMINGS == null) {
+                plan = ShardPlan.hashed();
+            } else {
+                Path snapshot = Paths.get(Constants.SHARD_TIMINGS);
+                try {
+                    plan = ShardPlan.load(snapshot, Constants.SCHEDULE_DEFAULT_DURATION);
+                } catch (IOException e) {
+                    throw new RuntimeException("Could not read the shard timing snapshot " + snapshot, e);
+                }
+            }
+        }
+        return plan;
+    }
+
+    private static boolean hasDependencies(List<IMethodInstance> methods, Class<?> testClass) {
+        return methods.stream()
+                .map(IMethodInstance::getMethod)
+                .filter(method -> method.getRealClass().equals(testClass))
+                .anyMatch(method -> method.getMethodsDependedUpon().length > 0
+                        || method.getGroupsDependedUpon().length > 0);
+    }
+
+    private static String methodKey(ITestNGMethod method) {
+        return method.getRealClass().getName() + "#" + method.getMethodName();
+    }
+
+    private static void addResults(List<Map<String, Object>> results, ITestContext context,
+            Collection<ITestResult> testResults, String status) {
+        for (ITestResult result : testResults) {
+            List<String> parameters = new ArrayList<>();
+            for (Object parameter : result.getParameters()) {
+                parameters.add(String.valueOf(parameter));
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("test", context.getName());
+            entry.put("class", result.getTestClass().getName());
+            entry.put("method", result.getMethod().getMethodName());
+            entry.put("description", result.getMethod().getDescription());
+            entry.put("groups", Arrays.asList(result.getMethod().getGroups()));
+            entry.put("parameters", parameters);
+            entry.put("status", status);
+            entry.put("startMillis", result.getStartMillis());
+            entry.put("endMillis", result.getEndMillis());
+            entry.put("error", result.getThrowable() == null ? null : String.valueOf(result.getThrowable()));
+            results.add(entry);
+        }
+    }
+
+    /*
+     * Partition of one <test>, recorded so the merger can check that every
+     * shard used the same one and nothing was dropped or run twice
+     */
+    private static final class TestPlan {
+        private volatile String input;
+        private volatile Map<String, Integer> methods = Collections.emptyMap();
+        private final Map<String, RowPlan> rows = new ConcurrentHashMap<>();
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("input", input);
+            map.put("methods", methods);
+            Map<String, Object> rowMap = new TreeMap<>();
+            rows.forEach((method, rowPlan) -> {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("total", rowPlan.total);
+                synchronized (rowPlan.kept) {
+                    entry.put("kept", new ArrayList<>(rowPlan.kept));
+                }
+                rowMap.put(method, entry);
+            });
+            map.put("rows", rowMap);
+            return map;
+        }
+    }
+
+    private static final class RowPlan {
+        private final List<Integer> kept = Collections.synchronizedList(new ArrayList<>());
+        private volatile int total;
+    }
+}
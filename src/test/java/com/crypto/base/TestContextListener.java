@@ -1,15 +1,37 @@
 package com.crypto.base;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.MDC;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.markuputils.MarkupHelper;
+import com.crypto.constants.Constants;
+import com.crypto.report.ExecutionMetrics;
+import com.crypto.report.ReportJournal;
 import com.crypto.utils.ContextManager;
+import com.crypto.utils.FrameRateProbe;
+import com.crypto.utils.LogContext;
+import com.crypto.utils.SettleTracker;
+import com.crypto.utils.WebVitalsCollector;
+import com.crypto.utils.devtools.NetworkTracker;
+import com.crypto.utils.devtools.ScreencastRecorder;
+import com.crypto.utils.locators.FrameContext;
+import com.crypto.utils.wrappers.ScreenshotStore;
 import com.crypto.utils.wrappers.ScreenshotUtils;
 
-public class TestContextListener implements ITestListener {
+public class TestContextListener implements ITestListener, IInvokedMethodListener {
+
+    private static final AtomicBoolean FIRST_TEST_STARTED = new AtomicBoolean();
 
     @Override
     public void onStart(ITestContext context) {
@@ -19,6 +41,17 @@ public class TestContextListener implements ITestListener {
 
     @Override
     public void onTestStart(ITestResult result) {
+        if (FIRST_TEST_STARTED.compareAndSet(false, true) && BaseTest.getSuiteStartNanos() > 0) {
+            ExecutionMetrics.recordSince("suite.timeToFirstTest", BaseTest.getSuiteStartNanos());
+        }
+        SettleTracker.reset();
+        FrameContext.resetStats();
+        WebVitalsCollector.reset();
+        NetworkTracker.of(BaseTest.getBaseDriver()).ifPresent(NetworkTracker::reset);
+        ScreencastRecorder.of(BaseTest.getBaseDriver()).ifPresent(ScreencastRecorder::clear);
+        LogContext.startTest(result.getTestClass().getRealClass().getSimpleName() + "."
+                + result.getMethod().getMethodName(), BaseTest.getBaseDriver());
+        ScreenshotStore.begin(MDC.get(LogContext.TEST_ID));
         try {
             // Ensure extent report is initialized
             if (BaseSetup.extent == null) {
@@ -41,6 +74,7 @@ public class TestContextListener implements ITestListener {
                 test.assignCategory(groups);
                 System.out.println("Assigned groups to test: " + String.join(", ", groups));
             }
+            ReportJournal.startTest(test, fullTestName, groups);
 
             ContextManager.setExtentTest(test);
             System.out.println("ExtentTest created and stored successfully for: " + fullTestName);
@@ -56,12 +90,19 @@ public class TestContextListener implements ITestListener {
     public void onTestSuccess(ITestResult result) {
         ExtentTest test = ContextManager.getExtentTest();
         if (test != null) {
-            test.log(Status.PASS, "Test Passed: " + result.getMethod().getMethodName());
+            ReportJournal.log(test, Status.PASS, "Test Passed: " + result.getMethod().getMethodName());
+            reportWaits(test);
+            reportFrameSwitches(test);
+            reportWebVitals(test);
+            ReportJournal.endTest(test, Status.PASS);
+            ScreencastRecorder.of(BaseTest.getBaseDriver()).ifPresent(ScreencastRecorder::clear);
             System.out.println("Test PASSED logged to Extent: " + result.getMethod().getMethodName());
         } else {
             System.err
                     .println("WARNING: ExtentTest is null in onTestSuccess for: " + result.getMethod().getMethodName());
         }
+        ScreenshotStore.release(MDC.get(LogContext.TEST_ID));
+        LogContext.endTest();
     }
 
     @Override
@@ -72,10 +113,13 @@ public class TestContextListener implements ITestListener {
         if (test != null) {
             // Log the failure
             if (result.getThrowable() != null) {
-                test.log(Status.FAIL, result.getThrowable());
+                ReportJournal.log(test, Status.FAIL, result.getThrowable());
             } else {
-                test.log(Status.FAIL, "Test Failed: " + testName);
+                ReportJournal.log(test, Status.FAIL, "Test Failed: " + testName);
             }
+            reportWaits(test);
+            reportFrameSwitches(test);
+            reportWebVitals(test);
 
             // Capture and attach failure screenshot
             try {
@@ -85,10 +129,18 @@ public class TestContextListener implements ITestListener {
                 System.err.println("Failed to capture failure screenshot for " + testName + ": " + e.getMessage());
             }
 
+            if (Constants.NETWORK_HAR_ON_FAILURE) {
+                attachHar(test, testName);
+            }
+            attachScreencast(test, testName);
+            ReportJournal.endTest(test, Status.FAIL);
+
             System.out.println("Test FAILED logged to Extent: " + testName);
         } else {
             System.err.println("WARNING: ExtentTest is null in onTestFailure for: " + testName);
         }
+        ScreenshotStore.release(MDC.get(LogContext.TEST_ID));
+        LogContext.endTest();
     }
 
     @Override
@@ -96,7 +148,12 @@ public class TestContextListener implements ITestListener {
         ExtentTest test = ContextManager.getExtentTest();
         if (test != null) {
             String reason = result.getThrowable() != null ? result.getThrowable().getMessage() : "Test was skipped";
-            test.log(Status.SKIP, "Test Skipped: " + result.getMethod().getMethodName() + " - " + reason);
+            ReportJournal.log(test, Status.SKIP,
+                    "Test Skipped: " + result.getMethod().getMethodName() + " - " + reason);
+            reportWaits(test);
+            reportFrameSwitches(test);
+            reportWebVitals(test);
+            ReportJournal.endTest(test, Status.SKIP);
             System.out.println("Test SKIPPED logged to Extent: " + result.getMethod().getMethodName());
         } else {
             System.err
@@ -108,13 +165,112 @@ public class TestContextListener implements ITestListener {
                     String className = result.getTestClass().getName();
                     String fullTestName = className + "." + testName;
                     ExtentTest skippedTest = BaseSetup.extent.createTest(fullTestName);
-                    skippedTest.log(Status.SKIP, "Test Skipped: " + testName);
+                    ReportJournal.startTest(skippedTest, fullTestName);
+                    ReportJournal.log(skippedTest, Status.SKIP, "Test Skipped: " + testName);
+                    ReportJournal.endTest(skippedTest, Status.SKIP);
                     System.out.println("Created ExtentTest for skipped test: " + fullTestName);
                 }
             } catch (Exception e) {
                 System.err.println("Failed to create ExtentTest for skipped test: " + e.getMessage());
             }
         }
+        ScreenshotStore.release(MDC.get(LogContext.TEST_ID));
+        LogContext.endTest();
+    }
+
+    /**
+     * Dumps the network traffic of the failed test as a gzipped HAR file
+     */
+    private void attachHar(ExtentTest test, String testName) {
+        NetworkTracker.of(BaseTest.getBaseDriver()).ifPresent(tracker -> {
+            try {
+                ReportJournal.log(test, Status.INFO,
+                        "Network HAR saved at: " + tracker.writeHar("FAILURE_" + testName));
+            } catch (IOException e) {
+                System.err.println("Failed to write HAR for " + testName + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Attaches the buffered screencast of the failed test as an animated GIF
+     */
+    private void attachScreencast(ExtentTest test, String testName) {
+        ScreencastRecorder.of(BaseTest.getBaseDriver()).ifPresent(recorder -> {
+            try {
+                Optional<byte[]> gif = recorder.dumpGif();
+                if (gif.isPresent()) {
+                    String path = ScreenshotStore.put(gif.get(), "FAILURE_" + testName + "_screencast",
+                            MDC.get(LogContext.TEST_ID), "gif").getPath();
+                    ReportJournal.logScreenshot(test, Status.FAIL,
+                            "Screencast of the last " + Constants.SCREENCAST_SECONDS + " seconds", path);
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Failed to attach screencast for " + testName + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Logs time saved by settle waits and the remaining fixed sleeps of the test
+     */
+    private void reportWaits(ExtentTest test) {
+        String summary = SettleTracker.summarize();
+        if (summary == null) {
+            return;
+        }
+        if (SettleTracker.isOverBudget()) {
+            ReportJournal.log(test, Status.WARNING, summary + " - fixed sleeps exceed the budget of "
+                    + Constants.FIXED_SLEEP_BUDGET + " seconds");
+        } else {
+            ReportJournal.log(test, Status.INFO, summary);
+        }
+    }
+
+    /**
+     * Logs the frame switches of the test and the time saved by skipping no-op
+     * switches
+     */
+    private void reportFrameSwitches(ExtentTest test) {
+        String summary = FrameContext.summarize();
+        if (summary != null) {
+            ReportJournal.log(test, Status.INFO, summary);
+        }
+    }
+
+    /**
+     * Fails a passed test whose web vitals exceed a budget when
+     * {@code [perf] budget_action = fail}, before its result is reported
+     */
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        if (!method.isTestMethod() || result.getStatus() != ITestResult.SUCCESS || !Constants.PERF_FAIL_ON_BUDGET) {
+            return;
+        }
+        List<String> violations = WebVitalsCollector.getViolations();
+        if (!violations.isEmpty()) {
+            result.setStatus(ITestResult.FAILURE);
+            result.setThrowable(new AssertionError("Performance budget exceeded: " + String.join("; ", violations)));
+        }
+    }
+
+    /**
+     * Logs the web vitals and frame rates captured by the test as tables,
+     * warning on budget violations (a failing budget has already failed the test)
+     */
+    private void reportWebVitals(ExtentTest test) {
+        String[][] vitals = WebVitalsCollector.toTable(WebVitalsCollector.VITALS_COLUMNS);
+        if (vitals != null) {
+            ReportJournal.log(test, Status.INFO, MarkupHelper.createTable(vitals));
+        }
+        String[][] frames = WebVitalsCollector.toTable(FrameRateProbe.COLUMNS);
+        if (frames != null) {
+            ReportJournal.log(test, Status.INFO, MarkupHelper.createTable(frames));
+        }
+        List<String> violations = WebVitalsCollector.getViolations();
+        if (!violations.isEmpty() && !Constants.PERF_FAIL_ON_BUDGET) {
+            ReportJournal.log(test, Status.WARNING, "Performance budget exceeded: " + String.join("; ", violations));
+        }
     }
 
     @Override
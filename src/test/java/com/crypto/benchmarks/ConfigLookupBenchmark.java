@@ -0,0 +1,44 @@
+package com.crypto.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.ini4j.Ini;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.crypto.constants.Constants;
+
+import config.ConfigReader;
+
+/**
+ * Cost of one config.ini lookup: parsing the file per call, as
+ * {@code ConfigReader} used to, next to the parsed snapshot. Run from the
+ * project root so {@code Constants.CONFIG_FILE_PATH} resolves.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Dlogback.configurationFile=logback-render.xml")
+@State(Scope.Benchmark)
+public class ConfigLookupBenchmark {
+
+    @Benchmark
+    public String parsePerLookup() throws IOException {
+        return new Ini(new File(Constants.CONFIG_FILE_PATH)).get("server", "driver_type");
+    }
+
+    @Benchmark
+    public String snapshotLookup() {
+        return ConfigReader.getPropertyValues("server", "driver_type");
+    }
+}
@@ -0,0 +1,81 @@
+package com.crypto.benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+
+import com.crypto.utils.ElementState;
+
+/**
+ * Wall time and WebDriver calls to check that every button of the toolbar
+ * fixture is displayed and clickable: a displayed and a clickable wait per
+ * button, as the per-element {@code ChartsPage} checks do, next to one
+ * {@code CommonActions.queryElementStates} call. Needs Chrome.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = "-Dlogback.configurationFile=logback-render.xml")
+@State(Scope.Benchmark)
+public class ElementStateQueryBenchmark {
+
+    @Param({ "25" })
+    public int buttons;
+
+    private Map<String, By> locators;
+
+    /**
+     * WebDriver calls made by the last run, each one round trip
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class RoundTrips {
+        public long roundTrips;
+    }
+
+    @Setup(Level.Trial)
+    public void openToolbar(FixtureBrowser browser) {
+        browser.open("toolbar.html", "buttons=" + buttons);
+        locators = new LinkedHashMap<>();
+        for (int i = 0; i < buttons; i++) {
+            locators.put("button-" + i, By.id("button-" + i));
+        }
+    }
+
+    @Benchmark
+    public boolean perElement(FixtureBrowser browser, RoundTrips roundTrips) {
+        long before = browser.getCalls();
+        boolean all = true;
+        for (Map.Entry<String, By> locator : locators.entrySet()) {
+            all &= browser.commonActions.isElementDisplayed(locator.getValue(), locator.getKey());
+            all &= browser.commonActions.isElementClickable(locator.getValue(), locator.getKey());
+        }
+        roundTrips.roundTrips = browser.getCalls() - before;
+        return all;
+    }
+
+    @Benchmark
+    public boolean batched(FixtureBrowser browser, RoundTrips roundTrips) {
+        long before = browser.getCalls();
+        boolean all = browser.commonActions.queryElementStates(locators).values().stream()
+                .allMatch(ElementState::isClickable);
+        roundTrips.roundTrips = browser.getCalls() - before;
+        return all;
+    }
+}
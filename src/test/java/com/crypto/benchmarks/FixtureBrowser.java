@@ -0,0 +1,67 @@
+package com.crypto.benchmarks;
+
+import java.lang.reflect.Method;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import com.crypto.utils.CommonActions;
+
+/**
+ * Headless Chrome for benchmarks against the local fixture pages in
+ * {@code src/test/resources/fixtures}, one per trial. The browser and driver
+ * are resolved by Selenium Manager. Calls on the driver and its elements are
+ * counted, each one being a WebDriver round trip.
+ */
+@State(Scope.Benchmark)
+public class FixtureBrowser {
+
+    WebDriver driver;
+    CommonActions commonActions;
+    private long calls;
+
+    @Setup(Level.Trial)
+    public void start() {
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--headless=new", "--window-size=1280,1024", "--allow-file-access-from-files");
+        driver = new EventFiringDecorator<>(new WebDriverListener() {
+            @Override
+            public void beforeAnyCall(Object target, Method method, Object[] args) {
+                calls++;
+            }
+        }).decorate(new ChromeDriver(options));
+        commonActions = new CommonActions(driver);
+    }
+
+    @TearDown(Level.Trial)
+    public void quit() {
+        if (driver != null) {
+            driver.quit();
+        }
+    }
+
+    /**
+     * Opens a fixture page
+     *
+     * @param page  File name in the fixtures directory
+     * @param query Query string read by the page, without the leading '?'
+     */
+    void open(String page, String query) {
+        commonActions.openUrl(FixtureBrowser.class.getResource("/fixtures/" + page) + "?" + query);
+    }
+
+    /**
+     * @return WebDriver calls made so far
+     */
+    long getCalls() {
+        return calls;
+    }
+}
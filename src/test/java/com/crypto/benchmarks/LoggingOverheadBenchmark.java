@@ -0,0 +1,115 @@
+package com.crypto.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.slf4j.LoggerFactory;
+
+import com.crypto.utils.CommonActions;
+import com.crypto.utils.LogContext;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import ch.qos.logback.core.joran.spi.JoranException;
+
+/**
+ * Cost of a click, a sendKeys and a getText through {@link CommonActions} on
+ * 16 threads, against a stub element so the time is the framework's own,
+ * with the default logback.xml, the performance profile and logging off. The
+ * difference to "off" is the logging overhead per three actions. Console
+ * output goes to a null stream so the run does not flood the JMH log; file
+ * appenders write to state/logs as in a test run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Dlogback.configurationFile=logback-render.xml")
+@Threads(16)
+@State(Scope.Benchmark)
+public class LoggingOverheadBenchmark {
+
+    @Param({ "logback.xml", "logback-performance.xml", "off" })
+    public String configuration;
+
+    private LoggerContext context;
+
+    @Setup(Level.Trial)
+    public void configure() throws JoranException {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        if ("off".equals(configuration)) {
+            context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).setLevel(ch.qos.logback.classic.Level.OFF);
+            return;
+        }
+        JoranConfigurator configurator = new JoranConfigurator();
+        configurator.setContext(context);
+        configurator.doConfigure(LoggingOverheadBenchmark.class.getResource("/" + configuration));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        // Drains the async queues
+        context.stop();
+    }
+
+    /**
+     * One test thread with its MDC context and actions on a stub element
+     */
+    @State(Scope.Thread)
+    public static class TestThread {
+        CommonActions commonActions;
+        WebElement element;
+
+        @Setup(Level.Trial)
+        public void start() {
+            LogContext.startTest("LoggingOverheadBenchmark." + Thread.currentThread().getName(), null);
+            WebDriver driver = (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(),
+                    new Class<?>[] { WebDriver.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> null;
+                    });
+            element = (WebElement) Proxy.newProxyInstance(WebElement.class.getClassLoader(),
+                    new Class<?>[] { WebElement.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "[[ChromeDriver: chrome on linux] -> css selector: #token-search]";
+                    case "getText" -> "TOKEN1/USDT";
+                    default -> null;
+                    });
+            commonActions = new CommonActions(driver);
+        }
+
+        @TearDown(Level.Trial)
+        public void end() {
+            LogContext.clear();
+        }
+    }
+
+    @Benchmark
+    public String actions(TestThread thread) {
+        thread.commonActions.clickElement(thread.element, "searchTokenContractAddressInputField");
+        thread.commonActions.sendKeys(thread.element, "TOKEN1", "searchTokenContractAddressInputField");
+        return thread.commonActions.getText(thread.element, "searchTokenContractAddressInputField");
+    }
+}
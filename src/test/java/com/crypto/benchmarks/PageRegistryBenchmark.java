@@ -0,0 +1,136 @@
+package com.crypto.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.openqa.selenium.WebDriver;
+
+import com.crypto.utils.PageRegistry;
+
+/**
+ * Page object lookups with one driver per thread, as with
+ * {@code parallel="methods"}, through {@link PageRegistry} and through a
+ * class-level synchronized lookup like the old {@code getInstance()} methods,
+ * at 1, 8 and 64 threads. Each operation looks up three page types.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Dlogback.configurationFile=logback-render.xml")
+public class PageRegistryBenchmark {
+
+    private static final Map<WebDriver, Map<Class<?>, Object>> SYNCHRONIZED_PAGES = new HashMap<>();
+
+    private static final class Home {
+    }
+
+    private static final class Charts {
+    }
+
+    private static final class SymbolSearch {
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+        WebDriver driver;
+
+        @Setup(Level.Trial)
+        public void start() {
+            driver = (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(),
+                    new Class<?>[] { WebDriver.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> null;
+                    });
+        }
+
+        @TearDown(Level.Trial)
+        public void quit() {
+            PageRegistry.remove(driver);
+            synchronized (PageRegistryBenchmark.class) {
+                SYNCHRONIZED_PAGES.remove(driver);
+            }
+        }
+    }
+
+    private static <T> T synchronizedGet(WebDriver driver, Class<T> type) {
+        synchronized (PageRegistryBenchmark.class) {
+            Map<Class<?>, Object> pages = SYNCHRONIZED_PAGES.computeIfAbsent(driver, d -> new HashMap<>());
+            return type.cast(pages.computeIfAbsent(type, t -> newPage(type)));
+        }
+    }
+
+    private static <T> T newPage(Class<T> type) {
+        try {
+            return type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void registry(Session session, Blackhole blackhole) {
+        blackhole.consume(PageRegistry.get(session.driver, Home.class, d -> new Home()));
+        blackhole.consume(PageRegistry.get(session.driver, Charts.class, d -> new Charts()));
+        blackhole.consume(PageRegistry.get(session.driver, SymbolSearch.class, d -> new SymbolSearch()));
+    }
+
+    private static void synchronizedLookup(Session session, Blackhole blackhole) {
+        blackhole.consume(synchronizedGet(session.driver, Home.class));
+        blackhole.consume(synchronizedGet(session.driver, Charts.class));
+        blackhole.consume(synchronizedGet(session.driver, SymbolSearch.class));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void registry1(Session session, Blackhole blackhole) {
+        registry(session, blackhole);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void registry8(Session session, Blackhole blackhole) {
+        registry(session, blackhole);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void registry64(Session session, Blackhole blackhole) {
+        registry(session, blackhole);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void synchronized1(Session session, Blackhole blackhole) {
+        synchronizedLookup(session, blackhole);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void synchronized8(Session session, Blackhole blackhole) {
+        synchronizedLookup(session, blackhole);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void synchronized64(Session session, Blackhole blackhole) {
+        synchronizedLookup(session, blackhole);
+    }
+}
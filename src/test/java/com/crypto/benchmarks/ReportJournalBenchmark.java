@@ -0,0 +1,130 @@
+package com.crypto.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.crypto.report.ReportJournal;
+
+/**
+ * Time and retained heap of a synthetic run through the report journal, next
+ * to the same run kept whole in a live Extent model, and the time to render
+ * the run's journal to HTML.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = { "-Xmx1g", "-Dlogback.configurationFile=logback-render.xml" })
+@State(Scope.Benchmark)
+public class ReportJournalBenchmark {
+
+    @Param({ "10000" })
+    public int tests;
+
+    @Param({ "5" })
+    public int logsPerTest;
+
+    private Path journal;
+
+    /**
+     * Heap still in use after the run, with its report model reachable
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Heap {
+        public long retainedKb;
+    }
+
+    @Setup(Level.Trial)
+    public void writeJournal() {
+        ReportJournal.open(new ExtentReports(), "unused.html", "Benchmark", null);
+        runThroughJournal(new ExtentReports());
+        ReportJournal.close();
+        journal = ReportJournal.getJournalFile();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteJournal() throws IOException {
+        Files.deleteIfExists(journal);
+    }
+
+    @Benchmark
+    public ExtentReports liveModel(Heap heap) {
+        ExtentReports extent = new ExtentReports();
+        for (int i = 0; i < tests; i++) {
+            ExtentTest test = extent.createTest("com.crypto.test.SyntheticTest.test" + i);
+            for (int j = 0; j < logsPerTest; j++) {
+                test.log(Status.INFO, "Step " + j + " of test " + i + " with some details about what was checked");
+            }
+            test.log(Status.PASS, "test" + i + " Passed");
+        }
+        heap.retainedKb = retainedKb();
+        return extent;
+    }
+
+    @Benchmark
+    public ExtentReports journaled(Heap heap) throws IOException {
+        ExtentReports extent = new ExtentReports();
+        ReportJournal.open(extent, "unused.html", "Benchmark", null);
+        try {
+            runThroughJournal(extent);
+            heap.retainedKb = retainedKb();
+        } finally {
+            ReportJournal.close();
+            Files.deleteIfExists(ReportJournal.getJournalFile());
+        }
+        return extent;
+    }
+
+    @Benchmark
+    public int render() throws IOException {
+        Path report = Files.createTempFile("report", ".html");
+        try {
+            return ReportJournal.render(journal, report.toString());
+        } finally {
+            Files.deleteIfExists(report);
+        }
+    }
+
+    private void runThroughJournal(ExtentReports extent) {
+        for (int i = 0; i < tests; i++) {
+            String name = "com.crypto.test.SyntheticTest.test" + i;
+            ExtentTest test = extent.createTest(name);
+            ReportJournal.startTest(test, name, "sanity");
+            for (int j = 0; j < logsPerTest; j++) {
+                ReportJournal.log(test, Status.INFO,
+                        "Step " + j + " of test " + i + " with some details about what was checked");
+            }
+            ReportJournal.log(test, Status.PASS, "test" + i + " Passed");
+            ReportJournal.endTest(test, Status.PASS);
+        }
+    }
+
+    private static long retainedKb() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return (runtime.totalMemory() - runtime.freeMemory()) / 1024;
+    }
+}
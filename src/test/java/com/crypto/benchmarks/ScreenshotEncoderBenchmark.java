@@ -0,0 +1,138 @@
+package com.crypto.benchmarks;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.crypto.constants.Constants;
+import com.crypto.enums.ScreenshotFormat;
+import com.crypto.utils.wrappers.ScreenshotEncoder;
+
+/**
+ * Encoding time and encoded size of a 1920x1080 chart-like screenshot per
+ * {@code [screenshots]} format, with and without downscaling. Each parameter
+ * set runs in its own fork, as the encoder settles on a format once per JVM.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Djava.awt.headless=true", "-Dlogback.configurationFile=logback-render.xml" })
+@State(Scope.Benchmark)
+public class ScreenshotEncoderBenchmark {
+
+    @Param({ "PNG", "JPEG" })
+    public ScreenshotFormat format;
+
+    @Param({ "80" })
+    public int quality;
+
+    @Param({ "0", "1280" })
+    public int maxWidth;
+
+    @Param({ "320" })
+    public int thumbnailWidth;
+
+    private byte[] png;
+
+    /**
+     * Size of the last encoded screenshot
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Size {
+        public long capturedKb;
+        public long imageKb;
+        public long thumbnailKb;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Constants.SCREENSHOT_FORMAT = format;
+        Constants.SCREENSHOT_QUALITY = quality;
+        Constants.SCREENSHOT_MAX_WIDTH = maxWidth;
+        Constants.SCREENSHOT_THUMBNAIL_WIDTH = thumbnailWidth;
+        png = chartLikeScreenshot();
+    }
+
+    @Benchmark
+    public ScreenshotEncoder.Encoded encode(Size size) {
+        ScreenshotEncoder.Encoded encoded = ScreenshotEncoder.encode(png);
+        size.capturedKb = png.length / 1024;
+        size.imageKb = encoded.getImage().length / 1024;
+        size.thumbnailKb = encoded.getThumbnail() == null ? 0 : encoded.getThumbnail().length / 1024;
+        return encoded;
+    }
+
+    /*
+     * Dark page with a candlestick chart, a grid and rows of text, roughly
+     * what the home page looks like
+     */
+    private static byte[] chartLikeScreenshot() throws IOException {
+        BufferedImage image = new BufferedImage(1920, 1080, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        graphics.setColor(new Color(0x1e, 0x1e, 0x24));
+        graphics.fillRect(0, 0, 1920, 1080);
+
+        graphics.setColor(new Color(0x2a, 0x2e, 0x39));
+        for (int x = 0; x < 1300; x += 80) {
+            graphics.drawLine(x, 60, x, 700);
+        }
+        for (int y = 60; y < 700; y += 60) {
+            graphics.drawLine(0, y, 1300, y);
+        }
+        Random random = new Random(42);
+        double price = 380;
+        graphics.setStroke(new BasicStroke(1.5f));
+        for (int x = 10; x < 1290; x += 9) {
+            double open = price;
+            price += random.nextGaussian() * 6;
+            double high = Math.max(open, price) + random.nextDouble() * 8;
+            double low = Math.min(open, price) - random.nextDouble() * 8;
+            graphics.setColor(price >= open ? new Color(0x26, 0xa6, 0x9a) : new Color(0xef, 0x53, 0x50));
+            graphics.drawLine(x + 3, (int) (1000 - high * 1.5), x + 3, (int) (1000 - low * 1.5));
+            graphics.fillRect(x, (int) (1000 - Math.max(open, price) * 1.5), 7,
+                    Math.max(1, (int) (Math.abs(price - open) * 1.5)));
+        }
+
+        graphics.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 14));
+        for (int row = 0; row < 40; row++) {
+            int y = 90 + row * 24;
+            graphics.setColor(row % 2 == 0 ? new Color(0x25, 0x25, 0x2c) : new Color(0x1e, 0x1e, 0x24));
+            graphics.fillRect(1320, y - 16, 600, 24);
+            graphics.setColor(new Color(0xd1, 0xd4, 0xdc));
+            graphics.drawString(String.format("TOKEN%02d/USDT   %,.4f   %+.2f%%   %,d", row,
+                    random.nextDouble() * 1000, random.nextGaussian() * 5, random.nextInt(10_000_000)), 1330, y);
+        }
+        graphics.dispose();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
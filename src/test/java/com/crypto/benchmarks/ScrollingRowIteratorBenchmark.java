@@ -0,0 +1,65 @@
+package com.crypto.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import com.crypto.report.ExecutionMetrics;
+
+/**
+ * Time to stream every row of the virtualised list fixture with
+ * {@code CommonActions.streamRows}, and the script calls (pages) it takes.
+ * Needs Chrome.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Dlogback.configurationFile=logback-render.xml")
+@State(Scope.Benchmark)
+public class ScrollingRowIteratorBenchmark {
+
+    @Param({ "1000", "10000" })
+    public int rows;
+
+    @Param({ "5", "40" })
+    public int overscan;
+
+    /**
+     * Rows streamed and pages read by the last run
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counts {
+        public long rowsStreamed;
+        public long pages;
+    }
+
+    @Setup(Level.Invocation)
+    public void openList(FixtureBrowser browser) {
+        browser.open("virtual-list.html", "rows=" + rows + "&overscan=" + overscan);
+    }
+
+    @Benchmark
+    public long streamRows(FixtureBrowser browser, Counts counts) {
+        long pagesBefore = ExecutionMetrics.getTimerCount("table.stream.page");
+        WebElement list = browser.driver.findElement(By.id("list"));
+        counts.rowsStreamed = browser.commonActions.streamRows(list, "[role=row]", null).count();
+        counts.pages = ExecutionMetrics.getTimerCount("table.stream.page") - pagesBefore;
+        return counts.rowsStreamed;
+    }
+}
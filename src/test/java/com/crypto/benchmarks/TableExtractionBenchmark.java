@@ -0,0 +1,109 @@
+package com.crypto.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import com.crypto.utils.CommonActions;
+import com.crypto.utils.TableData;
+
+/**
+ * Wall time and WebDriver calls to read the token table fixture: a
+ * {@code findRelativeElement} and {@code getText} per cell, as
+ * {@code HomePage.getTableData} used to, next to
+ * {@code CommonActions.extractTable} in one call and in pages of 100 rows.
+ * Needs Chrome.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Dlogback.configurationFile=logback-render.xml")
+@State(Scope.Benchmark)
+public class TableExtractionBenchmark {
+
+    private static final Map<Integer, List<String>> TOKEN_NAME_COLUMN = Map.of(0,
+            List.of(":scope > div", ":scope > span"));
+    private static final int PAGE_ROWS = 100;
+
+    @Param({ "500" })
+    public int rows;
+
+    private WebElement table;
+
+    /**
+     * WebDriver calls made by the last run, each one round trip
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class RoundTrips {
+        public long roundTrips;
+    }
+
+    @Setup(Level.Trial)
+    public void openTable(FixtureBrowser browser) {
+        browser.open("token-table.html", "rows=" + rows);
+        table = browser.driver.findElement(By.id("tokens"));
+    }
+
+    @Benchmark
+    public List<List<String>> perCell(FixtureBrowser browser, RoundTrips roundTrips) {
+        long before = browser.getCalls();
+        CommonActions commonActions = browser.commonActions;
+        int columnCount = table.findElements(By.cssSelector("thead th")).size();
+        List<List<String>> tableData = new ArrayList<>();
+        for (WebElement row : table.findElements(By.cssSelector("tbody tr"))) {
+            List<String> rowData = new ArrayList<>();
+            rowData.add(commonActions.getText(commonActions.findRelativeElement(row, "./td/div", "tokenName"),
+                    "tokenName") + " "
+                    + commonActions.getText(commonActions.findRelativeElement(row, "./td/span", "tokenProfitLoss"),
+                            "tokenProfitLoss"));
+            for (int i = 1; i < columnCount; i++) {
+                rowData.add(commonActions.getText(
+                        commonActions.findRelativeElement(row, String.format("./td[%d]", i + 1), "row[" + i + "]"),
+                        "row[" + i + "]"));
+            }
+            tableData.add(rowData);
+        }
+        roundTrips.roundTrips = browser.getCalls() - before;
+        return tableData;
+    }
+
+    @Benchmark
+    public List<List<String>> extractTable(FixtureBrowser browser, RoundTrips roundTrips) {
+        long before = browser.getCalls();
+        List<List<String>> tableData = browser.commonActions.extractTable(table, TOKEN_NAME_COLUMN).getRows();
+        roundTrips.roundTrips = browser.getCalls() - before;
+        return tableData;
+    }
+
+    @Benchmark
+    public List<List<String>> extractTablePaged(FixtureBrowser browser, RoundTrips roundTrips) {
+        long before = browser.getCalls();
+        List<List<String>> tableData = new ArrayList<>();
+        TableData page;
+        do {
+            page = browser.commonActions.extractTable(table, TOKEN_NAME_COLUMN, tableData.size(), PAGE_ROWS);
+            tableData.addAll(page.getRows());
+        } while (!page.isEmpty() && tableData.size() < page.getTotalRows());
+        roundTrips.roundTrips = browser.getCalls() - before;
+        return tableData;
+    }
+}
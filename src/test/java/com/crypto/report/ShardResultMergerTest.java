@@ -0,0 +1,104 @@
+package com.crypto.report;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+public class ShardResultMergerTest {
+
+    private static final Map<String, Object> METHODS = Map.of("A#a", 0, "A#b", 1);
+
+    private static Map<String, Object> shard(int index, Map<String, Object> methods, List<Integer> keptRows,
+            String... ran) {
+        Map<String, Object> rows = new LinkedHashMap<>();
+        rows.put("D#rows", Map.of("total", 4, "kept", keptRows));
+        Map<String, Object> testPlan = new LinkedHashMap<>();
+        testPlan.put("input", "hash");
+        testPlan.put("methods", methods);
+        testPlan.put("rows", rows);
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (String methodKey : ran) {
+            String[] parts = methodKey.split("#");
+            results.add(Map.of("test", "Unit", "class", parts[0], "method", parts[1], "status", "PASS"));
+        }
+        Map<String, Object> shard = new LinkedHashMap<>();
+        shard.put("index", index);
+        shard.put("count", 2);
+        shard.put("plan", Map.of("Unit", testPlan));
+        shard.put("results", results);
+        return shard;
+    }
+
+    @Test
+    public void exactCoverageHasNoProblems() {
+        List<String> problems = ShardResultMerger.verifyPlan(List.of(
+                shard(0, METHODS, List.of(0, 2), "A#a", "D#rows", "D#rows"),
+                shard(1, METHODS, List.of(1, 3), "A#b", "D#rows", "D#rows")));
+        assertEquals(problems, List.of());
+    }
+
+    @Test
+    public void missingMethodIsReported() {
+        List<String> problems = ShardResultMerger.verifyPlan(List.of(
+                shard(0, METHODS, List.of(0, 2), "D#rows", "D#rows"),
+                shard(1, METHODS, List.of(1, 3), "A#b", "D#rows", "D#rows")));
+        assertEquals(problems.size(), 1);
+        assertTrue(problems.get(0).contains("A#a") && problems.get(0).contains("did not run"), problems.get(0));
+    }
+
+    @Test
+    public void methodRunTwiceIsReported() {
+        List<String> problems = ShardResultMerger.verifyPlan(List.of(
+                shard(0, METHODS, List.of(0, 2), "A#a", "A#b", "D#rows", "D#rows"),
+                shard(1, METHODS, List.of(1, 3), "A#b", "D#rows", "D#rows")));
+        assertEquals(problems.size(), 1);
+        assertTrue(problems.get(0).contains("A#b") && problems.get(0).contains("also ran on shard 0"),
+                problems.get(0));
+    }
+
+    @Test
+    public void differentSplitsAreReported() {
+        List<String> problems = ShardResultMerger.verifyPlan(List.of(
+                shard(0, METHODS, List.of(0, 2), "A#a", "D#rows", "D#rows"),
+                shard(1, Map.of("A#a", 1, "A#b", 0), List.of(1, 3), "D#rows", "D#rows")));
+        assertTrue(problems.stream().anyMatch(problem -> problem.contains("split test 'Unit' differently")),
+                problems.toString());
+    }
+
+    @Test
+    public void dataRowsMissingOrDuplicatedAreReported() {
+        List<String> problems = ShardResultMerger.verifyPlan(List.of(
+                shard(0, METHODS, List.of(0, 1), "A#a", "D#rows", "D#rows"),
+                shard(1, METHODS, List.of(1, 3), "A#b", "D#rows", "D#rows")));
+        assertEquals(problems.size(), 2, problems.toString());
+        assertTrue(problems.stream().anyMatch(problem -> problem.contains("Row 1") && problem.contains("shards 0 and 1")),
+                problems.toString());
+        assertTrue(problems.stream().anyMatch(problem -> problem.contains("Row 2") && problem.contains("no shard")),
+                problems.toString());
+    }
+
+    @Test
+    public void keptRowsThatDidNotRunAreReported() {
+        List<String> problems = ShardResultMerger.verifyPlan(List.of(
+                shard(0, METHODS, List.of(0, 2), "A#a", "D#rows"),
+                shard(1, METHODS, List.of(1, 3), "A#b", "D#rows", "D#rows")));
+        assertEquals(problems.size(), 1, problems.toString());
+        assertTrue(problems.get(0).contains("kept 2 row(s) on shard 0 but only 1 ran"), problems.get(0));
+    }
+
+    @Test
+    public void shardWithoutPlanIsReported() {
+        Map<String, Object> legacy = shard(1, METHODS, List.of(1, 3), "A#b");
+        legacy.remove("plan");
+        List<String> problems = ShardResultMerger.verifyPlan(List.of(
+                shard(0, METHODS, List.of(0, 2), "A#a", "D#rows", "D#rows"), legacy));
+        assertTrue(problems.contains("Shard 1 recorded no plan"), problems.toString());
+    }
+}
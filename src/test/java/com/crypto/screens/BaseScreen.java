@@ -1,26 +1,46 @@
 package com.crypto.screens;
 
+import java.lang.reflect.Field;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.PageFactory;
-import org.openqa.selenium.support.pagefactory.AjaxElementLocatorFactory;
+import org.openqa.selenium.support.pagefactory.Annotations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.crypto.base.BaseTest;
 import com.crypto.constants.Constants;
 import com.crypto.utils.CommonActions;
+import com.crypto.utils.SettleTracker;
 import com.crypto.utils.StringActions;
+import com.crypto.utils.locators.CachingElementLocatorFactory;
+import com.crypto.utils.locators.CachingFieldDecorator;
+import com.crypto.utils.locators.PageFrame;
 
 public class BaseScreen {
 
     private WebDriver driver;
+    private final PageFrame frame;
     private static final Logger LOGGER = LoggerFactory.getLogger(BaseScreen.class);
     public final CommonActions commonActions;
     public final StringActions stringActions;
 
     public BaseScreen(WebDriver driver) {
+        this(driver, null);
+    }
+
+    /**
+     * @param frame Frame the page lives in, its elements switch into it lazily.
+     *              Null for pages that leave frame switching to the test.
+     */
+    protected BaseScreen(WebDriver driver, PageFrame frame) {
         this.driver = driver;
-        PageFactory.initElements(new AjaxElementLocatorFactory(driver, 20), this);
+        this.frame = frame;
+        PageFactory.initElements(new CachingFieldDecorator(new CachingElementLocatorFactory(driver,
+                Constants.LOCATOR_TIMEOUT, frame == null ? null : this::enterFrame)), this);
         this.commonActions = new CommonActions(driver);
         this.stringActions = new StringActions();
     }
@@ -42,13 +62,53 @@ public class BaseScreen {
         commonActions.switchToDefaultContent();
     }
 
-    public static void sleep(long seconds) {
-        try {
-            for (int i = 0; i < seconds; i++) {
-                Thread.sleep(1000);
+    /**
+     * Switches into the frame the page lives in, if it declares one. Elements
+     * of the page do this on their own; call it before scripts or locators
+     * that do not go through the page's elements.
+     */
+    public void enterFrame() {
+        if (frame != null) {
+            commonActions.enterPageFrame(frame);
+        }
+    }
+
+    /**
+     * Waits for the page to settle instead of sleeping for a fixed time
+     *
+     * @param legacySeconds Upper bound, the duration of the fixed sleep it replaces
+     */
+    public void settle(long legacySeconds) {
+        commonActions.settle(legacySeconds);
+    }
+
+    /**
+     * Builds the locators of {@code @FindBy} fields of this screen, for batched
+     * state queries that should not resolve the element proxies one by one
+     *
+     * @param fieldNames Names of the annotated fields
+     * @return Field name to locator, in the given order
+     */
+    protected Map<String, By> locatorsOf(String... fieldNames) {
+        Map<String, By> locators = new LinkedHashMap<>();
+        for (String fieldName : fieldNames) {
+            locators.put(fieldName, new Annotations(findField(fieldName)).buildBy());
+        }
+        return locators;
+    }
+
+    private Field findField(String fieldName) {
+        for (Class<?> type = getClass(); type != null; type = type.getSuperclass()) {
+            try {
+                return type.getDeclaredField(fieldName);
+            } catch (NoSuchFieldException e) {
+                // Declared further up the hierarchy
             }
-        } catch (Exception e) {
-            e.printStackTrace();
         }
+        throw new IllegalArgumentException("No field " + fieldName + " in " + getClass().getSimpleName());
+    }
+
+    public static void sleep(long seconds) {
+        SettleTracker.sleep(seconds);
     }
 }
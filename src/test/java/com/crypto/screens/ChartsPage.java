@@ -1,33 +1,29 @@
 package com.crypto.screens;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Map;
 
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.remote.RemoteWebDriver;
 import org.openqa.selenium.support.FindBy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.crypto.base.BaseTest;
+import com.crypto.utils.ElementState;
+import com.crypto.utils.PageRegistry;
 import com.crypto.utils.SoftAssertActions;
 
 public class ChartsPage extends BaseScreen {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ChartsPage.class);
-    public static volatile ThreadLocal<ChartsPage> instance = new ThreadLocal<>();
-    private WebDriver driver;
-
-    public static final Set<String> sessionIds = new HashSet<>();
-
-    public static void setInstance(ChartsPage chartsPage) {
-        instance.set(chartsPage);
-    }
 
-    private static ChartsPage getThreadInstance() {
-        return instance.get();
-    }
+    private static final String[] HEADER_TOOLBAR = { "searchIcon", "compareIcon", "intervalIcon", "candlesIcon",
+            "indicatorIcon", "indicatorTemplateIcon", "undoButton", "redoButton", "saveButton", "manageLayoutIcon",
+            "quickSearchIcon", "settingsIcon", "fullScreenIcon", "takeScreenshotIcon" };
+    private static final String[] BOTTOM_TOOLBAR = { "fiveYearIntervalButton", "oneYearIntervalButton",
+            "goToCalendarIcon", "timezoneIcon", "togglePercentageIcon", "logButton", "autoButton", "axisGearIcon" };
+    private WebDriver driver;
 
     public static ChartsPage getInstance() {
         WebDriver driver = BaseTest.getBaseDriver();
@@ -36,44 +32,11 @@ public class ChartsPage extends BaseScreen {
             throw new IllegalStateException("WebDriver is null. Cannot create ChartsPage instance.");
         }
 
-        // Check if driver is RemoteWebDriver before calling getSessionId()
-        if (driver instanceof RemoteWebDriver) {
-            try {
-                String sessionId = ((RemoteWebDriver) driver).getSessionId().toString();
-                if (getThreadInstance() == null || !sessionIds.contains(sessionId)) {
-                    synchronized (ChartsPage.class) {
-                        if (getThreadInstance() == null || !sessionIds.contains(sessionId)) {
-                            setInstance(new ChartsPage(driver));
-                            sessionIds.add(sessionId);
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                // Fallback if session ID retrieval fails
-                if (getThreadInstance() == null) {
-                    synchronized (ChartsPage.class) {
-                        if (getThreadInstance() == null) {
-                            setInstance(new ChartsPage(driver));
-                        }
-                    }
-                }
-            }
-        } else {
-            // For non-RemoteWebDriver, use simple thread-local check
-            if (getThreadInstance() == null) {
-                synchronized (ChartsPage.class) {
-                    if (getThreadInstance() == null) {
-                        setInstance(new ChartsPage(driver));
-                    }
-                }
-            }
-        }
-
-        return getThreadInstance();
+        return PageRegistry.get(driver, ChartsPage.class, ChartsPage::new);
     }
 
     public ChartsPage(WebDriver driver) {
-        super(driver);
+        super(driver, HomePage.CHARTS_FRAME);
     }
 
     // Chart Header Toolbar Elements
@@ -81,7 +44,7 @@ public class ChartsPage extends BaseScreen {
     @FindBy(id = "header-toolbar-symbol-search")
     private WebElement searchIcon;
 
-    @FindBy(xpath = "header-toolbar-compare")
+    @FindBy(id = "header-toolbar-compare")
     private WebElement compareIcon;
 
     @FindBy(id = "header-toolbar-intervals")
@@ -403,7 +366,8 @@ public class ChartsPage extends BaseScreen {
     }
 
     public void clickOnFiveYearIntervalButton() {
-        commonActions.clickElement(fiveYearIntervalButton, "fiveYearIntervalButton");
+        probeRendering("clickOnFiveYearIntervalButton",
+                () -> commonActions.clickElement(fiveYearIntervalButton, "fiveYearIntervalButton"));
     }
 
     public boolean isOneYearIntervalButtonDisplayed() {
@@ -415,7 +379,8 @@ public class ChartsPage extends BaseScreen {
     }
 
     public void clickOnOneYearIntervalButton() {
-        commonActions.clickElement(oneYearIntervalButton, "oneYearIntervalButton");
+        probeRendering("clickOnOneYearIntervalButton",
+                () -> commonActions.clickElement(oneYearIntervalButton, "oneYearIntervalButton"));
     }
 
     public boolean isGoToCalendarIconDisplayed() {
@@ -490,6 +455,44 @@ public class ChartsPage extends BaseScreen {
         LOGGER.info("Adding an indicator: {}", indicator);
         softAssertActions.assertTrue(isIndicatorIconDisplayed(), "Indicator Icon is displayed");
         softAssertActions.assertTrue(isIndicatorIconClickable(), "Indicator Icon is clickable");
-        clickOnIndicatorIcon();
+        probeRendering("addIndicator " + indicator, this::clickOnIndicatorIcon);
+    }
+
+    /**
+     * Captures the web vitals of the chart iframe
+     */
+    public void captureWebVitals() {
+        enterFrame();
+        commonActions.captureWebVitals("tradingViewChartIframe");
+    }
+
+    /**
+     * Verifies that every header and bottom toolbar element is displayed and
+     * clickable, reading all of them in one script call per poll instead of a
+     * wait per element
+     */
+    public void verifyToolbar(SoftAssertActions softAssertActions) {
+        LOGGER.info("Verifying the header and bottom toolbars");
+        enterFrame();
+        Map<String, By> locators = locatorsOf(HEADER_TOOLBAR);
+        locators.putAll(locatorsOf(BOTTOM_TOOLBAR));
+        Map<String, ElementState> states = commonActions.waitForElementStates(locators, ElementState::isClickable);
+        states.forEach((name, state) -> {
+            softAssertActions.assertTrue(state.isDisplayed(), name + " is displayed");
+            softAssertActions.assertTrue(state.isClickable(), name + " is clickable");
+        });
+    }
+
+    /**
+     * Runs a chart interaction while sampling its frame rate inside the chart
+     * iframe. The result is reported with the test's performance metrics and
+     * checked against the frame budgets.
+     *
+     * @param name        Name of the interaction in the report
+     * @param interaction Action to measure
+     */
+    public void probeRendering(String name, Runnable interaction) {
+        enterFrame();
+        commonActions.measureRendering(name, interaction);
     }
 }
@@ -1,35 +1,38 @@
 package com.crypto.screens;
 
-import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.stream.Stream;
 
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.remote.RemoteWebDriver;
 import org.openqa.selenium.support.FindBy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.crypto.base.BaseTest;
+import com.crypto.utils.PageRegistry;
 import com.crypto.utils.SoftAssertActions;
+import com.crypto.utils.TableData;
+import com.crypto.utils.locators.PageFrame;
 
 public class HomePage extends BaseScreen {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(HomePage.class);
-    public static volatile ThreadLocal<HomePage> instance = new ThreadLocal<>();
     private WebDriver driver;
 
-    public static final Set<String> sessionIds = new HashSet<>();
+    // First column holds the token name and its profit/loss in separate children
+    private static final Map<Integer, List<String>> TOKEN_NAME_COLUMN = Map.of(0,
+            List.of(":scope > div", ":scope > span"));
 
-    public static void setInstance(HomePage homePage) {
-        instance.set(homePage);
-    }
+    private static final String CHARTS_IFRAME_XPATH = "//iframe[contains(@name,'tradingview')]";
 
-    private static HomePage getThreadInstance() {
-        return instance.get();
-    }
+    /**
+     * The TradingView chart iframe, which the chart pages live in
+     */
+    public static final PageFrame CHARTS_FRAME = new PageFrame("tradingViewChartIframe",
+            By.xpath(CHARTS_IFRAME_XPATH));
 
     public static HomePage getInstance() {
         WebDriver driver = BaseTest.getBaseDriver();
@@ -38,44 +41,11 @@ public class HomePage extends BaseScreen {
             throw new IllegalStateException("WebDriver is null. Cannot create HomePage instance.");
         }
 
-        // Check if driver is RemoteWebDriver before calling getSessionId()
-        if (driver instanceof RemoteWebDriver) {
-            try {
-                String sessionId = ((RemoteWebDriver) driver).getSessionId().toString();
-                if (getThreadInstance() == null || !sessionIds.contains(sessionId)) {
-                    synchronized (HomePage.class) {
-                        if (getThreadInstance() == null || !sessionIds.contains(sessionId)) {
-                            setInstance(new HomePage(driver));
-                            sessionIds.add(sessionId);
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                // Fallback if session ID retrieval fails
-                if (getThreadInstance() == null) {
-                    synchronized (HomePage.class) {
-                        if (getThreadInstance() == null) {
-                            setInstance(new HomePage(driver));
-                        }
-                    }
-                }
-            }
-        } else {
-            // For non-RemoteWebDriver, use simple thread-local check
-            if (getThreadInstance() == null) {
-                synchronized (HomePage.class) {
-                    if (getThreadInstance() == null) {
-                        setInstance(new HomePage(driver));
-                    }
-                }
-            }
-        }
-
-        return getThreadInstance();
+        return PageRegistry.get(driver, HomePage.class, HomePage::new);
     }
 
     public HomePage(WebDriver driver) {
-        super(driver);
+        super(driver, PageFrame.TOP);
     }
 
     @FindBy(xpath = "//div[contains(text(), 'Trade on Thetaswap')]")
@@ -87,7 +57,7 @@ public class HomePage extends BaseScreen {
     @FindBy(xpath = "//input[contains(@placeholder, 'Select Token/Contract Address ⌄')]")
     private WebElement searchTokenContractAddressInputField;
 
-    @FindBy(xpath = "//iframe[contains(@name,'tradingview')]")
+    @FindBy(xpath = CHARTS_IFRAME_XPATH)
     private WebElement tradingViewChartIframe;
 
     @FindBy(xpath = "//div[@class='table-container font-header']/table")
@@ -159,59 +129,35 @@ public class HomePage extends BaseScreen {
     }
 
     public List<String> getTableHeaders() {
-        List<String> tableHeaders = new ArrayList<>();
-        for (WebElement header : tokenListTableHeaders) {
-            tableHeaders.add(commonActions.getText(header, "header"));
-            System.out.println("------> " + commonActions.getText(header, "header"));
+        List<String> tableHeaders = commonActions.extractTable(tokenListTable, TOKEN_NAME_COLUMN, 0, 0).getHeaders();
+        for (String header : tableHeaders) {
+            System.out.println("------> " + header);
         }
         return tableHeaders;
     }
 
     public List<List<String>> getTableData() {
-        List<List<String>> tableData = new ArrayList<>();
-        int columnCount = tokenListTableHeaders.size();
-        for (WebElement row : tokenListTableRows) {
-            List<String> rowData = new ArrayList<>();
-            for (int i = 0; i < columnCount; i++) {
-                String tokenName;
-                String tokenProfitLoss;
-                if (i == 0) {
-                    tokenName = commonActions.getText(commonActions.findRelativeElement(row, "./td/div", "tokenName"),
-                            "tokenName");
-                    tokenProfitLoss = commonActions.getText(
-                            commonActions.findRelativeElement(row, "./td/span", "tokenProfitLoss"), "tokenProfitLoss");
-                    rowData.add(tokenName + " " + tokenProfitLoss);
-                } else {
-                    rowData.add(commonActions.getText(
-                            commonActions.findRelativeElement(row, String.format("./td[%d]", i + 1), "row[" + i + "]"),
-                            "row[" + i + "]"));
-                }
-            }
-            tableData.add(rowData);
-        }
-        return tableData;
+        return commonActions.extractTable(tokenListTable, TOKEN_NAME_COLUMN).getRows();
+    }
+
+    /**
+     * Reads a page of rows from the token list table
+     *
+     * @param fromRow Index of the first row
+     * @param maxRows Maximum number of rows to read
+     * @return Rows in the requested range
+     */
+    public List<List<String>> getTableData(int fromRow, int maxRows) {
+        return commonActions.extractTable(tokenListTable, TOKEN_NAME_COLUMN, fromRow, maxRows).getRows();
     }
 
     public List<String> getSearchedRowData(String name) {
-        List<String> rowData = new ArrayList<>();
-        int columnCount = tokenListTableHeaders.size();
-        for (int i = 0; i < columnCount; i++) {
-            String tokenName;
-            String tokenProfitLoss;
-            if (i == 0) {
-                tokenName = commonActions.getText(
-                        commonActions.findRelativeElement(tokenListTableRows.get(0), "./td/div", "tokenName"),
-                        "tokenName");
-                tokenProfitLoss = commonActions.getText(
-                        commonActions.findRelativeElement(tokenListTableRows.get(0), "./td/span", "tokenProfitLoss"),
-                        "tokenProfitLoss");
-                rowData.add(tokenName + " " + tokenProfitLoss);
-            } else {
-                rowData.add(commonActions.getText(commonActions.findRelativeElement(tokenListTableRows.get(0),
-                        String.format("./td[%d]", i + 1), "row[" + i + "]"), "row[" + i + "]"));
-            }
+        TableData tableData = commonActions.extractTable(tokenListTable, TOKEN_NAME_COLUMN, 0, 1);
+        if (tableData.isEmpty()) {
+            return null;
         }
 
+        List<String> rowData = tableData.getRows().get(0);
         if (rowData.get(0).contains(name)) {
             return rowData;
         } else {
@@ -219,6 +165,16 @@ public class HomePage extends BaseScreen {
         }
     }
 
+    /**
+     * Streams every row of the token list, scrolling the table container page by
+     * page, without materialising the whole table
+     *
+     * @return Stream of row cell texts
+     */
+    public Stream<List<String>> streamTokenListRows() {
+        return commonActions.streamRows(tokenListTableContainer, "table > tbody > tr", TOKEN_NAME_COLUMN);
+    }
+
     public void printTableData(List<List<String>> tableData) {
         for (List<String> row : tableData) {
             System.out.print("row:: ");
@@ -244,17 +200,22 @@ public class HomePage extends BaseScreen {
     public void checkTokenListTableScrollable(SoftAssertActions softAssertActions) {
         softAssertActions.assertTrue(commonActions.isContainerScrollable(tokenListTableContainer),
                 "Token list table is scrollable");
-        sleep(3);
+        settle(3);
         commonActions.scrollDownInContainer(tokenListTableContainer, 100);
     }
 
-    public void switchToChartsIframe() {
-        commonActions.switchToFrame(tradingViewChartIframe, "tradingViewChartIframe");
+    public void captureChartScreenshot() {
+        // Element screenshots of the cross-origin chart iframe can come out blank
+        commonActions.captureRegionScreenshot(tradingViewChartIframe, "tradingViewChartIframe");
+    }
+
+    public void captureTokenListTableScreenshot() {
+        commonActions.captureElementScreenshot(tokenListTableContainer, "tokenListTableContainer");
     }
 
     public void verifyTokenSearchAndSelection(SoftAssertActions softAssertActions, String tokenName) {
         clickOnSelectTokenContractAddressButton();
-        sleep(3);
+        settle(3);
         softAssertActions.assertTrue(isSearchTokenContractAddressInputFieldDisplayed(),
                 "Search Token/Contract Address Input Field is displayed");
         softAssertActions.assertTrue(isSearchTokenContractAddressInputFieldClickable(),
@@ -262,7 +223,7 @@ public class HomePage extends BaseScreen {
         enterTextToSearchTokenContractAddressInputField(tokenName);
         softAssertActions.assertEquals(getTextFromTokenContractAddressInputField(), tokenName,
                 "Token name is entered correctly");
-        sleep(2);
+        settle(2);
         softAssertActions.assertNotNull(getSearchedRowData(tokenName), "Token is searched and visible");
         selectSearchedToken(softAssertActions, tokenName);
         collapseTokenListTable(softAssertActions);
@@ -1,73 +1,29 @@
 package com.crypto.screens;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.remote.RemoteWebDriver;
 import org.openqa.selenium.support.FindBy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.crypto.base.BaseTest;
+import com.crypto.utils.PageRegistry;
 import com.crypto.utils.SoftAssertActions;
 
 public class SymbolSearchPopupScreen extends ChartsPage {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SymbolSearchPopupScreen.class);
-    public static volatile ThreadLocal<SymbolSearchPopupScreen> instance = new ThreadLocal<>();
     private WebDriver driver;
 
-    public static final Set<String> sessionIds = new HashSet<>();
-
-    public static void setInstance(SymbolSearchPopupScreen symbolSearchPopupScreen) {
-        instance.set(symbolSearchPopupScreen);
-    }
-
-    private static SymbolSearchPopupScreen getThreadInstance() {
-        return instance.get();
-    }
-
     public static SymbolSearchPopupScreen getInstance() {
         WebDriver driver = BaseTest.getBaseDriver();
         if (driver == null) {
             LOGGER.warn("WebDriver is null. Cannot create SymbolSearchPopupScreen instance.");
             throw new IllegalStateException("WebDriver is null. Cannot create SymbolSearchPopupScreen instance.");
         }
-        if (driver instanceof RemoteWebDriver) {
-            try {
-                String sessionId = ((RemoteWebDriver) driver).getSessionId().toString();
-                if (getThreadInstance() == null || !sessionIds.contains(sessionId)) {
-                    synchronized (SymbolSearchPopupScreen.class) {
-                        if (getThreadInstance() == null || !sessionIds.contains(sessionId)) {
-                            setInstance(new SymbolSearchPopupScreen(driver));
-                            sessionIds.add(sessionId);
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                // Fallback if session ID retrieval fails
-                if (getThreadInstance() == null) {
-                    synchronized (SymbolSearchPopupScreen.class) {
-                        if (getThreadInstance() == null) {
-                            setInstance(new SymbolSearchPopupScreen(driver));
-                        }
-                    }
-                }
-            }
-        } else {
-            // For non-RemoteWebDriver, use simple thread-local check
-            if (getThreadInstance() == null) {
-                synchronized (SymbolSearchPopupScreen.class) {
-                    if (getThreadInstance() == null) {
-                        setInstance(new SymbolSearchPopupScreen(driver));
-                    }
-                }
-            }
-        }
-        return getThreadInstance();
+        return PageRegistry.get(driver, SymbolSearchPopupScreen.class, SymbolSearchPopupScreen::new);
     }
 
     public SymbolSearchPopupScreen(WebDriver driver) {
@@ -120,7 +76,7 @@ public class SymbolSearchPopupScreen extends ChartsPage {
     private List<WebElement> exchangeItemsList;
 
     public boolean isSymbolSearchPopupSectionDisplayed() {
-        sleep(2);
+        settle(2);
         return commonActions.isElementDisplayed(symbolSearchPopupSection, "symbolSearchPopupSection");
     }
 
@@ -270,19 +226,19 @@ public class SymbolSearchPopupScreen extends ChartsPage {
 
     // checking if the div contains the text of listed items or have to use span.
     public String getSearchedSymbolListedItemText(String text) {
-        sleep(3);
+        settle(3);
         return stringActions.convertMultipleLineIntoSingleLine(
                 commonActions.getText(listedSymbolsList.get(0), "listedSymbolsList"));
     }
 
     public String getSearchedExchangeItemText(String text) {
-        sleep(3);
+        settle(3);
         return stringActions.convertMultipleLineIntoSingleLine(
                 commonActions.getText(exchangeItemsList.get(0), "exchangeItemsList : " + text));
     }
 
     public void clickOnExchangeItem(String text) {
-        sleep(1);
+        settle(1);
         if (commonActions.isElementDisplayed(exchangeItemsList.get(0), "exchangeItemsList : " + text)) {
             commonActions.clickElement(exchangeItemsList.get(0), "exchangeItemsList : " + text);
         } else {
@@ -305,9 +261,10 @@ public class SymbolSearchPopupScreen extends ChartsPage {
         softAssertActions.assertTrue(stringActions.containsText(searchedSymbolItemText, symbol),
                 "Searched symbol item text contains the symbol");
 
-        clickOnSearchedSymbolItem(symbol);
-
-        softAssertActions.assertTrue(isSymbolPopupSectionInvisible(), "Symbol Search Popup Section is invisible");
+        commonActions.measureTransition("symbolChange " + symbol, () -> {
+            clickOnSearchedSymbolItem(symbol);
+            softAssertActions.assertTrue(isSymbolPopupSectionInvisible(), "Symbol Search Popup Section is invisible");
+        });
 
         softAssertActions.assertEquals(getSearchIconValue(), symbol, "Search Icon Value is correct");
 
@@ -320,7 +277,7 @@ public class SymbolSearchPopupScreen extends ChartsPage {
         softAssertActions.assertTrue(isExchangeSourcesButtonDisplayed(), "Exchange Sources Button is displayed");
         softAssertActions.assertTrue(isExchangeSourcesButtonClickable(), "Exchange Sources Button is clickable");
         clickOnExchangeSourcesButton();
-        sleep(1);
+        settle(1);
         softAssertActions.assertTrue(isSourcesTextLabelDisplayed(), "Sources Text Label is displayed");
 
         enterTextToSymbolSearchPopupSearchInputField(exchange);
@@ -332,7 +289,7 @@ public class SymbolSearchPopupScreen extends ChartsPage {
         softAssertActions.assertTrue(isExchangeItemsListDisplayed(), "Exchange Items List is displayed");
         clickOnExchangeItem(exchange);
 
-        sleep(2);
+        settle(2);
         softAssertActions.assertEquals(getExchangeSourceName(), exchange, "Exchange Source Name is correct");
     }
 }
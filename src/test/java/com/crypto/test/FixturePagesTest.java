@@ -0,0 +1,130 @@
+package com.crypto.test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.crypto.base.BaseTest;
+import com.crypto.constants.Constants;
+import com.crypto.utils.CommonActions;
+import com.crypto.utils.ElementState;
+import com.crypto.utils.SoftAssertActions;
+import com.crypto.utils.TableData;
+
+/**
+ * Framework features against local fixture pages in
+ * {@code src/test/resources/fixtures}, so they are checked without the live
+ * site
+ */
+public class FixturePagesTest extends BaseTest {
+
+        private static String fixtureUrl(String page, String query) {
+                return FixturePagesTest.class.getResource("/fixtures/" + page) + "?" + query;
+        }
+
+        private static List<List<String>> streamVirtualList(String query) {
+                CommonActions commonActions = new CommonActions(getBaseDriver());
+                commonActions.openUrl(fixtureUrl("virtual-list.html", query));
+                WebElement list = getBaseDriver().findElement(By.id("list"));
+                return commonActions.streamRows(list, "[role=row]", null).collect(Collectors.toList());
+        }
+
+        @Test(description = "Stream every row of a virtualised list once, in order", groups = {
+                        Constants.GROUP_SANITY, Constants.GROUP_REGRESSION }, dataProvider = "overscan")
+        public void testStreamVirtualList(int overscan) {
+                SoftAssertActions softAssertActions = new SoftAssertActions();
+                List<List<String>> rows = streamVirtualList("rows=1000&overscan=" + overscan);
+
+                softAssertActions.assertEquals(rows.size(), 1000, "Every row is streamed once");
+                for (int i = 0; i < rows.size(); i++) {
+                        if (!rows.get(i).get(0).equals(String.valueOf(i + 1))) {
+                                softAssertActions.assertEquals(rows.get(i).get(0), String.valueOf(i + 1),
+                                                "Row " + (i + 1) + " is streamed in order");
+                                break;
+                        }
+                }
+                if (!rows.isEmpty()) {
+                        softAssertActions.assertEquals(rows.get(rows.size() - 1),
+                                        List.of("1000", "TOKEN999/USDT", "1248.75"), "Last row has its cells");
+                }
+                softAssertActions.assertAll();
+        }
+
+        /**
+         * Overscan from a couple of rows up to several viewports, where rows stay
+         * rendered for many pages
+         */
+        @DataProvider(name = "overscan")
+        public Object[][] overscan() {
+                return new Object[][] { { 0 }, { 5 }, { 40 } };
+        }
+
+        @Test(description = "Stream an empty virtualised list", groups = { Constants.GROUP_REGRESSION })
+        public void testStreamEmptyVirtualList() {
+                SoftAssertActions softAssertActions = new SoftAssertActions();
+                softAssertActions.assertEquals(streamVirtualList("rows=0").size(), 0, "No rows are streamed");
+                softAssertActions.assertAll();
+        }
+
+        @Test(description = "Extract a 500 row token table, whole and by page", groups = {
+                        Constants.GROUP_SANITY, Constants.GROUP_REGRESSION })
+        public void testExtractTokenTable() {
+                SoftAssertActions softAssertActions = new SoftAssertActions();
+                CommonActions commonActions = new CommonActions(getBaseDriver());
+                commonActions.openUrl(fixtureUrl("token-table.html", "rows=500"));
+                WebElement table = getBaseDriver().findElement(By.id("tokens"));
+                Map<Integer, List<String>> tokenNameColumn = Map.of(0, List.of(":scope > div", ":scope > span"));
+
+                TableData tableData = commonActions.extractTable(table, tokenNameColumn);
+                softAssertActions.assertEquals(tableData.getHeaders(),
+                                List.of("Token", "Price", "Volume", "Liquidity", "Market cap"), "Headers are extracted");
+                softAssertActions.assertEquals(tableData.getRows().size(), 500, "Every row is extracted");
+                softAssertActions.assertEquals(tableData.getRows().get(499),
+                                List.of("TOKEN499/USDT -9.9%", "623.75", "499000", "249500", "4990000"),
+                                "Token name and profit/loss are joined in the first column");
+
+                TableData page = commonActions.extractTable(table, tokenNameColumn, 450, 100);
+                softAssertActions.assertEquals(page.getRows(), tableData.getRows().subList(450, 500),
+                                "Last page holds the remaining rows");
+                softAssertActions.assertEquals(page.getTotalRows(), 500, "Page reports the total row count");
+                softAssertActions.assertAll();
+        }
+
+        @Test(description = "Query element states for every locator strategy in one call", groups = {
+                        Constants.GROUP_SANITY, Constants.GROUP_REGRESSION })
+        public void testQueryElementStates() {
+                SoftAssertActions softAssertActions = new SoftAssertActions();
+                CommonActions commonActions = new CommonActions(getBaseDriver());
+                commonActions.openUrl(fixtureUrl("toolbar.html", "buttons=25"));
+                Map<String, By> locators = new LinkedHashMap<>();
+                locators.put("id", By.id("button-0"));
+                locators.put("name", By.name("button-1"));
+                locators.put("className", By.className("button-2"));
+                locators.put("cssSelector", By.cssSelector("#button-3"));
+                locators.put("xpath", By.xpath("//button[@id='button-4']"));
+                locators.put("tagName", By.tagName("button"));
+
+                Map<String, ElementState> states = commonActions.queryElementStates(locators);
+                states.forEach((strategy, state) -> softAssertActions.assertTrue(state.isClickable(),
+                                "Button found by " + strategy + " is clickable"));
+                softAssertActions.assertEquals(states.get("name").getText(), "Button 1", "Name finds its button");
+                softAssertActions.assertEquals(states.get("className").getText(), "Button 2",
+                                "Class name finds its button");
+
+                Map<String, ElementState> others = commonActions.queryElementStates(Map.of(
+                                "hidden", By.id("hidden-button"), "disabled", By.id("disabled-button"),
+                                "missing", By.id("missing-button")));
+                softAssertActions.assertTrue(others.get("hidden").isPresent(), "Hidden button is present");
+                softAssertActions.assertFalse(others.get("hidden").isDisplayed(), "Hidden button is not displayed");
+                softAssertActions.assertTrue(others.get("disabled").isDisplayed(), "Disabled button is displayed");
+                softAssertActions.assertFalse(others.get("disabled").isEnabled(), "Disabled button is not enabled");
+                softAssertActions.assertFalse(others.get("missing").isPresent(), "Missing button is not present");
+                softAssertActions.assertAll();
+        }
+}
@@ -5,6 +5,7 @@ import org.testng.annotations.Test;
 import com.crypto.base.BaseTest;
 import com.crypto.constants.Constants;
 import com.crypto.dataProviders.HomePageDataProvider;
+import com.crypto.screens.ChartsPage;
 import com.crypto.screens.HomePage;
 import com.crypto.screens.SymbolSearchPopupScreen;
 import com.crypto.utils.SoftAssertActions;
@@ -27,12 +28,12 @@ public class HomeScreenTest extends BaseTest {
                 softAssertActions.assertTrue(HomePage.getInstance().isSearchTokenContractAddressInputFieldClickable(),
                                 "Search Token/Contract Address Input Field is clickable");
 
-                sleep(3);
+                HomePage.getInstance().settle(3);
                 HomePage.getInstance().enterTextToSearchTokenContractAddressInputField(tokenName);
                 softAssertActions.assertEquals(HomePage.getInstance().getTextFromTokenContractAddressInputField(),
                                 tokenName,
                                 "Token name is entered correctly");
-                sleep(3);
+                HomePage.getInstance().settle(3);
 
                 HomePage.getInstance().collapseTokenListTable(softAssertActions);
                 softAssertActions.assertAll();
@@ -47,9 +48,10 @@ public class HomeScreenTest extends BaseTest {
                 softAssertActions.assertTrue(HomePage.getInstance().isSelectTokenContractAddressButtonDisplayed(),
                                 "Select Token/Contract Address Button is displayed");
                 HomePage.getInstance().clickOnSelectTokenContractAddressButton();
-                sleep(3);
+                HomePage.getInstance().settle(3);
                 HomePage.getInstance().checkTokenListTableScrollable(softAssertActions);
-                sleep(10);
+                HomePage.getInstance().captureTokenListTableScreenshot();
+                HomePage.getInstance().settle(10);
                 softAssertActions.assertAll();
         }
 
@@ -63,10 +65,9 @@ public class HomeScreenTest extends BaseTest {
                 softAssertActions.assertTrue(HomePage.getInstance().isSelectTokenContractAddressButtonDisplayed(),
                                 "Select Token/Contract Address Button is displayed");
 
-                HomePage.getInstance().switchToChartsIframe();
-
+                SymbolSearchPopupScreen.getInstance().captureWebVitals();
                 SymbolSearchPopupScreen.getInstance().selectSymbolOnChart(softAssertActions, symbol);
-                HomePage.getInstance().switchToDefaultContent();
+                HomePage.getInstance().captureChartScreenshot();
 
                 softAssertActions.assertAll();
         }
@@ -77,8 +78,7 @@ public class HomeScreenTest extends BaseTest {
         public void testChangeExchange(String exchange) {
                 SoftAssertActions softAssertActions = new SoftAssertActions();
                 HomePage.getInstance().openHomePage();
-                HomePage.getInstance().switchToChartsIframe();
-
+                SymbolSearchPopupScreen.getInstance().captureWebVitals();
                 SymbolSearchPopupScreen.getInstance().selectExchange(softAssertActions, exchange);
         }
 
@@ -91,4 +91,14 @@ public class HomeScreenTest extends BaseTest {
                 HomePage.getInstance().verifyTokenSearchAndSelection(softAssertActions, token);
                 softAssertActions.assertAll();
         }
+
+        @Test(priority = 6, description = "Verify the chart header and bottom toolbars", groups = {
+                        Constants.GROUP_SANITY,
+                        Constants.GROUP_REGRESSION }, enabled = true)
+        public void testChartToolbars() {
+                SoftAssertActions softAssertActions = new SoftAssertActions();
+                HomePage.getInstance().openHomePage();
+                ChartsPage.getInstance().verifyToolbar(softAssertActions);
+                softAssertActions.assertAll();
+        }
 }
\ No newline at end of file
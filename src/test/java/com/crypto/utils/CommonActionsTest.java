@@ -0,0 +1,96 @@
+package com.crypto.utils;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.crypto.constants.Constants;
+
+public class CommonActionsTest {
+
+    private static final Map<String, Object> CLICKABLE = Map.of("present", true, "displayed", true, "enabled", true,
+            "inViewport", true, "text", "");
+
+    private int explicitWait;
+
+    @BeforeMethod
+    public void setExplicitWait() {
+        explicitWait = Constants.EXPLICIT_WAIT;
+        Constants.EXPLICIT_WAIT = 2;
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreExplicitWait() {
+        Constants.EXPLICIT_WAIT = explicitWait;
+    }
+
+    /*
+     * Driver whose state query fails with a script error for the first
+     * failures calls
+     */
+    private static WebDriver driver(AtomicInteger calls, int failures) {
+        return (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(),
+                new Class<?>[] { WebDriver.class, JavascriptExecutor.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "executeScript":
+                        if (calls.incrementAndGet() <= failures) {
+                            throw new JavascriptException("Cannot read properties of null");
+                        }
+                        return List.of(CLICKABLE);
+                    default:
+                        return null;
+                    }
+                });
+    }
+
+    @Test
+    public void waitForElementStatesRetriesScriptErrors() {
+        AtomicInteger calls = new AtomicInteger();
+        CommonActions commonActions = new CommonActions(driver(calls, 2));
+
+        Map<String, ElementState> states = commonActions.waitForElementStates(Map.of("searchIcon", By.id("search")),
+                ElementState::isClickable);
+
+        assertEquals(calls.get(), 3);
+        assertTrue(states.get("searchIcon").isClickable());
+    }
+
+    @Test(expectedExceptions = TimeoutException.class)
+    public void waitForElementStatesTimesOutWhenEveryQueryFails() {
+        new CommonActions(driver(new AtomicInteger(), Integer.MAX_VALUE))
+                .waitForElementStates(Map.of("searchIcon", By.id("search")), ElementState::isClickable);
+    }
+
+    @Test(expectedExceptions = JavascriptException.class)
+    public void queryElementStatesPropagatesScriptErrors() {
+        new CommonActions(driver(new AtomicInteger(), 1)).queryElementStates(Map.of("searchIcon", By.id("search")));
+    }
+
+    @Test
+    public void stateScriptHandlesEveryLocatorStrategy() {
+        for (By locator : List.of(By.id("search"), By.name("search"), By.className("search"),
+                By.cssSelector("#search"), By.xpath("//button"), By.tagName("button"), By.linkText("Search"),
+                By.partialLinkText("Sea"))) {
+            String using = ((By.Remotable) locator).getRemoteParameters().using();
+            assertTrue(CommonActions.ELEMENT_STATES_SCRIPT.contains("case '" + using + "'"),
+                    "No case for " + using + " (" + locator + ")");
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.crypto.utils;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.crypto.constants.Constants;
+import com.crypto.utils.EventDrivenWait.Condition;
+
+public class EventDrivenWaitTest {
+
+    private int scriptTimeout;
+
+    @BeforeMethod
+    public void setScriptTimeout() {
+        scriptTimeout = Constants.SCRIPT_TIMEOUT;
+        Constants.SCRIPT_TIMEOUT = 2;
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreScriptTimeout() {
+        Constants.SCRIPT_TIMEOUT = scriptTimeout;
+    }
+
+    /*
+     * Driver whose async script answers with the given function of the
+     * script's timeout argument, recording each timeout
+     */
+    private static WebDriver driver(List<Long> timeouts, Function<Long, Object> answer) {
+        return (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(),
+                new Class<?>[] { WebDriver.class, JavascriptExecutor.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "executeAsyncScript":
+                        long timeout = (Long) ((Object[]) args[1])[2];
+                        timeouts.add(timeout);
+                        Thread.sleep(timeout);
+                        return answer.apply(timeout);
+                    default:
+                        return null;
+                    }
+                });
+    }
+
+    @Test
+    public void shortWaitIsOneScript() {
+        List<Long> timeouts = new ArrayList<>();
+        EventDrivenWait wait = new EventDrivenWait(driver(timeouts, t -> false));
+        assertFalse(wait.until(null, Condition.PAGE_READY, Duration.ofMillis(300)));
+        assertEquals(timeouts.size(), 1);
+        assertTrue(timeouts.get(0) <= 300);
+    }
+
+    @Test
+    public void longWaitRunsInChunksBelowTheScriptTimeout() {
+        List<Long> timeouts = new ArrayList<>();
+        EventDrivenWait wait = new EventDrivenWait(driver(timeouts, t -> false));
+        long start = System.nanoTime();
+        assertFalse(wait.until(null, Condition.PAGE_READY, Duration.ofMillis(3500)));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 3400);
+        assertEquals(timeouts.size(), 3);
+        for (long timeout : timeouts) {
+            assertTrue(timeout <= 1500, "Chunk of " + timeout + " ms");
+        }
+    }
+
+    @Test
+    public void laterChunkCanSucceed() {
+        List<Long> timeouts = new ArrayList<>();
+        EventDrivenWait wait = new EventDrivenWait(driver(timeouts, t -> timeouts.size() == 2));
+        assertTrue(wait.until(null, Condition.PAGE_READY, Duration.ofSeconds(10)));
+        assertEquals(timeouts.size(), 2);
+    }
+
+    @Test
+    public void driverWithoutScriptsFallsBackToPolling() {
+        WebDriver driver = (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(),
+                new Class<?>[] { WebDriver.class }, (proxy, method, args) -> null);
+        assertNull(new EventDrivenWait(driver).until(null, Condition.PAGE_READY, Duration.ofSeconds(1)));
+    }
+}
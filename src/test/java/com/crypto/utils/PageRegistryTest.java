@@ -0,0 +1,89 @@
+package com.crypto.utils;
+
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.openqa.selenium.WebDriver;
+import org.testng.annotations.Test;
+
+public class PageRegistryTest {
+
+    private static WebDriver driver() {
+        return (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(),
+                new Class<?>[] { WebDriver.class }, (proxy, method, args) -> switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> null;
+                });
+    }
+
+    private static final class Home {
+        private final Charts charts;
+
+        private Home(WebDriver driver) {
+            // Page that looks up another page while being built
+            this.charts = PageRegistry.get(driver, Charts.class, d -> new Charts());
+        }
+    }
+
+    private static final class Charts {
+    }
+
+    @Test
+    public void pageCanLookUpAnotherPageWhileBeingBuilt() {
+        WebDriver driver = driver();
+        try {
+            Home home = PageRegistry.get(driver, Home.class, Home::new);
+            assertSame(home.charts, PageRegistry.get(driver, Charts.class, d -> new Charts()));
+            assertSame(PageRegistry.get(driver, Home.class, Home::new), home);
+        } finally {
+            PageRegistry.remove(driver);
+        }
+    }
+
+    @Test
+    public void pagesArePerDriver() {
+        WebDriver first = driver();
+        WebDriver second = driver();
+        try {
+            assertNotSame(PageRegistry.get(first, Charts.class, d -> new Charts()),
+                    PageRegistry.get(second, Charts.class, d -> new Charts()));
+        } finally {
+            PageRegistry.remove(first);
+            PageRegistry.remove(second);
+        }
+    }
+
+    @Test
+    public void concurrentLookupsShareOnePage() throws Exception {
+        WebDriver driver = driver();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Charts>> lookups = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                lookups.add(pool.submit(() -> {
+                    start.await();
+                    return PageRegistry.get(driver, Charts.class, d -> new Charts());
+                }));
+            }
+            start.countDown();
+            Charts page = lookups.get(0).get();
+            for (Future<Charts> lookup : lookups) {
+                assertSame(lookup.get(), page);
+            }
+            assertSame(PageRegistry.get(driver, Charts.class, d -> new Charts()), page);
+        } finally {
+            pool.shutdownNow();
+            PageRegistry.remove(driver);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.crypto.utils;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.testng.annotations.Test;
+
+public class ScrollingRowIteratorTest {
+
+    /*
+     * Driver whose page script returns the given pages in turn, then the last
+     * one again
+     */
+    private static WebDriver driver(Deque<Map<String, Object>> pages) {
+        return (WebDriver) Proxy.newProxyInstance(WebDriver.class.getClassLoader(),
+                new Class<?>[] { WebDriver.class, JavascriptExecutor.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "executeAsyncScript":
+                        return pages.size() > 1 ? pages.pollFirst() : pages.peekFirst();
+                    default:
+                        return null;
+                    }
+                });
+    }
+
+    @SafeVarargs
+    private static Map<String, Object> page(double scrollTop, boolean canScroll, Map<String, Object>... rows) {
+        return Map.of("rows", Arrays.asList(rows), "canScroll", canScroll, "scrollTop", scrollTop);
+    }
+
+    private static Map<String, Object> indexedRow(long index) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("key", String.valueOf(index));
+        row.put("index", index);
+        row.put("cells", List.of(String.valueOf(index)));
+        return row;
+    }
+
+    private static Map<String, Object> textRow(String text) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("key", text);
+        row.put("index", null);
+        row.put("cells", List.of(text));
+        return row;
+    }
+
+    private static List<String> stream(Deque<Map<String, Object>> pages) {
+        List<String> rows = new ArrayList<>();
+        new ScrollingRowIterator(driver(pages), null, "[role=row]", null)
+                .forEachRemaining(row -> rows.add(row.get(0)));
+        return rows;
+    }
+
+    @Test
+    public void indexedRowsRenderedOnSeveralPagesAreReturnedOnce() {
+        Deque<Map<String, Object>> pages = new ArrayDeque<>(List.of(
+                page(0, true, indexedRow(1), indexedRow(2), indexedRow(3)),
+                page(64, true, indexedRow(2), indexedRow(3), indexedRow(4), indexedRow(5)),
+                page(128, false, indexedRow(4), indexedRow(5), indexedRow(6))));
+
+        assertEquals(stream(pages), List.of("1", "2", "3", "4", "5", "6"));
+    }
+
+    @Test
+    public void rowsWithoutIndexAreDeduplicatedByText() {
+        Deque<Map<String, Object>> pages = new ArrayDeque<>(List.of(
+                page(0, true, textRow("BTC"), textRow("ETH")),
+                page(64, true, textRow("ETH"), textRow("SOL")),
+                page(128, false, textRow("BTC"), textRow("SOL"), textRow("XRP"))));
+
+        assertEquals(stream(pages), List.of("BTC", "ETH", "SOL", "XRP"));
+    }
+
+    @Test
+    public void containerThatDoesNotScrollStops() {
+        // clientHeight 0: scrollTop never moves although more content is reported
+        Deque<Map<String, Object>> pages = new ArrayDeque<>(List.of(page(0, true, indexedRow(1)),
+                page(0, true, indexedRow(1))));
+
+        assertEquals(stream(pages), List.of("1"));
+    }
+
+    @Test
+    public void keyHashesTellSimilarKeysApart() {
+        assertEquals(ScrollingRowIterator.hash64("BTC\u0001101.5"), ScrollingRowIterator.hash64("BTC\u0001101.5"));
+        assertNotEquals(ScrollingRowIterator.hash64("BTC\u0001101.5"), ScrollingRowIterator.hash64("BTC\u0001101.6"));
+        assertNotEquals(ScrollingRowIterator.hash64("\u0100"), ScrollingRowIterator.hash64("\u0001"));
+    }
+}
@@ -0,0 +1,153 @@
+package com.crypto.utils.devtools;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.crypto.constants.Constants;
+
+public class NetworkTrackerTest {
+
+    private NetworkTracker tracker;
+
+    @BeforeMethod
+    public void setUp() {
+        tracker = new NetworkTracker();
+        tracker.onFrameNavigated(navigated("page", null, "loader-1", "", "https://example.test/"));
+        tracker.onFrameNavigated(navigated("chart", "page", "loader-2", "tradingview_1", "https://charts.test/"));
+    }
+
+    private static Map<String, Object> navigated(String frameId, String parentId, String loaderId, String name,
+            String url) {
+        Map<String, Object> frame = new HashMap<>();
+        frame.put("id", frameId);
+        frame.put("parentId", parentId);
+        frame.put("loaderId", loaderId);
+        frame.put("name", name);
+        frame.put("url", url);
+        return Map.of("frame", frame);
+    }
+
+    private static Map<String, Object> request(String requestId, String frameId, String loaderId) {
+        return Map.of("requestId", requestId, "frameId", frameId, "loaderId", loaderId, "type", "XHR", "timestamp",
+                1.0, "wallTime", 1.0, "request", Map.of("url", "https://example.test/" + requestId, "method", "GET"));
+    }
+
+    @Test
+    public void resetForgetsRequestsInFlight() {
+        tracker.onRequest(request("1", "page", "loader-1"));
+        assertFalse(tracker.waitForNetworkIdle(0, 50));
+
+        tracker.reset();
+        assertEquals(tracker.getInFlightCount(), 0);
+        assertTrue(tracker.waitForNetworkIdle(0, 50));
+    }
+
+    @Test
+    public void failedRequestIsNoLongerInFlight() {
+        tracker.onRequest(request("1", "page", "loader-1"));
+        tracker.onFinished(Map.of("requestId", "1", "timestamp", 2.0), "net::ERR_ABORTED");
+
+        assertEquals(tracker.getInFlightCount(), 0);
+        List<NetworkTracker.RequestRecord> requests = tracker.getRequests();
+        assertEquals(requests.size(), 1);
+        assertEquals(requests.get(0).getError(), "net::ERR_ABORTED");
+    }
+
+    @Test
+    public void navigationDropsRequestsOfThePreviousDocument() {
+        tracker.onRequest(request("old", "page", "loader-1"));
+        tracker.onRequest(request("new", "page", "loader-3"));
+        tracker.onFrameNavigated(navigated("page", null, "loader-3", "", "https://example.test/next"));
+
+        assertEquals(tracker.getInFlightCount(), 1);
+        assertEquals(tracker.getRequests().get(0).getError(), "superseded by navigation");
+    }
+
+    @Test
+    public void detachedFrameDropsItsRequests() {
+        tracker.onRequest(request("1", "chart", "loader-2"));
+        tracker.onFrameDetached(Map.of("frameId", "chart"));
+
+        assertEquals(tracker.getInFlightCount(), 0);
+        assertEquals(tracker.findFrameId("tradingview_1"), Optional.empty());
+    }
+
+    @Test
+    public void frameWaitIgnoresOtherFrames() {
+        tracker.onRequest(request("feed", "page", "loader-1"));
+        String chart = tracker.findFrameId("tradingview_1").orElseThrow();
+
+        assertTrue(tracker.waitForNetworkIdle(chart, 0, 50));
+        assertFalse(tracker.waitForNetworkIdle(0, 50));
+    }
+
+    @Test
+    public void frameWaitCountsNestedFrames() {
+        tracker.onRequest(request("1", "chart", "loader-2"));
+
+        assertEquals(tracker.getInFlightCount("chart"), 1);
+        assertEquals(tracker.getInFlightCount("page"), 1);
+        assertFalse(tracker.waitForNetworkIdle("page", 0, 50));
+    }
+
+    @Test
+    public void framesAreFoundByNameOrUrl() {
+        assertEquals(tracker.findFrameId("tradingview_1"), Optional.of("chart"));
+        assertEquals(tracker.findFrameId("charts.test"), Optional.of("chart"));
+        assertEquals(tracker.findFrameId(null), Optional.empty());
+    }
+
+    @Test
+    public void requestsThatNeverFinishGoStale() {
+        int staleSeconds = Constants.NETWORK_STALE_REQUEST_SECONDS;
+        Constants.NETWORK_STALE_REQUEST_SECONDS = 1;
+        try {
+            tracker.onRequest(request("1", "page", "loader-1"));
+            assertTrue(tracker.waitForNetworkIdle(0, 3000));
+            assertEquals(tracker.getRequests().get(0).getError(), "not finished after 1 s");
+        } finally {
+            Constants.NETWORK_STALE_REQUEST_SECONDS = staleSeconds;
+        }
+    }
+
+    @Test
+    public void streamMessagesDoNotKeepThePageBusy() throws InterruptedException {
+        tracker.onRequest(Map.of("requestId", "feed", "frameId", "page", "loaderId", "loader-1", "type", "WebSocket",
+                "timestamp", 1.0, "wallTime", 1.0, "request", Map.of("url", "wss://example.test/feed", "method",
+                        "GET")));
+        Thread feed = new Thread(() -> {
+            for (int i = 0; i < 40 && !Thread.currentThread().isInterrupted(); i++) {
+                tracker.onStreamActivity(Map.of("requestId", "feed"));
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        feed.start();
+        try {
+            // A message every 10 ms, never 100 ms of silence
+            assertTrue(tracker.waitForNetworkIdle(100, 300));
+            assertTrue(tracker.waitForNetworkIdle("page", 100, 300));
+        } finally {
+            feed.interrupt();
+            feed.join();
+        }
+
+        tracker.onStreamClosed(Map.of("requestId", "feed", "timestamp", 2.0));
+        List<NetworkTracker.RequestRecord> requests = tracker.getRequests();
+        assertEquals(requests.size(), 1);
+        assertEquals(requests.get(0).getType(), "WebSocket");
+        assertTrue(requests.get(0).getStreamMessages() > 0);
+    }
+}
@@ -0,0 +1,99 @@
+package com.crypto.utils.devtools;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.crypto.constants.Constants;
+
+public class ScreencastRecorderTest {
+
+    private int seconds;
+
+    @BeforeMethod
+    public void setWindow() {
+        seconds = Constants.SCREENCAST_SECONDS;
+        Constants.SCREENCAST_SECONDS = 10;
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreWindow() {
+        Constants.SCREENCAST_SECONDS = seconds;
+    }
+
+    private static byte[] frame(int id, int length) {
+        byte[] frame = new byte[length];
+        Arrays.fill(frame, (byte) id);
+        return frame;
+    }
+
+    /*
+     * Ids of the buffered frames, checking each frame is intact
+     */
+    private static List<Integer> ids(ScreencastRecorder recorder) {
+        return recorder.getFrames().stream().map(frame -> {
+            for (byte b : frame) {
+                assertEquals(b, frame[0], "Frame was overwritten");
+            }
+            return (int) frame[0];
+        }).toList();
+    }
+
+    @Test
+    public void keepsFramesOldestFirst() {
+        ScreencastRecorder recorder = new ScreencastRecorder(100);
+        recorder.append(frame(1, 10), 0);
+        recorder.append(frame(2, 20), 100);
+        recorder.append(frame(3, 30), 200);
+        assertEquals(ids(recorder), List.of(1, 2, 3));
+    }
+
+    @Test
+    public void wrapsAroundOverwritingTheOldestFrames() {
+        ScreencastRecorder recorder = new ScreencastRecorder(100);
+        recorder.append(frame(1, 30), 0);
+        recorder.append(frame(2, 30), 100);
+        recorder.append(frame(3, 30), 200);
+        // Does not fit in the last 10 bytes, so it is written over frame 1
+        recorder.append(frame(4, 30), 300);
+        assertEquals(ids(recorder), List.of(2, 3, 4));
+
+        // Overlaps frames 2 and 3
+        recorder.append(frame(5, 40), 400);
+        assertEquals(ids(recorder), List.of(4, 5));
+    }
+
+    @Test
+    public void dropsFramesOutsideTheWindow() {
+        Constants.SCREENCAST_SECONDS = 1;
+        ScreencastRecorder recorder = new ScreencastRecorder(100);
+        recorder.append(frame(1, 10), 0);
+        recorder.append(frame(2, 10), 500);
+        recorder.append(frame(3, 10), 1200);
+        assertEquals(ids(recorder), List.of(2, 3));
+    }
+
+    @Test
+    public void dropsFramesLargerThanTheBuffer() {
+        ScreencastRecorder recorder = new ScreencastRecorder(100);
+        recorder.append(frame(1, 10), 0);
+        recorder.append(frame(2, 101), 100);
+        assertEquals(ids(recorder), List.of(1));
+    }
+
+    @Test
+    public void dumpOfAnEmptyBufferIsEmpty() throws IOException {
+        ScreencastRecorder recorder = new ScreencastRecorder(100);
+        recorder.append(frame(1, 10), 0);
+        recorder.clear();
+        assertEquals(recorder.getFrameCount(), 0);
+        assertTrue(recorder.dumpGif().isEmpty());
+    }
+}
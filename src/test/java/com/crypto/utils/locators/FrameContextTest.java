@@ -0,0 +1,100 @@
+package com.crypto.utils.locators;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class FrameContextTest {
+
+    private WebDriver driver;
+
+    /*
+     * Only identity matters to the frame context, so the driver and elements
+     * are bare proxies
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> type.getSimpleName();
+                default -> null;
+                });
+    }
+
+    @BeforeMethod
+    public void setUp() {
+        driver = stub(WebDriver.class);
+        FrameContext.resetStats();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        FrameContext.remove(driver);
+    }
+
+    @Test
+    public void unknownDriverIsAtTheTopLevelDocument() {
+        assertTrue(FrameContext.isTopLevel(driver));
+        assertTrue(FrameContext.isAt(driver, List.of()));
+        assertEquals(FrameContext.getPath(driver), List.of());
+        assertNull(FrameContext.summarize());
+    }
+
+    @Test
+    public void enteringAndExitingFollowsThePath() {
+        FrameContext.entered(driver, "chart", null, 1000);
+        FrameContext.entered(driver, "dialog", null, 1000);
+        assertTrue(FrameContext.isAt(driver, List.of("chart", "dialog")));
+
+        FrameContext.exitedToParent(driver, 1000);
+        assertEquals(FrameContext.getPath(driver), List.of("chart"));
+
+        FrameContext.exitedToTop(driver, 1000);
+        assertTrue(FrameContext.isTopLevel(driver));
+    }
+
+    @Test
+    public void frameElementsAreKeptUntilReset() {
+        WebElement chart = stub(WebElement.class);
+        FrameContext.entered(driver, "chart", chart, 1000);
+        FrameContext.exitedToTop(driver, 1000);
+        assertSame(FrameContext.getFrameElement(driver, List.of("chart")), chart);
+
+        FrameContext.reset(driver);
+        assertNull(FrameContext.getFrameElement(driver, List.of("chart")));
+        assertTrue(FrameContext.isTopLevel(driver));
+    }
+
+    @Test
+    public void sameNameIsNotTheSameFrame() {
+        WebElement first = stub(WebElement.class);
+        WebElement second = stub(WebElement.class);
+        FrameContext.entered(driver, "tradingview", first, 1000);
+
+        assertTrue(FrameContext.isInFrame(driver, first));
+        assertFalse(FrameContext.isInFrame(driver, second));
+    }
+
+    @Test
+    public void summaryCountsSwitchesAndSkips() {
+        FrameContext.entered(driver, "chart", null, 2_000_000);
+        FrameContext.exitedToTop(driver, 2_000_000);
+        FrameContext.skipped();
+
+        String summary = FrameContext.summarize();
+        assertTrue(summary.startsWith("Frame switches: 2 performed in 4 ms, 1 skipped"), summary);
+    }
+}
@@ -0,0 +1,43 @@
+package com.crypto.utils.locators;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+
+import org.openqa.selenium.By;
+import org.testng.annotations.Test;
+
+public class PageFrameTest {
+
+    private static final PageFrame CHART = new PageFrame("chart", By.name("chart"));
+    private static final PageFrame DIALOG = new PageFrame("dialog", By.id("dialog"), CHART);
+
+    @Test
+    public void topHasAnEmptyPath() {
+        assertTrue(PageFrame.TOP.isTop());
+        assertEquals(PageFrame.TOP.getPath(), List.of());
+        assertEquals(PageFrame.TOP.toString(), "top");
+    }
+
+    @Test
+    public void framesDefaultToTheTopLevelDocument() {
+        assertSame(CHART.getParent(), PageFrame.TOP);
+        assertFalse(CHART.isTop());
+        assertEquals(CHART.getPath(), List.of("chart"));
+    }
+
+    @Test
+    public void nestedFramesExtendTheParentPath() {
+        assertEquals(DIALOG.getPath(), List.of("chart", "dialog"));
+        assertEquals(DIALOG.toString(), "chart > dialog");
+        assertEquals(DIALOG.getLocator(), By.id("dialog"));
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void pathIsImmutable() {
+        DIALOG.getPath().add("other");
+    }
+}
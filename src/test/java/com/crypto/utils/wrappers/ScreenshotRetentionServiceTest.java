@@ -0,0 +1,96 @@
+package com.crypto.utils.wrappers;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.crypto.constants.Constants;
+import com.crypto.utils.wrappers.ScreenshotRetentionService.Entry;
+
+public class ScreenshotRetentionServiceTest {
+
+    private static final long NOW = System.currentTimeMillis();
+
+    private int retentionDays;
+    private int failureRetentionDays;
+
+    @BeforeMethod
+    public void setRetentionDays() {
+        retentionDays = Constants.SCREENSHOT_RETENTION_DAYS;
+        failureRetentionDays = Constants.SCREENSHOT_FAILURE_RETENTION_DAYS;
+        Constants.SCREENSHOT_RETENTION_DAYS = 7;
+        Constants.SCREENSHOT_FAILURE_RETENTION_DAYS = 30;
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void restoreRetentionDays() {
+        Constants.SCREENSHOT_RETENTION_DAYS = retentionDays;
+        Constants.SCREENSHOT_FAILURE_RETENTION_DAYS = failureRetentionDays;
+    }
+
+    private static Entry entry(String path, long bytes, long daysAgo, boolean failure) {
+        return new Entry(path, bytes, NOW - TimeUnit.DAYS.toMillis(daysAgo), failure);
+    }
+
+    private static List<String> paths(List<Entry> entries) {
+        return entries.stream().map(Entry::getPath).collect(Collectors.toList());
+    }
+
+    @Test
+    public void evictsLeastRecentlyReferencedFirst() {
+        List<Entry> candidates = new ArrayList<>(List.of(entry("b", 100, 2, false), entry("a", 100, 3, false),
+                entry("c", 100, 1, false)));
+
+        assertEquals(paths(ScreenshotRetentionService.selectForEviction(candidates, 300, 3, 150, 0)),
+                List.of("a", "b"));
+    }
+
+    @Test
+    public void evictsInformationalBeforeFailureScreenshots() {
+        List<Entry> candidates = new ArrayList<>(List.of(entry("failure", 100, 5, true), entry("info", 100, 1, false)));
+
+        assertEquals(paths(ScreenshotRetentionService.selectForEviction(candidates, 200, 2, 0, 1)),
+                List.of("info"));
+    }
+
+    @Test
+    public void stopsOnceBothBudgetsAreMet() {
+        List<Entry> candidates = new ArrayList<>(List.of(entry("large", 1000, 3, false), entry("small-1", 10, 2, false),
+                entry("small-2", 10, 1, false)));
+
+        // Size is met after the first file, count only after the second
+        assertEquals(paths(ScreenshotRetentionService.selectForEviction(candidates, 1020, 3, 500, 1)),
+                List.of("large", "small-1"));
+    }
+
+    @Test
+    public void withinBudgetEvictsNothing() {
+        List<Entry> candidates = new ArrayList<>(List.of(entry("a", 100, 3, false)));
+
+        assertTrue(ScreenshotRetentionService.selectForEviction(candidates, 100, 1, 1000, 10).isEmpty());
+        assertTrue(ScreenshotRetentionService.selectForEviction(candidates, 100, 1, 0, 0).isEmpty());
+    }
+
+    @Test
+    public void failureScreenshotsAreKeptLonger() {
+        assertTrue(entry("info", 100, 8, false).isExpired(NOW));
+        assertFalse(entry("info", 100, 6, false).isExpired(NOW));
+        assertFalse(entry("failure", 100, 8, true).isExpired(NOW));
+        assertTrue(entry("failure", 100, 31, true).isExpired(NOW));
+    }
+
+    @Test
+    public void zeroRetentionDaysNeverExpire() {
+        Constants.SCREENSHOT_RETENTION_DAYS = 0;
+        assertFalse(entry("info", 100, 365, false).isExpired(NOW));
+    }
+}
@@ -0,0 +1,135 @@
+package com.crypto.utils.wrappers;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.testng.annotations.Test;
+
+public class ScreenshotStoreTest {
+
+    /*
+     * Bars of random brightness, with some pixel noise and an optional caret
+     * like a blinking text cursor
+     */
+    private static byte[] page(long layoutSeed, long noiseSeed, boolean caret) throws IOException {
+        BufferedImage image = new BufferedImage(640, 480, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        Random layout = new Random(layoutSeed);
+        for (int x = 0; x < 640; x += 40) {
+            int grey = layout.nextInt(256);
+            graphics.setColor(new Color(grey, grey, grey));
+            graphics.fillRect(x, 0, 40, 480);
+        }
+        if (caret) {
+            graphics.setColor(Color.BLACK);
+            graphics.fillRect(300, 200, 2, 18);
+        }
+        graphics.dispose();
+        Random noise = new Random(noiseSeed);
+        for (int i = 0; i < 200; i++) {
+            image.setRGB(noise.nextInt(640), noise.nextInt(480), noise.nextInt(0xffffff));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static int distance(byte[] first, byte[] second) {
+        return Long.bitCount(ScreenshotStore.differenceHash(first) ^ ScreenshotStore.differenceHash(second));
+    }
+
+    @Test
+    public void sameImageHashesTheSame() throws IOException {
+        byte[] image = page(1, 1, false);
+        assertEquals(ScreenshotStore.differenceHash(image), ScreenshotStore.differenceHash(image.clone()));
+    }
+
+    @Test
+    public void smallChangesStayClose() throws IOException {
+        assertTrue(distance(page(1, 1, false), page(1, 2, true)) <= 4);
+    }
+
+    @Test
+    public void differentPagesAreFarApart() throws IOException {
+        assertTrue(distance(page(1, 1, false), page(2, 1, false)) > 10);
+    }
+
+    @Test
+    public void flatAndUndecodableImagesHashToZero() throws IOException {
+        BufferedImage flat = new BufferedImage(320, 200, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(flat, "png", out);
+
+        assertEquals(ScreenshotStore.differenceHash(out.toByteArray()), 0L);
+        assertEquals(ScreenshotStore.differenceHash(new byte[] { 1, 2, 3 }), 0L);
+    }
+
+    @Test
+    public void thumbnailHashesLikeTheFullImage() throws IOException {
+        // Why thumbnails are stored without near-duplicate matching
+        BufferedImage full = ImageIO.read(new ByteArrayInputStream(page(3, 3, false)));
+        BufferedImage thumbnail = new BufferedImage(160, 120, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        graphics.drawImage(full, 0, 0, 160, 120, null);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(thumbnail, "png", out);
+
+        assertTrue(distance(page(3, 3, false), out.toByteArray()) <= 2);
+    }
+
+    @Test
+    public void onlyOneConcurrentWriteOfAnImageCountsAsNew() throws Exception {
+        Path root = Files.createTempDirectory("store");
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            byte[] image = page(4, 4, false);
+            for (int round = 0; round < 20; round++) {
+                Path file = root.resolve("ab").resolve("cd").resolve("image-" + round + ".png");
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> writes = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    writes.add(pool.submit(() -> {
+                        start.await();
+                        return ScreenshotStore.write(file, image);
+                    }));
+                }
+                start.countDown();
+                int written = 0;
+                for (Future<Boolean> write : writes) {
+                    written += write.get() ? 1 : 0;
+                }
+                assertEquals(written, 1, "Round " + round);
+                assertEquals(Files.readAllBytes(file), image);
+            }
+            try (Stream<Path> files = Files.list(root.resolve("ab").resolve("cd"))) {
+                assertEquals(files.count(), 20L, "No temporary files are left");
+            }
+        } finally {
+            pool.shutdownNow();
+            try (Stream<Path> files = Files.walk(root)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package config;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+
+import org.testng.annotations.Test;
+
+public class ConfigSnapshotTest {
+
+    private static ConfigSnapshot load(Map<String, String> env, Properties properties) throws IOException {
+        Path file = Files.createTempFile("config", ".ini");
+        try {
+            Files.writeString(file, "[browser]\nheadless=false\nwindow-size=1280\n\n[browser-pool]\nsize=2\n");
+            return ConfigSnapshot.load(file, env, properties);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static Properties properties(String... namesAndValues) {
+        Properties properties = new Properties();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            properties.setProperty(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return properties;
+    }
+
+    @Test
+    public void readsTheFile() throws IOException {
+        ConfigSnapshot snapshot = load(Map.of(), new Properties());
+        assertEquals(snapshot.get("browser", "headless"), "false");
+        assertEquals(snapshot.get("browser-pool", "size"), "2");
+        assertNull(snapshot.get("browser", "missing"));
+        assertEquals(snapshot.get("missing", "headless", "default"), "default");
+    }
+
+    @Test
+    public void systemPropertyWinsOverEnvironment() throws IOException {
+        ConfigSnapshot snapshot = load(Map.of("BROWSER_HEADLESS", "env"), properties("browser.headless", "property"));
+        assertEquals(snapshot.get("browser", "headless"), "property");
+    }
+
+    @Test
+    public void environmentOverridesHyphenatedNames() throws IOException {
+        ConfigSnapshot snapshot = load(Map.of("BROWSER_WINDOW_SIZE", "1920", "BROWSER_POOL_SIZE", "4"),
+                new Properties());
+        assertEquals(snapshot.get("browser", "window-size"), "1920");
+        // Longest section prefix wins, so this is not browser/pool_size
+        assertEquals(snapshot.get("browser-pool", "size"), "4");
+        assertNull(snapshot.get("browser", "pool_size"));
+    }
+
+    @Test
+    public void overridesAddKeysMissingFromTheFile() throws IOException {
+        ConfigSnapshot snapshot = load(Map.of("BROWSER_LOCALE", "en"), properties("browser-pool.timeout", "30"));
+        assertEquals(snapshot.get("browser", "locale"), "en");
+        assertEquals(snapshot.get("browser-pool", "timeout"), "30");
+    }
+
+    @Test
+    public void overridesDoNotAddSections() throws IOException {
+        ConfigSnapshot snapshot = load(Map.of("PATH", "/bin"), properties("java.version", "17"));
+        assertNull(snapshot.get("java", "version"));
+        assertEquals(snapshot.getSection("path"), Map.of());
+    }
+}